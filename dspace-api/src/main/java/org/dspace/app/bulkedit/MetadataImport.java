@@ -15,6 +15,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,6 +24,7 @@ import java.util.UUID;
 import javax.annotation.Nullable;
 
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.util.RelationshipUtils;
@@ -55,6 +57,11 @@ import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.IndexingService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.handle.factory.HandleServiceFactory;
@@ -130,6 +137,11 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     protected ArrayList<String> relationValidationErrors = new ArrayList<>();
 
+    /**
+     * The items changed by the import, to be indexed once their changes are committed.
+     */
+    protected Set<UUID> itemsToIndex = new LinkedHashSet<>();
+
     /**
      * Counter of rows processed in a CSV.
      */
@@ -162,6 +174,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                                                                                    .getAuthorityValueService();
     protected ConfigurationService configurationService
             = DSpaceServicesFactory.getInstance().getConfigurationService();
+    protected IndexingService indexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServiceByName(IndexingService.class.getName(), IndexingService.class);
+    protected IndexObjectFactoryFactory indexObjectFactoryFactory = IndexObjectFactoryFactory.getInstance();
 
     /**
      * Create an instance of the metadata importer. Requires a context and an array of CSV lines
@@ -336,6 +351,10 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
     /**
      * Run an import. The import can either be read-only to detect changes, or
      * can write changes as it goes.
+     * <p>
+     * Changes are committed every bulkedit.change.commit.count lines. The
+     * changed items are not indexed when their batch is committed, but once at
+     * the end of the import, also when it fails part way.
      *
      * @param change         Whether or not to write the changes to the database
      * @param useWorkflow    Whether the workflows should be used when creating new items
@@ -349,6 +368,56 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                                           boolean workflowNotify,
                                           boolean useTemplate)
         throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        if (!change) {
+            return importLines(c, false, useWorkflow, workflowNotify, useTemplate);
+        }
+
+        itemsToIndex.clear();
+        c.setIndexingDeferred(true);
+        List<BulkEditChange> changes;
+        boolean completed = false;
+        try {
+            changes = importLines(c, true, useWorkflow, workflowNotify, useTemplate);
+            completed = true;
+        } finally {
+            c.setIndexingDeferred(false);
+            if (!completed) {
+                // Only index the batches which have been committed, without hiding the failure
+                try {
+                    c.rollback();
+                    indexItems(c);
+                } catch (SQLException | IOException | SearchServiceException | RuntimeException e) {
+                    log.error("Unable to index the items changed before the import failed", e);
+                }
+            }
+        }
+        try {
+            indexItems(c);
+        } catch (SearchServiceException e) {
+            throw new IOException("Unable to index the changed items: " + e.getMessage(), e);
+        }
+        return changes;
+    }
+
+    /**
+     * Compare the lines of the CSV with the items, and optionally change the
+     * items. The lines are processed in batches of bulkedit.change.commit.count
+     * lines: the existing items of a batch are loaded at once, and removed
+     * from the context once the batch is done, so the memory use doesn't grow
+     * with the size of the CSV.
+     *
+     * @param change         Whether or not to write the changes to the database
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @return An array of BulkEditChange elements representing the items that have changed
+     * @throws MetadataImportException  if something goes wrong
+     */
+    protected List<BulkEditChange> importLines(Context c, boolean change,
+                                               boolean useWorkflow,
+                                               boolean workflowNotify,
+                                               boolean useTemplate)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
         // Store the changes
         ArrayList<BulkEditChange> changes = new ArrayList<BulkEditChange>();
 
@@ -356,12 +425,24 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         Context.Mode originalMode = c.getCurrentMode();
         c.setMode(Context.Mode.BATCH_EDIT);
 
+        int commitCount = Math.max(1, configurationService.getIntProperty("bulkedit.change.commit.count", 100));
+        // Target references to other items are only used in relation columns, the lines only have to be tracked
+        // to resolve them when there are such columns
+        boolean hasRelations = hasRelationColumns();
+        List<Item> batchItems = new ArrayList<>();
+
         // Process each change
         rowCount = 1;
         for (DSpaceCSVLine line : toImport) {
-            // Resolve target references to other items
-            populateRefAndRowMap(line, line.getID());
-            line = resolveEntityRefs(c, line);
+            if ((rowCount - 1) % commitCount == 0) {
+                prefetchItems(c, toImport.subList(rowCount - 1, Math.min(rowCount - 1 + commitCount,
+                                                                         toImport.size())));
+            }
+            if (hasRelations) {
+                // Resolve target references to other items
+                populateRefAndRowMap(line, line.getID());
+                line = resolveEntityRefs(c, line);
+            }
             // Get the DSpace item to compare with
             UUID id = line.getID();
 
@@ -459,6 +540,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                 // Only record if changes have been made
                 if (whatHasChanged.hasChanges()) {
                     changes.add(whatHasChanged);
+                    if (change) {
+                        itemsToIndex.add(item.getID());
+                    }
                 }
             } else {
                 // This is marked as a new item, so no need to compare
@@ -592,23 +676,33 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                     }
 
                     whatHasChanged.setItem(item);
+                    itemsToIndex.add(item.getID());
                 }
 
                 // Record the changes
                 changes.add(whatHasChanged);
             }
 
-            if (change && (rowCount % configurationService.getIntProperty("bulkedit.change.commit.count", 100) == 0)) {
-                c.commit();
-                handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+            if (item != null) {
+                batchItems.add(item);
+            }
+            if (rowCount % commitCount == 0) {
+                if (change) {
+                    c.commit();
+                    handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+                }
+                uncacheItems(c, batchItems);
+            }
+            if (hasRelations) {
+                populateRefAndRowMap(line, item == null ? null : item.getID());
             }
-            populateRefAndRowMap(line, item == null ? null : item.getID());
             // keep track of current rows processed
             rowCount++;
         }
         if (change) {
             c.commit();
         }
+        uncacheItems(c, batchItems);
 
         c.setMode(Context.Mode.READ_ONLY);
 
@@ -814,6 +908,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                 for (RelationshipType relationshipType : relationshipTypeList) {
                     for (Relationship relationship : relationshipService
                         .findByItemAndRelationshipType(c, item, relationshipType)) {
+                        // the virtual metadata of the related item changes as well
+                        itemsToIndex.add(relationship.getLeftItem().getID());
+                        itemsToIndex.add(relationship.getRightItem().getID());
                         relationshipService.delete(c, relationship);
                         relationshipService.update(c, relationship);
                     }
@@ -931,6 +1028,8 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
             c, leftItem, rightItem, foundRelationshipType, -1, -1
         );
         relationshipService.update(c, persistedRelationship);
+        itemsToIndex.add(leftItem.getID());
+        itemsToIndex.add(rightItem.getID());
     }
 
     /**
@@ -1359,6 +1458,71 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         return changeCounter;
     }
 
+    /**
+     * Whether the CSV has relation columns, which may use target references to other lines
+     */
+    private boolean hasRelationColumns() {
+        for (String heading : csv.getHeadings()) {
+            if (heading.split("\\.")[0].equalsIgnoreCase(MetadataSchemaEnum.RELATION.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Load the existing items of the given lines, with their metadata, handles and collections, using a few set
+     * based queries. The items are then found in the context when their lines are processed.
+     */
+    private void prefetchItems(Context c, List<DSpaceCSVLine> lines) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        for (DSpaceCSVLine line : lines) {
+            if (line.getID() != null) {
+                ids.add(line.getID());
+            }
+        }
+        itemService.findByIdsForIndexing(c, ids);
+    }
+
+    /**
+     * Remove the items of a processed batch from the context. Their handles have been loaded already, so they can
+     * still be displayed afterwards.
+     */
+    private void uncacheItems(Context c, List<Item> items) throws SQLException {
+        for (Item item : items) {
+            c.uncacheEntity(item);
+        }
+        items.clear();
+    }
+
+    /**
+     * Index the items changed by the import, including the workspace or workflow items of new items and the items
+     * on the other side of changed relationships, and commit the index once. The changed items which no longer
+     * exist (e.g. expunged) are removed from the index.
+     */
+    private void indexItems(Context c) throws SQLException, IOException, SearchServiceException {
+        if (itemsToIndex.isEmpty()) {
+            return;
+        }
+        handler.logInfo("Indexing " + itemsToIndex.size() + " changed items");
+        int batchSize = Math.max(1, configurationService.getIntProperty("bulkedit.change.commit.count", 100));
+        for (List<UUID> ids : ListUtils.partition(new ArrayList<>(itemsToIndex), batchSize)) {
+            Set<UUID> missing = new HashSet<>(ids);
+            for (Item item : itemService.findByIdsForIndexing(c, ids)) {
+                missing.remove(item.getID());
+                for (IndexableObject indexableObject : indexObjectFactoryFactory.getIndexableObjects(c, item)) {
+                    indexingService.indexContent(c, indexableObject, true, false);
+                }
+                c.uncacheEntity(item);
+            }
+            for (UUID id : missing) {
+                indexingService.unIndexContent(c, IndexableItem.TYPE + "-" + id, false);
+            }
+        }
+        indexingService.commit();
+        itemsToIndex.clear();
+    }
+
     /**
      * is the field is defined as authority controlled
      */
@@ -8,6 +8,7 @@
 package org.dspace.app.itemexport;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -15,20 +16,37 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.mail.MessagingException;
@@ -36,7 +54,9 @@ import javax.mail.MessagingException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.itemexport.service.ItemExportService;
+import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
+import org.dspace.content.BitstreamFormat;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -59,6 +79,7 @@ import org.dspace.eperson.service.EPersonService;
 import org.dspace.handle.service.HandleService;
 import org.dspace.scripts.handler.DSpaceRunnableHandler;
 import org.dspace.services.ConfigurationService;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -89,6 +110,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class ItemExportServiceImpl implements ItemExportService {
     protected final int SUBDIR_LIMIT = 0;
 
+    /**
+     * The formats which are compressed already, unless configured otherwise
+     */
+    protected static final String[] DEFAULT_UNCOMPRESSED_MIMETYPES = {
+        "application/pdf", "application/zip", "application/gzip", "application/x-gzip", "application/x-7z-compressed",
+        "application/epub+zip", "application/vnd.openxmlformats-officedocument.*", "image/jpeg", "image/png",
+        "image/gif", "image/jp2", "image/webp", "audio/*", "video/*"
+    };
+
     @Autowired(required = true)
     protected BitstreamService bitstreamService;
     @Autowired(required = true)
@@ -101,6 +131,10 @@ public class ItemExportServiceImpl implements ItemExportService {
     protected HandleService handleService;
     @Autowired(required = true)
     protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected AuthorizeService authorizeService;
+    @Autowired(required = true)
+    protected BitstreamStorageService bitstreamStorageService;
 
     /**
      * log4j logger
@@ -109,6 +143,11 @@ public class ItemExportServiceImpl implements ItemExportService {
 
     private DSpaceRunnableHandler handler;
 
+    /**
+     * Runs the downloadable exports, see org.dspace.app.itemexport.download.*
+     */
+    private ThreadPoolExecutor downloadExecutor;
+
     protected ItemExportServiceImpl() {
 
     }
@@ -199,16 +238,23 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, Item i, File destDir, boolean migrate)
         throws Exception {
+        // Save each of the schemas into it's own metadata file
+        for (String schema : getMetadataSchemas(i)) {
+            writeMetadata(c, schema, i, destDir, migrate);
+        }
+    }
+
+    /**
+     * @param i DSpace Item
+     * @return the names of the schemas of the item's metadata
+     */
+    protected Set<String> getMetadataSchemas(Item i) {
         Set<String> schemas = new HashSet<>();
         List<MetadataValue> dcValues = itemService.getMetadata(i, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
         for (MetadataValue metadataValue : dcValues) {
             schemas.add(metadataValue.getMetadataField().getMetadataSchema().getName());
         }
-
-        // Save each of the schemas into it's own metadata file
-        for (String schema : schemas) {
-            writeMetadata(c, schema, i, destDir, migrate);
-        }
+        return schemas;
     }
 
     /**
@@ -223,101 +269,117 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, String schema, Item i,
                                  File destDir, boolean migrate) throws Exception {
-        String filename;
-        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
-            filename = "dublin_core.xml";
-        } else {
-            filename = "metadata_" + schema + ".xml";
-        }
-
-        File outFile = new File(destDir, filename);
+        File outFile = new File(destDir, getMetadataFileName(schema));
 
         logInfo("Attempting to create file " + outFile);
 
         if (outFile.createNewFile()) {
-            BufferedOutputStream out = new BufferedOutputStream(
-                new FileOutputStream(outFile));
-
-            List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
-                                                                      Item.ANY);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+                writeMetadata(c, schema, i, out, migrate);
+            }
+        } else {
+            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        }
+    }
 
-            // XML preamble
-            byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
-                .getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * @param schema the short name of a metadata schema
+     * @return the name of the file holding the item's metadata in that schema
+     */
+    protected String getMetadataFileName(String schema) {
+        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
+            return "dublin_core.xml";
+        }
+        return "metadata_" + schema + ".xml";
+    }
 
-            String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
-            utf8 = dcTag.getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * output the item's metadata in one schema as dublin core XML
+     *
+     * @param c       DSpace context
+     * @param schema  schema
+     * @param i       DSpace Item
+     * @param out     the stream to write to, which is left open
+     * @param migrate Whether to use the migrate option or not
+     * @throws Exception if error
+     */
+    protected void writeMetadata(Context c, String schema, Item i,
+                                 OutputStream out, boolean migrate) throws Exception {
+        List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
+                                                                  Item.ANY);
 
-            String dateIssued = null;
-            String dateAccessioned = null;
+        // XML preamble
+        byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
+            .getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-            for (MetadataValue dcv : dcorevalues) {
-                MetadataField metadataField = dcv.getMetadataField();
-                String qualifier = metadataField.getQualifier();
+        String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
+        utf8 = dcTag.getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-                if (qualifier == null) {
-                    qualifier = "none";
-                }
+        String dateIssued = null;
+        String dateAccessioned = null;
 
-                String language = dcv.getLanguage();
+        for (MetadataValue dcv : dcorevalues) {
+            MetadataField metadataField = dcv.getMetadataField();
+            String qualifier = metadataField.getQualifier();
 
-                if (language != null) {
-                    language = " language=\"" + language + "\"";
-                } else {
-                    language = "";
-                }
+            if (qualifier == null) {
+                qualifier = "none";
+            }
 
-                utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
-                    + "qualifier=\"" + qualifier + "\""
-                    + language + ">"
-                    + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
-
-                if (!migrate ||
-                    (migrate && !(
-                        ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
-                            ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
-                                (dcv.getValue() != null && dcv.getValue().startsWith(
-                                    handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
-                            ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
-                    out.write(utf8, 0, utf8.length);
-                }
+            String language = dcv.getLanguage();
 
-                // Store the date issued and accession to see if they are different
-                // because we need to keep date.issued if they are, when migrating
-                if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
-                    dateIssued = dcv.getValue();
-                }
-                if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
-                    dateAccessioned = dcv.getValue();
-                }
+            if (language != null) {
+                language = " language=\"" + language + "\"";
+            } else {
+                language = "";
             }
 
-            // When migrating, only keep date.issued if it is different to date.accessioned
-            if (migrate &&
-                (dateIssued != null) &&
-                (dateAccessioned != null) &&
-                !dateIssued.equals(dateAccessioned)) {
-                utf8 = ("  <dcvalue element=\"date\" "
-                    + "qualifier=\"issued\">"
-                    + Utils.addEntities(dateIssued) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
+            utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
+                + "qualifier=\"" + qualifier + "\""
+                + language + ">"
+                + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+
+            if (!migrate ||
+                (migrate && !(
+                    ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
+                        ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
+                            (dcv.getValue() != null && dcv.getValue().startsWith(
+                                handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
+                        ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
                 out.write(utf8, 0, utf8.length);
             }
 
-            utf8 = "</dublin_core>\n".getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+            // Store the date issued and accession to see if they are different
+            // because we need to keep date.issued if they are, when migrating
+            if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
+                dateIssued = dcv.getValue();
+            }
+            if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
+                dateAccessioned = dcv.getValue();
+            }
+        }
 
-            out.close();
-        } else {
-            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        // When migrating, only keep date.issued if it is different to date.accessioned
+        if (migrate &&
+            (dateIssued != null) &&
+            (dateAccessioned != null) &&
+            !dateIssued.equals(dateAccessioned)) {
+            utf8 = ("  <dcvalue element=\"date\" "
+                + "qualifier=\"issued\">"
+                + Utils.addEntities(dateIssued) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+            out.write(utf8, 0, utf8.length);
         }
+
+        utf8 = "</dublin_core>\n".getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
     }
 
     /**
@@ -338,18 +400,28 @@ public class ItemExportServiceImpl implements ItemExportService {
         File outFile = new File(destDir, filename);
 
         if (outFile.createNewFile()) {
-            PrintWriter out = new PrintWriter(new FileWriter(outFile, StandardCharsets.UTF_8));
-
-            out.println(i.getHandle());
-
-            // close the contents file
-            out.close();
+            try (OutputStream out = new FileOutputStream(outFile)) {
+                writeHandle(i, out);
+            }
         } else {
             throw new Exception("Cannot create file " + filename + " in "
                                     + destDir);
         }
     }
 
+    /**
+     * Write the handle assigned to the item
+     *
+     * @param i   DSpace Item with a handle
+     * @param out the stream to write to, which is left open
+     * @throws IOException if error
+     */
+    protected void writeHandle(Item i, OutputStream out) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.println(i.getHandle());
+        writer.flush();
+    }
+
     /**
      * Create the 'collections' file.  List handles of all Collections which
      * contain this Item.  The "owning" Collection is listed first.
@@ -362,21 +434,35 @@ public class ItemExportServiceImpl implements ItemExportService {
             throws IOException {
         File outFile = new File(destDir, "collections");
         if (outFile.createNewFile()) {
-            try (PrintWriter out = new PrintWriter(new FileWriter(outFile))) {
-                String ownerHandle = item.getOwningCollection().getHandle();
-                out.println(ownerHandle);
-                for (Collection collection : item.getCollections()) {
-                    String collectionHandle = collection.getHandle();
-                    if (!collectionHandle.equals(ownerHandle)) {
-                        out.println(collectionHandle);
-                    }
-                }
+            try (OutputStream out = new FileOutputStream(outFile)) {
+                writeCollections(item, out);
             }
         } else {
             throw new IOException("Cannot create 'collections' in " + destDir);
         }
     }
 
+    /**
+     * List handles of all Collections which contain this Item, the "owning"
+     * Collection first.
+     *
+     * @param item list collections holding this Item.
+     * @param out the stream to write to, which is left open
+     * @throws IOException if error
+     */
+    protected void writeCollections(Item item, OutputStream out) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String ownerHandle = item.getOwningCollection().getHandle();
+        writer.println(ownerHandle);
+        for (Collection collection : item.getCollections()) {
+            String collectionHandle = collection.getHandle();
+            if (!collectionHandle.equals(ownerHandle)) {
+                writer.println(collectionHandle);
+            }
+        }
+        writer.flush();
+    }
+
     /**
      * Create both the bitstreams and the contents file. Any bitstreams that
      * were originally registered will be marked in the contents file as such.
@@ -403,24 +489,10 @@ public class ItemExportServiceImpl implements ItemExportService {
                 // bundles can have multiple bitstreams now...
                 List<Bitstream> bitstreams = bundle.getBitstreams();
 
-                String bundleName = bundle.getName();
-
                 for (Bitstream bitstream : bitstreams) {
                     String myName = bitstream.getName();
                     String oldName = myName;
 
-                    String description = bitstream.getDescription();
-                    if (!StringUtils.isEmpty(description)) {
-                        description = "\tdescription:" + description;
-                    } else {
-                        description = "";
-                    }
-
-                    String primary = "";
-                    if (bitstream.equals(bundle.getPrimaryBitstream())) {
-                        primary = "\tprimary:true ";
-                    }
-
                     int myPrefix = 1; // only used with name conflict
 
                     boolean isDone = false; // done when bitstream is finally
@@ -459,16 +531,7 @@ public class ItemExportServiceImpl implements ItemExportService {
                     }
 
                     // write the manifest file entry
-                    if (bitstreamService.isRegisteredBitstream(bitstream)) {
-                        out.println("-r -s " + bitstream.getStoreNumber()
-                                        + " -f " + myName +
-                                        "\tbundle:" + bundleName +
-                                        primary + description);
-                    } else {
-                        out.println(myName + "\tbundle:" + bundleName +
-                                        primary + description);
-                    }
-
+                    out.println(getContentsLine(bundle, bitstream, myName));
                 }
             }
 
@@ -479,30 +542,285 @@ public class ItemExportServiceImpl implements ItemExportService {
         }
     }
 
+    /**
+     * Describe a bitstream in the 'contents' file. Bitstreams that were
+     * originally registered are marked as such.
+     *
+     * @param bundle    the bundle of the bitstream
+     * @param bitstream the bitstream
+     * @param name      the name of the bitstream's file in the export
+     * @return the line of the 'contents' file
+     */
+    protected String getContentsLine(Bundle bundle, Bitstream bitstream, String name) {
+        String description = bitstream.getDescription();
+        if (!StringUtils.isEmpty(description)) {
+            description = "\tdescription:" + description;
+        } else {
+            description = "";
+        }
+
+        String primary = "";
+        if (bitstream.equals(bundle.getPrimaryBitstream())) {
+            primary = "\tprimary:true ";
+        }
+
+        if (bitstreamService.isRegisteredBitstream(bitstream)) {
+            return "-r -s " + bitstream.getStoreNumber() + " -f " + name +
+                "\tbundle:" + bundle.getName() + primary + description;
+        }
+        return name + "\tbundle:" + bundle.getName() + primary + description;
+    }
+
     @Override
     public void exportAsZip(Context context, Iterator<Item> items,
                             String destDirName, String zipFileName,
                             int seqStart, boolean migrate,
                             boolean excludeBitstreams) throws Exception {
-        String workDir = getExportWorkDirectory() +
-            System.getProperty("file.separator") +
-            zipFileName;
-
-        File wkDir = new File(workDir);
-        if (!wkDir.exists() && !wkDir.mkdirs()) {
-            logError("Unable to create working direcory");
-        }
-
         File dnDir = new File(destDirName);
         if (!dnDir.exists() && !dnDir.mkdirs()) {
             logError("Unable to create destination directory");
         }
 
-        // export the items using normal export method
-        exportItem(context, items, workDir, seqStart, migrate, excludeBitstreams);
+        // write the items straight into the archive, without a copy in the work directory
+        File tempFile = new File(dnDir, zipFileName + "_tmp");
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            exportItems(context, items, zip, "", seqStart, migrate, excludeBitstreams);
+        } catch (Exception e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+        Files.move(tempFile.toPath(), new File(dnDir, zipFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Write the items into an archive in the Simple Archive Format, reading
+     * the content of their bitstreams straight from the assetstore. When
+     * org.dspace.app.itemexport.threads is above 1, worker threads prepare
+     * the next items while the current one is written.
+     *
+     * @param c                 the DSpace context
+     * @param items             the items to export
+     * @param zip               the archive
+     * @param dir               the directory of the items in the archive, empty or ending with "/"
+     * @param seqStart          the sequence number of the first item
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams Whether to exclude bitstreams or not
+     * @throws Exception if error
+     */
+    protected void exportItems(Context c, Iterator<Item> items, ZipOutputStream zip, String dir,
+                               int seqStart, boolean migrate, boolean excludeBitstreams) throws Exception {
+        int threads = configurationService.getIntProperty("org.dspace.app.itemexport.threads", 1);
+        int sequenceNumber = seqStart;
+
+        logInfo("Beginning export");
+
+        if (threads <= 1) {
+            while (items.hasNext()) {
+                Item item = items.next();
+                if (item == null) {
+                    // deleted since the export was requested
+                    continue;
+                }
+                logInfo("Exporting item to " + sequenceNumber);
+                writeEntries(c, zip, dir + sequenceNumber + "/", getEntries(c, item, migrate, excludeBitstreams));
+                c.uncacheEntity(item);
+                sequenceNumber++;
+            }
+            return;
+        }
+
+        EPerson currentUser = c.getCurrentUser();
+        UUID userId = currentUser == null ? null : currentUser.getID();
+        boolean ignoreAuthorization = c.ignoreAuthorization();
+        // the items being prepared, in the order of the export
+        Deque<Future<List<ExportEntry>>> pending = new ArrayDeque<>();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            while (items.hasNext() || !pending.isEmpty()) {
+                if (items.hasNext() && pending.size() < threads * 2) {
+                    Item item = items.next();
+                    if (item == null) {
+                        continue;
+                    }
+                    UUID itemId = item.getID();
+                    c.uncacheEntity(item);
+                    Callable<List<ExportEntry>> task
+                        = () -> getEntries(itemId, userId, ignoreAuthorization, migrate, excludeBitstreams);
+                    pending.add(workers.submit(task));
+                } else {
+                    logInfo("Exporting item to " + sequenceNumber);
+                    writeEntries(c, zip, dir + sequenceNumber + "/", await(pending.remove()));
+                    sequenceNumber++;
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
 
-        // now zip up the export directory created above
-        zip(workDir, destDirName + System.getProperty("file.separator") + zipFileName);
+    /**
+     * Prepare the files of an item in a context owned by the current worker
+     * thread, with the permissions of the user of the export.
+     */
+    private List<ExportEntry> getEntries(UUID itemId, UUID userId, boolean ignoreAuthorization,
+                                         boolean migrate, boolean excludeBitstreams) throws Exception {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            if (userId != null) {
+                context.setCurrentUser(ePersonService.find(context, userId));
+            }
+            if (ignoreAuthorization) {
+                context.turnOffAuthorisationSystem();
+            }
+            Item item = itemService.find(context, itemId);
+            if (item == null) {
+                logWarn("Item " + itemId + " was deleted during the export");
+                return List.of();
+            }
+            return getEntries(context, item, migrate, excludeBitstreams);
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Prepare the files of an item in the Simple Archive Format. The metadata
+     * files are rendered in memory, the content of the bitstreams is only read
+     * from the assetstore when the entries are written.
+     *
+     * @param c                 the DSpace context
+     * @param item              the item being exported
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams Whether to exclude bitstreams or not
+     * @return the files of the item's directory
+     * @throws Exception if error
+     */
+    protected List<ExportEntry> getEntries(Context c, Item item, boolean migrate, boolean excludeBitstreams)
+        throws Exception {
+        List<ExportEntry> entries = new ArrayList<>();
+        logInfo("Exporting Item " + item.getID() +
+                    (item.getHandle() != null ? ", handle " + item.getHandle() : ""));
+
+        for (String schema : getMetadataSchemas(item)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeMetadata(c, schema, item, out, migrate);
+            entries.add(new ExportEntry(getMetadataFileName(schema), out.toByteArray()));
+        }
+        ByteArrayOutputStream collections = new ByteArrayOutputStream();
+        writeCollections(item, collections);
+        entries.add(new ExportEntry("collections", collections.toByteArray()));
+        if (!migrate && item.getHandle() != null) {
+            ByteArrayOutputStream handle = new ByteArrayOutputStream();
+            writeHandle(item, handle);
+            entries.add(new ExportEntry("handle", handle.toByteArray()));
+        }
+
+        // the names already taken in the item's directory
+        Set<String> names = new HashSet<>();
+        names.add("contents");
+        for (ExportEntry entry : entries) {
+            names.add(entry.getName());
+        }
+
+        ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(contents, StandardCharsets.UTF_8));
+        List<ExportEntry> bitstreamEntries = new ArrayList<>();
+        for (Bundle bundle : item.getBundles()) {
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                String name = bitstream.getName();
+                if (!excludeBitstreams) {
+                    // keep prepending numbers to the name until unique
+                    int prefix = 1;
+                    while (!names.add(name)) {
+                        name = prefix++ + "_" + bitstream.getName();
+                    }
+                    authorizeService.authorizeAction(c, bitstream, Constants.READ);
+                    bitstreamEntries.add(new ExportEntry(name.replace(File.separatorChar, '/'), bitstream,
+                                                         isCompressible(c, bitstream)));
+                }
+                out.println(getContentsLine(bundle, bitstream, name));
+            }
+        }
+        out.flush();
+        entries.add(new ExportEntry("contents", contents.toByteArray()));
+        entries.addAll(bitstreamEntries);
+        return entries;
+    }
+
+    /**
+     * Whether it is worth compressing the content of a bitstream, i.e. whether
+     * its format is not in org.dspace.app.itemexport.uncompressed.mimetypes.
+     *
+     * @param c         the DSpace context
+     * @param bitstream the bitstream
+     * @return false if the format of the bitstream is compressed already
+     * @throws SQLException if database error
+     */
+    protected boolean isCompressible(Context c, Bitstream bitstream) throws SQLException {
+        BitstreamFormat format = bitstream.getFormat(c);
+        String mimeType = format == null ? null : format.getMIMEType();
+        if (mimeType == null) {
+            return true;
+        }
+        String[] uncompressed = configurationService.getArrayProperty(
+            "org.dspace.app.itemexport.uncompressed.mimetypes", DEFAULT_UNCOMPRESSED_MIMETYPES);
+        for (String type : uncompressed) {
+            if (type.endsWith("/*") ? StringUtils.startsWithIgnoreCase(mimeType, type.substring(0, type.length() - 1))
+                : StringUtils.equalsIgnoreCase(mimeType, type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the files of an item into the archive. The bitstreams are copied
+     * straight from the assetstore, the ones in formats which are compressed
+     * already are stored without compressing them again.
+     *
+     * @param c       the DSpace context
+     * @param zip     the archive
+     * @param dir     the item's directory in the archive, ending with "/"
+     * @param entries the files of the item
+     * @throws IOException  if the archive can't be written or a bitstream can't be read
+     * @throws SQLException if database error
+     */
+    protected void writeEntries(Context c, ZipOutputStream zip, String dir, List<ExportEntry> entries)
+        throws IOException, SQLException {
+        int level = configurationService.getIntProperty("org.dspace.app.itemexport.compression.level",
+                                                        Deflater.DEFAULT_COMPRESSION);
+        for (ExportEntry entry : entries) {
+            zip.setLevel(entry.isCompressible() ? level : Deflater.NO_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(dir + entry.getName()));
+            if (entry.getBitstream() != null) {
+                try (InputStream in = bitstreamStorageService.retrieve(c, entry.getBitstream())) {
+                    in.transferTo(zip);
+                }
+            } else {
+                zip.write(entry.getContent());
+            }
+            zip.closeEntry();
+        }
+    }
+
+    private <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void deleteTempFile(File tempFile) {
+        if (tempFile.exists() && !tempFile.delete()) {
+            logWarn("Unable to delete incomplete export " + tempFile);
+        }
     }
 
     @Override
@@ -539,8 +857,8 @@ public class ItemExportServiceImpl implements ItemExportService {
 
     /**
      * Does the work creating a List with all the Items in the Community or
-     * Collection It then kicks off a new Thread to export the items, zip the
-     * export directory and send confirmation email
+     * Collection It then queues the export of the items into an archive on a
+     * bounded pool of threads, which sends a confirmation email when done
      *
      * @param dsObjects       - List of dspace objects to process
      * @param context         - the dspace context
@@ -659,88 +977,122 @@ public class ItemExportServiceImpl implements ItemExportService {
             }
         }
 
-        // if we have any items to process then kick off anonymous thread
+        // if we have any items to process then queue the export
         if (itemsMap.size() > 0) {
-            Thread go = new Thread() {
-                @Override
-                public void run() {
-                    Context context = new Context();
-                    Iterator<Item> iitems = null;
-                    try {
-                        // ignore auths
-                        context.turnOffAuthorisationSystem();
-
-                        String fileName = assembleFileName("item", eperson,
-                                                           new Date());
-                        String workParentDir = getExportWorkDirectory()
-                            + System.getProperty("file.separator")
-                            + fileName;
-                        String downloadDir = getExportDownloadDirectory(eperson);
-                        File dnDir = new File(downloadDir);
-                        if (!dnDir.exists() && !dnDir.mkdirs()) {
-                            logError("Unable to create download directory");
-                        }
-
-                        Iterator<String> iter = itemsMap.keySet().iterator();
-                        while (iter.hasNext()) {
-                            String keyName = iter.next();
-                            List<UUID> uuids = itemsMap.get(keyName);
-                            List<Item> items = new ArrayList<>();
-                            for (UUID uuid : uuids) {
-                                items.add(itemService.find(context, uuid));
-                            }
-                            iitems = items.iterator();
-
-                            String workDir = workParentDir
-                                + System.getProperty("file.separator")
-                                + keyName;
-
-                            File wkDir = new File(workDir);
-                            if (!wkDir.exists() && !wkDir.mkdirs()) {
-                                logError("Unable to create working directory");
-                            }
-
-
-                            // export the items using normal export method
-                            exportItem(context, iitems, workDir, 1, migrate, false);
-                        }
+            Runnable export = () -> {
+                Context exportContext = new Context();
+                File tempFile = null;
+                try {
+                    // ignore auths
+                    exportContext.turnOffAuthorisationSystem();
+
+                    String fileName = assembleFileName("item", eperson, new Date());
+                    String downloadDir = getExportDownloadDirectory(eperson);
+                    File dnDir = new File(downloadDir);
+                    if (!dnDir.exists() && !dnDir.mkdirs()) {
+                        logError("Unable to create download directory");
+                    }
 
-                        // now zip up the export directory created above
-                        zip(workParentDir, downloadDir
-                            + System.getProperty("file.separator")
-                            + fileName + ".zip");
-                        // email message letting user know the file is ready for
-                        // download
-                        emailSuccessMessage(context, eperson, fileName + ".zip");
-                        // return to enforcing auths
-                        context.restoreAuthSystemState();
-                    } catch (Exception e1) {
-                        try {
-                            emailErrorMessage(eperson, e1.getMessage());
-                        } catch (Exception e) {
-                            // wont throw here
-                        }
-                        throw new IllegalStateException(e1);
-                    } finally {
-                        // Make sure the database connection gets closed in all conditions.
-                        try {
-                            context.complete();
-                        } catch (SQLException sqle) {
-                            context.abort();
+                    // write the items straight into the archive, without a copy in the work directory
+                    tempFile = new File(dnDir, fileName + ".zip_tmp");
+                    try (ZipOutputStream zip
+                             = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                        for (Map.Entry<String, List<UUID>> entry : itemsMap.entrySet()) {
+                            exportItems(exportContext, findItems(exportContext, entry.getValue()), zip,
+                                        entry.getKey() + "/", 1, migrate, false);
                         }
                     }
+                    Files.move(tempFile.toPath(), new File(dnDir, fileName + ".zip").toPath(),
+                               StandardCopyOption.REPLACE_EXISTING);
+
+                    // email message letting user know the file is ready for
+                    // download
+                    emailSuccessMessage(exportContext, eperson, fileName + ".zip");
+                    // return to enforcing auths
+                    exportContext.restoreAuthSystemState();
+                } catch (Exception e1) {
+                    if (tempFile != null) {
+                        deleteTempFile(tempFile);
+                    }
+                    try {
+                        emailErrorMessage(eperson, e1.getMessage());
+                    } catch (Exception e) {
+                        // wont throw here
+                    }
+                    throw new IllegalStateException(e1);
+                } finally {
+                    // Make sure the database connection gets closed in all conditions.
+                    try {
+                        exportContext.complete();
+                    } catch (SQLException sqle) {
+                        exportContext.abort();
+                    }
                 }
-
             };
 
-            go.isDaemon();
-            go.start();
+            try {
+                getDownloadExecutor().execute(export);
+            } catch (RejectedExecutionException e) {
+                throw new ItemExportException(ItemExportException.TOO_MANY_EXPORTS,
+                                              "Too many exports are waiting to be processed.  Please try again " +
+                                                  "later.");
+            }
         } else {
             Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
             emailErrorMessage(eperson, I18nUtil.getMessage("org.dspace.app.itemexport.no-result", supportedLocale));
         }
     }
 
+    /**
+     * Find the items to export one at a time, so they don't all have to be
+     * held in the context at once.
+     */
+    private Iterator<Item> findItems(Context context, List<UUID> uuids) {
+        Iterator<UUID> ids = uuids.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                try {
+                    return itemService.find(context, ids.next());
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    private synchronized ThreadPoolExecutor getDownloadExecutor() {
+        if (downloadExecutor == null) {
+            int threads = configurationService.getIntProperty("org.dspace.app.itemexport.download.threads", 2);
+            int queueSize = configurationService.getIntProperty("org.dspace.app.itemexport.download.queue-size", 20);
+            // idle threads time out, so the pool doesn't keep a command line JVM alive
+            downloadExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                      new LinkedBlockingQueue<>(queueSize), this::newDownloadThread);
+            downloadExecutor.allowCoreThreadTimeOut(true);
+        }
+        return downloadExecutor;
+    }
+
+    private Thread newDownloadThread(Runnable runnable) {
+        return new Thread(runnable, "item-export");
+    }
+
+    /**
+     * Stop the threads running the downloadable exports, called by
+     * "destroy-method" in Spring config.
+     */
+    public synchronized void destroy() {
+        if (downloadExecutor != null) {
+            downloadExecutor.shutdownNow();
+            downloadExecutor = null;
+        }
+    }
+
     @Override
     public String assembleFileName(String type, EPerson eperson,
                                    Date date) throws Exception {
@@ -1007,7 +1359,8 @@ public class ItemExportServiceImpl implements ItemExportService {
 
             FileOutputStream fos = new FileOutputStream(tempFileName);
             cpZipOutputStream = new ZipOutputStream(fos);
-            cpZipOutputStream.setLevel(9);
+            cpZipOutputStream.setLevel(configurationService.getIntProperty(
+                "org.dspace.app.itemexport.compression.level", Deflater.DEFAULT_COMPRESSION));
             zipFiles(cpFile, strSource, tempFileName, cpZipOutputStream);
             cpZipOutputStream.finish();
             cpZipOutputStream.close();
@@ -1163,4 +1516,44 @@ public class ItemExportServiceImpl implements ItemExportService {
         }
     }
 
+    /**
+     * A file of an item's directory in the archive, either rendered in memory
+     * or the content of a bitstream.
+     */
+    protected static class ExportEntry {
+        private final String name;
+        private final byte[] content;
+        private final Bitstream bitstream;
+        private final boolean compressible;
+
+        public ExportEntry(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+            this.bitstream = null;
+            this.compressible = true;
+        }
+
+        public ExportEntry(String name, Bitstream bitstream, boolean compressible) {
+            this.name = name;
+            this.content = null;
+            this.bitstream = bitstream;
+            this.compressible = compressible;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public Bitstream getBitstream() {
+            return bitstream;
+        }
+
+        public boolean isCompressible() {
+            return compressible;
+        }
+    }
 }
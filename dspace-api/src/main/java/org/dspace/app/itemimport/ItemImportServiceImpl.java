@@ -28,7 +28,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -44,6 +46,14 @@ import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.mail.MessagingException;
@@ -101,6 +111,11 @@ import org.dspace.core.Context;
 import org.dspace.core.Email;
 import org.dspace.core.I18nUtil;
 import org.dspace.core.LogHelper;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.IndexingService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.service.EPersonService;
@@ -178,6 +193,10 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected RelationshipTypeService relationshipTypeService;
     @Autowired(required = true)
     protected MetadataValueService metadataValueService;
+    @Autowired(required = true)
+    protected IndexingService indexingService;
+    @Autowired(required = true)
+    protected IndexObjectFactoryFactory indexObjectFactoryFactory;
 
     protected String tempWorkDir;
 
@@ -241,6 +260,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     @Override
     public void addItems(Context c, List<Collection> mycollections,
                          String sourceDir, String mapFile, boolean template) throws Exception {
+        int threads = configurationService.getIntProperty("org.dspace.app.batchitemimport.threads", 1);
+        if (threads > 1 && !isTest) {
+            addItemsInParallel(c, mycollections, sourceDir, mapFile, template, threads);
+            return;
+        }
+
         // create the mapfile
         File outFile = null;
         PrintWriter mapOut = null;
@@ -330,6 +355,279 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Import the items of the source directory with a pool of worker threads.
+     * Each worker imports items in a context of its own, committed every
+     * org.dspace.app.batchitemimport.batch.size items, so the bitstreams of
+     * one item are stored while other items are written to the database. The
+     * mapfile lines of the items are only appended, and synced to disk, once
+     * they are committed, so an interrupted import can be resumed from the
+     * mapfile. The workers don't index the items, they are indexed in one pass
+     * after the import.
+     * <p>
+     * Unlike a sequential import, the items are committed by the workers
+     * whatever happens to the given context. The relationships are added in
+     * the given context once all items are imported.
+     *
+     * @param c             the DSpace context
+     * @param mycollections the collections to add the items to, or null to
+     *                      read them from the 'collections' file of each item
+     * @param sourceDir     the directory containing the item directories
+     * @param mapFile       the mapfile to write
+     * @param template      whether to use collection template item as starting point
+     * @param threads       the number of workers
+     * @throws Exception if error
+     */
+    protected void addItemsInParallel(Context c, List<Collection> mycollections, String sourceDir,
+                                      String mapFile, boolean template, int threads) throws Exception {
+        int batchSize = Math.max(1, configurationService.getIntProperty(
+            "org.dspace.app.batchitemimport.batch.size", 100));
+        itemFolderMap = new HashMap<>();
+
+        logDebug("Adding items from directory: " + sourceDir);
+        logDebug("Generating mapfile: " + mapFile);
+
+        File d = new java.io.File(sourceDir);
+        if (!d.isDirectory()) {
+            throw new Exception("Error, cannot open source directory " + sourceDir);
+        }
+        String[] dircontents = d.list(directoryFilter);
+        Arrays.sort(dircontents, ComparatorUtils.naturalComparator());
+
+        // the directory names of the items to skip, imported already
+        Map<String, String> skipItems = isResume ? readMapFile(mapFile) : new HashMap<>();
+
+        logInfo("Importing " + dircontents.length + " items using " + threads + " threads, committing every "
+                    + batchSize + " items");
+        ParallelImport parallelImport;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (FileOutputStream mapOut = new FileOutputStream(mapFile, isResume)) {
+            parallelImport = new ParallelImport(c, mycollections, sourceDir, dircontents, skipItems, template,
+                                                batchSize, mapOut);
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Void> worker = () -> {
+                    parallelImport.run();
+                    return null;
+                };
+                futures.add(workers.submit(worker));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // the first failure is rethrown below, once all workers are done
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        try {
+            if (parallelImport.failure.get() == null
+                && Arrays.stream(dircontents).anyMatch(dir -> hasRelationships(sourceDir, dir))) {
+                // relationships may refer to any item of the import
+                for (Map.Entry<String, String> skipped : skipItems.entrySet()) {
+                    itemFolderMap.put(skipped.getKey(), (Item) handleService.resolveToObject(c, skipped.getValue()));
+                }
+                for (Map.Entry<String, UUID> imported : parallelImport.imported.entrySet()) {
+                    itemFolderMap.put(imported.getKey(), itemService.find(c, imported.getValue()));
+                }
+                addRelationships(c, sourceDir);
+            }
+        } finally {
+            // the committed items are indexed even if the import failed
+            indexItems(c, new ArrayList<>(parallelImport.imported.values()), batchSize);
+        }
+
+        if (parallelImport.failure.get() != null) {
+            throw parallelImport.failure.get();
+        }
+    }
+
+    private boolean hasRelationships(String sourceDir, String dir) {
+        return new File(sourceDir + File.separatorChar + dir, "relationships").exists();
+    }
+
+    /**
+     * Index imported items, and the workspace or workflow items and tasks
+     * they belong to, and commit the index once.
+     *
+     * @param c         the DSpace context
+     * @param itemIds   the ids of the items
+     * @param batchSize the number of items to load at once
+     * @throws SQLException           if database error
+     * @throws SearchServiceException if the index can't be committed
+     */
+    protected void indexItems(Context c, List<UUID> itemIds, int batchSize)
+        throws SQLException, SearchServiceException {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        logInfo("Indexing " + itemIds.size() + " imported items");
+        for (int start = 0; start < itemIds.size(); start += batchSize) {
+            List<String> ids = new ArrayList<>();
+            for (UUID id : itemIds.subList(start, Math.min(start + batchSize, itemIds.size()))) {
+                ids.add(id.toString());
+            }
+            List<IndexableObject> items = indexObjectFactoryFactory.getIndexFactoryByType(IndexableItem.TYPE)
+                                                                   .findIndexableObjects(c, ids);
+            for (IndexableObject item : items) {
+                for (IndexableObject indexableObject
+                    : indexObjectFactoryFactory.getIndexableObjects(c, item.getIndexedObject())) {
+                    indexingService.indexContent(c, indexableObject, true, false);
+                }
+                c.uncacheEntity(item.getIndexedObject());
+            }
+        }
+        indexingService.commit();
+    }
+
+    /**
+     * The state shared by the workers of a parallel import, see
+     * addItemsInParallel.
+     */
+    private class ParallelImport {
+        private final UUID userId;
+        private final boolean ignoreAuthorization;
+        private final List<UUID> collectionIds;
+        private final String sourceDir;
+        private final String[] dircontents;
+        private final Map<String, String> skipItems;
+        private final boolean template;
+        private final int batchSize;
+        private final FileOutputStream mapOut;
+
+        /**
+         * The index of the next item directory to import
+         */
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger committed = new AtomicInteger();
+        /**
+         * The committed items by directory name
+         */
+        private final Map<String, UUID> imported = new ConcurrentHashMap<>();
+        /**
+         * The first failure of a worker, which stops the others
+         */
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        ParallelImport(Context c, List<Collection> mycollections, String sourceDir, String[] dircontents,
+                       Map<String, String> skipItems, boolean template, int batchSize, FileOutputStream mapOut) {
+            this.userId = c.getCurrentUser() == null ? null : c.getCurrentUser().getID();
+            this.ignoreAuthorization = c.ignoreAuthorization();
+            if (mycollections != null) {
+                collectionIds = new ArrayList<>();
+                for (Collection collection : mycollections) {
+                    collectionIds.add(collection.getID());
+                }
+            } else {
+                collectionIds = null;
+            }
+            this.sourceDir = sourceDir;
+            this.dircontents = dircontents;
+            this.skipItems = skipItems;
+            this.template = template;
+            this.batchSize = batchSize;
+            this.mapOut = mapOut;
+        }
+
+        /**
+         * Import items until all are imported or a worker failed. The items of
+         * a failing worker which are not committed yet are rolled back.
+         */
+        void run() throws Exception {
+            Context context = new Context(Context.Mode.BATCH_EDIT);
+            // indexed once all items are imported
+            context.setIndexingDeferred(true);
+            StringWriter mapLines = new StringWriter();
+            PrintWriter batchOut = new PrintWriter(mapLines);
+            Map<String, UUID> batch = new HashMap<>();
+            try {
+                if (userId != null) {
+                    context.setCurrentUser(ePersonService.find(context, userId));
+                }
+                if (ignoreAuthorization) {
+                    context.turnOffAuthorisationSystem();
+                }
+
+                int i;
+                while (failure.get() == null && (i = next.getAndIncrement()) < dircontents.length) {
+                    String dir = dircontents[i];
+                    if (skipItems.containsKey(dir)) {
+                        logInfo("Skipping import of " + dir);
+                        continue;
+                    }
+                    List<Collection> clist = getCollections(context, dir);
+                    if (clist == null) {
+                        continue;
+                    }
+
+                    Item item = addItem(context, clist, sourceDir, dir, batchOut, template);
+                    batch.put(dir, item.getID());
+                    context.uncacheEntity(item);
+                    logInfo(i + " " + dir);
+
+                    if (batch.size() >= batchSize) {
+                        commit(context, mapLines, batch);
+                    }
+                }
+                commit(context, mapLines, batch);
+                context.complete();
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+                logError("Import of a batch of items failed, rolling it back", e);
+                throw e;
+            } finally {
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
+
+        private List<Collection> getCollections(Context context, String dir) throws Exception {
+            if (collectionIds != null) {
+                List<Collection> clist = new ArrayList<>();
+                for (UUID collectionId : collectionIds) {
+                    clist.add(collectionService.find(context, collectionId));
+                }
+                return clist;
+            }
+            try {
+                List<Collection> cols = processCollectionFile(context, sourceDir + File.separatorChar + dir,
+                                                              "collections");
+                if (cols == null) {
+                    logError("No collections specified for item " + dir + ". Skipping.");
+                }
+                return cols;
+            } catch (IllegalArgumentException e) {
+                logError(e.getMessage() + " Skipping.");
+                return null;
+            }
+        }
+
+        /**
+         * Commit the items of the current batch, then append their lines to
+         * the mapfile
+         */
+        private void commit(Context context, StringWriter mapLines, Map<String, UUID> batch)
+            throws SQLException, IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            context.commit();
+            byte[] lines = mapLines.toString().getBytes(StandardCharsets.UTF_8);
+            synchronized (mapOut) {
+                mapOut.write(lines);
+                mapOut.getChannel().force(false);
+            }
+            imported.putAll(batch);
+            logInfo("Committed " + committed.addAndGet(batch.size()) + " items");
+            mapLines.getBuffer().setLength(0);
+            batch.clear();
+        }
+    }
+
      /**
       * Add relationships from a 'relationships' manifest file.
       * 
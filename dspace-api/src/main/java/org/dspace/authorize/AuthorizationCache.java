@@ -0,0 +1,319 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Authorization decisions shared between all contexts (and therefore requests) of this JVM, enabled with
+ * "core.authorization.cache.enabled".
+ * <p>
+ * A decision is cached for an object, an action and the effective group set of the checked EPerson. The group
+ * memberships stored in the database are represented by the EPerson itself, the special groups of the context are
+ * part of the key as they may differ between two requests of the same EPerson. The size and lifetime of the entries
+ * are bounded by the "authorization" cache in ehcache.xml.
+ * <p>
+ * A context which changes something that may affect a decision doesn't use the shared cache until its transaction
+ * is committed, and then invalidates the affected entries, see {@link Context#authorizationChanged()}. Most changes
+ * only affect the decisions on a few objects: the resource policies of an object (apart from ADMIN policies, which
+ * are inherited) and its installation or addition to a container. These {@link #invalidate(Collection) invalidate}
+ * the entries of those objects only. Group memberships, ADMIN policies of communities and collections and changes of
+ * the community and collection hierarchy {@link #invalidate() invalidate} all entries.
+ * <p>
+ * Every key contains a global generation and a generation of its object, which are changed on invalidation, so
+ * decisions computed concurrently from the previous state are never returned. Decisions may remain stale for the
+ * lifetime of an entry when the change was made by another DSpace instance sharing the database.
+ * <p>
+ * A decision which depends on a resource policy with a start or end date expires at the next of these dates, see
+ * {@link #policyConsulted(Context, ResourcePolicy)}.
+ */
+public class AuthorizationCache {
+
+    private static final Logger log = LogManager.getLogger(AuthorizationCache.class);
+
+    static final String CACHE_NAME = "authorization";
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private CacheManager cacheManager;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong objectGenerations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicBoolean missingCacheReported = new AtomicBoolean();
+
+    /**
+     * Whether the shared cache is enabled and configured.
+     *
+     * @return true if decisions are shared between contexts
+     */
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("core.authorization.cache.enabled", false)
+            && getCache() != null;
+    }
+
+    /**
+     * Build the key of a decision.
+     *
+     * @param context the DSpace context in which the decision is made
+     * @param dso     the object on which the action is attempted
+     * @param action  the action, from {@link org.dspace.core.Constants}
+     * @param check   distinguishes checks of the same action with different semantics, e.g. with or without
+     *                inheritance
+     * @param eperson the EPerson attempting the action, null for anonymous
+     * @return the key, or null if the decision must not be shared
+     */
+    public String getKey(Context context, DSpaceObject dso, int action, String check, EPerson eperson) {
+        if (dso == null || dso.getID() == null || context.isAuthorizationChanged() || !isEnabled()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder()
+            .append(generation.get()).append(':')
+            .append(dso.getID()).append(':')
+            .append(getObjectGeneration(dso.getID())).append(':')
+            .append(action).append(':')
+            .append(check).append(':')
+            .append(eperson == null ? "anonymous" : eperson.getID());
+        // special groups only apply to the current user of the context
+        if (Objects.equals(eperson, context.getCurrentUser())) {
+            Set<UUID> specialGroups = new TreeSet<>(context.getSpecialGroupUuids());
+            for (UUID specialGroup : specialGroups) {
+                key.append(':').append(specialGroup);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Retrieve a cached decision. If it depends on a dated resource policy, the decisions the context derives from it
+     * expire with it.
+     *
+     * @param context the DSpace context in which the decision is made
+     * @param key     the key returned by {@link #getKey(Context, DSpaceObject, int, String, EPerson)}, may be null
+     * @return the decision, or null if it is not cached
+     */
+    public Boolean get(Context context, String key) {
+        if (key == null) {
+            return null;
+        }
+        Cache cache = getCache();
+        Decision decision = cache == null ? null : cache.get(key, Decision.class);
+        if (decision != null && decision.expiry != null && !decision.expiry.after(new Date())) {
+            cache.evict(key);
+            decision = null;
+        }
+        if (decision == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        context.authorizationExpiresAt(decision.expiry);
+        return decision.result;
+    }
+
+    /**
+     * Cache a decision, until the next start or end date of the dated resource policies the context consulted.
+     *
+     * @param context the DSpace context in which the decision was made
+     * @param key     the key returned by {@link #getKey(Context, DSpaceObject, int, String, EPerson)}, may be null
+     * @param result  the decision
+     */
+    public void put(Context context, String key, boolean result) {
+        Cache cache = getCache();
+        Date expiry = context.getAuthorizationExpiry();
+        if (key != null && cache != null && (expiry == null || expiry.after(new Date()))) {
+            cache.put(key, new Decision(result, expiry));
+        }
+    }
+
+    /**
+     * Record that a decision of the context consulted the given resource policy. If the policy starts or ends in the
+     * future, the decision may change at that date.
+     *
+     * @param context        the DSpace context in which the decision is made
+     * @param resourcePolicy the consulted policy
+     */
+    public void policyConsulted(Context context, ResourcePolicy resourcePolicy) {
+        Date now = new Date();
+        Date startDate = resourcePolicy.getStartDate();
+        Date endDate = resourcePolicy.getEndDate();
+        if (startDate != null && startDate.after(now)) {
+            context.authorizationExpiresAt(startDate);
+        }
+        if (endDate != null && !endDate.before(now)) {
+            // the policy is still valid at its end date
+            context.authorizationExpiresAt(new Date(endDate.getTime() + 1));
+        }
+    }
+
+    /**
+     * Invalidate all cached decisions.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        Cache cache = getCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Invalidate the cached decisions on the given objects.
+     *
+     * @param ids the ids of the objects
+     */
+    public void invalidate(Collection<UUID> ids) {
+        invalidations.incrementAndGet();
+        Cache cache = getCache();
+        if (cache != null) {
+            for (UUID id : ids) {
+                cache.put(getObjectGenerationKey(id), objectGenerations.incrementAndGet());
+            }
+        }
+    }
+
+    /**
+     * Record in the context that resource policies of the object changed, so the affected decisions are invalidated
+     * once the change is committed. ADMIN policies are inherited, they affect the decisions on the bundles and
+     * bitstreams of an item and on everything in a community or collection.
+     *
+     * @param context the DSpace context making the change
+     * @param dso     the object of the changed policies, null if it is unknown
+     * @param action  the action of the changed policies, from {@link org.dspace.core.Constants}, -1 for any action
+     */
+    public void policiesChanged(Context context, DSpaceObject dso, int action) {
+        if (!isEnabled()) {
+            return;
+        } else if (dso == null || dso.getID() == null) {
+            context.authorizationChanged();
+        } else if (action != -1 && action != Constants.ADMIN) {
+            context.authorizationChanged(dso.getID());
+        } else if (dso instanceof Item) {
+            context.authorizationChanged(dso.getID());
+            for (Bundle bundle : ((Item) dso).getBundles()) {
+                policiesChanged(context, bundle, action);
+            }
+        } else if (dso instanceof Bundle) {
+            context.authorizationChanged(dso.getID());
+            for (Bitstream bitstream : ((Bundle) dso).getBitstreams()) {
+                context.authorizationChanged(bitstream.getID());
+            }
+        } else if (dso.getType() == Constants.COMMUNITY || dso.getType() == Constants.COLLECTION
+            || dso.getType() == Constants.SITE) {
+            context.authorizationChanged();
+        } else {
+            context.authorizationChanged(dso.getID());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return the counters of the cache, e.g. to be logged or exposed by a health indicator
+     */
+    public Map<String, Long> getStatistics() {
+        return Map.of("hits", getHits(), "misses", getMisses(), "invalidations", getInvalidations());
+    }
+
+    /**
+     * The generation of an object is kept in the cache next to its decisions. If it was evicted, a new one is used,
+     * which makes the decisions cached with the previous one unreachable.
+     */
+    private long getObjectGeneration(UUID id) {
+        Cache cache = getCache();
+        if (cache == null) {
+            return 0;
+        }
+        String key = getObjectGenerationKey(id);
+        Long objectGeneration = cache.get(key, Long.class);
+        if (objectGeneration == null) {
+            long newGeneration = objectGenerations.incrementAndGet();
+            Cache.ValueWrapper existing = cache.putIfAbsent(key, newGeneration);
+            objectGeneration = existing == null ? newGeneration : (Long) existing.get();
+        }
+        return objectGeneration;
+    }
+
+    private String getObjectGenerationKey(UUID id) {
+        return "object:" + id;
+    }
+
+    private Cache getCache() {
+        if (cacheManager == null) {
+            return null;
+        }
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null && !missingCacheReported.getAndSet(true)) {
+            log.warn("The cache '{}' is not defined in ehcache.xml, authorization decisions are not cached",
+                     CACHE_NAME);
+        }
+        return cache;
+    }
+
+    /**
+     * A cached decision and the date it expires at, null if it doesn't depend on a dated resource policy.
+     */
+    private static class Decision implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean result;
+        private final Date expiry;
+
+        Decision(boolean result, Date expiry) {
+            this.result = result;
+            this.expiry = expiry;
+        }
+    }
+
+    /**
+     * Set the reference to the cacheManager
+     *
+     * @param cacheManager the cache manager holding the "authorization" cache
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+}
@@ -82,6 +82,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     protected WorkflowItemService workflowItemService;
     @Autowired(required = true)
     private SearchService searchService;
+    @Autowired(required = true)
+    protected AuthorizationCache authorizationCache;
 
 
     protected AuthorizeServiceImpl() {
@@ -250,6 +252,36 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return cachedResult;
         }
 
+        // If the decision was made before by another context
+        String sharedKey = authorizationCache.getKey(c, o, action, useInheritance ? "inherit" : "direct", e);
+        Boolean sharedResult = authorizationCache.get(c, sharedKey);
+        if (sharedResult != null) {
+            c.cacheAuthorizedAction(o, action, e, sharedResult, null);
+            return sharedResult;
+        }
+
+        boolean result = authorizePolicies(c, o, action, e, useInheritance);
+        authorizationCache.put(c, sharedKey, result);
+        return result;
+    }
+
+    /**
+     * Check the resource policies (and the admin rights) giving the user permission to perform the action, without
+     * looking at the cached decisions.
+     *
+     * @param c              current context
+     * @param o              object action is being attempted on
+     * @param action         ID of action being attempted, from
+     *                       <code>org.dspace.core.Constants</code>
+     * @param e              user attempting action
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @return <code>true</code> if user is authorized to perform the given
+     * action, <code>false</code> otherwise
+     * @throws SQLException if database error
+     */
+    protected boolean authorizePolicies(Context c, DSpaceObject o, int action, EPerson e, boolean useInheritance)
+        throws SQLException {
         // is eperson set? if not, userToCheck = null (anonymous)
         EPerson userToCheck = null;
         if (e != null) {
@@ -302,6 +334,7 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             }
 
             // check policies for date validity
+            authorizationCache.policyConsulted(c, rp);
             if (resourcePolicyService.isDateValid(rp)) {
                 if (rp.getEPerson() != null && rp.getEPerson().equals(userToCheck)) {
                     c.cacheAuthorizedAction(o, action, e, true, rp);
@@ -380,6 +413,28 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return cachedResult;
         }
 
+        String sharedKey = authorizationCache.getKey(c, o, Constants.ADMIN, "admin", e);
+        Boolean sharedResult = authorizationCache.get(c, sharedKey);
+        if (sharedResult != null) {
+            c.cacheAuthorizedAction(o, Constants.ADMIN, e, sharedResult, null);
+            return sharedResult;
+        }
+
+        boolean result = isAdminPolicies(c, e, o);
+        authorizationCache.put(c, sharedKey, result);
+        return result;
+    }
+
+    /**
+     * Check the ADMIN resource policies of the object and its parents, without looking at the cached decisions.
+     *
+     * @param c context
+     * @param e the user to check
+     * @param o the object
+     * @return true if the user has ADMIN rights on the object or one of its parents
+     * @throws SQLException if database error
+     */
+    protected boolean isAdminPolicies(Context c, EPerson e, DSpaceObject o) throws SQLException {
         //
         // First, check all Resource Policies directly on this object
         //
@@ -387,6 +442,7 @@ public class AuthorizeServiceImpl implements AuthorizeService {
 
         for (ResourcePolicy rp : policies) {
             // check policies for date validity
+            authorizationCache.policyConsulted(c, rp);
             if (resourcePolicyService.isDateValid(rp)) {
                 if (rp.getEPerson() != null && rp.getEPerson().equals(e)) {
                     c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, rp);
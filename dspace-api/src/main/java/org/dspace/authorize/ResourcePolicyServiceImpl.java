@@ -51,6 +51,9 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Autowired
     private GroupService groupService;
 
+    @Autowired(required = true)
+    protected AuthorizationCache authorizationCache;
+
     protected ResourcePolicyServiceImpl() {
     }
 
@@ -79,6 +82,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: Check authorisation
         // Create a table row
         ResourcePolicy resourcePolicy = resourcePolicyDAO.create(context, new ResourcePolicy());
+        context.authorizationChanged(resourcePolicy);
         return resourcePolicy;
     }
 
@@ -140,6 +144,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         // FIXME: authorizations
         // Remove ourself
         resourcePolicyDAO.delete(context, resourcePolicy);
+        authorizationCache.policiesChanged(context, resourcePolicy.getdSpaceObject(), resourcePolicy.getAction());
 
         context.turnOffAuthorisationSystem();
         if (resourcePolicy.getdSpaceObject() != null) {
@@ -219,6 +224,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDso(c, o);
+        authorizationCache.policiesChanged(c, o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -227,6 +233,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndType(c, o, type);
+        authorizationCache.policiesChanged(c, o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -236,6 +243,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoGroupPolicies(Context context, DSpaceObject dso, Group group)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoGroupPolicies(context, dso, group);
+        authorizationCache.policiesChanged(context, dso, -1);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -245,6 +253,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoEPersonPolicies(Context context, DSpaceObject dso, EPerson ePerson)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoEPersonPolicies(context, dso, ePerson);
+        authorizationCache.policiesChanged(context, dso, -1);
         context.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
@@ -254,11 +263,13 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllEPersonPolicies(Context context, EPerson ePerson) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByEPerson(context, ePerson);
+        context.authorizationChanged();
     }
 
     @Override
     public void removeGroupPolicies(Context c, Group group) throws SQLException {
         resourcePolicyDAO.deleteByGroup(c, group);
+        c.authorizationChanged();
     }
 
     @Override
@@ -267,6 +278,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             removeAllPolicies(c, o);
         } else {
             resourcePolicyDAO.deleteByDsoAndAction(c, o, actionId);
+            authorizationCache.policiesChanged(c, o, actionId);
             c.turnOffAuthorisationSystem();
             contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
             c.restoreAuthSystemState();
@@ -277,6 +289,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeDsoAndTypeNotEqualsToPolicies(Context c, DSpaceObject o, String type)
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeNotEqualsTo(c, o, type);
+        authorizationCache.policiesChanged(c, o, -1);
         c.turnOffAuthorisationSystem();
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
@@ -311,6 +324,8 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
 
                 // FIXME: Check authorisation
                 resourcePolicyDAO.save(context, resourcePolicy);
+                authorizationCache.policiesChanged(context, resourcePolicy.getdSpaceObject(),
+                                                   resourcePolicy.getAction());
             }
 
             //Update the last modified timestamp of all related DSpace Objects
@@ -7,6 +7,7 @@
  */
 package org.dspace.authorize.factory;
 
+import org.dspace.authorize.AuthorizationCache;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -23,6 +24,8 @@ public abstract class AuthorizeServiceFactory {
 
     public abstract ResourcePolicyService getResourcePolicyService();
 
+    public abstract AuthorizationCache getAuthorizationCache();
+
     public static AuthorizeServiceFactory getInstance() {
         return DSpaceServicesFactory.getInstance().getServiceManager()
                                     .getServiceByName("authorizeServiceFactory", AuthorizeServiceFactory.class);
@@ -9,6 +9,7 @@ package org.dspace.content;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
@@ -300,6 +301,22 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
         return bitstreamStorageService.retrieve(context, bitstream);
     }
 
+    @Override
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws IOException, SQLException, AuthorizeException {
+        authorizeService.authorizeAction(context, bitstream, Constants.READ);
+
+        return bitstreamStorageService.retrieve(context, bitstream, offset, length);
+    }
+
+    @Override
+    public FileChannel retrieveChannel(Context context, Bitstream bitstream)
+        throws IOException, SQLException, AuthorizeException {
+        authorizeService.authorizeAction(context, bitstream, Constants.READ);
+
+        return bitstreamStorageService.retrieveChannel(context, bitstream);
+    }
+
     @Override
     public boolean isRegisteredBitstream(Bitstream bitstream) {
         return bitstreamStorageService.isRegisteredBitstream(bitstream.getInternalId());
@@ -429,11 +446,22 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
         }
     }
 
+    @Override
+    public Bitstream findDuplicateContent(Context context, Bitstream bitstream) throws SQLException {
+        return bitstreamDAO.findDuplicateContent(context, bitstream);
+    }
+
     @Override
     public Iterator<Bitstream> findByStoreNumber(Context context, Integer storeNumber) throws SQLException {
         return bitstreamDAO.findByStoreNumber(context, storeNumber);
     }
 
+    @Override
+    public List<Bitstream> findByStoreNumber(Context context, Integer storeNumber, UUID after, int limit)
+        throws SQLException {
+        return bitstreamDAO.findByStoreNumber(context, storeNumber, after, limit);
+    }
+
     @Override
     public Long countByStoreNumber(Context context, Integer storeNumber) throws SQLException {
         return bitstreamDAO.countByStoreNumber(context, storeNumber);
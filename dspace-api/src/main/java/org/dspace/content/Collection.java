@@ -11,6 +11,7 @@ import static org.dspace.content.service.DSpaceObjectService.MD_LICENSE;
 
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,6 +27,8 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 
 import org.dspace.authorize.AuthorizeException;
@@ -60,6 +63,10 @@ public class Collection extends DSpaceObject implements DSpaceObjectLegacySuppor
     @Column(name = "collection_id", insertable = false, updatable = false)
     private Integer legacyId;
 
+    @Column(name = "last_modified", columnDefinition = "timestamp with time zone")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified = new Date();
+
     /**
      * The logo bitstream
      */
@@ -329,6 +336,19 @@ public class Collection extends DSpaceObject implements DSpaceObjectLegacySuppor
         return legacyId;
     }
 
+    /**
+     * Get the date the collection or its metadata was last modified
+     *
+     * @return the date the collection was last modified
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
     private CollectionService getCollectionService() {
         if (collectionService == null) {
             collectionService = ContentServiceFactory.getInstance().getCollectionService();
@@ -13,6 +13,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -667,6 +668,9 @@ public class CollectionServiceImpl extends DSpaceObjectServiceImpl<Collection> i
                                       "collection_id=" + collection.getID()));
 
         super.update(context, collection);
+        if (collection.isModified() || collection.isMetadataModified()) {
+            collection.setLastModified(new Date());
+        }
         collectionDAO.save(context, collection);
 
         if (collection.isModified()) {
@@ -886,6 +890,7 @@ public class CollectionServiceImpl extends DSpaceObjectServiceImpl<Collection> i
 
     @Override
     public void updateLastModified(Context context, Collection collection) throws SQLException, AuthorizeException {
+        collection.setLastModified(new Date());
         //Also fire a modified event since the collection HAS been modified
         context.addEvent(new Event(Event.MODIFY, Constants.COLLECTION,
                                    collection.getID(), null, getIdentifiers(context, collection)));
@@ -905,6 +910,11 @@ public class CollectionServiceImpl extends DSpaceObjectServiceImpl<Collection> i
         return collectionDAO.findByLegacyId(context, id, Collection.class);
     }
 
+    @Override
+    public List<Collection> findByLastModifiedSince(Context context, Date since) throws SQLException {
+        return collectionDAO.findByLastModifiedSince(context, since);
+    }
+
     @Override
     public int countTotal(Context context) throws SQLException {
         return collectionDAO.countRows(context);
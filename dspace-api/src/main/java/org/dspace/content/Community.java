@@ -8,6 +8,7 @@
 package org.dspace.content;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +23,8 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -51,6 +54,10 @@ public class Community extends DSpaceObject implements DSpaceObjectLegacySupport
     @Column(name = "community_id", insertable = false, updatable = false)
     private Integer legacyId;
 
+    @Column(name = "last_modified", columnDefinition = "timestamp with time zone")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModified = new Date();
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "community2community",
@@ -257,6 +264,19 @@ public class Community extends DSpaceObject implements DSpaceObjectLegacySupport
         return legacyId;
     }
 
+    /**
+     * Get the date the community or its metadata was last modified
+     *
+     * @return the date the community was last modified
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
     private CommunityService getCommunityService() {
         if (communityService == null) {
             communityService = ContentServiceFactory.getInstance().getCommunityService();
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.MissingResourceException;
@@ -262,6 +263,9 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
                                       "community_id=" + community.getID()));
 
         super.update(context, community);
+        if (community.isModified() || community.isMetadataModified()) {
+            community.setLastModified(new Date());
+        }
 
         communityDAO.save(context, community);
         if (community.isModified()) {
@@ -680,6 +684,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
 
     @Override
     public void updateLastModified(Context context, Community community) {
+        community.setLastModified(new Date());
         //Also fire a modified event since the community HAS been modified
         context.addEvent(new Event(Event.MODIFY, Constants.COMMUNITY,
                                    community.getID(), null, getIdentifiers(context, community)));
@@ -700,6 +705,11 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
         return communityDAO.findByLegacyId(context, id, Community.class);
     }
 
+    @Override
+    public List<Community> findByLastModifiedSince(Context context, Date since) throws SQLException {
+        return communityDAO.findByLastModifiedSince(context, since);
+    }
+
     @Override
     public int countTotal(Context context) throws SQLException {
         return communityDAO.countRows(context);
@@ -25,9 +25,11 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.util.AuthorizeUtil;
+import org.dspace.authorize.AuthorizationCache;
 import org.dspace.authorize.AuthorizeConfiguration;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
@@ -87,6 +89,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
      */
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(Item.class);
 
+    /**
+     * Maximum number of ids used in a single IN clause by {@link #findByIdsForIndexing(Context, List)}
+     */
+    private static final int FIND_BY_IDS_PARTITION_SIZE = 500;
+
     @Autowired(required = true)
     protected ItemDAO itemDAO;
 
@@ -95,6 +102,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
     @Autowired(required = true)
     protected AuthorizeService authorizeService;
     @Autowired(required = true)
+    protected AuthorizationCache authorizationCache;
+    @Autowired(required = true)
     protected BundleService bundleService;
     @Autowired(required = true)
     protected BitstreamFormatService bitstreamFormatService;
@@ -274,6 +283,15 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAllRegularItems(context);
     };
 
+    @Override
+    public List<Item> findByIdsForIndexing(Context context, List<UUID> ids) throws SQLException {
+        List<Item> items = new ArrayList<>(ids.size());
+        for (List<UUID> partition : ListUtils.partition(ids, FIND_BY_IDS_PARTITION_SIZE)) {
+            items.addAll(itemDAO.findByIdsWithIndexingData(context, partition));
+        }
+        return items;
+    }
+
     @Override
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException {
         return itemDAO.findBySubmitter(context, eperson);
@@ -983,6 +1001,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
                                               "collection_id=" + from.getID() + " to " +
                                               "collection_id=" + to.getID()));
             item.setOwningCollection(to);
+            // the ADMIN rights the item, its bundles and bitstreams inherit from the owning collection have changed
+            authorizationCache.policiesChanged(context, item, Constants.ADMIN);
 
             // If applicable, update the item policies
             if (inheritDefaultPolicies) {
@@ -10,6 +10,7 @@ package org.dspace.content.dao;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.content.Bitstream;
 import org.dspace.content.Collection;
@@ -33,6 +34,8 @@ public interface BitstreamDAO extends DSpaceObjectLegacySupportDAO<Bitstream> {
 
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException;
 
+    public Bitstream findDuplicateContent(Context context, Bitstream bitstream) throws SQLException;
+
     public List<Bitstream> findBitstreamsWithNoRecentChecksum(Context context) throws SQLException;
 
     public Iterator<Bitstream> findByCommunity(Context context, Community community) throws SQLException;
@@ -43,6 +46,9 @@ public interface BitstreamDAO extends DSpaceObjectLegacySupportDAO<Bitstream> {
 
     public Iterator<Bitstream> findByStoreNumber(Context context, Integer storeNumber) throws SQLException;
 
+    public List<Bitstream> findByStoreNumber(Context context, Integer storeNumber, UUID after, int limit)
+        throws SQLException;
+
     public Long countByStoreNumber(Context context, Integer storeNumber) throws SQLException;
 
     int countRows(Context context) throws SQLException;
@@ -8,6 +8,7 @@
 package org.dspace.content.dao;
 
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,16 @@ public interface CollectionDAO extends DSpaceObjectLegacySupportDAO<Collection>
 
     List<Collection> findCollectionsWithSubscribers(Context context) throws SQLException;
 
+    /**
+     * Find all collections modified after the given date.
+     *
+     * @param context DSpace context object
+     * @param since   earliest interesting last-modified date (exclusive)
+     * @return the modified collections
+     * @throws SQLException if database error
+     */
+    List<Collection> findByLastModifiedSince(Context context, Date since) throws SQLException;
+
     int countRows(Context context) throws SQLException;
 
     List<Map.Entry<Collection, Long>> getCollectionsWithBitstreamSizesTotal(Context context) throws SQLException;
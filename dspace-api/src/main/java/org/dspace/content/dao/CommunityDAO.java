@@ -8,6 +8,7 @@
 package org.dspace.content.dao;
 
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.List;
 
 import org.dspace.content.Community;
@@ -40,5 +41,15 @@ public interface CommunityDAO extends DSpaceObjectLegacySupportDAO<Community> {
     public List<Community> findAuthorizedByGroup(Context context, EPerson currentUser, List<Integer> actions)
         throws SQLException;
 
+    /**
+     * Find all communities modified after the given date.
+     *
+     * @param context DSpace context object
+     * @param since   earliest interesting last-modified date (exclusive)
+     * @return the modified communities
+     * @throws SQLException if database error
+     */
+    List<Community> findByLastModifiedSince(Context context, Date since) throws SQLException;
+
     int countRows(Context context) throws SQLException;
 }
@@ -48,6 +48,18 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
      */
     public Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find the items with the given ids and eagerly fetch their metadata, handles, collections, bundles with
+     * bitstreams and resource policies into the current session.
+     * The number of ids should be kept small enough to fit into a single IN clause.
+     *
+     * @param context the DSpace context.
+     * @param ids     the ids of the items to find
+     * @return the items that were found
+     * @throws SQLException if database error.
+     */
+    public List<Item> findByIdsWithIndexingData(Context context, List<UUID> ids) throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
@@ -12,6 +12,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import javax.persistence.LockModeType;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -65,6 +67,26 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
         return list(context, criteriaQuery, false, Bitstream.class, -1, -1);
     }
 
+    @Override
+    public Bitstream findDuplicateContent(Context context, Bitstream bitstream) throws SQLException {
+        Query query = createQuery(context, "select b from Bitstream b " +
+            "where b.checksum = :checksum and b.checksumAlgorithm = :checksumAlgorithm " +
+            "and b.sizeBytes = :sizeBytes and b.storeNumber = :storeNumber " +
+            "and b.deleted = false and b.id <> :id and b.internalId not like '-R%'");
+        query.setParameter("checksum", bitstream.getChecksum());
+        query.setParameter("checksumAlgorithm", bitstream.getChecksumAlgorithm());
+        query.setParameter("sizeBytes", bitstream.getSizeBytes());
+        query.setParameter("storeNumber", bitstream.getStoreNumber());
+        query.setParameter("id", bitstream.getID());
+        Bitstream duplicate = singleResult(query);
+        if (duplicate == null) {
+            return null;
+        }
+        // lock the row until the end of the transaction and read it again: it may have been deleted concurrently
+        getHibernateSession(context).refresh(duplicate, LockModeType.PESSIMISTIC_WRITE);
+        return duplicate.isDeleted() ? null : duplicate;
+    }
+
     @Override
     public List<Bitstream> findBitstreamsWithNoRecentChecksum(Context context) throws SQLException {
         Query query = createQuery(context,
@@ -119,6 +141,19 @@ public class BitstreamDAOImpl extends AbstractHibernateDSODAO<Bitstream> impleme
         return iterate(query);
     }
 
+    @Override
+    public List<Bitstream> findByStoreNumber(Context context, Integer storeNumber, UUID after, int limit)
+        throws SQLException {
+        Query query = createQuery(context, "select b from Bitstream b where b.storeNumber = :storeNumber" +
+            (after != null ? " and b.id > :after" : "") + " order by b.id");
+        query.setParameter("storeNumber", storeNumber);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        query.setMaxResults(limit);
+        return list(query);
+    }
+
     @Override
     public Long countByStoreNumber(Context context, Integer storeNumber) throws SQLException {
 
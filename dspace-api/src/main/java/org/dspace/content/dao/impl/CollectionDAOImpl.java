@@ -10,9 +10,11 @@ package org.dspace.content.dao.impl;
 import java.sql.SQLException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
@@ -162,6 +164,13 @@ public class CollectionDAOImpl extends AbstractHibernateDSODAO<Collection> imple
         return list(createQuery(context, "SELECT DISTINCT col FROM Subscription s join  s.collection col"));
     }
 
+    @Override
+    public List<Collection> findByLastModifiedSince(Context context, Date since) throws SQLException {
+        Query query = createQuery(context, "SELECT c FROM Collection c WHERE c.lastModified > :since ORDER BY c.id");
+        query.setParameter("since", since, TemporalType.TIMESTAMP);
+        return list(query);
+    }
+
     @Override
     public int countRows(Context context) throws SQLException {
         return count(createQuery(context, "SELECT count(*) FROM Collection"));
@@ -8,9 +8,11 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
@@ -188,6 +190,13 @@ public class CommunityDAOImpl extends AbstractHibernateDSODAO<Community> impleme
         return list(persistenceQuery);
     }
 
+    @Override
+    public List<Community> findByLastModifiedSince(Context context, Date since) throws SQLException {
+        Query query = createQuery(context, "SELECT c FROM Community c WHERE c.lastModified > :since ORDER BY c.id");
+        query.setParameter("since", since, TemporalType.TIMESTAMP);
+        return list(query);
+    }
+
     @Override
     public int countRows(Context context) throws SQLException {
         return count(createQuery(context, "SELECT count(*) FROM Community"));
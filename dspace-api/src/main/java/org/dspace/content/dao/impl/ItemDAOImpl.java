@@ -402,6 +402,36 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
     }
 
+    @Override
+    public List<Item> findByIdsWithIndexingData(Context context, List<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = createQuery(context, "SELECT DISTINCT i FROM Item i " +
+            "LEFT JOIN FETCH i.submitter LEFT JOIN FETCH i.owningCollection WHERE i.id IN (:ids)");
+        query.setParameter("ids", ids);
+        List<Item> items = list(query);
+
+        // Hibernate cannot join fetch multiple bags in one query, so every query below initializes one lazy
+        // collection of the items which are now part of the session
+        prefetch(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.metadata mv " +
+            "LEFT JOIN FETCH mv.metadataField mf LEFT JOIN FETCH mf.metadataSchema WHERE i.id IN (:ids)", ids);
+        prefetch(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.handles WHERE i.id IN (:ids)", ids);
+        prefetch(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.collections WHERE i.id IN (:ids)", ids);
+        prefetch(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.resourcePolicies rp " +
+            "LEFT JOIN FETCH rp.epersonGroup LEFT JOIN FETCH rp.eperson WHERE i.id IN (:ids)", ids);
+        prefetch(context, "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.bundles WHERE i.id IN (:ids)", ids);
+        prefetch(context, "SELECT DISTINCT b FROM Bundle b LEFT JOIN FETCH b.bitstreams JOIN b.items i " +
+            "WHERE i.id IN (:ids)", ids);
+        return items;
+    }
+
+    private void prefetch(Context context, String hql, List<UUID> ids) throws SQLException {
+        Query query = createQuery(context, hql);
+        query.setParameter("ids", ids);
+        query.getResultList();
+    }
+
     @Override
     public Iterator<Item> findByLastModifiedSince(Context context, Date since)
         throws SQLException {
@@ -9,6 +9,7 @@ package org.dspace.content.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
@@ -166,6 +167,34 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
     public InputStream retrieve(Context context, Bitstream bitstream)
         throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * Retrieve a range of the contents of the bitstream, e.g. for an HTTP Range request
+     *
+     * @param context   DSpace context object
+     * @param bitstream DSpace bitstream
+     * @param offset    the position of the first byte to retrieve
+     * @param length    the (maximum) number of bytes to retrieve
+     * @return a stream from which the range can be read.
+     * @throws IOException        if IO error
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws IOException, SQLException, AuthorizeException;
+
+    /**
+     * Open the file holding the contents of the bitstream, if it is stored in a local file
+     *
+     * @param context   DSpace context object
+     * @param bitstream DSpace bitstream
+     * @return a channel to be closed by the caller, or null if the bitstream is not stored in a local file
+     * @throws IOException        if IO error
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public FileChannel retrieveChannel(Context context, Bitstream bitstream)
+        throws IOException, SQLException, AuthorizeException;
+
     /**
      * Determine if this bitstream is registered (available elsewhere on
      * filesystem than in assetstore). More about registered items:
@@ -198,6 +227,21 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
 
     public List<Bitstream> findDuplicateInternalIdentifier(Context context, Bitstream bitstream) throws SQLException;
 
+    /**
+     * Find another bitstream which is not deleted and has the same content (checksum and size) in the same asset
+     * store as the given bitstream, and so can share its file.
+     * <p>
+     * The returned bitstream is locked (SELECT ... FOR UPDATE) until the end of the transaction, so it can't be
+     * deleted concurrently. The cleanup removes a file only when no bitstream using it remains, so the file can't be
+     * removed before a bitstream sharing it is committed.
+     *
+     * @param context   The relevant DSpace Context.
+     * @param bitstream the bitstream
+     * @return a bitstream with the same content, or null if there is none
+     * @throws SQLException if database error
+     */
+    public Bitstream findDuplicateContent(Context context, Bitstream bitstream) throws SQLException;
+
     public Iterator<Bitstream> getItemBitstreams(Context context, Item item) throws SQLException;
 
     public Iterator<Bitstream> getCollectionBitstreams(Context context, Collection collection) throws SQLException;
@@ -216,6 +260,20 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
 
     public Iterator<Bitstream> findByStoreNumber(Context context, Integer storeNumber) throws SQLException;
 
+    /**
+     * Find a page of the bitstreams in an asset store, ordered by id. Unlike an iterator over all of them, the pages
+     * can be read across commits of the context.
+     *
+     * @param context     The relevant DSpace Context.
+     * @param storeNumber the asset store
+     * @param after       the id of the last bitstream of the previous page, or null for the first page
+     * @param limit       the maximum number of bitstreams to return
+     * @return the bitstreams of the page
+     * @throws SQLException if database error
+     */
+    public List<Bitstream> findByStoreNumber(Context context, Integer storeNumber, UUID after, int limit)
+        throws SQLException;
+
     public Long countByStoreNumber(Context context, Integer storeNumber) throws SQLException;
 
     int countTotal(Context context) throws SQLException;
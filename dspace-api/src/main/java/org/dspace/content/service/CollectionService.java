@@ -10,6 +10,7 @@ package org.dspace.content.service;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -338,6 +339,16 @@ public interface CollectionService
 
     List<Collection> findCollectionsWithSubscribers(Context context) throws SQLException;
 
+    /**
+     * Find all collections modified after the given date.
+     *
+     * @param context DSpace context object
+     * @param since   earliest interesting last-modified date (exclusive)
+     * @return the modified collections
+     * @throws SQLException if database error
+     */
+    List<Collection> findByLastModifiedSince(Context context, Date since) throws SQLException;
+
     int countTotal(Context context) throws SQLException;
 
     /**
@@ -10,6 +10,7 @@ package org.dspace.content.service;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -291,5 +292,15 @@ public interface CommunityService extends DSpaceObjectService<Community>, DSpace
 
     public List<Community> findAuthorizedGroupMapped(Context context, List<Integer> actions) throws SQLException;
 
+    /**
+     * Find all communities modified after the given date.
+     *
+     * @param context DSpace context object
+     * @param since   earliest interesting last-modified date (exclusive)
+     * @return the modified communities
+     * @throws SQLException if database error
+     */
+    List<Community> findByLastModifiedSince(Context context, Date since) throws SQLException;
+
     int countTotal(Context context) throws SQLException;
 }
@@ -128,6 +128,18 @@ public interface ItemService
      */
     public Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find the items with the given ids and prefetch the data needed to build their discovery documents
+     * (metadata, handles, owning and mapped collections, bundles with their bitstreams and resource policies)
+     * using a handful of set based queries, instead of lazily loading this data item by item.
+     *
+     * @param context the DSpace context.
+     * @param ids     the ids of the items to find
+     * @return the items that were found, in no particular order
+     * @throws SQLException if database error.
+     */
+    public List<Item> findByIdsForIndexing(Context context, List<UUID> ids) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
@@ -9,6 +9,7 @@ package org.dspace.core;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -22,6 +23,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.ResourcePolicy;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.content.DSpaceObject;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
@@ -114,6 +116,11 @@ public class Context implements AutoCloseable {
      */
     private String dispName = null;
 
+    /**
+     * Whether the discovery index is updated by the caller instead of by the events of this context
+     */
+    private boolean indexingDeferred = false;
+
     /**
      * Context mode
      */
@@ -124,6 +131,27 @@ public class Context implements AutoCloseable {
      */
     private final ContextReadOnlyCache readOnlyCache = new ContextReadOnlyCache();
 
+    /**
+     * Whether the current transaction changed something which may affect any authorization decision
+     */
+    private boolean authorizationChanged = false;
+
+    /**
+     * The objects on which the authorization decisions may be affected by the current transaction
+     */
+    private final Set<UUID> authorizationChangedObjects = new HashSet<>();
+
+    /**
+     * The resource policies created by the current transaction, their objects are resolved before it is committed
+     */
+    private final List<ResourcePolicy> authorizationChangedPolicies = new ArrayList<>();
+
+    /**
+     * The next start or end date of the dated resource policies consulted by the authorization decisions of this
+     * context, after which the decisions it shares may be wrong
+     */
+    private Date authorizationExpiry = null;
+
     protected EventService eventService;
 
     private DBConnection dbConnection;
@@ -439,10 +467,12 @@ public class Context implements AutoCloseable {
             }
 
             if (dbConnection != null) {
+                resolveAuthorizationChanges();
                 // Commit our changes (this closes the transaction but leaves database connection open)
                 dbConnection.commit();
                 reloadContextBoundEntities();
             }
+            endAuthorizationChanges(true);
         }
     }
 
@@ -486,6 +516,26 @@ public class Context implements AutoCloseable {
         dispName = dispatcher;
     }
 
+    /**
+     * Defer the discovery indexing of the objects changed in this context to the caller, e.g. a batch import which
+     * indexes all its items once at the end. All other consumers of the dispatcher still receive the events, and
+     * deleted objects are still removed from the index.
+     *
+     * @param indexingDeferred whether the changed objects are indexed by the caller
+     */
+    public void setIndexingDeferred(boolean indexingDeferred) {
+        this.indexingDeferred = indexingDeferred;
+    }
+
+    /**
+     * Check whether the discovery indexing of the objects changed in this context is deferred to the caller.
+     *
+     * @return true if the changed objects are indexed by the caller
+     */
+    public boolean isIndexingDeferred() {
+        return indexingDeferred;
+    }
+
     /**
      * Add an event to be dispatched when this context is committed.
      * NOTE: Read-only Contexts cannot add events, as they cannot modify objects.
@@ -505,6 +555,35 @@ public class Context implements AutoCloseable {
         }
 
         events.add(event);
+
+        // changes to group memberships, to the hierarchy of the objects or to their installation may affect
+        // authorization decisions
+        switch (event.getEventType()) {
+            case Event.ADD:
+            case Event.REMOVE:
+                boolean container = event.getSubjectType() == Constants.COMMUNITY
+                    || event.getSubjectType() == Constants.COLLECTION;
+                if (event.getSubjectType() == Constants.GROUP
+                    || (container && event.getObjectType() != Constants.ITEM)) {
+                    // a group membership, or a community or collection moved in the hierarchy
+                    authorizationChanged();
+                } else {
+                    authorizationChanged(event.getObjectID());
+                }
+                break;
+            case Event.INSTALL:
+                authorizationChanged(event.getSubjectID());
+                break;
+            case Event.DELETE:
+                if (event.getSubjectType() == Constants.GROUP) {
+                    authorizationChanged();
+                } else {
+                    authorizationChanged(event.getSubjectID());
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -565,6 +644,7 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            endAuthorizationChanges(false);
         }
     }
 
@@ -603,6 +683,7 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            endAuthorizationChanges(false);
         }
     }
 
@@ -900,6 +981,92 @@ public class Context implements AutoCloseable {
         }
     }
 
+    /**
+     * Record that the current transaction changed something which may affect any authorization decision, e.g. a
+     * group membership. This context doesn't use the authorization decisions shared between contexts until its
+     * transaction is committed or rolled back, once committed they are all invalidated.
+     */
+    public void authorizationChanged() {
+        authorizationChanged = true;
+    }
+
+    /**
+     * Record that the current transaction changed something which may affect the authorization decisions on a
+     * single object, e.g. one of its resource policies. Like {@link #authorizationChanged()}, but once committed only
+     * the decisions on that object are invalidated.
+     *
+     * @param id the id of the object, null if it is unknown
+     */
+    public void authorizationChanged(UUID id) {
+        if (id == null) {
+            authorizationChanged();
+        } else {
+            authorizationChangedObjects.add(id);
+        }
+    }
+
+    /**
+     * Record that the current transaction created a resource policy. The decisions affected by it are determined
+     * when the transaction is committed, as the policy is usually created before its object is set.
+     *
+     * @param resourcePolicy the created resource policy
+     */
+    public void authorizationChanged(ResourcePolicy resourcePolicy) {
+        authorizationChangedPolicies.add(resourcePolicy);
+    }
+
+    /**
+     * Record that an authorization decision of this context depends on a resource policy which starts or ends at
+     * the given date. The decisions this context shares with other contexts expire at the earliest of these dates, as
+     * they may have been derived from that decision.
+     *
+     * @param expiry the start or end date of the policy
+     */
+    public void authorizationExpiresAt(Date expiry) {
+        if (expiry != null && (authorizationExpiry == null || expiry.before(authorizationExpiry))) {
+            authorizationExpiry = expiry;
+        }
+    }
+
+    /**
+     * @return the date after which the authorization decisions of this context may change, null if they don't
+     * depend on any dated resource policy
+     */
+    public Date getAuthorizationExpiry() {
+        return authorizationExpiry;
+    }
+
+    /**
+     * @return true if the current transaction changed something which may affect authorization decisions
+     */
+    public boolean isAuthorizationChanged() {
+        return authorizationChanged || !authorizationChangedObjects.isEmpty()
+            || !authorizationChangedPolicies.isEmpty();
+    }
+
+    private void resolveAuthorizationChanges() {
+        for (ResourcePolicy resourcePolicy : authorizationChangedPolicies) {
+            AuthorizeServiceFactory.getInstance().getAuthorizationCache()
+                                   .policiesChanged(this, resourcePolicy.getdSpaceObject(), resourcePolicy.getAction());
+        }
+        authorizationChangedPolicies.clear();
+    }
+
+    /**
+     * Invalidate the shared authorization decisions affected by the committed transaction. Nothing has to be
+     * invalidated when it was rolled back, this context didn't share any decisions in the meantime.
+     */
+    private void endAuthorizationChanges(boolean committed) {
+        if (committed && authorizationChanged) {
+            AuthorizeServiceFactory.getInstance().getAuthorizationCache().invalidate();
+        } else if (committed && !authorizationChangedObjects.isEmpty()) {
+            AuthorizeServiceFactory.getInstance().getAuthorizationCache().invalidate(authorizationChangedObjects);
+        }
+        authorizationChanged = false;
+        authorizationChangedObjects.clear();
+        authorizationChangedPolicies.clear();
+    }
+
     public Boolean getCachedGroupMembership(Group group, EPerson eperson) {
         if (isReadOnly()) {
             return readOnlyCache.getCachedGroupMembership(group, eperson);
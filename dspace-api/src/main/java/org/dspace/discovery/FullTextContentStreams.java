@@ -17,6 +17,7 @@ import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
@@ -141,6 +142,13 @@ public class FullTextContentStreams extends ContentStreamBase {
         return CollectionUtils.isEmpty(fullTextStreams);
     }
 
+    /**
+     * @return the bitstreams of the TEXT bundle, so their text can be extracted one by one
+     */
+    public List<FullTextBitstream> getFullTextBitstreams() {
+        return Collections.unmodifiableList(fullTextStreams);
+    }
+
     private BitstreamService getBitstreamService() {
         if (bitstreamService == null) {
             bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
@@ -148,7 +156,7 @@ public class FullTextContentStreams extends ContentStreamBase {
         return bitstreamService;
     }
 
-    private class FullTextBitstream {
+    public class FullTextBitstream {
         private final String itemHandle;
         private final Bitstream bitstream;
 
@@ -170,6 +178,14 @@ public class FullTextContentStreams extends ContentStreamBase {
             return bitstream.getSizeBytes();
         }
 
+        public String getChecksum() {
+            return bitstream.getChecksum();
+        }
+
+        public String getChecksumAlgorithm() {
+            return bitstream.getChecksumAlgorithm();
+        }
+
         public InputStream getInputStream() throws SQLException, IOException, AuthorizeException {
             return getBitstreamService().retrieve(context, bitstream);
         }
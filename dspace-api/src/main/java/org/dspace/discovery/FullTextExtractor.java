@@ -0,0 +1,243 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.csv.TextAndCSVParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.dspace.discovery.FullTextContentStreams.FullTextBitstream;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.xml.sax.SAXException;
+
+/**
+ * Extracts the text of the TEXT bundle of an item into the "fulltext" field of its discovery document.
+ * <p>
+ * The bitstreams are parsed one at a time and reading stops as soon as "discovery.solr.fulltext.charLimit"
+ * characters were extracted for the item, so the memory needed to build a document doesn't depend on the size of
+ * the extracted text files. When "discovery.solr.fulltext.cache.dir" is set, the parsed text of every bitstream is
+ * also kept on disk, keyed by its checksum, so reindexing doesn't have to read the bitstream from the assetstore
+ * again. The number of bytes read, truncated items and cache hits are counted, see {@link #getStatistics()}.
+ */
+public class FullTextExtractor {
+
+    private static final Logger log = LogManager.getLogger(FullTextExtractor.class);
+
+    @Autowired
+    protected ConfigurationService configurationService;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong charsExtracted = new AtomicLong();
+    private final AtomicLong truncations = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Parse the provided full text stream(s) and add them to the "fulltext" field of the document.
+     *
+     * @param doc     the solr document to add the full text to
+     * @param streams the bitstreams of the TEXT bundle, may be null
+     * @throws IOException if a bitstream could not be parsed
+     */
+    public void addFullText(SolrInputDocument doc, FullTextContentStreams streams) throws IOException {
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        // limit full text indexing to first 100,000 characters unless configured otherwise
+        final int charLimit = configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000);
+        final StringBuilder fullText = new StringBuilder();
+        final Metadata tikaMetadata = new Metadata();
+        boolean truncated = false;
+
+        for (FullTextBitstream bitstream : streams.getFullTextBitstreams()) {
+            // the texts of the bitstreams are separated by a new line, which counts against the limit as well
+            String separator = fullText.length() > 0 ? "\n" : "";
+            int remaining = charLimit < 0 ? -1 : charLimit - fullText.length() - separator.length();
+            if (charLimit >= 0 && remaining <= 0) {
+                truncated = true;
+                break;
+            }
+            String text = getText(bitstream, charLimit, remaining, tikaMetadata);
+            if (text == null) {
+                continue;
+            }
+            fullText.append(separator);
+            if (charLimit >= 0 && text.length() > remaining) {
+                fullText.append(text, 0, remaining);
+                truncated = true;
+                break;
+            }
+            fullText.append(text);
+        }
+
+        if (truncated) {
+            truncations.incrementAndGet();
+            // log that we only indexed up to that configured limit
+            log.info("Full text of {} is larger than the configured limit (discovery.solr.fulltext.charLimit)."
+                         + " Only the first {} characters were indexed.", streams.getSourceInfo(), charLimit);
+        }
+        charsExtracted.addAndGet(fullText.length());
+
+        // Write Tika metadata to "tika_meta_*" fields.
+        // This metadata is not very useful right now, but we'll keep it just in case it becomes more useful.
+        for (String name : tikaMetadata.names()) {
+            for (String value : tikaMetadata.getValues(name)) {
+                doc.addField("tika_meta_" + name, value);
+            }
+        }
+
+        // Save (parsed) full text to "fulltext" field
+        doc.addField("fulltext", fullText.toString());
+    }
+
+    /**
+     * Retrieve the text of a single bitstream, from the cache if possible.
+     *
+     * @param charLimit the maximum number of characters of any bitstream, -1 for unlimited
+     * @param remaining the number of characters the item can still hold, -1 for unlimited
+     * @return the text, or null if the bitstream could not be read
+     */
+    private String getText(FullTextBitstream bitstream, int charLimit, int remaining, Metadata tikaMetadata)
+        throws IOException {
+        final Path cacheFile = getCacheFile(bitstream, charLimit);
+        if (cacheFile != null) {
+            try {
+                if (Files.exists(cacheFile)) {
+                    cacheHits.incrementAndGet();
+                    return Files.readString(cacheFile, StandardCharsets.UTF_8);
+                }
+            } catch (IOException e) {
+                log.warn("Unable to read cached full text {}", cacheFile, e);
+            }
+            cacheMisses.incrementAndGet();
+        }
+
+        // a cached text has to be usable at any position within the item, so it is parsed up to the full limit
+        final String text = parse(bitstream, cacheFile == null ? remaining : charLimit, tikaMetadata);
+        if (cacheFile != null && text != null) {
+            try {
+                Files.createDirectories(cacheFile.getParent());
+                Path tempFile = Files.createTempFile(cacheFile.getParent(), "fulltext", ".tmp");
+                Files.writeString(tempFile, text, StandardCharsets.UTF_8);
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Unable to cache full text in {}", cacheFile, e);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Use Tika's Text parser as the streams are always from the TEXT bundle (i.e. already extracted text). Parsing
+     * stops once the limit is reached, the rest of the bitstream is never read. One character more than the limit
+     * is kept, so a text which is longer than the limit can be told apart from one which fills it exactly.
+     */
+    private String parse(FullTextBitstream bitstream, int limit, Metadata tikaMetadata) throws IOException {
+        BodyContentHandler tikaHandler = new BodyContentHandler(limit < 0 ? -1 : limit + 1);
+        Metadata bitstreamMetadata = new Metadata();
+        InputStream inputStream;
+        try {
+            inputStream = bitstream.getInputStream();
+        } catch (Exception e) {
+            log.warn("Unable to add full text bitstream {} for item {} to SOLR: {}", bitstream.getFileName(),
+                     bitstream.getItemHandle(), e.getMessage(), e);
+            return null;
+        }
+        try (CountingInputStream countingInputStream = new CountingInputStream(inputStream)) {
+            try {
+                // buffered above the counter, so the detection of the charset rereads from the buffer only
+                new TextAndCSVParser().parse(new BufferedInputStream(countingInputStream), tikaHandler,
+                                             bitstreamMetadata, new ParseContext());
+            } catch (SAXException saxe) {
+                // a notice that the bitstream is longer than the limit is expected, the text so far is kept
+                if (!WriteLimitReachedException.isWriteLimitReached(saxe)) {
+                    log.error("Tika parsing error. Could not index full text.", saxe);
+                    throw new IOException("Tika parsing error. Could not index full text.", saxe);
+                }
+            } catch (TikaException ex) {
+                log.error("Tika parsing error. Could not index full text.", ex);
+                throw new IOException("Tika parsing error. Could not index full text.", ex);
+            } finally {
+                bytesRead.addAndGet(countingInputStream.getByteCount());
+            }
+        }
+        // the bitstreams of an item usually share their metadata (encoding, content type), keep it only once
+        for (String name : bitstreamMetadata.names()) {
+            for (String value : bitstreamMetadata.getValues(name)) {
+                if (!ArrayUtils.contains(tikaMetadata.getValues(name), value)) {
+                    tikaMetadata.add(name, value);
+                }
+            }
+        }
+        return tikaHandler.toString();
+    }
+
+    /**
+     * @return the file holding the cached text of the bitstream, or null if it can't be cached
+     */
+    private Path getCacheFile(FullTextBitstream bitstream, int charLimit) {
+        final String cacheDir = configurationService.getProperty("discovery.solr.fulltext.cache.dir");
+        final String checksum = bitstream.getChecksum();
+        final String algorithm = bitstream.getChecksumAlgorithm();
+        if (StringUtils.isBlank(cacheDir) || !StringUtils.isAlphanumeric(checksum)
+            || !StringUtils.isAlphanumeric(StringUtils.remove(algorithm, '-'))) {
+            return null;
+        }
+        // the limit is part of the key, a cached text is only complete for the limit it was extracted with
+        return Paths.get(cacheDir, StringUtils.left(checksum, 2),
+                         algorithm + "-" + checksum + "-" + charLimit + ".txt");
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getCharsExtracted() {
+        return charsExtracted.get();
+    }
+
+    public long getTruncations() {
+        return truncations.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * @return a summary of the counters, for logging
+     */
+    public String getStatistics() {
+        return "Full text extraction: " + getBytesRead() + " bytes read, " + getCharsExtracted()
+            + " characters indexed, " + getTruncations() + " items truncated, " + getCacheHits() + " cache hits, "
+            + getCacheMisses() + " cache misses";
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Date;
+
+import org.dspace.core.Context;
+
+/**
+ * Service keeping the discovery index up to date incrementally.
+ * <p>
+ * Items, collections and communities record when they were last modified. Each incremental run reindexes the objects
+ * modified after a persisted watermark, removes the objects for which a tombstone was recorded when they were deleted
+ * and then advances the watermark, so catching up after e.g. a Solr outage doesn't require a full rebuild.
+ */
+public interface IncrementalIndexingService {
+
+    /**
+     * Whether tombstones are recorded for deleted objects, see "discovery.index.incremental".
+     *
+     * @return true if incremental indexing is enabled
+     */
+    public boolean isEnabled();
+
+    /**
+     * Record that an object was removed from the database, as part of the current transaction.
+     *
+     * @param context       the DSpace context
+     * @param uniqueIndexId the unique index id of the object, e.g. Item-&lt;uuid&gt;
+     * @throws SQLException if database error
+     */
+    public void addTombstone(Context context, String uniqueIndexId) throws SQLException;
+
+    /**
+     * Retrieve the persisted watermark.
+     *
+     * @return the moment the last successful incremental run or rebuild started, or null if none was recorded yet
+     * @throws IOException if the watermark could not be read
+     */
+    public Date getWatermark() throws IOException;
+
+    /**
+     * Persist a new watermark, e.g. after the whole index was rebuilt.
+     *
+     * @param watermark the moment the incremental run or rebuild started
+     * @throws IOException if the watermark could not be written
+     */
+    public void setWatermark(Date watermark) throws IOException;
+
+    /**
+     * Reindex the items, collections and communities modified after the watermark and remove the objects deleted
+     * since the previous run from the index, in batches. The watermark is only advanced if all objects were
+     * processed successfully.
+     *
+     * @param context the DSpace context, used to read the changed objects and remove the processed tombstones
+     * @return the number of reindexed and removed objects
+     * @throws SQLException           if database error
+     * @throws SearchServiceException if the search core could not be updated
+     * @throws IOException            if the watermark could not be read or written
+     */
+    public long updateIndex(Context context) throws SQLException, SearchServiceException, IOException;
+}
@@ -0,0 +1,230 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.discovery.dao.IndexingTombstoneDAO;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Implementation of {@link IncrementalIndexingService}.
+ * <p>
+ * The watermark is stored in the file configured by "discovery.index.incremental.watermark". Since the last
+ * modification date of an object is set before its transaction commits, each run also reindexes the objects
+ * modified up to "discovery.index.incremental.overlap" ms before the watermark, so changes which were committed
+ * while the previous run was in progress are picked up as well.
+ */
+public class IncrementalIndexingServiceImpl implements IncrementalIndexingService {
+
+    private static final Logger log = LogManager.getLogger(IncrementalIndexingServiceImpl.class);
+
+    @Autowired
+    protected IndexingTombstoneDAO indexingTombstoneDAO;
+    @Autowired
+    protected IndexingService indexingService;
+    @Autowired
+    protected IndexObjectFactoryFactory indexObjectFactoryFactory;
+    @Autowired
+    protected ItemService itemService;
+    @Autowired
+    protected CollectionService collectionService;
+    @Autowired
+    protected CommunityService communityService;
+    @Autowired
+    protected ConfigurationService configurationService;
+
+    protected IncrementalIndexingServiceImpl() {
+
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("discovery.index.incremental", false);
+    }
+
+    @Override
+    public void addTombstone(Context context, String uniqueIndexId) throws SQLException {
+        IndexingTombstone tombstone = new IndexingTombstone();
+        tombstone.setUniqueIndexId(uniqueIndexId);
+        tombstone.setDeleted(new Date());
+        indexingTombstoneDAO.create(context, tombstone);
+    }
+
+    @Override
+    public Date getWatermark() throws IOException {
+        Path file = getWatermarkFile();
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String watermark = StringUtils.trim(Files.readString(file, StandardCharsets.UTF_8));
+        try {
+            return Date.from(Instant.parse(watermark));
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid watermark '" + watermark + "' in " + file, e);
+        }
+    }
+
+    @Override
+    public void setWatermark(Date watermark) throws IOException {
+        Path file = getWatermarkFile();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        // write a temporary file first, so a crash never leaves a truncated watermark behind
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tempFile, watermark.toInstant().toString(), StandardCharsets.UTF_8);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public long updateIndex(Context context) throws SQLException, SearchServiceException, IOException {
+        final Date start = new Date();
+        final Date watermark = getWatermark();
+        final long overlap = configurationService.getLongProperty("discovery.index.incremental.overlap", 60000);
+        final Date since = watermark == null ? new Date(0) : new Date(Math.max(0, watermark.getTime() - overlap));
+        final int batchSize = Math.max(1, configurationService.getIntProperty(
+            "discovery.index.incremental.batch-size", 100));
+        if (!isEnabled()) {
+            log.warn("discovery.index.incremental is disabled, objects deleted from the database are not tracked " +
+                         "and will not be removed from the index");
+        }
+        log.info("Reindexing the objects modified since {}", since.toInstant());
+
+        long count = 0;
+        int failures = 0;
+
+        // the index factories are used directly, as IndexingService.unIndexContent only logs failures and the
+        // tombstones of the objects which are still in the index have to be kept
+        final List<String> tombstones = new ArrayList<>();
+        for (String uniqueIndexId : indexingTombstoneDAO.findUniqueIndexIdsDeletedBefore(context, start)) {
+            try {
+                indexObjectFactoryFactory.getIndexableObjectFactory(uniqueIndexId).delete(uniqueIndexId);
+                tombstones.add(uniqueIndexId);
+                count++;
+            } catch (IOException | SolrServerException | RuntimeException e) {
+                log.error("Failed while UN-indexing object: " + uniqueIndexId, e);
+                failures++;
+            }
+        }
+        indexingService.commit();
+
+        final List<DSpaceObject> changed = new ArrayList<>();
+        changed.addAll(communityService.findByLastModifiedSince(context, since));
+        changed.addAll(collectionService.findByLastModifiedSince(context, since));
+        for (int i = 0; i < changed.size(); i += batchSize) {
+            failures += indexBatch(context, changed.subList(i, Math.min(changed.size(), i + batchSize)));
+            count += Math.min(changed.size(), i + batchSize) - i;
+        }
+
+        final Iterator<Item> items = itemService.findByLastModifiedSince(context, since);
+        final List<Item> batch = new ArrayList<>(batchSize);
+        while (items.hasNext()) {
+            batch.add(items.next());
+            if (batch.size() == batchSize || !items.hasNext()) {
+                failures += indexItems(context, batch);
+                count += batch.size();
+                batch.clear();
+            }
+        }
+
+        // only remove the tombstones that were processed, deletions committed meanwhile or which could not be
+        // removed from the index are handled next time
+        for (int i = 0; i < tombstones.size(); i += batchSize) {
+            indexingTombstoneDAO.deleteByUniqueIndexIds(context,
+                tombstones.subList(i, Math.min(tombstones.size(), i + batchSize)), start);
+        }
+        context.commit();
+
+        if (failures > 0) {
+            log.warn("{} objects could not be reindexed, the watermark is kept at {}", failures,
+                     watermark == null ? "(none)" : watermark.toInstant());
+        } else {
+            setWatermark(start);
+        }
+        log.info("Incrementally reindexed or removed {} objects", count);
+        return count;
+    }
+
+    /**
+     * Load the data needed to index the given items with a few set based queries and index them.
+     *
+     * @return the number of items which could not be indexed
+     */
+    private int indexItems(Context context, List<Item> items) throws SQLException, SearchServiceException {
+        final List<UUID> ids = new ArrayList<>(items.size());
+        for (Item item : items) {
+            ids.add(item.getID());
+        }
+        try {
+            itemService.findByIdsForIndexing(context, ids);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Failed to prefetch items before indexing, they will be loaded one by one", e);
+        }
+        return indexBatch(context, items);
+    }
+
+    /**
+     * Index all representations of the given objects and commit the search core. The index factories are used
+     * directly, as IndexingService.indexContent only logs failures and the watermark must be kept when one fails.
+     *
+     * @return the number of objects which could not be indexed
+     */
+    private int indexBatch(Context context, List<? extends DSpaceObject> objects)
+        throws SQLException, SearchServiceException {
+        int failures = 0;
+        for (DSpaceObject object : objects) {
+            try {
+                for (IndexableObject indexableObject : indexObjectFactoryFactory.getIndexableObjects(context,
+                                                                                                      object)) {
+                    IndexFactory indexFactory = indexObjectFactoryFactory.getIndexableObjectFactory(indexableObject);
+                    indexFactory.writeDocument(context, indexableObject,
+                                               indexFactory.buildDocument(context, indexableObject));
+                }
+            } catch (SQLException | IOException | SolrServerException | RuntimeException e) {
+                log.error("Failed while indexing object: " + object, e);
+                failures++;
+            }
+            context.uncacheEntity(object);
+        }
+        // fails if the search core is unavailable, in which case the watermark must not be advanced
+        indexingService.commit();
+        return failures;
+    }
+
+    private Path getWatermarkFile() {
+        return Paths.get(configurationService.getProperty("discovery.index.incremental.watermark",
+            configurationService.getProperty("dspace.dir") + "/var/discovery/incremental-index.watermark"));
+    }
+}
@@ -9,6 +9,7 @@ package org.dspace.discovery;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,8 +43,17 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
                                                .getServiceByName(IndexingService.class.getName(),
                                                                  IndexingService.class);
 
+    private IncrementalIndexingService incrementalIndexingService = DSpaceServicesFactory.getInstance()
+        .getServiceManager().getServiceByName(IncrementalIndexingService.class.getName(),
+                                              IncrementalIndexingService.class);
+
     private IndexClientOptions indexClientOptions;
 
+    /**
+     * The number of worker threads used to rebuild the index, 0 when the index is rebuilt on the script thread.
+     */
+    private int threads;
+
     @Override
     public void internalRun() throws Exception {
         if (indexClientOptions == IndexClientOptions.HELP) {
@@ -68,8 +78,17 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
         } else if (indexClientOptions == IndexClientOptions.BUILD ||
             indexClientOptions == IndexClientOptions.BUILDANDSPELLCHECK) {
             handler.logInfo("(Re)building index from scratch.");
+            final Date buildStart = new Date();
             indexer.deleteIndex();
-            indexer.createIndex(context);
+            if (threads > 0) {
+                buildIndexInParallel(threads);
+            } else {
+                indexer.createIndex(context);
+            }
+            if (incrementalIndexingService.isEnabled()) {
+                // the next incremental run only has to pick up the changes made during and after the rebuild
+                incrementalIndexingService.setWatermark(buildStart);
+            }
             if (indexClientOptions == IndexClientOptions.BUILDANDSPELLCHECK) {
                 checkRebuildSpellCheck(commandLine, indexer);
             }
@@ -124,6 +143,18 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
                     getItemService(), context, indexableObject.get());
             final long seconds = (System.currentTimeMillis() - startTimeMillis) / 1000;
             handler.logInfo("Indexed " + count + " object" + (count > 1 ? "s" : "") + " in " + seconds + " seconds");
+        } else if (indexClientOptions == IndexClientOptions.INCREMENTAL) {
+            handler.logInfo("Incrementally updating index, changes since " +
+                                Optional.ofNullable(incrementalIndexingService.getWatermark())
+                                        .map(watermark -> watermark.toInstant().toString())
+                                        .orElse("the beginning"));
+            // the processed tombstones are removed from the database
+            context.setMode(Context.Mode.BATCH_EDIT);
+            final long startTimeMillis = System.currentTimeMillis();
+            final long count = incrementalIndexingService.updateIndex(context);
+            final long seconds = (System.currentTimeMillis() - startTimeMillis) / 1000;
+            handler.logInfo("Indexed or removed " + count + " object" + (count > 1 ? "s" : "") + " in " + seconds +
+                                " seconds");
         } else if (indexClientOptions == IndexClientOptions.UPDATE ||
             indexClientOptions == IndexClientOptions.UPDATEANDSPELLCHECK) {
             handler.logInfo("Updating Index");
@@ -140,6 +171,11 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
             }
         }
 
+        final FullTextExtractor fullTextExtractor = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServicesByType(FullTextExtractor.class).get(0);
+        if (fullTextExtractor.getBytesRead() > 0 || fullTextExtractor.getCacheHits() > 0) {
+            handler.logInfo(fullTextExtractor.getStatistics());
+        }
         handler.logInfo("Done with indexing");
     }
 
@@ -150,14 +186,67 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
     }
 
     public void setup() throws ParseException {
+        indexClientOptions = IndexClientOptions.getIndexClientOption(commandLine);
+        threads = parseThreads();
         try {
             context = new Context(Context.Mode.READ_ONLY);
             context.turnOffAuthorisationSystem();
         } catch (Exception e) {
             throw new ParseException("Unable to create a new DSpace Context: " + e.getMessage());
         }
-        indexClientOptions = IndexClientOptions.getIndexClientOption(commandLine);
     }
+
+    /**
+     * Parses the -t option, which only applies to a (re)build of the whole index with -b.
+     *
+     * @return the number of worker threads, or 0 if -t is not given
+     * @throws ParseException if -t is not a positive number or is given without -b
+     */
+    private int parseThreads() throws ParseException {
+        if (!commandLine.hasOption("t") || indexClientOptions == IndexClientOptions.HELP) {
+            return 0;
+        }
+        if (indexClientOptions != IndexClientOptions.BUILD
+            && indexClientOptions != IndexClientOptions.BUILDANDSPELLCHECK) {
+            throw new ParseException("The -t option can only be used together with -b");
+        }
+        String value = commandLine.getOptionValue("t");
+        int count;
+        try {
+            count = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ParseException("The number of threads must be a number: " + value);
+        }
+        if (count < 1) {
+            throw new ParseException("The number of threads must be at least 1: " + value);
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds the whole index using a pool of worker threads, each owning its own Context.
+     *
+     * @param threads the number of worker threads
+     * @throws SQLException           An exception that provides information on a database access error or other errors.
+     * @throws SearchServiceException in case of a solr exception
+     */
+    protected void buildIndexInParallel(int threads) throws SQLException, SearchServiceException {
+        final int batchSize = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                   .getIntProperty("discovery.index.parallel.batchSize", 100);
+        final ParallelIndexer parallelIndexer = new ParallelIndexer(IndexObjectFactoryFactory.getInstance(),
+                                                                    getSolrSearchCore(), handler, threads,
+                                                                    batchSize);
+        final long startTimeMillis = System.currentTimeMillis();
+        final long count = parallelIndexer.indexAll(context, null);
+        final long seconds = (System.currentTimeMillis() - startTimeMillis) / 1000;
+        handler.logInfo("Indexed " + count + " object" + (count > 1 ? "s" : "") + " in " + seconds + " seconds");
+    }
+
+    private SolrSearchCore getSolrSearchCore() {
+        return DSpaceServicesFactory.getInstance().getServiceManager()
+                                    .getServicesByType(SolrSearchCore.class).get(0);
+    }
+
     /**
      * Indexes the given object and all children, if applicable.
      *
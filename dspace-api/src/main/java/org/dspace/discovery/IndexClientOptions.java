@@ -23,6 +23,7 @@ public enum IndexClientOptions {
     OPTIMIZE,
     SPELLCHECK,
     INDEX,
+    INCREMENTAL,
     UPDATE,
     FORCEUPDATE,
     UPDATEANDSPELLCHECK,
@@ -56,6 +57,8 @@ public enum IndexClientOptions {
             return IndexClientOptions.SPELLCHECK;
         } else if (commandLine.hasOption("i")) {
             return IndexClientOptions.INDEX;
+        } else if (commandLine.hasOption("n")) {
+            return IndexClientOptions.INCREMENTAL;
         } else {
             if (commandLine.hasOption("f") && commandLine.hasOption("s")) {
                 return IndexClientOptions.FORCEUPDATEANDSPELLCHECK;
@@ -84,6 +87,11 @@ public enum IndexClientOptions {
         options.addOption("s", "spellchecker", false, "Rebuild the spellchecker, can be combined with -b and -f.");
         options.addOption("f", "force", false,
                           "if updating existing index, force each handle to be reindexed even if uptodate");
+        options.addOption("n", "incremental", false,
+                          "reindex only the Items, Collections and Communities modified since the previous " +
+                              "incremental run or rebuild, and remove deleted objects from the index");
+        options.addOption("t", "threads", true,
+                          "number of worker threads used to (re)build the index, can be combined with -b");
         options.addOption("h", "help", false, "print this help message");
         return options;
     }
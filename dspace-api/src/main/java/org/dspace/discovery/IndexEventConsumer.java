@@ -8,15 +8,19 @@
 package org.dspace.discovery;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.apache.commons.collections4.SetUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Bundle;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.IndexableItem;
 import org.dspace.discovery.indexobject.factory.IndexFactory;
 import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.event.Consumer;
@@ -44,12 +48,23 @@ public class IndexEventConsumer implements Consumer {
     // unique search IDs to delete
     private Set<String> uniqueIdsToDelete = new HashSet<>();
 
+    // unique search IDs of objects deleted from the database, tombstones for the incremental reindex
+    private Set<String> deletedUniqueIds = new HashSet<>();
+
     IndexingService indexer = DSpaceServicesFactory.getInstance().getServiceManager()
                                                    .getServiceByName(IndexingService.class.getName(),
                                                                      IndexingService.class);
 
     IndexObjectFactoryFactory indexObjectServiceFactory = IndexObjectFactoryFactory.getInstance();
 
+    IndexingQueueService indexingQueueService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                    .getServiceByName(IndexingQueueService.class.getName(),
+                                                                      IndexingQueueService.class);
+
+    IncrementalIndexingService incrementalIndexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                    .getServiceByName(IncrementalIndexingService.class.getName(),
+                                                                      IncrementalIndexingService.class);
+
     @Override
     public void initialize() throws Exception {
 
@@ -80,6 +95,11 @@ public class IndexEventConsumer implements Consumer {
             return;
         }
 
+        // the caller indexes the changed objects itself, only deletions are handled here
+        if (ctx.isIndexingDeferred() && event.getEventType() != Event.DELETE) {
+            return;
+        }
+
         DSpaceObject subject = event.getSubject(ctx);
 
         DSpaceObject object = event.getObject(ctx);
@@ -181,6 +201,7 @@ public class IndexEventConsumer implements Consumer {
                     String detail = indexableObjectService.getType() + "-" + event.getSubjectID().toString();
                     log.debug("consume() adding event to delete queue: " + event.toString());
                     uniqueIdsToDelete.add(detail);
+                    deletedUniqueIds.add(detail);
                 }
                 break;
             default:
@@ -200,6 +221,17 @@ public class IndexEventConsumer implements Consumer {
      */
     @Override
     public void end(Context ctx) throws Exception {
+        if (incrementalIndexingService.isEnabled()) {
+            // remembered as part of the deleting transaction, in case removing them from the index fails
+            for (String uid : deletedUniqueIds) {
+                incrementalIndexingService.addTombstone(ctx, uid);
+            }
+        }
+        deletedUniqueIds.clear();
+        if (indexingQueueService.isEnabled()) {
+            enqueue(ctx);
+            return;
+        }
 
         try {
             for (String uid : uniqueIdsToDelete) {
@@ -212,6 +244,7 @@ public class IndexEventConsumer implements Consumer {
                     log.error("Failed while UN-indexing object: " + uid, e);
                 }
             }
+            prefetchItems(ctx);
             // update the changed Items not deleted because they were on create list
             for (IndexableObject iu : objectsToUpdate) {
                 indexObject(ctx, iu, false);
@@ -233,6 +266,48 @@ public class IndexEventConsumer implements Consumer {
         }
     }
 
+    /**
+     * Record all objects to add, update and delete in the indexing queue as part of the current transaction, so
+     * they are indexed asynchronously instead of within the request that changed them.
+     */
+    private void enqueue(Context ctx) throws SQLException {
+        try {
+            for (String uid : uniqueIdsToDelete) {
+                indexingQueueService.enqueueDelete(ctx, uid);
+            }
+            for (IndexableObject iu : SetUtils.union(objectsToUpdate, createdItemsToUpdate)) {
+                if (iu.getUniqueIndexID() != null) {
+                    indexingQueueService.enqueue(ctx, iu.getUniqueIndexID());
+                }
+            }
+        } finally {
+            objectsToUpdate.clear();
+            uniqueIdsToDelete.clear();
+            createdItemsToUpdate.clear();
+        }
+    }
+
+    /**
+     * When many items were touched (e.g. after a batch import) load them and the data needed to index them with a
+     * few set based queries, so building their documents doesn't lazily load that data item by item.
+     */
+    private void prefetchItems(Context ctx) {
+        List<String> itemIds = new ArrayList<>();
+        for (IndexableObject iu : SetUtils.union(objectsToUpdate, createdItemsToUpdate)) {
+            if (IndexableItem.TYPE.equals(iu.getType())) {
+                itemIds.add(String.valueOf(iu.getID()));
+            }
+        }
+        if (itemIds.size() > 1) {
+            try {
+                indexObjectServiceFactory.getIndexFactoryByType(IndexableItem.TYPE)
+                                         .findIndexableObjects(ctx, itemIds);
+            } catch (Exception e) {
+                log.warn("Failed to prefetch items before indexing, they will be loaded one by one", e);
+            }
+        }
+    }
+
     private void indexObject(Context ctx, IndexableObject iu, boolean preDb) throws SQLException {
         /* we let all types through here and
          * allow the search indexer to make
@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+
+/**
+ * Entity that records an indexable object that has to be (re)indexed or removed from the discovery index by the
+ * asynchronous indexing worker, see {@link IndexingQueueService}.
+ */
+@Entity
+@Table(name = "indexing_queue")
+public class IndexingQueueEntry implements ReloadableEntity<Integer> {
+
+    /**
+     * Index the object, or remove it from the index if it no longer exists
+     */
+    public static final int ACTION_INDEX = 0;
+
+    /**
+     * Remove the object from the index
+     */
+    public static final int ACTION_DELETE = 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "indexing_queue_id_seq")
+    @SequenceGenerator(name = "indexing_queue_id_seq", sequenceName = "indexing_queue_id_seq", allocationSize = 1)
+    private Integer id;
+
+    /**
+     * The unique index id of the object, e.g. Item-&lt;uuid&gt;
+     */
+    @Column(name = "unique_index_id", nullable = false)
+    private String uniqueIndexId;
+
+    /**
+     * Either {@link #ACTION_INDEX} or {@link #ACTION_DELETE}
+     */
+    @Column(name = "index_action", nullable = false)
+    private int action;
+
+    /**
+     * The moment the object was queued
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "queued", nullable = false)
+    private Date queued;
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public String getUniqueIndexId() {
+        return uniqueIndexId;
+    }
+
+    public void setUniqueIndexId(String uniqueIndexId) {
+        this.uniqueIndexId = uniqueIndexId;
+    }
+
+    public int getAction() {
+        return action;
+    }
+
+    public void setAction(int action) {
+        this.action = action;
+    }
+
+    public Date getQueued() {
+        return queued;
+    }
+
+    public void setQueued(Date queued) {
+        this.queued = queued;
+    }
+}
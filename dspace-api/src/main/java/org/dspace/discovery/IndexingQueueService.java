@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.sql.SQLException;
+
+import org.dspace.core.Context;
+
+/**
+ * Service managing the durable queue of objects waiting to be indexed asynchronously.
+ * <p>
+ * When "discovery.index.async" is enabled the {@link IndexEventConsumer} doesn't index the touched objects itself,
+ * but records them in the queue as part of the transaction that changed them. The queue is then processed in the
+ * background, see {@link #processQueue(Context)}: repeated updates of the same object are coalesced and the objects
+ * are indexed in batches by a pool of worker threads.
+ */
+public interface IndexingQueueService {
+
+    /**
+     * Whether asynchronous indexing is enabled.
+     *
+     * @return true if objects should be queued instead of being indexed immediately
+     */
+    public boolean isEnabled();
+
+    /**
+     * Record an indexable object in the queue. The object will be indexed if it still exists when the queue is
+     * processed and removed from the index otherwise.
+     *
+     * @param context        the DSpace context, the entry is stored as part of its current transaction
+     * @param uniqueIndexId  the unique index id of the object, e.g. Item-&lt;uuid&gt;
+     * @throws SQLException if database error
+     */
+    public void enqueue(Context context, String uniqueIndexId) throws SQLException;
+
+    /**
+     * Record that an object has to be removed from the index. If the same object is also queued to be indexed
+     * before the queue is processed, it is indexed instead.
+     *
+     * @param context        the DSpace context, the entry is stored as part of its current transaction
+     * @param uniqueIndexId  the unique index id of the object, e.g. Item-&lt;uuid&gt;
+     * @throws SQLException if database error
+     */
+    public void enqueueDelete(Context context, String uniqueIndexId) throws SQLException;
+
+    /**
+     * Process the objects which have been waiting in the queue for longer than the coalescing window, until the
+     * queue holds no more such objects.
+     *
+     * @param context the DSpace context used to read and update the queue
+     * @return the number of processed objects
+     * @throws SQLException if database error
+     */
+    public int processQueue(Context context) throws SQLException;
+
+    /**
+     * Process the queue in a new context if asynchronous indexing is enabled. Intended to be called by a scheduler.
+     */
+    public void processQueue();
+
+    /**
+     * Count the entries in the queue.
+     *
+     * @param context the DSpace context
+     * @return the queue depth
+     * @throws SQLException if database error
+     */
+    public int getQueueSize(Context context) throws SQLException;
+
+    /**
+     * Retrieve how long the oldest entry has been waiting in the queue.
+     *
+     * @param context the DSpace context
+     * @return the lag in milliseconds, 0 if the queue is empty
+     * @throws SQLException if database error
+     */
+    public long getQueueLag(Context context) throws SQLException;
+}
@@ -0,0 +1,277 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.dspace.core.Context;
+import org.dspace.discovery.dao.IndexingQueueDAO;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Implementation of {@link IndexingQueueService}.
+ * <p>
+ * Every run takes the objects that were queued longer ago than "discovery.index.async.coalesce-window" ms, so all
+ * updates of an object within that window result in a single reindex. The objects are split over
+ * "discovery.index.async.threads" workers, each indexing its share in its own read-only {@link Context}, after which
+ * the search core is committed once and the processed entries are removed from the queue. Objects which could not
+ * be (un)indexed are queued again, so they are retried on a later run.
+ */
+public class IndexingQueueServiceImpl implements IndexingQueueService {
+
+    private static final Logger log = LogManager.getLogger(IndexingQueueServiceImpl.class);
+
+    @Autowired
+    protected IndexingQueueDAO indexingQueueDAO;
+    @Autowired
+    protected IndexingService indexingService;
+    @Autowired
+    protected IndexObjectFactoryFactory indexObjectFactoryFactory;
+    @Autowired
+    protected ConfigurationService configurationService;
+
+    private ExecutorService executorService;
+
+    protected IndexingQueueServiceImpl() {
+
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("discovery.index.async", false);
+    }
+
+    @Override
+    public void enqueue(Context context, String uniqueIndexId) throws SQLException {
+        enqueue(context, uniqueIndexId, IndexingQueueEntry.ACTION_INDEX);
+    }
+
+    @Override
+    public void enqueueDelete(Context context, String uniqueIndexId) throws SQLException {
+        enqueue(context, uniqueIndexId, IndexingQueueEntry.ACTION_DELETE);
+    }
+
+    protected void enqueue(Context context, String uniqueIndexId, int action) throws SQLException {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setUniqueIndexId(uniqueIndexId);
+        entry.setAction(action);
+        entry.setQueued(new Date());
+        indexingQueueDAO.create(context, entry);
+    }
+
+    @Override
+    public int processQueue(Context context) throws SQLException {
+        final int batchSize = configurationService.getIntProperty("discovery.index.async.batch-size", 100);
+        final long coalesceWindow = configurationService.getLongProperty("discovery.index.async.coalesce-window",
+                                                                         2000);
+        int processed = 0;
+        Map<String, Integer> actions;
+        do {
+            final Date before = new Date(System.currentTimeMillis() - coalesceWindow);
+            actions = indexingQueueDAO.findActionsQueuedBefore(context, before, batchSize);
+            if (!actions.isEmpty()) {
+                final Set<String> failed = processBatch(actions);
+                if (failed == null) {
+                    // keep the entries queued, they will be retried on the next run
+                    break;
+                }
+                indexingQueueDAO.deleteByUniqueIndexIds(context, new ArrayList<>(actions.keySet()), before);
+                // queue the objects which could not be (un)indexed again, behind the others, so they are retried
+                // on a later run without holding up the rest of the queue
+                for (String uniqueIndexId : failed) {
+                    enqueue(context, uniqueIndexId, actions.get(uniqueIndexId));
+                }
+                context.commit();
+                processed += actions.size() - failed.size();
+                if (!failed.isEmpty()) {
+                    log.warn("{} objects could not be processed and have been queued again", failed.size());
+                }
+            }
+        } while (actions.size() == batchSize);
+
+        if (processed > 0) {
+            log.info("Processed {} objects from the indexing queue, {} entries remain queued", processed,
+                     getQueueSize(context));
+        }
+        return processed;
+    }
+
+    @Override
+    public void processQueue() {
+        if (!isEnabled()) {
+            return;
+        }
+        Context context = new Context();
+        try {
+            processQueue(context);
+            context.complete();
+        } catch (SQLException e) {
+            log.error("Error while processing the indexing queue", e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    /**
+     * Index or unindex the given objects using the worker pool and commit the search core afterwards.
+     *
+     * @return the unique index ids of the objects which could not be (un)indexed, or null if the search core could
+     *         not be committed, in which case the whole batch has to be retried
+     */
+    protected Set<String> processBatch(Map<String, Integer> actions) {
+        final List<String> uniqueIndexIds = new ArrayList<>(actions.keySet());
+        final int threads = Math.max(1, configurationService.getIntProperty("discovery.index.async.threads", 2));
+        final int partitionSize = Math.max(1, (uniqueIndexIds.size() + threads - 1) / threads);
+
+        final List<List<String>> partitions = ListUtils.partition(uniqueIndexIds, partitionSize);
+        final List<Future<Set<String>>> workers = new ArrayList<>();
+        for (List<String> partition : partitions) {
+            final Map<String, Integer> partitionActions = new LinkedHashMap<>();
+            for (String uniqueIndexId : partition) {
+                partitionActions.put(uniqueIndexId, actions.get(uniqueIndexId));
+            }
+            workers.add(getExecutorService(threads).submit(indexTask(partitionActions)));
+        }
+        final Set<String> failed = new HashSet<>();
+        for (int i = 0; i < workers.size(); i++) {
+            try {
+                failed.addAll(workers.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                log.error("Error while processing the indexing queue", e.getCause());
+                failed.addAll(partitions.get(i));
+            }
+        }
+
+        try {
+            indexingService.commit();
+            return failed;
+        } catch (SearchServiceException e) {
+            log.error("Error while committing the discovery index, the indexing queue will be retried", e);
+            return null;
+        }
+    }
+
+    private Callable<Set<String>> indexTask(Map<String, Integer> actions) {
+        return () -> {
+            Context context = new Context(Context.Mode.READ_ONLY);
+            context.turnOffAuthorisationSystem();
+            try {
+                return indexObjects(context, actions);
+            } finally {
+                context.abort();
+            }
+        };
+    }
+
+    /**
+     * Index the objects which have to be indexed and still exist and unindex all others. Objects of the same type
+     * are loaded in one go. The index factories are used directly, as the {@link IndexingService} only logs
+     * failures and the objects which failed have to stay queued.
+     *
+     * @return the unique index ids of the objects which could not be (un)indexed
+     */
+    private Set<String> indexObjects(Context context, Map<String, Integer> actions) throws SQLException {
+        final Map<String, List<String>> idsToIndexByType = new LinkedHashMap<>();
+        final Set<String> uniqueIdsToDelete = new HashSet<>();
+        final Set<String> failed = new HashSet<>();
+        for (Map.Entry<String, Integer> action : actions.entrySet()) {
+            String uniqueIndexId = action.getKey();
+            uniqueIdsToDelete.add(uniqueIndexId);
+            if (action.getValue() == IndexingQueueEntry.ACTION_INDEX) {
+                String type = StringUtils.substringBefore(uniqueIndexId, "-");
+                idsToIndexByType.computeIfAbsent(type, key -> new ArrayList<>())
+                                .add(StringUtils.substringAfter(uniqueIndexId, "-"));
+            }
+        }
+
+        for (Map.Entry<String, List<String>> idsToIndex : idsToIndexByType.entrySet()) {
+            final IndexFactory indexFactory = indexObjectFactoryFactory.getIndexFactoryByType(idsToIndex.getKey());
+            final List<IndexableObject> indexableObjects = indexFactory.findIndexableObjects(context,
+                                                                                             idsToIndex.getValue());
+            for (IndexableObject indexableObject : indexableObjects) {
+                uniqueIdsToDelete.remove(indexableObject.getUniqueIndexID());
+                try {
+                    indexFactory.writeDocument(context, indexableObject,
+                                               indexFactory.buildDocument(context, indexableObject));
+                } catch (SQLException | IOException | SolrServerException | RuntimeException e) {
+                    log.error("Failed while indexing object: " + indexableObject.getUniqueIndexID(), e);
+                    failed.add(indexableObject.getUniqueIndexID());
+                }
+                context.uncacheEntity(indexableObject.getIndexedObject());
+            }
+        }
+
+        for (String uniqueIndexId : uniqueIdsToDelete) {
+            try {
+                indexObjectFactoryFactory.getIndexableObjectFactory(uniqueIndexId).delete(uniqueIndexId);
+            } catch (IOException | SolrServerException | RuntimeException e) {
+                log.error("Failed while UN-indexing object: " + uniqueIndexId, e);
+                failed.add(uniqueIndexId);
+            }
+        }
+        return failed;
+    }
+
+    private synchronized ExecutorService getExecutorService(int threads) {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "discovery-indexing-queue");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorService;
+    }
+
+    /**
+     * Stop the worker pool, called by "destroy-method" in Spring config.
+     */
+    public synchronized void destroy() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    @Override
+    public int getQueueSize(Context context) throws SQLException {
+        return indexingQueueDAO.countRows(context);
+    }
+
+    @Override
+    public long getQueueLag(Context context) throws SQLException {
+        Date oldest = indexingQueueDAO.findOldestQueuedDate(context);
+        return oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime());
+    }
+}
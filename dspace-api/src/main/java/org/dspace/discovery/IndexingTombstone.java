@@ -0,0 +1,70 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+
+/**
+ * Entity that records an indexable object which was removed from the database, so the incremental reindex can
+ * remove it from the discovery index as well, see {@link IncrementalIndexingService}.
+ */
+@Entity
+@Table(name = "indexing_tombstone")
+public class IndexingTombstone implements ReloadableEntity<Integer> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "indexing_tombstone_id_seq")
+    @SequenceGenerator(name = "indexing_tombstone_id_seq", sequenceName = "indexing_tombstone_id_seq",
+                       allocationSize = 1)
+    private Integer id;
+
+    /**
+     * The unique index id of the object, e.g. Item-&lt;uuid&gt;
+     */
+    @Column(name = "unique_index_id", nullable = false)
+    private String uniqueIndexId;
+
+    /**
+     * The moment the object was deleted
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "deleted", nullable = false)
+    private Date deleted;
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public String getUniqueIndexId() {
+        return uniqueIndexId;
+    }
+
+    public void setUniqueIndexId(String uniqueIndexId) {
+        this.uniqueIndexId = uniqueIndexId;
+    }
+
+    public Date getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Date deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.scripts.handler.DSpaceRunnableHandler;
+
+/**
+ * Rebuilds the discovery index using a pool of worker threads.
+ * <p>
+ * The identifiers of all objects to index are read on the calling thread and partitioned into ranges of
+ * {@code batchSize} consecutive identifiers. Every range is handed to a worker which owns its own read-only
+ * {@link Context}, reloads the objects in one go through {@link IndexFactory#findIndexableObjects(Context, List)}
+ * and builds their complete solr documents. The documents are funneled
+ * through a bounded queue to a single writer thread which sends them to solr in batched
+ * {@link SolrClient#add(java.util.Collection)} calls. Progress and throughput are reported through the
+ * {@link DSpaceRunnableHandler} of the calling script.
+ */
+public class ParallelIndexer {
+
+    private static final Logger log = LogManager.getLogger(ParallelIndexer.class);
+
+    /**
+     * Marker put on the document queue to tell the writer thread that all workers are done
+     */
+    private static final SolrInputDocument END_OF_QUEUE = new SolrInputDocument();
+
+    private final IndexObjectFactoryFactory indexObjectFactoryFactory;
+    private final SolrSearchCore solrSearchCore;
+    private final DSpaceRunnableHandler handler;
+    private final int threads;
+    private final int batchSize;
+
+    private final Semaphore pendingRanges;
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long startTimeMillis;
+
+    /**
+     * @param indexObjectFactoryFactory the factory used to look up the index factories
+     * @param solrSearchCore            the search core to write the documents to
+     * @param handler                   the handler used to report progress
+     * @param threads                   the number of worker threads building documents
+     * @param batchSize                 the number of objects handed to a worker at once, also used as the number
+     *                                  of documents sent to solr in a single request
+     */
+    public ParallelIndexer(IndexObjectFactoryFactory indexObjectFactoryFactory, SolrSearchCore solrSearchCore,
+                           DSpaceRunnableHandler handler, int threads, int batchSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of indexing threads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The indexing batch size must be at least 1");
+        }
+        this.indexObjectFactoryFactory = indexObjectFactoryFactory;
+        this.solrSearchCore = solrSearchCore;
+        this.handler = handler;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pendingRanges = new Semaphore(threads * 2);
+    }
+
+    /**
+     * Index all objects of all (or the given) index factory types and commit the search core afterwards.
+     *
+     * @param context the context used to read the identifiers of the objects to index
+     * @param type    the type of the index factory to index, or null to index all types
+     * @return the number of indexed objects
+     * @throws SQLException           if database error
+     * @throws SearchServiceException if the documents could not be written to the search core
+     */
+    public long indexAll(Context context, String type) throws SQLException, SearchServiceException {
+        final SolrClient solr = solrSearchCore.getSolr();
+        if (solr == null) {
+            return 0;
+        }
+        startTimeMillis = System.currentTimeMillis();
+
+        final BlockingQueue<SolrInputDocument> documents = new ArrayBlockingQueue<>(batchSize * threads * 2);
+        final ExecutorService writerService = Executors.newSingleThreadExecutor();
+        final ExecutorService workerService = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<Void> writer = writerService.submit(() -> writeDocuments(solr, documents));
+            final List<Future<Void>> workers = new ArrayList<>();
+
+            final List<IndexFactory> indexFactories = indexObjectFactoryFactory.getIndexFactories();
+            for (IndexFactory indexFactory : indexFactories) {
+                if (type == null || StringUtils.equals(indexFactory.getType(), type)) {
+                    handler.logInfo("Indexing all objects of type " + indexFactory.getType() + " using " + threads
+                                        + " threads");
+                    final Iterator<IndexableObject> indexableObjects = indexFactory.findAll(context);
+                    List<String> range = new ArrayList<>(batchSize);
+                    while (indexableObjects.hasNext()) {
+                        final IndexableObject indexableObject = indexableObjects.next();
+                        range.add(String.valueOf(indexableObject.getID()));
+                        context.uncacheEntity(indexableObject.getIndexedObject());
+                        if (range.size() == batchSize) {
+                            workers.add(submitRange(workerService, indexFactory, range, documents));
+                            range = new ArrayList<>(batchSize);
+                        }
+                    }
+                    if (!range.isEmpty()) {
+                        workers.add(submitRange(workerService, indexFactory, range, documents));
+                    }
+                }
+            }
+
+            for (Future<Void> worker : workers) {
+                waitFor(worker);
+            }
+            documents.put(END_OF_QUEUE);
+            waitFor(writer);
+
+            solrSearchCore.getCommitPolicy().commit(solr);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchServiceException("Interrupted while indexing", e);
+        } catch (IOException | SolrServerException e) {
+            throw new SearchServiceException(e.getMessage(), e);
+        } finally {
+            workerService.shutdownNow();
+            writerService.shutdownNow();
+        }
+
+        reportProgress();
+        if (failed.get() > 0) {
+            handler.logWarning(failed.get() + " objects could not be indexed, check the DSpace logs for details");
+        }
+        return indexed.get();
+    }
+
+    /**
+     * Hand a range of identifiers to the worker pool, blocking while too many ranges are waiting to be processed so
+     * the identifiers of the whole repository are never held in memory at once.
+     */
+    private Future<Void> submitRange(ExecutorService workerService, IndexFactory indexFactory, List<String> ids,
+                                     BlockingQueue<SolrInputDocument> documents) throws InterruptedException {
+        pendingRanges.acquire();
+        return workerService.submit(() -> {
+            try {
+                buildDocuments(indexFactory, ids, documents);
+            } finally {
+                pendingRanges.release();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Build the documents for the given range of identifiers in a context owned by the current worker thread and
+     * put them on the document queue.
+     */
+    private void buildDocuments(IndexFactory indexFactory, List<String> ids,
+                                BlockingQueue<SolrInputDocument> documents) throws SQLException, InterruptedException {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        context.turnOffAuthorisationSystem();
+        try {
+            final List<IndexableObject> indexableObjects = indexFactory.findIndexableObjects(context, ids);
+            for (IndexableObject indexableObject : indexableObjects) {
+                try {
+                    documents.put(indexFactory.buildCompleteDocument(context, indexableObject));
+                } catch (SQLException | IOException | RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.error("Error while building the solr document for {} object {}", indexFactory.getType(),
+                              indexableObject.getID(), e);
+                }
+                context.uncacheEntity(indexableObject.getIndexedObject());
+            }
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Take documents from the queue and send them to solr in batches until the end of the queue is reached.
+     * If solr fails, the remaining documents are drained and discarded so that no worker blocks on a full queue,
+     * and the failure is rethrown once all workers are done.
+     */
+    private Void writeDocuments(SolrClient solr, BlockingQueue<SolrInputDocument> documents)
+        throws InterruptedException, IOException, SolrServerException {
+        Exception failure = null;
+        List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        long nextReport = batchSize * 10L;
+        SolrInputDocument document;
+        do {
+            document = documents.take();
+            if (document != END_OF_QUEUE && failure == null) {
+                batch.add(document);
+            }
+            if (batch.size() >= batchSize || (document == END_OF_QUEUE && !batch.isEmpty())) {
+                try {
+                    solrSearchCore.getCommitPolicy().add(solr, batch);
+                    if (indexed.addAndGet(batch.size()) >= nextReport) {
+                        reportProgress();
+                        nextReport += batchSize * 10L;
+                    }
+                } catch (IOException | SolrServerException | RuntimeException e) {
+                    log.error("Error while writing a batch of {} documents to solr", batch.size(), e);
+                    failure = e;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        } while (document != END_OF_QUEUE);
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof SolrServerException) {
+            throw (SolrServerException) failure;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return null;
+    }
+
+    private void reportProgress() {
+        long seconds = Math.max(1, (System.currentTimeMillis() - startTimeMillis) / 1000);
+        handler.logInfo("Indexed " + indexed.get() + " objects in " + seconds + " seconds ("
+                            + indexed.get() / seconds + " objects/second)");
+    }
+
+    private void waitFor(Future<Void> future) throws InterruptedException, SearchServiceException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new SearchServiceException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+}
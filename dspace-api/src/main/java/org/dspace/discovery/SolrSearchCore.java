@@ -22,6 +22,7 @@ import org.dspace.discovery.indexobject.IndexableItem;
 import org.dspace.service.impl.HttpConnectionPoolService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.storage.rdbms.DatabaseUtils;
+import org.dspace.util.SolrCommitPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -43,6 +44,11 @@ public class SolrSearchCore {
      */
     protected SolrClient solr = null;
 
+    /**
+     * Policy deciding when updates of the search core become visible, configured by "discovery.solr.commit.*".
+     */
+    protected SolrCommitPolicy commitPolicy = new SolrCommitPolicy("discovery.solr");
+
     /**
      * Default HTTP method to use for all Solr Requests (we prefer POST).
      * This REQUEST_METHOD should be used in all Solr queries, e.g.
@@ -69,6 +75,14 @@ public class SolrSearchCore {
         return solr;
     }
 
+    /**
+     * Get the policy which has to be used for all updates and commits of the search core.
+     * @return the commit policy of the search core
+     */
+    public SolrCommitPolicy getCommitPolicy() {
+        return commitPolicy;
+    }
+
     /**
      * Initialize the solr search core
      */
@@ -218,7 +218,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             log.info("Try to delete uniqueID:" + uniqueID);
             indexObjectServiceFactory.getIndexableObjectFactory(indexableObject).delete(indexableObject);
             if (commit) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getCommitPolicy().commit(solrSearchCore.getSolr());
             }
         } catch (IOException | SolrServerException exception) {
             log.error(exception.getMessage(), exception);
@@ -254,7 +254,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             if (solrSearchCore.getSolr() != null) {
                 indexObjectServiceFactory.getIndexableObjectFactory(searchUniqueID).delete(searchUniqueID);
                 if (commit) {
-                    solrSearchCore.getSolr().commit();
+                    solrSearchCore.getCommitPolicy().commit(solrSearchCore.getSolr());
                 }
             }
         } catch (SolrServerException e) {
@@ -343,7 +343,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                 }
             }
             if (solrSearchCore.getSolr() != null) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getCommitPolicy().commit(solrSearchCore.getSolr());
             }
 
         } catch (IOException | SQLException | SolrServerException e) {
@@ -479,7 +479,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         solrInputDocument.addField(SearchUtils.RESOURCE_UNIQUE_ID, uniqueIndexId);
         solrInputDocument.addField(field, fieldModifier);
 
-        solrSearchCore.getSolr().add(solrInputDocument);
+        solrSearchCore.getCommitPolicy().add(solrSearchCore.getSolr(), solrInputDocument);
     }
 
     // //////////////////////////////////
@@ -1052,8 +1052,8 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                 log.info("Cleaning " + zombieDocs.size() + " stale objects from Discovery Index");
                 log.info("ZombieDocs ");
                 zombieDocs.forEach(log::info);
-                solrSearchCore.getSolr().deleteById(zombieDocs);
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getCommitPolicy().deleteById(solrSearchCore.getSolr(), zombieDocs);
+                solrSearchCore.getCommitPolicy().commit(solrSearchCore.getSolr());
             } else {
                 valid = true;
             }
@@ -1512,7 +1512,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
     public void commit() throws SearchServiceException {
         try {
             if (solrSearchCore.getSolr() != null) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getCommitPolicy().commit(solrSearchCore.getSolr());
             }
         } catch (IOException | SolrServerException e) {
             throw new SearchServiceException(e.getMessage(), e);
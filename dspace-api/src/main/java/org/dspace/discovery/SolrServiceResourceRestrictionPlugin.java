@@ -10,6 +10,7 @@ package org.dspace.discovery;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -39,6 +40,7 @@ import org.dspace.eperson.service.GroupService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.xmlworkflow.storedcomponents.ClaimedTask;
 import org.dspace.xmlworkflow.storedcomponents.PoolTask;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -83,7 +85,7 @@ public class SolrServiceResourceRestrictionPlugin implements SolrServiceIndexPlu
         }
         if (dso != null) {
             try {
-                List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, dso, Constants.READ);
+                List<ResourcePolicy> policies = getPolicies(context, dso, Constants.READ);
                 for (ResourcePolicy resourcePolicy : policies) {
                     if (resourcePolicyService.isDateValid(resourcePolicy)) {
                         String fieldValue;
@@ -106,8 +108,7 @@ public class SolrServiceResourceRestrictionPlugin implements SolrServiceIndexPlu
                 // going up through the hierarchy for communities, collections and items
                 while (dso != null) {
                     if (dso instanceof Community || dso instanceof Collection || dso instanceof Item) {
-                        List<ResourcePolicy> policiesAdmin = authorizeService
-                                     .getPoliciesActionFilter(context, dso, Constants.ADMIN);
+                        List<ResourcePolicy> policiesAdmin = getPolicies(context, dso, Constants.ADMIN);
                         for (ResourcePolicy resourcePolicy : policiesAdmin) {
                             if (resourcePolicyService.isDateValid(resourcePolicy)) {
                                 String fieldValue;
@@ -136,6 +137,24 @@ public class SolrServiceResourceRestrictionPlugin implements SolrServiceIndexPlu
         }
     }
 
+    /**
+     * Retrieve the policies of the given object for the given action. When the policies of the object (and their
+     * groups and epersons) were already prefetched in a read-only context, see
+     * {@link org.dspace.content.service.ItemService#findByIdsForIndexing(Context, List)}, they are filtered in
+     * memory instead of querying the database again.
+     */
+    protected List<ResourcePolicy> getPolicies(Context context, DSpaceObject dso, int action) throws SQLException {
+        final List<ResourcePolicy> resourcePolicies = dso.getResourcePolicies();
+        if (context.isReadOnly() && Hibernate.isInitialized(resourcePolicies)
+            && resourcePolicies.stream().allMatch(resourcePolicy -> Hibernate.isInitialized(resourcePolicy.getGroup())
+                && Hibernate.isInitialized(resourcePolicy.getEPerson()))) {
+            return resourcePolicies.stream()
+                      .filter(resourcePolicy -> resourcePolicy.getAction() == action)
+                      .collect(Collectors.toList());
+        }
+        return authorizeService.getPoliciesActionFilter(context, dso, action);
+    }
+
     @Override
     public void additionalSearchParameters(Context context, DiscoverQuery discoveryQuery, SolrQuery solrQuery) {
         try {
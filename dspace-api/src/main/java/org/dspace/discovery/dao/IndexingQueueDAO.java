@@ -0,0 +1,69 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery.dao;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.discovery.IndexingQueueEntry;
+
+/**
+ * Database Access Object interface class for the IndexingQueueEntry object. The
+ * implementation of this class is responsible for all database calls for the
+ * IndexingQueueEntry object and is autowired by spring. This class should only be
+ * accessed from a single service and should never be exposed outside of the API
+ */
+public interface IndexingQueueDAO extends GenericDAO<IndexingQueueEntry> {
+
+    /**
+     * Find the distinct unique index ids of the objects queued before the given date, oldest first, together with
+     * the action to perform for them. When an object was queued several times, {@link IndexingQueueEntry#ACTION_INDEX}
+     * takes precedence over {@link IndexingQueueEntry#ACTION_DELETE}.
+     *
+     * @param context the DSpace context
+     * @param before  only objects queued before this date are returned
+     * @param limit   the maximum number of unique index ids to return
+     * @return the actions to perform, keyed by unique index id, in queue order
+     * @throws SQLException if database error
+     */
+    public Map<String, Integer> findActionsQueuedBefore(Context context, Date before, int limit)
+        throws SQLException;
+
+    /**
+     * Delete all entries of the given unique index ids which were queued before the given date.
+     *
+     * @param context        the DSpace context
+     * @param uniqueIndexIds the unique index ids to delete the entries of
+     * @param before         only entries queued before this date are deleted
+     * @return the number of deleted entries
+     * @throws SQLException if database error
+     */
+    public int deleteByUniqueIndexIds(Context context, List<String> uniqueIndexIds, Date before) throws SQLException;
+
+    /**
+     * Count all entries in the queue.
+     *
+     * @param context the DSpace context
+     * @return the number of entries
+     * @throws SQLException if database error
+     */
+    public int countRows(Context context) throws SQLException;
+
+    /**
+     * Find the date of the oldest entry in the queue.
+     *
+     * @param context the DSpace context
+     * @return the date the oldest entry was queued, or null if the queue is empty
+     * @throws SQLException if database error
+     */
+    public Date findOldestQueuedDate(Context context) throws SQLException;
+}
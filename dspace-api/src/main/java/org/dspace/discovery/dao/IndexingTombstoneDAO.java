@@ -0,0 +1,46 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery.dao;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.discovery.IndexingTombstone;
+
+/**
+ * Database Access Object interface class for the IndexingTombstone object. The
+ * implementation of this class is responsible for all database calls for the
+ * IndexingTombstone object and is autowired by spring. This class should only be
+ * accessed from a single service and should never be exposed outside of the API
+ */
+public interface IndexingTombstoneDAO extends GenericDAO<IndexingTombstone> {
+
+    /**
+     * Find the distinct unique index ids of the objects deleted before the given date.
+     *
+     * @param context the DSpace context
+     * @param before  only objects deleted before this date are returned
+     * @return the unique index ids, oldest deletion first
+     * @throws SQLException if database error
+     */
+    public List<String> findUniqueIndexIdsDeletedBefore(Context context, Date before) throws SQLException;
+
+    /**
+     * Delete the tombstones of the given unique index ids which were recorded before the given date.
+     *
+     * @param context        the DSpace context
+     * @param uniqueIndexIds the unique index ids to delete the tombstones of
+     * @param before         only tombstones of objects deleted before this date are removed
+     * @return the number of deleted tombstones
+     * @throws SQLException if database error
+     */
+    public int deleteByUniqueIndexIds(Context context, List<String> uniqueIndexIds, Date before) throws SQLException;
+}
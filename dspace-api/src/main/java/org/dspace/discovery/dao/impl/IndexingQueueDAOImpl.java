@@ -0,0 +1,73 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery.dao.impl;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.discovery.IndexingQueueEntry;
+import org.dspace.discovery.dao.IndexingQueueDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the IndexingQueueEntry object.
+ * This class is responsible for all database calls for the IndexingQueueEntry object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class IndexingQueueDAOImpl extends AbstractHibernateDAO<IndexingQueueEntry> implements IndexingQueueDAO {
+
+    protected IndexingQueueDAOImpl() {
+        super();
+    }
+
+    @Override
+    public Map<String, Integer> findActionsQueuedBefore(Context context, Date before, int limit)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT uniqueIndexId, min(action) FROM IndexingQueueEntry " +
+            "WHERE queued < :before GROUP BY uniqueIndexId ORDER BY min(id)");
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        query.setMaxResults(limit);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            result.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        return result;
+    }
+
+    @Override
+    public int deleteByUniqueIndexIds(Context context, List<String> uniqueIndexIds, Date before)
+        throws SQLException {
+        if (uniqueIndexIds.isEmpty()) {
+            return 0;
+        }
+        Query query = createQuery(context, "DELETE FROM IndexingQueueEntry " +
+            "WHERE uniqueIndexId IN (:uniqueIndexIds) AND queued < :before");
+        query.setParameter("uniqueIndexIds", uniqueIndexIds);
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int countRows(Context context) throws SQLException {
+        return count(createQuery(context, "SELECT count(*) FROM IndexingQueueEntry"));
+    }
+
+    @Override
+    public Date findOldestQueuedDate(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT min(queued) FROM IndexingQueueEntry");
+        return (Date) query.getSingleResult();
+    }
+}
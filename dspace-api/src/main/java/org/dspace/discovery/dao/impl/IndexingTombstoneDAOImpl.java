@@ -0,0 +1,55 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery.dao.impl;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.discovery.IndexingTombstone;
+import org.dspace.discovery.dao.IndexingTombstoneDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the IndexingTombstone object.
+ * This class is responsible for all database calls for the IndexingTombstone object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class IndexingTombstoneDAOImpl extends AbstractHibernateDAO<IndexingTombstone>
+    implements IndexingTombstoneDAO {
+
+    protected IndexingTombstoneDAOImpl() {
+        super();
+    }
+
+    @Override
+    public List<String> findUniqueIndexIdsDeletedBefore(Context context, Date before) throws SQLException {
+        Query query = createQuery(context, "SELECT uniqueIndexId FROM IndexingTombstone " +
+            "WHERE deleted < :before GROUP BY uniqueIndexId ORDER BY min(id)");
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        @SuppressWarnings("unchecked")
+        List<String> result = query.getResultList();
+        return result;
+    }
+
+    @Override
+    public int deleteByUniqueIndexIds(Context context, List<String> uniqueIndexIds, Date before)
+        throws SQLException {
+        if (uniqueIndexIds.isEmpty()) {
+            return 0;
+        }
+        Query query = createQuery(context, "DELETE FROM IndexingTombstone " +
+            "WHERE uniqueIndexId IN (:uniqueIndexIds) AND deleted < :before");
+        query.setParameter("uniqueIndexIds", uniqueIndexIds);
+        query.setParameter("before", before, TemporalType.TIMESTAMP);
+        return query.executeUpdate();
+    }
+}
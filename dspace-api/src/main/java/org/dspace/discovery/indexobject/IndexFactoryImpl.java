@@ -8,8 +8,8 @@
 package org.dspace.discovery.indexobject;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -19,13 +19,9 @@ import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrInputDocument;
-import org.apache.tika.exception.TikaException;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.csv.TextAndCSVParser;
-import org.apache.tika.sax.BodyContentHandler;
 import org.dspace.core.Context;
 import org.dspace.discovery.FullTextContentStreams;
+import org.dspace.discovery.FullTextExtractor;
 import org.dspace.discovery.IndexableObject;
 import org.dspace.discovery.SearchUtils;
 import org.dspace.discovery.SolrSearchCore;
@@ -34,7 +30,6 @@ import org.dspace.discovery.indexobject.factory.IndexFactory;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.util.SolrUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.xml.sax.SAXException;
 
 /**
  * Basis factory interface implementation for indexing/retrieving any IndexableObject in the search core
@@ -48,6 +43,8 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
     protected List<SolrServiceIndexPlugin> solrServiceIndexPlugins;
     @Autowired
     protected SolrSearchCore solrSearchCore;
+    @Autowired
+    protected FullTextExtractor fullTextExtractor;
 
     @Override
     public SolrInputDocument buildDocument(Context context, T indexableObject) throws SQLException, IOException {
@@ -75,6 +72,21 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
         return buildDocument(context, indexableObject);
     }
 
+    @Override
+    public List<T> findIndexableObjects(Context context, List<String> ids) throws SQLException {
+        List<T> indexableObjects = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findIndexableObject(context, id).ifPresent(indexableObjects::add);
+        }
+        return indexableObjects;
+    }
+
+    @Override
+    public SolrInputDocument buildCompleteDocument(Context context, T indexableObject)
+            throws SQLException, IOException {
+        return buildDocument(context, indexableObject);
+    }
+
     @Override
     public void writeDocument(Context context, T indexableObject, SolrInputDocument solrInputDocument)
             throws SQLException, IOException, SolrServerException {
@@ -97,57 +109,23 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
             throws IOException, SolrServerException {
         final SolrClient solr = solrSearchCore.getSolr();
         if (solr != null) {
-            // If full text stream(s) were passed in, we'll index them as part of the SolrInputDocument
-            if (streams != null && !streams.isEmpty()) {
-                // limit full text indexing to first 100,000 characters unless configured otherwise
-                final int charLimit = DSpaceServicesFactory.getInstance().getConfigurationService()
-                                                           .getIntProperty("discovery.solr.fulltext.charLimit",
-                                                                           100000);
-
-                // Use Tika's Text parser as the streams are always from the TEXT bundle (i.e. already extracted text)
-                TextAndCSVParser tikaParser = new TextAndCSVParser();
-                BodyContentHandler tikaHandler = new BodyContentHandler(charLimit);
-                Metadata tikaMetadata = new Metadata();
-                ParseContext tikaContext = new ParseContext();
-
-                // Use Apache Tika to parse the full text stream(s)
-                try (InputStream fullTextStreams = streams.getStream()) {
-                    tikaParser.parse(fullTextStreams, tikaHandler, tikaMetadata, tikaContext);
-                } catch (SAXException saxe) {
-                    // Check if this SAXException is just a notice that this file was longer than the character limit.
-                    // Unfortunately there is not a unique, public exception type to catch here. This error is thrown
-                    // by Tika's WriteOutContentHandler when it encounters a document longer than the char limit
-                    // https://github.com/apache/tika/blob/main/tika-core/src/main/java/org/apache/tika/sax/WriteOutContentHandler.java
-                    if (saxe.getMessage().contains("limit has been reached")) {
-                        // log that we only indexed up to that configured limit
-                        log.info("Full text is larger than the configured limit (discovery.solr.fulltext.charLimit)."
-                                     + " Only the first {} characters were indexed.", charLimit);
-                    } else {
-                        log.error("Tika parsing error. Could not index full text.", saxe);
-                        throw new IOException("Tika parsing error. Could not index full text.", saxe);
-                    }
-                } catch (TikaException ex) {
-                    log.error("Tika parsing error. Could not index full text.", ex);
-                    throw new IOException("Tika parsing error. Could not index full text.", ex);
-                }
-
-                // Write Tika metadata to "tika_meta_*" fields.
-                // This metadata is not very useful right now, but we'll keep it just in case it becomes more useful.
-                for (String name : tikaMetadata.names()) {
-                    for (String value : tikaMetadata.getValues(name)) {
-                        doc.addField("tika_meta_" + name, value);
-                    }
-                }
-
-                // Save (parsed) full text to "fulltext" field
-                doc.addField("fulltext", tikaHandler.toString());
-            }
+            addFullText(doc, streams);
 
             // Add document to index
-            solr.add(doc);
+            solrSearchCore.getCommitPolicy().add(solr, doc);
         }
     }
 
+    /**
+     * Parse the provided full text stream(s) and add them to the "fulltext" field of the document.
+     *
+     * @param doc     the solr document to add the full text to
+     * @param streams list of bitstream content streams, may be null
+     * @throws IOException A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    protected void addFullText(SolrInputDocument doc, FullTextContentStreams streams) throws IOException {
+        fullTextExtractor.addFullText(doc, streams);
+    }
 
     /**
      * Index the provided value as use for a sidebar facet
@@ -221,16 +199,17 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
 
     @Override
     public void delete(T indexableObject) throws IOException, SolrServerException {
-        solrSearchCore.getSolr().deleteById(indexableObject.getUniqueIndexID());
+        solrSearchCore.getCommitPolicy().deleteById(solrSearchCore.getSolr(), indexableObject.getUniqueIndexID());
     }
 
     @Override
     public void delete(String indexableObjectIdentifier) throws IOException, SolrServerException {
-        solrSearchCore.getSolr().deleteById(indexableObjectIdentifier);
+        solrSearchCore.getCommitPolicy().deleteById(solrSearchCore.getSolr(), indexableObjectIdentifier);
     }
 
     @Override
     public void deleteAll() throws IOException, SolrServerException {
-        solrSearchCore.getSolr().deleteByQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":" + getType());
+        solrSearchCore.getCommitPolicy()
+                      .deleteByQuery(solrSearchCore.getSolr(), SearchUtils.RESOURCE_TYPE_FIELD + ":" + getType());
     }
 }
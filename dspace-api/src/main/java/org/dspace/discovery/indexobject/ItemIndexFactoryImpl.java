@@ -707,6 +707,27 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         log.debug("  Added Grouping");
     }
 
+    @Override
+    public List<IndexableItem> findIndexableObjects(Context context, List<String> ids) throws SQLException {
+        List<UUID> uuids = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            uuids.add(UUID.fromString(id));
+        }
+        List<IndexableItem> indexableItems = new ArrayList<>(uuids.size());
+        for (Item item : itemService.findByIdsForIndexing(context, uuids)) {
+            indexableItems.add(new IndexableItem(item));
+        }
+        return indexableItems;
+    }
+
+    @Override
+    public SolrInputDocument buildCompleteDocument(Context context, IndexableItem indexableItem)
+            throws SQLException, IOException {
+        SolrInputDocument doc = buildDocument(context, indexableItem);
+        addFullText(doc, new FullTextContentStreams(context, indexableItem.getIndexedObject()));
+        return doc;
+    }
+
     @Override
     public void writeDocument(Context context, IndexableItem indexableObject, SolrInputDocument solrInputDocument)
             throws SQLException, IOException, SolrServerException {
@@ -749,7 +770,7 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         // Also delete any possible workflowItem / workspaceItem / tasks related to this item
         String query = "inprogress.item:\"" + indexableObjectIdentifier + "\"";
         log.debug("Try to delete all in progress submission [DELETEBYQUERY]:" + query);
-        solrSearchCore.getSolr().deleteByQuery(query);
+        solrSearchCore.getCommitPolicy().deleteByQuery(solrSearchCore.getSolr(), query);
     }
 
     @Override
@@ -54,6 +54,16 @@ public interface IndexFactory<T extends IndexableObject, S> {
      */
     SolrInputDocument buildNewDocument(Context context, T indexableObject) throws SQLException, IOException;
 
+    /**
+     * Create the complete solr document for the provided indexable object, including any content (e.g. full text)
+     * that is otherwise only added while writing the document. The document is not sent to the search core, which
+     * allows callers to write documents in batches.
+     * @param context           DSpace context object
+     * @param indexableObject   the indexableObject that we want to index
+     * @return                  the complete solr document
+     */
+    SolrInputDocument buildCompleteDocument(Context context, T indexableObject) throws SQLException, IOException;
+
     /**
      * Write the provided document to the solr core
      * @param context               DSpace context object
@@ -98,6 +108,17 @@ public interface IndexFactory<T extends IndexableObject, S> {
      */
     Optional<T> findIndexableObject(Context context, String id) throws SQLException;
 
+    /**
+     * Retrieve the indexable objects for the provided identifiers in one go. Implementations can use this to load
+     * the objects together with the data needed to build their documents using set based queries, instead of
+     * lazily loading that data object by object.
+     * @param context       DSpace context object
+     * @param ids           The identifiers for which we want to retrieve our indexable objects
+     * @return              The indexable objects that were found, identifiers that could not be resolved are skipped
+     * @throws SQLException If database error
+     */
+    List<T> findIndexableObjects(Context context, List<String> ids) throws SQLException;
+
     /**
      * Determine whether the class can handle the factory implementation
      * @param object        The object which we want to check
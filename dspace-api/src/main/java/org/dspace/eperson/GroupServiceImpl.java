@@ -8,7 +8,9 @@
 package org.dspace.eperson;
 
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -480,6 +482,10 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         context.addEvent(new Event(Event.DELETE, Constants.GROUP, group.getID(),
                                    group.getName(), getIdentifiers(context, group)));
 
+        // the cached children of the (direct or indirect) parents of this group change once it is gone
+        Set<UUID> parents = getGroupAndParents(context, group.getID());
+        parents.remove(group.getID());
+
         //Remove the supervised group from any workspace items linked to us.
         group.getSupervisedItems().clear();
 
@@ -497,11 +503,11 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             ePerson.getGroups().remove(group);
         }
 
-        // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
-        group2GroupCacheDAO.deleteAll(context);
+        // remove our group2groupcache rows (if we do it after we delete our object we get an issue with references)
+        group2GroupCacheDAO.deleteByGroup(context, group);
         // Remove ourself
         groupDAO.delete(context, group);
-        rethinkGroupCache(context, false);
+        rethinkGroupCache(context, parents);
 
         log.info(LogHelper.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -592,7 +598,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
-            rethinkGroupCache(context, true);
+            rethinkGroupCache(context, getGroupAndParents(context, group.getID()));
             group.clearGroupsChanged();
         }
 
@@ -609,7 +615,9 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
     /**
      * Regenerate the group cache AKA the group2groupcache table in the database -
-     * meant to be called when a group is added or removed from another group
+     * meant to be called when the cache has to be checked as a whole. Only the
+     * rows which differ from the relations computed from the group2group table
+     * are written out.
      *
      * @param context      The relevant DSpace Context.
      * @param flushQueries flushQueries Flush all pending queries
@@ -617,60 +625,121 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
      */
     protected void rethinkGroupCache(Context context, boolean flushQueries) throws SQLException {
 
-        Map<UUID, Set<UUID>> parents = new HashMap<>();
-
-        List<Pair<UUID, UUID>> group2groupResults = groupDAO.getGroup2GroupResults(context, flushQueries);
-        for (Pair<UUID, UUID> group2groupResult : group2groupResults) {
-            UUID parent = group2groupResult.getLeft();
-            UUID child = group2groupResult.getRight();
-
-            // if parent doesn't have an entry, create one
-            if (!parents.containsKey(parent)) {
-                Set<UUID> children = new HashSet<>();
-
-                // add child id to the list
-                children.add(child);
-                parents.put(parent, children);
-            } else {
-                // parent has an entry, now add the child to the parent's record
-                // of children
-                Set<UUID> children = parents.get(parent);
-                children.add(child);
-            }
-        }
+        Map<UUID, Set<UUID>> parents = toChildrenMap(groupDAO.getGroup2GroupResults(context, flushQueries));
 
         // now parents is a hash of all of the IDs of groups that are parents
         // and each hash entry is a hash of all of the IDs of children of those
         // parent groups
         // so now to establish all parent,child relationships we can iterate
         // through the parents hash
-        for (Map.Entry<UUID, Set<UUID>> parent : parents.entrySet()) {
-            Set<UUID> myChildren = getChildren(parents, parent.getKey());
-            parent.getValue().addAll(myChildren);
+        Map<UUID, Set<UUID>> closure = new HashMap<>();
+        for (UUID parent : parents.keySet()) {
+            closure.put(parent, getChildren(parents, parent));
         }
 
-        // empty out group2groupcache table
-        group2GroupCacheDAO.deleteAll(context);
+        Map<UUID, Set<UUID>> cached = toChildrenMap(group2GroupCacheDAO.getCacheResults(context));
+        Set<UUID> affectedParents = new HashSet<>(closure.keySet());
+        affectedParents.addAll(cached.keySet());
+        updateGroupCache(context, affectedParents, closure, cached);
+    }
 
-        // write out new one
-        for (Map.Entry<UUID, Set<UUID>> parent : parents.entrySet()) {
-            UUID key = parent.getKey();
+    /**
+     * Update the group cache AKA the group2groupcache table in the database for the given parent groups - meant to
+     * be called when a group is added to or removed from another group. When the member groups or the parent groups
+     * of a group change, only the cached children of that group and of its (direct or indirect) parents can change,
+     * see {@link #getGroupAndParents(Context, UUID)}. Only the part of the hierarchy below these groups is read, and
+     * only the rows which have to be added or removed are written out.
+     *
+     * @param context         The relevant DSpace Context.
+     * @param affectedParents the groups of which the cached children have to be recomputed
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void rethinkGroupCache(Context context, Set<UUID> affectedParents) throws SQLException {
+        if (affectedParents.isEmpty()) {
+            return;
+        }
 
-            for (UUID child : parent.getValue()) {
+        // the direct children of the affected groups and of all of their (indirect) children
+        Map<UUID, Set<UUID>> parents = new HashMap<>();
+        Set<UUID> toVisit = new HashSet<>(affectedParents);
+        while (!toVisit.isEmpty()) {
+            for (UUID parent : toVisit) {
+                parents.put(parent, new HashSet<>());
+            }
+            Set<UUID> nextToVisit = new HashSet<>();
+            for (Pair<UUID, UUID> group2group : groupDAO.getGroup2GroupResultsByParents(context, toVisit)) {
+                parents.get(group2group.getLeft()).add(group2group.getRight());
+                if (!parents.containsKey(group2group.getRight())) {
+                    nextToVisit.add(group2group.getRight());
+                }
+            }
+            toVisit = nextToVisit;
+        }
 
-                Group parentGroup = find(context, key);
-                Group childGroup = find(context, child);
+        Map<UUID, Set<UUID>> closure = new HashMap<>();
+        for (UUID parent : affectedParents) {
+            closure.put(parent, getChildren(parents, parent));
+        }
 
+        Map<UUID, Set<UUID>> cached = toChildrenMap(group2GroupCacheDAO.getCacheResultsByParents(context,
+                                                                                               affectedParents));
+        updateGroupCache(context, affectedParents, closure, cached);
+    }
 
-                if (parentGroup != null && childGroup != null && group2GroupCacheDAO
-                    .find(context, parentGroup, childGroup) == null) {
-                    Group2GroupCache group2GroupCache = group2GroupCacheDAO.create(context, new Group2GroupCache());
-                    group2GroupCache.setParent(parentGroup);
-                    group2GroupCache.setChild(childGroup);
-                    group2GroupCacheDAO.save(context, group2GroupCache);
+    /**
+     * Retrieve the given group and all of its (direct or indirect) parent groups.
+     *
+     * @param context The relevant DSpace Context.
+     * @param groupId the ID of the group
+     * @return the IDs of the group and its parents
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected Set<UUID> getGroupAndParents(Context context, UUID groupId) throws SQLException {
+        Set<UUID> groups = new HashSet<>();
+        groups.add(groupId);
+        Set<UUID> toVisit = Set.of(groupId);
+        while (!toVisit.isEmpty()) {
+            Set<UUID> nextToVisit = new HashSet<>();
+            for (Pair<UUID, UUID> group2group : groupDAO.getGroup2GroupResultsByChildren(context, toVisit)) {
+                if (groups.add(group2group.getLeft())) {
+                    nextToVisit.add(group2group.getLeft());
                 }
             }
+            toVisit = nextToVisit;
+        }
+        return groups;
+    }
+
+    /**
+     * Write out the differences between the computed and the cached children of the given parent groups.
+     */
+    private void updateGroupCache(Context context, Set<UUID> affectedParents, Map<UUID, Set<UUID>> closure,
+                                  Map<UUID, Set<UUID>> cached) throws SQLException {
+        for (UUID parent : affectedParents) {
+            Set<UUID> children = closure.getOrDefault(parent, Set.of());
+            Set<UUID> cachedChildren = cached.getOrDefault(parent, Set.of());
+
+            Set<UUID> removedChildren = new HashSet<>(cachedChildren);
+            removedChildren.removeAll(children);
+            if (!removedChildren.isEmpty()) {
+                group2GroupCacheDAO.deleteByParentAndChildren(context, parent, removedChildren);
+            }
+
+            Set<UUID> addedChildren = new HashSet<>(children);
+            addedChildren.removeAll(cachedChildren);
+            if (!addedChildren.isEmpty()) {
+                group2GroupCacheDAO.createByParentAndChildren(context, parent, addedChildren);
+            }
+        }
+    }
+
+    private Map<UUID, Set<UUID>> toChildrenMap(List<Pair<UUID, UUID>> group2groupResults) {
+        Map<UUID, Set<UUID>> parents = new HashMap<>();
+        for (Pair<UUID, UUID> group2groupResult : group2groupResults) {
+            parents.computeIfAbsent(group2groupResult.getLeft(), parent -> new HashSet<>())
+                   .add(group2groupResult.getRight());
         }
+        return parents;
     }
 
     @Override
@@ -774,32 +843,23 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     }
 
     /**
-     * Used recursively to generate a map of ALL of the children of the given
+     * Used to generate a set of ALL of the (direct or indirect) children of the given
      * parent
      *
      * @param parents Map of parent,child relationships
      * @param parent  the parent you're interested in
-     * @return Map whose keys are all of the children of a parent
+     * @return Set of all of the children of a parent
      */
     protected Set<UUID> getChildren(Map<UUID, Set<UUID>> parents, UUID parent) {
         Set<UUID> myChildren = new HashSet<>();
 
-        // degenerate case, this parent has no children
-        if (!parents.containsKey(parent)) {
-            return myChildren;
-        }
-
-        // got this far, so we must have children
-        Set<UUID> children = parents.get(parent);
-
-        // now iterate over all of the children
-
-        for (UUID child : children) {
-            // add this child's ID to our return set
-            myChildren.add(child);
-
-            // and now its children
-            myChildren.addAll(getChildren(parents, child));
+        // visit every child only once, even if it can be reached through several of our children
+        Deque<UUID> toVisit = new ArrayDeque<>(parents.getOrDefault(parent, Set.of()));
+        while (!toVisit.isEmpty()) {
+            UUID child = toVisit.pop();
+            if (!child.equals(parent) && myChildren.add(child)) {
+                toVisit.addAll(parents.getOrDefault(child, Set.of()));
+            }
         }
 
         return myChildren;
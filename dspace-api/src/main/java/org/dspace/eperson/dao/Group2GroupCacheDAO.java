@@ -8,8 +8,11 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.core.Context;
 import org.dspace.core.GenericDAO;
 import org.dspace.eperson.Group;
@@ -34,4 +37,56 @@ public interface Group2GroupCacheDAO extends GenericDAO<Group2GroupCache> {
     public Group2GroupCache find(Context context, Group parent, Group child) throws SQLException;
 
     public void deleteAll(Context context) throws SQLException;
+
+    /**
+     * Get all cached parent - (direct or indirect) child group relations
+     *
+     * @param context The DSpace context
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    public List<Pair<UUID, UUID>> getCacheResults(Context context) throws SQLException;
+
+    /**
+     * Get the cached parent - (direct or indirect) child group relations of the given parent groups
+     *
+     * @param context The DSpace context
+     * @param parents The IDs of the parent groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    public List<Pair<UUID, UUID>> getCacheResultsByParents(Context context, Collection<UUID> parents)
+        throws SQLException;
+
+    /**
+     * Cache that the given groups are (direct or indirect) children of the parent group. Groups which don't exist
+     * (anymore) are ignored.
+     *
+     * @param context  The DSpace context
+     * @param parent   The ID of the parent group
+     * @param children The IDs of the child groups, which must not be cached for this parent yet
+     * @throws SQLException if database error
+     */
+    public void createByParentAndChildren(Context context, UUID parent, Collection<UUID> children)
+        throws SQLException;
+
+    /**
+     * Remove the cached relations between the parent group and the given child groups
+     *
+     * @param context  The DSpace context
+     * @param parent   The ID of the parent group
+     * @param children The IDs of the child groups
+     * @throws SQLException if database error
+     */
+    public void deleteByParentAndChildren(Context context, UUID parent, Collection<UUID> children)
+        throws SQLException;
+
+    /**
+     * Remove all cached relations in which the group is either the parent or the child
+     *
+     * @param context The DSpace context
+     * @param group   The group
+     * @throws SQLException if database error
+     */
+    public void deleteByGroup(Context context, Group group) throws SQLException;
 }
@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -85,6 +86,28 @@ public interface GroupDAO extends DSpaceObjectDAO<Group>, DSpaceObjectLegacySupp
      */
     List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, boolean flushQueries) throws SQLException;
 
+    /**
+     * Get the direct parent - child group relations in which one of the given groups is the parent
+     *
+     * @param context The DSpace context
+     * @param parents The IDs of the parent groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    List<Pair<UUID, UUID>> getGroup2GroupResultsByParents(Context context, Collection<UUID> parents)
+        throws SQLException;
+
+    /**
+     * Get the direct parent - child group relations in which one of the given groups is the child
+     *
+     * @param context  The DSpace context
+     * @param children The IDs of the child groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    List<Pair<UUID, UUID>> getGroup2GroupResultsByChildren(Context context, Collection<UUID> children)
+        throws SQLException;
+
     /**
      * Return all empty groups
      *
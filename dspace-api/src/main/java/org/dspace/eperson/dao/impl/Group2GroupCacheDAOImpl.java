@@ -8,20 +8,26 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.Group2GroupCache;
 import org.dspace.eperson.Group2GroupCache_;
 import org.dspace.eperson.dao.Group2GroupCacheDAO;
+import org.hibernate.query.NativeQuery;
 
 /**
  * Hibernate implementation of the Database Access Object interface class for the Group2GroupCache object.
@@ -31,6 +37,12 @@ import org.dspace.eperson.dao.Group2GroupCacheDAO;
  * @author kevinvandevelde at atmire.com
  */
 public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCache> implements Group2GroupCacheDAO {
+
+    /**
+     * Maximum number of IDs bound to a single IN clause
+     */
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     protected Group2GroupCacheDAOImpl() {
         super();
     }
@@ -90,4 +102,66 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
     public void deleteAll(Context context) throws SQLException {
         createQuery(context, "delete from Group2GroupCache").executeUpdate();
     }
+
+    @Override
+    public List<Pair<UUID, UUID>> getCacheResults(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(p.id, c.id) " +
+            "FROM Group2GroupCache g JOIN g.parent p JOIN g.child c");
+
+        @SuppressWarnings("unchecked")
+        List<Pair<UUID, UUID>> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> getCacheResultsByParents(Context context, Collection<UUID> parents)
+        throws SQLException {
+        List<Pair<UUID, UUID>> results = new ArrayList<>();
+        for (List<UUID> partition : ListUtils.partition(new ArrayList<>(parents), IN_CLAUSE_SIZE)) {
+            Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(p.id, c.id) " +
+                "FROM Group2GroupCache g JOIN g.parent p JOIN g.child c WHERE p.id IN (:parents)");
+            query.setParameter("parents", partition);
+
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> partitionResults = query.getResultList();
+            results.addAll(partitionResults);
+        }
+        return results;
+    }
+
+    @Override
+    public void createByParentAndChildren(Context context, UUID parent, Collection<UUID> children)
+        throws SQLException {
+        for (List<UUID> partition : ListUtils.partition(new ArrayList<>(children), IN_CLAUSE_SIZE)) {
+            NativeQuery<?> query = getHibernateSession(context).createNativeQuery(
+                "INSERT INTO group2groupcache (parent_id, child_id) " +
+                    "SELECT p.uuid, c.uuid FROM epersongroup p, epersongroup c " +
+                    "WHERE p.uuid = :parent AND c.uuid IN (:children)");
+            // only the cached queries involving this table have to be invalidated
+            query.addSynchronizedEntityClass(Group2GroupCache.class);
+            query.setParameter("parent", parent);
+            query.setParameterList("children", partition);
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void deleteByParentAndChildren(Context context, UUID parent, Collection<UUID> children)
+        throws SQLException {
+        for (List<UUID> partition : ListUtils.partition(new ArrayList<>(children), IN_CLAUSE_SIZE)) {
+            Query query = createQuery(context, "DELETE FROM Group2GroupCache g " +
+                "WHERE g.parent.id = :parent AND g.child.id IN (:children)");
+            query.setParameter("parent", parent);
+            query.setParameter("children", partition);
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void deleteByGroup(Context context, Group group) throws SQLException {
+        Query query = createQuery(context,
+                                  "DELETE FROM Group2GroupCache g WHERE g.parent = :group OR g.child = :group");
+        query.setParameter("group", group);
+        query.executeUpdate();
+    }
 }
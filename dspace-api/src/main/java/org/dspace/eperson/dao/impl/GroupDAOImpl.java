@@ -8,11 +8,14 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.Query;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.content.MetadataField;
@@ -30,6 +33,12 @@ import org.dspace.eperson.dao.GroupDAO;
  * @author kevinvandevelde at atmire.com
  */
 public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements GroupDAO {
+
+    /**
+     * Maximum number of IDs bound to a single IN clause
+     */
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     protected GroupDAOImpl() {
         super();
     }
@@ -186,6 +195,35 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return results;
     }
 
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByParents(Context context, Collection<UUID> parents)
+        throws SQLException {
+        return getGroup2GroupResults(context, "g.id", parents);
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByChildren(Context context, Collection<UUID> children)
+        throws SQLException {
+        return getGroup2GroupResults(context, "c.id", children);
+    }
+
+    protected List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, String idPath, Collection<UUID> ids)
+        throws SQLException {
+        List<Pair<UUID, UUID>> results = new ArrayList<>();
+        for (List<UUID> partition : ListUtils.partition(new ArrayList<>(ids), IN_CLAUSE_SIZE)) {
+            Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.id, c.id) " +
+                "FROM Group g " +
+                "JOIN g.groups c " +
+                "WHERE " + idPath + " IN (:ids)");
+            query.setParameter("ids", partition);
+
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> partitionResults = query.getResultList();
+            results.addAll(partitionResults);
+        }
+        return results;
+    }
+
     @Override
     public List<Group> getEmptyGroups(Context context) throws SQLException {
         return list(createQuery(context, "SELECT g from Group g where g.epeople is EMPTY"));
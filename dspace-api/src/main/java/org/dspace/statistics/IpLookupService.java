@@ -0,0 +1,244 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.maxmind.geoip2.DatabaseReader;
+import com.maxmind.geoip2.exception.AddressNotFoundException;
+import com.maxmind.geoip2.exception.GeoIp2Exception;
+import com.maxmind.geoip2.model.CityResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Cached reverse DNS and GeoIP lookups of client addresses, for the usage statistics.
+ * <p>
+ * Reverse DNS lookups are done by a small pool of threads, and a caller waits for at most
+ * "usage-statistics.resolver.timeout" ms for the result. A lookup which takes longer still completes in the
+ * background and its result is cached for the next request from the same address. Concurrent lookups of the same
+ * address share a single query. Host names are cached in the "reverseDns" cache, addresses without a name in the
+ * "reverseDnsNegative" cache (usually with a shorter lifetime), and locations in the "geoIp" cache, all defined in
+ * ehcache.xml. Without these caches every call does a lookup.
+ */
+public class IpLookupService {
+
+    private static final Logger log = LogManager.getLogger();
+
+    static final String DNS_CACHE = "reverseDns";
+    static final String DNS_NEGATIVE_CACHE = "reverseDnsNegative";
+    static final String GEOIP_CACHE = "geoIp";
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private CacheManager cacheManager;
+
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor resolver;
+
+    private final AtomicLong dnsHits = new AtomicLong();
+    private final AtomicLong dnsMisses = new AtomicLong();
+    private final AtomicLong dnsTimeouts = new AtomicLong();
+    private final AtomicLong dnsLookups = new AtomicLong();
+    private final AtomicLong dnsLookupNanos = new AtomicLong();
+    private final AtomicLong geoIpHits = new AtomicLong();
+    private final AtomicLong geoIpMisses = new AtomicLong();
+    private final AtomicLong geoIpLookupNanos = new AtomicLong();
+
+    /**
+     * Find the host name of an address.
+     *
+     * @param ip the textual IPv4 or IPv6 address
+     * @return the host name, or the address itself if it has no name or the lookup did not complete in time
+     * @throws UnknownHostException if the address is not valid
+     */
+    public String getHostName(String ip) throws UnknownHostException {
+        // validate the address, never resolves anything for a literal address
+        InetAddress address = getAddress(ip);
+        String name = getCached(DNS_CACHE, ip, String.class);
+        if (name == null) {
+            name = getCached(DNS_NEGATIVE_CACHE, ip, String.class);
+        }
+        if (name != null) {
+            dnsHits.incrementAndGet();
+            return name;
+        }
+        dnsMisses.incrementAndGet();
+
+        CompletableFuture<String> lookup = pending.computeIfAbsent(ip, key -> startLookup(key, address));
+        lookup.whenComplete((result, error) -> pending.remove(ip, lookup));
+        try {
+            return lookup.get(configurationService.getIntProperty("usage-statistics.resolver.timeout", 200),
+                              TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            dnsTimeouts.incrementAndGet();
+            log.debug("Reverse DNS lookup of {} timed out", ip);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.debug("Reverse DNS lookup of {} failed", ip, e.getCause());
+        }
+        return ip;
+    }
+
+    /**
+     * Find the location of an address.
+     *
+     * @param reader the GeoIP database
+     * @param ip     the textual IPv4 or IPv6 address
+     * @return the location, or null if the address is not in the database
+     * @throws IOException          if the database could not be read
+     * @throws UnknownHostException if the address is not valid
+     */
+    public CityResponse getLocation(DatabaseReader reader, String ip) throws IOException {
+        Cache cache = getCache(GEOIP_CACHE);
+        Cache.ValueWrapper cached = cache == null ? null : cache.get(ip);
+        if (cached != null) {
+            geoIpHits.incrementAndGet();
+            return (CityResponse) cached.get();
+        }
+        geoIpMisses.incrementAndGet();
+        InetAddress address = getAddress(ip);
+        long start = System.nanoTime();
+        CityResponse location;
+        try {
+            location = reader.city(address);
+        } catch (AddressNotFoundException e) {
+            location = null;
+        } catch (GeoIp2Exception e) {
+            log.info("Unable to get location of {}: {}", ip, e.getMessage());
+            return null;
+        } finally {
+            geoIpLookupNanos.addAndGet(System.nanoTime() - start);
+        }
+        if (cache != null) {
+            cache.put(ip, location);
+        }
+        return location;
+    }
+
+    /**
+     * @return the counters of the lookups, e.g. to be logged or exposed by a health indicator. The latencies are the
+     * average times of the lookups which were not answered from the caches, in microseconds.
+     */
+    public Map<String, Long> getStatistics() {
+        long lookups = dnsLookups.get();
+        long geoIpLookups = geoIpMisses.get();
+        return Map.of("dnsHits", dnsHits.get(),
+                      "dnsMisses", dnsMisses.get(),
+                      "dnsTimeouts", dnsTimeouts.get(),
+                      "dnsLookups", lookups,
+                      "dnsLatency", lookups == 0 ? 0 : dnsLookupNanos.get() / lookups / 1000,
+                      "geoIpHits", geoIpHits.get(),
+                      "geoIpMisses", geoIpLookups,
+                      "geoIpLatency", geoIpLookups == 0 ? 0 : geoIpLookupNanos.get() / geoIpLookups / 1000);
+    }
+
+    /**
+     * Stop the resolver threads, called by "destroy-method" in Spring config.
+     */
+    public synchronized void destroy() {
+        if (resolver != null) {
+            resolver.shutdownNow();
+            resolver = null;
+        }
+    }
+
+    private CompletableFuture<String> startLookup(String ip, InetAddress address) {
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        try {
+            getResolver().execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    String name = address.getHostName();
+                    dnsLookupNanos.addAndGet(System.nanoTime() - start);
+                    dnsLookups.incrementAndGet();
+                    // getHostName() returns the address itself when it has no name
+                    put(name.equals(ip) ? DNS_NEGATIVE_CACHE : DNS_CACHE, ip, name);
+                    lookup.complete(name);
+                } catch (RuntimeException e) {
+                    lookup.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // too many lookups waiting already
+            lookup.complete(ip);
+        }
+        return lookup;
+    }
+
+    private synchronized ThreadPoolExecutor getResolver() {
+        if (resolver == null) {
+            int threads = configurationService.getIntProperty("usage-statistics.resolver.threads", 4);
+            int queueSize = configurationService.getIntProperty("usage-statistics.resolver.queue-size", 1000);
+            resolver = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<>(queueSize), this::newResolverThread);
+        }
+        return resolver;
+    }
+
+    private Thread newResolverThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "usage-statistics-resolver");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private InetAddress getAddress(String ip) throws UnknownHostException {
+        // only literal addresses, InetAddress would resolve anything else
+        if (ip == null || !(ip.indexOf(':') >= 0 || IPV4.matcher(ip).matches())) {
+            throw new UnknownHostException("Not an IP address: " + ip);
+        }
+        return InetAddress.getByName(ip);
+    }
+
+    private <T> T getCached(String name, String key, Class<T> type) {
+        Cache cache = getCache(name);
+        return cache == null ? null : cache.get(key, type);
+    }
+
+    private void put(String name, String key, Object value) {
+        Cache cache = getCache(name);
+        if (cache != null) {
+            cache.put(key, value);
+        }
+    }
+
+    private Cache getCache(String name) {
+        return cacheManager == null ? null : cacheManager.getCache(name);
+    }
+
+    /**
+     * Set the reference to the cacheManager
+     *
+     * @param cacheManager the cache manager holding the "reverseDns", "reverseDnsNegative" and "geoIp" caches
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+}
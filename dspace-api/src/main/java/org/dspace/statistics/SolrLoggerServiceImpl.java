@@ -17,9 +17,12 @@ import java.io.UnsupportedEncodingException;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -34,10 +37,16 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import javax.servlet.http.HttpServletRequest;
 
 import com.maxmind.geoip2.DatabaseReader;
-import com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.maxmind.geoip2.model.CityResponse;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
@@ -73,6 +82,7 @@ import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.luke.FieldFlag;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.CoreAdminParams.CoreAdminAction;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.MapSolrParams;
 import org.apache.solr.common.params.ModifiableSolrParams;
@@ -98,6 +108,8 @@ import org.dspace.statistics.service.SolrLoggerService;
 import org.dspace.statistics.util.LocationUtils;
 import org.dspace.statistics.util.SpiderDetector;
 import org.dspace.usage.UsageWorkflowEvent;
+import org.dspace.util.SolrCommitPolicy;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -110,13 +122,19 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author kevinvandevelde at atmire.com
  * @author mdiggory at atmire.com
  */
-public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean {
+public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean, DisposableBean {
 
     private static final Logger log = LogManager.getLogger();
 
-    private static final String MULTIPLE_VALUES_SPLITTER = "|";
+    /** Number of records moved into a year core between two commits (and saved positions) of shardSolrIndex */
+    private static final long SHARD_CHECKPOINT_INTERVAL = 100000;
     protected SolrClient solr;
 
+    /**
+     * Policy deciding when updates of the statistics core become visible, configured by "solr-statistics.commit.*"
+     */
+    protected SolrCommitPolicy commitPolicy = new SolrCommitPolicy("solr-statistics");
+
     public static final String DATE_FORMAT_8601 = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
 
     public static final String DATE_FORMAT_DCDATE = "yyyy-MM-dd'T'HH:mm:ss'Z'";
@@ -125,7 +143,14 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     protected boolean useProxies;
 
+    /**
+     * Usage events waiting to be sent to the statistics core, null if they are sent by the thread posting them
+     */
+    protected UsageRecordQueue usageRecordQueue;
+
     private static final List<String> statisticYearCores = new ArrayList<>();
+    /** Clients of the prior-year shards, without the current-year core */
+    private static final List<SolrClient> statisticYearCoreClients = new ArrayList<>();
     private static boolean statisticYearCoresInit = false;
 
     private static final String IP_V4_REGEX = "^((?:\\d{1,3}\\.){3})\\d{1,3}$";
@@ -143,6 +168,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     private SolrStatisticsCore solrStatisticsCore;
     @Autowired
     private GeoIpService geoIpService;
+    @Autowired
+    private IpLookupService ipLookupService;
 
     /** URL to the current-year statistics core.  Prior-year shards will have a year suffixed. */
     private String statisticsCoreURL;
@@ -176,6 +203,16 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     public void afterPropertiesSet() throws Exception {
         solr = solrStatisticsCore.getSolr();
 
+        statisticsCoreURL = configurationService.getProperty("solr-statistics.server");
+        if (null != statisticsCoreURL) {
+            Path statisticsPath = Paths.get(new URI(statisticsCoreURL).getPath());
+            statisticsCoreBase = statisticsPath
+                    .getName(statisticsPath.getNameCount() - 1)
+                    .toString();
+        } else {
+            statisticsCoreBase = null;
+        }
+
         // Read in the file so we don't have to do it all the time
         //spiderIps = SpiderDetector.getSpiderIpAddresses();
 
@@ -186,6 +223,48 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.error(ex);
         }
         locationService = service;
+        usageRecordQueue = createUsageRecordQueue();
+    }
+
+    /**
+     * Create the queue of usage events if they should be sent asynchronously, see "solr-statistics.async.*".
+     *
+     * @return the queue, or null if usage events are sent on the thread which posts them
+     */
+    protected UsageRecordQueue createUsageRecordQueue() {
+        if (!configurationService.getBooleanProperty("solr-statistics.async", false)) {
+            return null;
+        }
+        String whenFull = configurationService.getProperty("solr-statistics.async.when-full", "drop");
+        UsageRecordQueue.WhenFull policy;
+        try {
+            policy = UsageRecordQueue.WhenFull.valueOf(whenFull.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown solr-statistics.async.when-full policy {}, dropping events when the queue is full",
+                     whenFull);
+            policy = UsageRecordQueue.WhenFull.DROP;
+        }
+        String spillDir = configurationService.getProperty("solr-statistics.async.spill.dir");
+        return new UsageRecordQueue(this::send,
+                                    configurationService.getIntProperty("solr-statistics.async.capacity", 10000),
+                                    configurationService.getIntProperty("solr-statistics.async.batch-size", 100),
+                                    policy,
+                                    configurationService.getLongProperty("solr-statistics.async.block-timeout", 100),
+                                    StringUtils.isBlank(spillDir) ? null : new File(spillDir),
+                                    configurationService.getLongProperty("solr-statistics.async.retry-interval",
+                                                                         60000));
+    }
+
+    /**
+     * Send the usage events which are still queued, waiting for at most "solr-statistics.async.shutdown-timeout" ms.
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (usageRecordQueue != null) {
+            usageRecordQueue.shutdown(
+                configurationService.getLongProperty("solr-statistics.async.shutdown-timeout", 10000));
+            usageRecordQueue = null;
+        }
     }
 
     @Override
@@ -204,28 +283,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
 
         try {
-            SolrInputDocument doc1 = getCommonSolrDoc(dspaceObject, request, currentUser);
-            if (doc1 == null) {
-                return;
-            }
-            if (dspaceObject instanceof Bitstream) {
-                Bitstream bit = (Bitstream) dspaceObject;
-                List<Bundle> bundles = bit.getBundles();
-                for (Bundle bundle : bundles) {
-                    doc1.addField("bundleName", bundle.getName());
-                }
-            }
-
-            doc1.addField("statistics_type", StatisticsType.VIEW.text());
-
-
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
-
+            UsageRecord record = createUsageRecord(dspaceObject, request, currentUser);
+            addViewFields(record.getDocument(), dspaceObject);
+            submit(record);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -244,33 +304,71 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         initSolrYearCores();
 
         try {
-            SolrInputDocument doc1 = getCommonSolrDoc(dspaceObject, ip, userAgent, xforwardedfor,
-                                                      currentUser);
-            if (doc1 == null) {
-                return;
-            }
-            if (dspaceObject instanceof Bitstream) {
-                Bitstream bit = (Bitstream) dspaceObject;
-                List<Bundle> bundles = bit.getBundles();
-                for (Bundle bundle : bundles) {
-                    doc1.addField("bundleName", bundle.getName());
-                }
-            }
-
-            doc1.addField("statistics_type", StatisticsType.VIEW.text());
-
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
-
+            UsageRecord record = createUsageRecord(dspaceObject, ip, userAgent, xforwardedfor, currentUser);
+            addViewFields(record.getDocument(), dspaceObject);
+            submit(record);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
+            String email = null == currentUser ? "[anonymous]" : currentUser.getEmail();
             log.error("Error saving VIEW event to Solr for DSpaceObject {} by EPerson {}",
-                      dspaceObject.getID(), currentUser.getEmail(), e);
+                      dspaceObject.getID(), email, e);
+        }
+    }
+
+    private void addViewFields(SolrInputDocument doc1, DSpaceObject dspaceObject) throws SQLException {
+        if (dspaceObject instanceof Bitstream) {
+            Bitstream bit = (Bitstream) dspaceObject;
+            List<Bundle> bundles = bit.getBundles();
+            for (Bundle bundle : bundles) {
+                doc1.addField("bundleName", bundle.getName());
+            }
+        }
+
+        doc1.addField("statistics_type", StatisticsType.VIEW.text());
+    }
+
+    /**
+     * Send a usage event to the statistics core, through the queue if usage events are sent asynchronously.
+     *
+     * @param record the usage event
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    protected void submit(UsageRecord record) throws IOException, SolrServerException {
+        if (usageRecordQueue != null) {
+            usageRecordQueue.offer(record);
+        } else {
+            send(List.of(record));
+        }
+    }
+
+    /**
+     * Complete usage events with the fields derived from their client and add them to the statistics core.
+     *
+     * @param records the usage events
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    protected void send(List<UsageRecord> records) throws IOException, SolrServerException {
+        List<SolrInputDocument> documents = new ArrayList<>(records.size());
+        for (UsageRecord record : records) {
+            try {
+                if (addClientFields(record)) {
+                    documents.add(record.getDocument());
+                }
+            } catch (RuntimeException e) {
+                log.error("Error completing usage event {}", record.getDocument(), e);
+            }
+        }
+        if (documents.isEmpty()) {
+            return;
+        }
+        commitPolicy.add(solr, documents);
+        // commits are executed automatically using the solr autocommit
+        boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
+        if (!useAutoCommit) {
+            commitPolicy.commit(solr, false, false);
         }
     }
 
@@ -286,82 +384,58 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
      */
     protected SolrInputDocument getCommonSolrDoc(DSpaceObject dspaceObject, HttpServletRequest request,
                                                  EPerson currentUser) throws SQLException {
-        boolean isSpiderBot = request != null && SpiderDetector.isSpider(request);
-        if (isSpiderBot &&
-            !configurationService.getBooleanProperty("usage-statistics.logBots", true)) {
-            return null;
-        }
+        UsageRecord record = createUsageRecord(dspaceObject, request, currentUser);
+        return addClientFields(record) ? record.getDocument() : null;
+    }
 
-        SolrInputDocument doc1 = new SolrInputDocument();
-        // Save our basic info that we already have
+    protected SolrInputDocument getCommonSolrDoc(DSpaceObject dspaceObject, String ip, String userAgent,
+                                                 String xforwardedfor, EPerson currentUser) throws SQLException {
+        UsageRecord record = createUsageRecord(dspaceObject, ip, userAgent, xforwardedfor, currentUser);
+        return addClientFields(record) ? record.getDocument() : null;
+    }
 
+    /**
+     * Create a usage event with the information which must be collected while the request is being handled. The
+     * fields derived from the client are added by {@link #addClientFields(UsageRecord)}.
+     *
+     * @param dspaceObject the object used.
+     * @param request      the current request context, or null.
+     * @param currentUser  the current session's user.
+     * @return the usage event
+     * @throws SQLException in case of a database exception
+     */
+    protected UsageRecord createUsageRecord(DSpaceObject dspaceObject, HttpServletRequest request,
+                                            EPerson currentUser) throws SQLException {
+        UsageRecord record = new UsageRecord(createSolrDoc(dspaceObject, currentUser));
         if (request != null) {
-            String ip = clientInfoService.getClientIp(request);
-            if (configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                try {
-                    doc1.addField("ip", anonymizeIp(ip));
-                } catch (UnknownHostException e) {
-                    log.warn(e.getMessage(), e);
-                }
-            } else {
-                doc1.addField("ip", ip);
-            }
-
+            SolrInputDocument doc1 = record.getDocument();
             //Also store the referrer
             if (request.getHeader("referer") != null) {
                 doc1.addField("referrer", request.getHeader("referer"));
             }
-
-            InetAddress ipAddress = null;
-            try {
-                String dns;
-                if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                    ipAddress = InetAddress.getByName(ip);
-                    dns = ipAddress.getHostName();
-                } else {
-                    dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-                }
-                doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-            } catch (UnknownHostException e) {
-                log.info("Failed DNS Lookup for IP:  {}", ip);
-                log.debug(e.getMessage(), e);
-            }
             if (request.getHeader("User-Agent") != null) {
                 doc1.addField("userAgent", request.getHeader("User-Agent"));
             }
-            doc1.addField("isBot", isSpiderBot);
-            // Save the location information if valid, save the event without
-            // location information if not valid
-            if (locationService != null && ipAddress != null) {
-                try {
-                    CityResponse location = locationService.city(ipAddress);
-                    String countryCode = location.getCountry().getIsoCode();
-                    double latitude = location.getLocation().getLatitude();
-                    double longitude = location.getLocation().getLongitude();
-                    if (!(
-                            "--".equals(countryCode)
-                            && latitude == -180
-                            && longitude == -180)
-                    ) {
-                        try {
-                            doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
-                        } catch (Exception e) {
-                            log.warn("Failed to load country/continent table: {}", countryCode);
-                        }
-                        doc1.addField("countryCode", countryCode);
-                        doc1.addField("city", location.getCity().getName());
-                        doc1.addField("latitude", latitude);
-                        doc1.addField("longitude", longitude);
-                    }
-                } catch (IOException e) {
-                    log.warn("GeoIP lookup failed.", e);
-                } catch (GeoIp2Exception e) {
-                    log.info("Unable to get location of request: {}", e.getMessage());
-                }
-            }
+            record.setClient(clientInfoService.getClientIp(request), request.getRemoteAddr(),
+                             request.getHeader("X-Forwarded-For"), request.getRemoteHost(),
+                             request.getHeader("User-Agent"));
+        }
+        return record;
+    }
+
+    protected UsageRecord createUsageRecord(DSpaceObject dspaceObject, String ip, String userAgent,
+                                            String xforwardedfor, EPerson currentUser) throws SQLException {
+        UsageRecord record = new UsageRecord(createSolrDoc(dspaceObject, currentUser));
+        if (userAgent != null) {
+            record.getDocument().addField("userAgent", userAgent);
         }
+        // only the address of the client is checked against the spider lists, not its agent
+        record.setClient(clientInfoService.getClientIp(ip, xforwardedfor), ip, null, null, null);
+        return record;
+    }
 
+    private SolrInputDocument createSolrDoc(DSpaceObject dspaceObject, EPerson currentUser) throws SQLException {
+        SolrInputDocument doc1 = new SolrInputDocument();
         if (dspaceObject != null) {
             doc1.addField("id", dspaceObject.getID().toString());
             doc1.addField("type", dspaceObject.getType());
@@ -372,23 +446,32 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         if (currentUser != null) {
             doc1.addField("epersonid", currentUser.getID().toString());
         }
-
         return doc1;
     }
 
-    protected SolrInputDocument getCommonSolrDoc(DSpaceObject dspaceObject, String ip, String userAgent,
-                                                 String xforwardedfor, EPerson currentUser) throws SQLException {
-        boolean isSpiderBot = SpiderDetector.isSpider(ip);
+    /**
+     * Add the fields derived from the client of a usage event: whether it is a spider, its address, host name and
+     * location. This may require DNS and GeoIP lookups.
+     *
+     * @param record the usage event
+     * @return false if the event must not be logged as its client is a spider and "usage-statistics.logBots" is
+     * false
+     */
+    protected boolean addClientFields(UsageRecord record) {
+        if (!record.hasClient()) {
+            return true;
+        }
+        boolean isSpiderBot = SpiderDetector.isSpider(record.getRemoteAddr(), record.getForwardedFor(),
+                                                      record.getRemoteHost(), record.getAgent());
         if (isSpiderBot &&
             !configurationService.getBooleanProperty("usage-statistics.logBots", true)) {
-            return null;
+            return false;
         }
 
-        SolrInputDocument doc1 = new SolrInputDocument();
-        // Save our basic info that we already have
-
-        ip = clientInfoService.getClientIp(ip, xforwardedfor);
-        if (configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
+        SolrInputDocument doc1 = record.getDocument();
+        String ip = record.getIp();
+        boolean anonymize = configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false);
+        if (anonymize) {
             try {
                 doc1.addField("ip", anonymizeIp(ip));
             } catch (UnknownHostException e) {
@@ -398,43 +481,42 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("ip", ip);
         }
 
-        InetAddress ipAddress = null;
+        boolean validAddress = true;
         try {
             String dns;
-            if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                ipAddress = InetAddress.getByName(ip);
-                dns = ipAddress.getHostName();
+            if (!anonymize) {
+                dns = ipLookupService.getHostName(ip);
             } else {
                 dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
             }
             doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
         } catch (UnknownHostException e) {
+            validAddress = false;
             log.info("Failed DNS Lookup for IP:  {}", ip);
             log.debug(e.getMessage(), e);
         }
-        if (userAgent != null) {
-            doc1.addField("userAgent", userAgent);
-        }
         doc1.addField("isBot", isSpiderBot);
         // Save the location information if valid, save the event without
         // location information if not valid
-        if (locationService != null) {
+        if (locationService != null && validAddress && !anonymize) {
             try {
-                CityResponse location = locationService.city(ipAddress);
+                CityResponse location = ipLookupService.getLocation(locationService, ip);
+                if (location == null) {
+                    return true;
+                }
                 String countryCode = location.getCountry().getIsoCode();
                 double latitude = location.getLocation().getLatitude();
                 double longitude = location.getLocation().getLongitude();
                 if (!(
                         "--".equals(countryCode)
-                                && latitude == -180
-                                && longitude == -180)
+                        && latitude == -180
+                        && longitude == -180)
                 ) {
                     try {
                         doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
+                            .getContinentCode(countryCode));
                     } catch (Exception e) {
-                        System.out
-                                .println("COUNTRY ERROR: " + countryCode);
+                        log.warn("Failed to load country/continent table: {}", countryCode);
                     }
                     doc1.addField("countryCode", countryCode);
                     doc1.addField("city", location.getCity().getName());
@@ -443,23 +525,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 }
             } catch (IOException e) {
                 log.warn("GeoIP lookup failed.", e);
-            } catch (GeoIp2Exception e) {
-                log.info("Unable to get location of request: {}", e.getMessage());
             }
         }
-
-        if (dspaceObject != null) {
-            doc1.addField("id", dspaceObject.getID().toString());
-            doc1.addField("type", dspaceObject.getType());
-            storeParents(doc1, dspaceObject);
-        }
-        // Save the current time
-        doc1.addField("time", DateFormatUtils.format(new Date(), DATE_FORMAT_8601));
-        if (currentUser != null) {
-            doc1.addField("epersonid", currentUser.getID().toString());
-        }
-
-        return doc1;
+        return true;
     }
 
 
@@ -467,10 +535,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     public void postSearch(DSpaceObject resultObject, HttpServletRequest request, EPerson currentUser,
                            List<String> queries, int rpp, String sortBy, String order, int page, DSpaceObject scope) {
         try {
-            SolrInputDocument solrDoc = getCommonSolrDoc(resultObject, request, currentUser);
-            if (solrDoc == null) {
-                return;
-            }
+            UsageRecord record = createUsageRecord(resultObject, request, currentUser);
+            SolrInputDocument solrDoc = record.getDocument();
             initSolrYearCores();
 
             for (String query : queries) {
@@ -504,7 +570,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("page", page);
             }
 
-            solr.add(solrDoc);
+            submit(record);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -517,7 +583,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     public void postWorkflow(UsageWorkflowEvent usageWorkflowEvent) throws SQLException {
         initSolrYearCores();
         try {
-            SolrInputDocument solrDoc = getCommonSolrDoc(usageWorkflowEvent.getObject(), null, null);
+            UsageRecord record = createUsageRecord(usageWorkflowEvent.getObject(), (HttpServletRequest) null, null);
+            SolrInputDocument solrDoc = record.getDocument();
 
             //Log the current collection & the scope !
             solrDoc.addField("owningColl", usageWorkflowEvent.getScope().getID().toString());
@@ -553,7 +620,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("actor", usageWorkflowEvent.getActor().getID().toString());
             }
 
-            solr.add(solrDoc);
+            submit(record);
         } catch (Exception e) {
             //Log the exception, no need to send it through, the workflow shouldn't crash because of this !
             log.error("Error saving WORKFLOW event to Solr", e);
@@ -606,8 +673,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     @Override
     public void removeIndex(String query) throws IOException,
         SolrServerException {
-        solr.deleteByQuery(query);
-        solr.commit();
+        commitPolicy.deleteByQuery(solr, query);
+        commitPolicy.commit(solr);
     }
 
     @Override
@@ -634,51 +701,123 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     }
 
 
-    public class ResultProcessor {
+    private SolrInputDocument toSolrInputDocument(SolrDocument d) {
+        SolrInputDocument doc = new SolrInputDocument();
 
-        private SolrInputDocument toSolrInputDocument(SolrDocument d) {
-            SolrInputDocument doc = new SolrInputDocument();
+        for (String name : d.getFieldNames()) {
+            doc.addField(name, d.getFieldValue(name));
+        }
 
-            for (String name : d.getFieldNames()) {
-                doc.addField(name, d.getFieldValue(name));
-            }
+        return doc;
+    }
 
-            return doc;
-        }
+    /**
+     * Runs over all statistics documents matching a query, in every statistics core. The documents are read in pages
+     * of "solr-statistics.maintenance.batch-size" documents using a cursor, so reading a deep page costs the same as
+     * reading the first one, and documents which are updated while processing are not skipped or seen twice.
+     * Processors which write the documents back should add them to {@link #getCore()}, the core they were read from.
+     */
+    public class ResultProcessor {
 
+        private final ThreadLocal<SolrClient> core = new ThreadLocal<>();
+
+        /**
+         * Process all documents matching a query. If {@link #isParallel()}, the cores are processed concurrently by
+         * up to "solr-statistics.maintenance.threads" threads.
+         *
+         * @param query the Solr query
+         * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+         * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+         */
         public void execute(String query) throws SolrServerException, IOException {
-            Map<String, String> params = new HashMap<>();
-            params.put("q", query);
-            params.put("rows", "10");
-            if (0 < statisticYearCores.size()) {
-                params.put(ShardParams.SHARDS, StringUtils.join(statisticYearCores.iterator(), ','));
+            forEachStatisticsCore(statisticsCore -> execute(statisticsCore, query), isParallel());
+        }
+
+        /**
+         * Process all documents of one core matching a query, a page at a time.
+         *
+         * @param statisticsCore the core to query
+         * @param query          the Solr query
+         * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+         * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+         */
+        protected void execute(SolrClient statisticsCore, String query) throws SolrServerException, IOException {
+            SolrQuery solrQuery = createQuery(query);
+            solrQuery.setRows(configurationService.getIntProperty("solr-statistics.maintenance.batch-size", 1000));
+            // a cursor requires a sort on the unique key
+            solrQuery.setSort("uid", SolrQuery.ORDER.asc);
+            String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+            core.set(statisticsCore);
+            try {
+                while (true) {
+                    solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+                    QueryResponse response = statisticsCore.query(solrQuery);
+                    if (!response.getResults().isEmpty()) {
+                        processResults(response.getResults());
+                    }
+                    String nextCursorMark = response.getNextCursorMark();
+                    if (cursorMark.equals(nextCursorMark)) {
+                        break;
+                    }
+                    cursorMark = nextCursorMark;
+                }
+            } finally {
+                core.remove();
             }
-            MapSolrParams solrParams = new MapSolrParams(params);
-            QueryResponse response = solr.query(solrParams);
+        }
 
-            SolrDocumentList results = response.getResults();
-            long numbFound = results.getNumFound();
+        /**
+         * Override to add e.g. filter queries or a field list.
+         *
+         * @param query the Solr query
+         * @return the query to page through
+         */
+        protected SolrQuery createQuery(String query) {
+            return new SolrQuery(query);
+        }
 
-            // process the first batch
+        /**
+         * Override to process the pages of results as they are returned by Solr.
+         *
+         * @param results a page of results
+         * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+         * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+         */
+        protected void processResults(SolrDocumentList results) throws IOException, SolrServerException {
+            List<SolrInputDocument> docs = new ArrayList<>(results.size());
             for (SolrDocument result : results) {
-                process(toSolrInputDocument(result));
+                docs.add(toSolrInputDocument(result));
             }
+            process(docs);
+        }
 
-            // Run over the rest
-            for (int i = 10; i < numbFound; i += 10) {
-                params.put("start", String.valueOf(i));
-                solrParams = new MapSolrParams(params);
-                response = solr.query(solrParams);
-                results = response.getResults();
-                for (SolrDocument result : results) {
-                    process(toSolrInputDocument(result));
-                }
-            }
+        /**
+         * @return the core the documents being processed by the current thread were read from
+         */
+        protected SolrClient getCore() {
+            SolrClient statisticsCore = core.get();
+            return statisticsCore == null ? solr : statisticsCore;
+        }
 
+        /**
+         * Override to process the cores concurrently. {@link #process(List)} must then be thread safe.
+         *
+         * @return whether the cores may be processed concurrently
+         */
+        protected boolean isParallel() {
+            return false;
         }
 
+        /**
+         * Commit all statistics cores.
+         *
+         * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+         * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+         */
         public void commit() throws IOException, SolrServerException {
-            solr.commit();
+            for (SolrClient statisticsCore : getStatisticsCores()) {
+                commitPolicy.commit(statisticsCore);
+            }
         }
 
         /**
@@ -707,56 +846,56 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
     }
 
+    /**
+     * Marks pages of documents as bots and writes them back to the core they were read from.
+     */
+    private class BotMarker extends ResultProcessor {
+
+        @Override
+        public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+            for (SolrInputDocument doc : docs) {
+                doc.removeField("isBot");
+                doc.addField("isBot", true);
+            }
+            commitPolicy.add(getCore(), docs);
+        }
+
+        @Override
+        protected boolean isParallel() {
+            return true;
+        }
+    }
+
 
     @Override
     public void markRobotsByIP() {
+        ResultProcessor processor = new BotMarker();
         for (String ip : SpiderDetector.getSpiderIpAddresses()) {
-
             try {
-
-                /* Result Process to alter record to be identified as a bot */
-                ResultProcessor processor = new ResultProcessor() {
-                    @Override
-                    public void process(SolrInputDocument doc) throws IOException, SolrServerException {
-                        doc.removeField("isBot");
-                        doc.addField("isBot", true);
-                        solr.add(doc);
-                        log.info("Marked " + doc.getFieldValue("ip") + " as bot");
-                    }
-                };
-
                 /* query for ip, exclude results previously set as bots. */
                 processor.execute("ip:" + ip + "* AND -isBot:true");
-
-                solr.commit();
-
+                log.info("Marked " + ip + " as bot");
             } catch (Exception e) {
                 log.error(e.getMessage(), e);
             }
-
-
         }
 
+        try {
+            processor.commit();
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
     }
 
     @Override
     public void markRobotByUserAgent(String agent) {
         try {
-
-            /* Result Process to alter record to be identified as a bot */
-            ResultProcessor processor = new ResultProcessor() {
-                @Override
-                public void process(SolrInputDocument doc) throws IOException, SolrServerException {
-                    doc.removeField("isBot");
-                    doc.addField("isBot", true);
-                    solr.add(doc);
-                }
-            };
+            ResultProcessor processor = new BotMarker();
 
             /* query for ip, exclude results previously set as bots. */
             processor.execute("userAgent:" + agent + " AND -isBot:true");
 
-            solr.commit();
+            processor.commit();
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
@@ -765,7 +904,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     @Override
     public void deleteRobotsByIsBotFlag() {
         try {
-            solr.deleteByQuery("isBot:true");
+            deleteByQueryInAllCores("isBot:true");
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
@@ -774,7 +913,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     @Override
     public void deleteIP(String ip) {
         try {
-            solr.deleteByQuery("ip:" + ip + "*");
+            deleteByQueryInAllCores("ip:" + ip + "*");
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
@@ -787,6 +926,95 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
     }
 
+    /**
+     * Delete the documents matching a query from every statistics core, concurrently.
+     *
+     * @param query the Solr query
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    protected void deleteByQueryInAllCores(String query) throws IOException, SolrServerException {
+        forEachStatisticsCore(statisticsCore -> commitPolicy.deleteByQuery(statisticsCore, query), true);
+    }
+
+    /**
+     * Work done on a single statistics core.
+     */
+    @FunctionalInterface
+    protected interface CoreTask {
+        void run(SolrClient statisticsCore) throws IOException, SolrServerException;
+    }
+
+    /**
+     * Run a task on every statistics core. When running them concurrently, at most
+     * "solr-statistics.maintenance.threads" cores are processed at once.
+     *
+     * @param task     the task
+     * @param parallel whether the cores may be processed concurrently
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    protected void forEachStatisticsCore(CoreTask task, boolean parallel) throws IOException, SolrServerException {
+        List<SolrClient> cores = getStatisticsCores();
+        int threads = parallel
+            ? Math.min(cores.size(), configurationService.getIntProperty("solr-statistics.maintenance.threads", 4))
+            : 1;
+        if (threads <= 1) {
+            for (SolrClient statisticsCore : cores) {
+                task.run(statisticsCore);
+            }
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(cores.size());
+        for (SolrClient statisticsCore : cores) {
+            tasks.add(() -> {
+                task.run(statisticsCore);
+                return null;
+            });
+        }
+        invokeAll(tasks, threads);
+    }
+
+    /**
+     * Run tasks concurrently and wait for all of them.
+     *
+     * @param tasks   the tasks
+     * @param threads the maximum number of tasks running at once
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    private void invokeAll(List<Callable<Void>> tasks, int threads) throws IOException, SolrServerException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(tasks.size(), threads)));
+        try {
+            List<Future<Void>> results = new ArrayList<>(tasks.size());
+            for (Callable<Void> task : tasks) {
+                results.add(executor.submit(task));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing the statistics cores", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SolrServerException) {
+                throw (SolrServerException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public void update(String query, String action,
                        List<String> fieldNames, List<List<Object>> fieldValuesList)
@@ -799,67 +1027,65 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                        List<String> fieldNames, List<List<Object>> fieldValuesList, boolean commit)
             throws SolrServerException, IOException {
 
-        // Since there is NO update
-        // We need to get our documents
-        // QueryResponse queryResponse = solr.query()//query(query, null, -1,
-        // null, null, null);
-
-        List<SolrInputDocument> docsToUpdate = new ArrayList<>();
+        // Since there is NO update, the documents are read a page at a time, changed, and added again. The uid is
+        // the unique key, so each one replaces the original document in the core it was read from.
+        AtomicLong updated = new AtomicLong();
 
         ResultProcessor processor = new ResultProcessor() {
             @Override
-            public void process(SolrInputDocument document) {
-                docsToUpdate.add(document);
+            public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                for (SolrInputDocument solrDocument : docs) {
+                    updateFields(solrDocument, action, fieldNames, fieldValuesList);
+                }
+                commitPolicy.add(getCore(), docs);
+                updated.addAndGet(docs.size());
+            }
+
+            @Override
+            protected boolean isParallel() {
+                return true;
             }
         };
 
         processor.execute(query);
 
-        // Add the new (updated onces
-        for (int i = 0; i < docsToUpdate.size(); i++) {
-            SolrInputDocument solrDocument = docsToUpdate.get(i);
-
-            // Delete the document from the solr client
-            solr.deleteByQuery("uid:" + solrDocument.getFieldValue("uid"));
-
-            // Now loop over our fieldname actions
-            for (int j = 0; j < fieldNames.size(); j++) {
-                String fieldName = fieldNames.get(j);
-                List<Object> fieldValues = fieldValuesList.get(j);
+        // a single commit for all updated documents
+        if (commit && updated.get() > 0) {
+            processor.commit();
+        }
+    }
 
-                if (action.equals("addOne") || action.equals("replace")) {
-                    if (action.equals("replace")) {
-                        solrDocument.removeField(fieldName);
-                    }
+    private void updateFields(SolrInputDocument solrDocument, String action,
+                              List<String> fieldNames, List<List<Object>> fieldValuesList) {
+        // Now loop over our fieldname actions
+        for (int j = 0; j < fieldNames.size(); j++) {
+            String fieldName = fieldNames.get(j);
+            List<Object> fieldValues = fieldValuesList.get(j);
 
-                    for (Object fieldValue : fieldValues) {
-                        solrDocument.addField(fieldName, fieldValue);
-                    }
-                } else if (action.equals("remOne")) {
-                    // Remove the field
-                    java.util.Collection<Object> values = solrDocument
-                        .getFieldValues(fieldName);
+            if (action.equals("addOne") || action.equals("replace")) {
+                if (action.equals("replace")) {
                     solrDocument.removeField(fieldName);
-                    for (Object value : values) {
-                        // Keep all the values besides the one we need to remove
-                        if (!fieldValues.contains((value))) {
-                            solrDocument.addField(fieldName, value);
-                        }
-                    }
                 }
-            }
-
-            // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
-            solrDocument.removeField("_version_");
-
-            solr.add(solrDocument);
 
-            if (commit) {
-                commit();
+                for (Object fieldValue : fieldValues) {
+                    solrDocument.addField(fieldName, fieldValue);
+                }
+            } else if (action.equals("remOne")) {
+                // Remove the field
+                java.util.Collection<Object> values = solrDocument
+                    .getFieldValues(fieldName);
+                solrDocument.removeField(fieldName);
+                for (Object value : values) {
+                    // Keep all the values besides the one we need to remove
+                    if (!fieldValues.contains((value))) {
+                        solrDocument.addField(fieldName, value);
+                    }
+                }
             }
         }
-        // System.out.println("SolrLogger.update(\""+query+"\"):"+(new
-        // Date().getTime() - start)+"ms,"+numbFound+"records");
+
+        // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
+        solrDocument.removeField("_version_");
     }
 
     @Override
@@ -1066,29 +1292,79 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             solrQuery.setFacetLimit(max);
         }
 
+        if (sort != null) {
+            solrQuery.addSort(sort, (ascending ? SolrQuery.ORDER.asc : SolrQuery.ORDER.desc));
+        }
+
+        if (defaultFilterQueries) {
+            addDefaultFilterQueries(solrQuery);
+        }
+
+        if (filterQuery != null) {
+            solrQuery.addFilterQuery(filterQuery);
+        }
+
+        QueryResponse response;
+        try {
+            // solr.set
+            response = solr.query(solrQuery);
+        } catch (SolrServerException | IOException e) {
+            log.error("Error searching Solr usage events using query {}", query, e);
+            throw e;
+        }
+        return response;
+    }
+
+    @Override
+    public void processHits(String query, String filterQuery, List<String> fields,
+                            Consumer<List<SolrDocument>> consumer)
+            throws SolrServerException, IOException {
+        if (solr == null) {
+            return;
+        }
+        new ResultProcessor() {
+            @Override
+            protected SolrQuery createQuery(String hitQuery) {
+                SolrQuery solrQuery = new SolrQuery(hitQuery);
+                addDefaultFilterQueries(solrQuery);
+                if (filterQuery != null) {
+                    solrQuery.addFilterQuery(filterQuery);
+                }
+                solrQuery.setFields(fields.toArray(new String[0]));
+                return solrQuery;
+            }
+
+            @Override
+            protected void processResults(SolrDocumentList results) {
+                consumer.accept(results);
+            }
+        }.execute(query);
+    }
+
+    /**
+     * Add the filter queries which are applied to all statistics queries by default, see
+     * "solr-statistics.query.filter.*".
+     *
+     * @param solrQuery the query
+     */
+    protected void addDefaultFilterQueries(SolrQuery solrQuery) {
         // A filter is used instead of a regular query to improve
         // performance and ensure the search result ordering will
         // not be influenced
 
         // Choose to filter by the Legacy spider IP list (may get too long to properly filter all IP's
-        if (defaultFilterQueries && configurationService.getBooleanProperty(
-                "solr-statistics.query.filter.spiderIp", false)) {
+        if (configurationService.getBooleanProperty("solr-statistics.query.filter.spiderIp", false)) {
             solrQuery.addFilterQuery(getIgnoreSpiderIPs());
         }
 
         // Choose to filter by isBot field, may be overriden in future
         // to allow views on stats based on bots.
-        if (defaultFilterQueries && configurationService.getBooleanProperty(
-                "solr-statistics.query.filter.isBot", true)) {
+        if (configurationService.getBooleanProperty("solr-statistics.query.filter.isBot", true)) {
             solrQuery.addFilterQuery("-isBot:true");
         }
 
-        if (sort != null) {
-            solrQuery.addSort(sort, (ascending ? SolrQuery.ORDER.asc : SolrQuery.ORDER.desc));
-        }
-
         String[] bundles = configurationService.getArrayProperty("solr-statistics.query.filter.bundles");
-        if (defaultFilterQueries && bundles != null && bundles.length > 0) {
+        if (bundles != null && bundles.length > 0) {
 
             /**
              * The code below creates a query that will allow only records which do not have a bundlename
@@ -1109,20 +1385,6 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             solrQuery.addFilterQuery(bundleQuery.toString());
         }
-
-        if (filterQuery != null) {
-            solrQuery.addFilterQuery(filterQuery);
-        }
-
-        QueryResponse response;
-        try {
-            // solr.set
-            response = solr.query(solrQuery);
-        } catch (SolrServerException | IOException e) {
-            log.error("Error searching Solr usage events using query {}", query, e);
-            throw e;
-        }
-        return response;
     }
 
 
@@ -1142,7 +1404,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                     first = false;
                 }
 
-                query.append(" NOT(ip: ").append(ip).append(")");
+                query.append(" NOT(ip: ").append(ClientUtils.escapeQueryChars(ip)).append(")");
             }
             filterQuery = query.toString();
         }
@@ -1190,115 +1452,128 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         yearRangeQuery.add(FacetParams.FACET_RANGE_GAP, "+1YEAR");
         yearRangeQuery.add(FacetParams.FACET_MINCOUNT, String.valueOf(1));
 
-        //Create a temp directory to store our files in !
-        File tempDirectory = new File(
-            configurationService.getProperty("dspace.dir") + File.separator + "temp" + File.separator);
-        tempDirectory.mkdirs();
-
+        //The position of an interrupted move of each year is kept here, to resume from
+        File checkpointDirectory = new File(configurationService.getProperty("dspace.dir") + File.separator + "temp"
+                                                + File.separator + "statistics-shard");
+        checkpointDirectory.mkdirs();
 
         QueryResponse queryResponse = solr.query(yearRangeQuery);
         //We only have one range query !
         List<RangeFacet.Count> yearResults = queryResponse.getFacetRanges().get(0).getCounts();
+        List<Callable<Void>> years = new ArrayList<>(yearResults.size());
         for (RangeFacet.Count count : yearResults) {
-            long totalRecords = count.getCount();
-
-            //Create a range query from this !
-            //We start with out current year
-            DCDate dcStart = new DCDate(count.getValue());
-            Calendar endDate = Calendar.getInstance();
-            //Advance one year for the start of the next one !
-            endDate.setTime(dcStart.toDate());
-            endDate.add(Calendar.YEAR, 1);
-            DCDate dcEndDate = new DCDate(endDate.getTime());
-
-
-            StringBuilder filterQuery = new StringBuilder();
-            filterQuery.append("time:([");
-            filterQuery.append(ClientUtils.escapeQueryChars(dcStart.toString()));
-            filterQuery.append(" TO ");
-            filterQuery.append(ClientUtils.escapeQueryChars(dcEndDate.toString()));
-            filterQuery.append("]");
-            //The next part of the filter query excludes the content from midnight of the next year !
-            filterQuery.append(" NOT ").append(ClientUtils.escapeQueryChars(dcEndDate.toString()));
-            filterQuery.append(")");
-
-
-            Map<String, String> yearQueryParams = new HashMap<>();
-            yearQueryParams.put(CommonParams.Q, "*:*");
-            yearQueryParams.put(CommonParams.ROWS, String.valueOf(10000));
-            yearQueryParams.put(CommonParams.FQ, filterQuery.toString());
-            yearQueryParams.put(CommonParams.WT, "csv");
-
-            //Tell SOLR how to escape and separate the values of multi-valued fields
-            yearQueryParams.put("csv.escape", "\\");
-            yearQueryParams.put("csv.mv.separator", MULTIPLE_VALUES_SPLITTER);
-
-            //Start by creating a new core
-            String coreName = statisticsCoreBase + "-" + dcStart.getYearUTC();
-            HttpSolrClient statisticsYearServer = createCore((HttpSolrClient) solr, coreName);
+            years.add(() -> {
+                shardYear(count, checkpointDirectory);
+                return null;
+            });
+        }
+        invokeAll(years, configurationService.getIntProperty("solr-statistics.maintenance.threads", 4));
+    }
 
+    /**
+     * Move the documents of one year from the current core to a core of their own. The documents are read with a
+     * cursor and added to the year core a page at a time, without intermediate files. The position is saved in the
+     * checkpoint directory whenever the year core is committed, so an interrupted move resumes where it stopped. The
+     * documents are deleted from the current core once all of them are in the year core.
+     *
+     * @param count               the facet count of the year
+     * @param checkpointDirectory the directory of the saved positions
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     */
+    protected void shardYear(RangeFacet.Count count, File checkpointDirectory)
+            throws IOException, SolrServerException {
+        long totalRecords = count.getCount();
+
+        //Create a range query from this !
+        //We start with out current year
+        DCDate dcStart = new DCDate(count.getValue());
+        Calendar endDate = Calendar.getInstance();
+        //Advance one year for the start of the next one !
+        endDate.setTime(dcStart.toDate());
+        endDate.add(Calendar.YEAR, 1);
+        DCDate dcEndDate = new DCDate(endDate.getTime());
+
+        StringBuilder filterQuery = new StringBuilder();
+        filterQuery.append("time:([");
+        filterQuery.append(ClientUtils.escapeQueryChars(dcStart.toString()));
+        filterQuery.append(" TO ");
+        filterQuery.append(ClientUtils.escapeQueryChars(dcEndDate.toString()));
+        filterQuery.append("]");
+        //The next part of the filter query excludes the content from midnight of the next year !
+        filterQuery.append(" NOT ").append(ClientUtils.escapeQueryChars(dcEndDate.toString()));
+        filterQuery.append(")");
+
+        SolrQuery yearQuery = new SolrQuery("*:*");
+        yearQuery.addFilterQuery(filterQuery.toString());
+        yearQuery.setRows(configurationService.getIntProperty("solr-statistics.maintenance.batch-size", 1000));
+        // a cursor requires a sort on the unique key
+        yearQuery.setSort("uid", SolrQuery.ORDER.asc);
+
+        //Start by creating a new core
+        String coreName = statisticsCoreBase + "-" + dcStart.getYearUTC();
+        File checkpoint = new File(checkpointDirectory, coreName + ".cursor");
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        if (checkpoint.exists()) {
+            cursorMark = FileUtils.readFileToString(checkpoint, StandardCharsets.UTF_8).trim();
+            System.out.println("Resuming the move of " + totalRecords + " records into core " + coreName);
+            log.info("Resuming the move of {} records into core {}", totalRecords, coreName);
+        } else {
             System.out.println("Moving: " + totalRecords + " into core " + coreName);
             log.info("Moving: " + totalRecords + " records into core " + coreName);
+        }
 
-            List<File> filesToUpload = new ArrayList<>();
-            for (int i = 0; i < totalRecords; i += 10000) {
-                String solrRequestUrl = ((HttpSolrClient) solr).getBaseURL() + "/select";
-                solrRequestUrl = generateURL(solrRequestUrl, yearQueryParams);
-
-                HttpGet get = new HttpGet(solrRequestUrl);
-                InputStream csvInputstream;
-                File csvFile = new File(tempDirectory.getPath()
-                        + File.separatorChar
-                        + "temp."
-                        + dcStart.getYearUTC()
-                        + "."
-                        + i
-                        + ".csv");
-                try ( CloseableHttpClient hc = HttpClientBuilder.create().build(); ) {
-                    HttpResponse response = hc.execute(get);
-                    csvInputstream = response.getEntity().getContent();
-                    //Write the csv ouput to a file !
-                    FileUtils.copyInputStreamToFile(csvInputstream, csvFile);
+        try (HttpSolrClient statisticsYearServer = createCore((HttpSolrClient) solr, coreName)) {
+            long moved = 0;
+            long uncommitted = 0;
+            boolean done = false;
+            while (!done) {
+                yearQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+                QueryResponse response = solr.query(yearQuery);
+                List<SolrInputDocument> docs = new ArrayList<>(response.getResults().size());
+                for (SolrDocument result : response.getResults()) {
+                    SolrInputDocument doc = toSolrInputDocument(result);
+                    // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
+                    doc.removeField("_version_");
+                    docs.add(doc);
                 }
-                filesToUpload.add(csvFile);
-
-                //Add 10000 & start over again
-                yearQueryParams.put(CommonParams.START, String.valueOf((i + 10000)));
-            }
-
-            Set<String> multivaluedFields = getMultivaluedFieldNames();
-
-            for (File tempCsv : filesToUpload) {
-                //Upload the data in the csv files to our new solr core
-                ContentStreamUpdateRequest contentStreamUpdateRequest = new ContentStreamUpdateRequest("/update");
-                contentStreamUpdateRequest.setParam("stream.contentType", "text/csv;charset=utf-8");
-                contentStreamUpdateRequest.setParam("escape", "\\");
-                contentStreamUpdateRequest.setParam("skip", "_version_");
-                contentStreamUpdateRequest.setAction(AbstractUpdateRequest.ACTION.COMMIT, true, true);
-                contentStreamUpdateRequest.addFile(tempCsv, "text/csv;charset=utf-8");
-
-                //Add parsing directives for the multivalued fields so that they are stored as separate values
-                // instead of one value
-                for (String multivaluedField : multivaluedFields) {
-                    contentStreamUpdateRequest.setParam("f." + multivaluedField + ".split", Boolean.TRUE.toString());
-                    contentStreamUpdateRequest
-                        .setParam("f." + multivaluedField + ".separator", MULTIPLE_VALUES_SPLITTER);
+                if (!docs.isEmpty()) {
+                    statisticsYearServer.add(docs);
+                    moved += docs.size();
+                    uncommitted += docs.size();
                 }
 
-                statisticsYearServer.request(contentStreamUpdateRequest);
+                String nextCursorMark = response.getNextCursorMark();
+                done = cursorMark.equals(nextCursorMark);
+                cursorMark = nextCursorMark;
+                if (done || uncommitted >= SHARD_CHECKPOINT_INTERVAL) {
+                    statisticsYearServer.commit(true, true);
+                    FileUtils.writeStringToFile(checkpoint, cursorMark, StandardCharsets.UTF_8);
+                    uncommitted = 0;
+                    System.out.println("Moved " + moved + " of " + totalRecords + " records into core " + coreName);
+                    log.info("Moved {} of {} records into core {}", moved, totalRecords, coreName);
+                }
             }
 
-            statisticsYearServer.commit(true, true);
-
-
-            //Delete contents of this year from our year query !
-            solr.deleteByQuery(filterQuery.toString());
-            solr.commit(true, true);
-
-            log.info("Moved {} records into core: {}", totalRecords, coreName);
+            //Only delete the contents of this year from our year query once they are all in the year core !
+            SolrQuery countQuery = new SolrQuery("*:*");
+            countQuery.addFilterQuery(filterQuery.toString());
+            countQuery.setRows(0);
+            long copied = statisticsYearServer.query(countQuery).getResults().getNumFound();
+            long remaining = solr.query(countQuery).getResults().getNumFound();
+            if (copied < remaining) {
+                // start over on the next run
+                FileUtils.deleteQuietly(checkpoint);
+                throw new IOException("Core " + coreName + " has " + copied + " records of " + remaining
+                                          + ", they are not removed from " + statisticsCoreBase);
+            }
         }
 
-        FileUtils.deleteDirectory(tempDirectory);
+        solr.deleteByQuery(filterQuery.toString());
+        solr.commit(true, true);
+        FileUtils.deleteQuietly(checkpoint);
+
+        log.info("Moved {} records into core: {}", totalRecords, coreName);
     }
 
     protected HttpSolrClient createCore(HttpSolrClient solr, String coreName)
@@ -1535,7 +1810,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     @Override
     public void commit() throws IOException, SolrServerException {
-        solr.commit();
+        commitPolicy.commit(solr);
     }
 
     protected void addDocumentsToFile(Context context, SolrDocumentList docs, File exportOutput)
@@ -1634,7 +1909,10 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             for (String statCoreName : statCoreNames) {
                 log.info("Loading core with name: " + statCoreName);
 
-                createCore((HttpSolrClient) solr, statCoreName);
+                HttpSolrClient statCore = createCore((HttpSolrClient) solr, statCoreName);
+                if (!statCoreName.equals(statisticsCoreBase)) {
+                    statisticYearCoreClients.add(statCore);
+                }
                 //Add it to our cores list so we can query it !
                 statisticYearCores
                     .add(baseSolrUrl.replace("http://", "").replace("https://", "") + statCoreName);
@@ -1650,6 +1928,16 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         statisticYearCoresInit = true;
     }
 
+    /**
+     * @return the clients of all statistics cores: the prior-year shards, if any, and the current-year core
+     */
+    protected List<SolrClient> getStatisticsCores() {
+        initSolrYearCores();
+        List<SolrClient> cores = new ArrayList<>(statisticYearCoreClients);
+        cores.add(solr);
+        return cores;
+    }
+
     public Object anonymizeIp(String ip) throws UnknownHostException {
         InetAddress address = InetAddress.getByName(ip);
         if (address instanceof Inet4Address) {
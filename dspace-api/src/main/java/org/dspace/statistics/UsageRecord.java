@@ -0,0 +1,87 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.Serializable;
+
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * A usage event on its way to the statistics core: the document with everything which had to be read from the
+ * database while the request was being handled, and the client details still needed to detect spiders and to add the
+ * DNS and location fields, which may be done later by another thread.
+ */
+public class UsageRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SolrInputDocument document;
+
+    private boolean client;
+    private String ip;
+    private String remoteAddr;
+    private String forwardedFor;
+    private String remoteHost;
+    private String agent;
+
+    /**
+     * @param document the document, without the client related fields
+     */
+    public UsageRecord(SolrInputDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * Set the client which caused the event.
+     *
+     * @param ip           the address of the client, taking trusted proxies into account
+     * @param remoteAddr   the address the request came from
+     * @param forwardedFor the X-Forwarded-For header, or null
+     * @param remoteHost   the host name the request came from, or null
+     * @param agent        the User-Agent used to detect spiders, or null
+     */
+    public void setClient(String ip, String remoteAddr, String forwardedFor, String remoteHost, String agent) {
+        this.client = true;
+        this.ip = ip;
+        this.remoteAddr = remoteAddr;
+        this.forwardedFor = forwardedFor;
+        this.remoteHost = remoteHost;
+        this.agent = agent;
+    }
+
+    public SolrInputDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * @return whether the event was caused by a client, as opposed to e.g. a workflow action
+     */
+    public boolean hasClient() {
+        return client;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    public String getForwardedFor() {
+        return forwardedFor;
+    }
+
+    public String getRemoteHost() {
+        return remoteHost;
+    }
+
+    public String getAgent() {
+        return agent;
+    }
+}
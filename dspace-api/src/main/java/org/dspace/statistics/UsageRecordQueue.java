@@ -0,0 +1,373 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded in-memory buffer of {@link UsageRecord}s, sent to the statistics core in batches by a background thread, so
+ * the request causing an event doesn't wait for the DNS and GeoIP lookups or for Solr.
+ * <p>
+ * When the buffer is full, new records are dropped, the caller waits for up to a configured time for space to become
+ * available before dropping them, or they are appended to a spill file. If a spill directory is configured, the
+ * records of batches which could not be sent and the records still buffered on shutdown are spilled as well. Spilled
+ * records are sent again by the background thread whenever the buffer is empty, including after a restart.
+ */
+public class UsageRecordQueue {
+
+    private static final Logger log = LogManager.getLogger();
+
+    private static final String SPILL_FILE = "usage-records.spill";
+
+    /**
+     * The largest spilled record which is read back, anything larger means the spill file is corrupt.
+     */
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Only the classes a {@link UsageRecord} consists of are deserialized from the spill file: the record, its
+     * SolrInputDocument and the JDK types of the field values (for arrays the element type is checked).
+     */
+    private static final ObjectInputFilter SPILL_FILTER = ObjectInputFilter.Config.createFilter(
+        "maxdepth=20;maxrefs=100000;"
+            + UsageRecord.class.getName() + ";"
+            + "org.apache.solr.common.SolrInputDocument;org.apache.solr.common.SolrDocumentBase;"
+            + "org.apache.solr.common.SolrInputField;"
+            + "java.lang.String;java.lang.Number;java.lang.Integer;java.lang.Long;java.lang.Short;java.lang.Byte;"
+            + "java.lang.Float;java.lang.Double;java.lang.Boolean;java.lang.Character;java.lang.Object;"
+            + "java.math.BigInteger;java.math.BigDecimal;java.util.*;!*");
+
+    /**
+     * What to do with a record when the buffer is full.
+     */
+    public enum WhenFull {
+        DROP, BLOCK, SPILL
+    }
+
+    /**
+     * Sends a batch of records to the statistics core.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        void send(List<UsageRecord> records) throws Exception;
+    }
+
+    private final Sender sender;
+    private final BlockingQueue<UsageRecord> queue;
+    private final int batchSize;
+    private final WhenFull whenFull;
+    private final long blockTimeout;
+    private final File spillDir;
+    private final long retryInterval;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Object spillLock = new Object();
+    private long nextReplay;
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * Create the queue and start its background thread.
+     *
+     * @param sender        sends the batches
+     * @param capacity      the maximum number of records in memory
+     * @param batchSize     the maximum number of records sent at once
+     * @param whenFull      what to do with a record when the buffer is full
+     * @param blockTimeout  for {@link WhenFull#BLOCK}, how long (in ms) to wait for space
+     * @param spillDir      the directory of the spill file, or null to never spill
+     * @param retryInterval how long (in ms) to wait before sending spilled records again after a failure
+     */
+    public UsageRecordQueue(Sender sender, int capacity, int batchSize, WhenFull whenFull, long blockTimeout,
+                            File spillDir, long retryInterval) {
+        if (whenFull == WhenFull.SPILL && spillDir == null) {
+            throw new IllegalArgumentException("A spill directory is required to spill usage records");
+        }
+        if (spillDir != null && !spillDir.isDirectory() && !spillDir.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create spill directory " + spillDir);
+        }
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.whenFull = whenFull;
+        this.blockTimeout = blockTimeout;
+        this.spillDir = spillDir;
+        this.retryInterval = retryInterval;
+        this.worker = new Thread(this::run, "usage-record-queue");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Buffer a record, applying the configured policy if the buffer is full. Never throws.
+     *
+     * @param record the record to send
+     */
+    public void offer(UsageRecord record) {
+        if (running && queue.offer(record)) {
+            queued.incrementAndGet();
+            return;
+        }
+        if (running && whenFull == WhenFull.BLOCK) {
+            try {
+                if (queue.offer(record, blockTimeout, TimeUnit.MILLISECONDS)) {
+                    queued.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (spillDir != null && (whenFull == WhenFull.SPILL || !running) && spill(List.of(record))) {
+            return;
+        }
+        // warn on the first drop and then every 1000 drops, not on every request while Solr is unreachable
+        if (dropped.getAndIncrement() % 1000 == 0) {
+            log.warn("The usage record queue is full, {} usage events dropped so far", dropped.get());
+        }
+    }
+
+    /**
+     * Stop accepting records and send the buffered ones, waiting for at most the given time. The records which could
+     * not be sent by then are spilled if possible, dropped otherwise.
+     *
+     * @param timeout the maximum time to wait, in ms
+     */
+    public void shutdown(long timeout) {
+        running = false;
+        try {
+            worker.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+        List<UsageRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty() && !spill(remaining)) {
+            dropped.addAndGet(remaining.size());
+            log.warn("Dropped {} usage events on shutdown", remaining.size());
+        }
+        log.info("Usage record queue stopped: {}", getStatistics());
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return the counters of the queue, e.g. to be logged or exposed by a health indicator
+     */
+    public Map<String, Long> getStatistics() {
+        return Map.of("queued", queued.get(), "sent", sent.get(), "dropped", dropped.get(),
+                      "spilled", spilled.get(), "failed", failed.get(), "size", (long) queue.size());
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<UsageRecord> batch = new ArrayList<>(batchSize);
+            try {
+                UsageRecord first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() gave up waiting for this thread
+                return;
+            }
+            if (!batch.isEmpty()) {
+                send(batch, true);
+            } else if (running) {
+                replaySpill();
+            }
+        }
+    }
+
+    /**
+     * @param batch the records to send
+     * @param spill whether to spill the records if they cannot be sent
+     * @return whether the records were sent
+     */
+    private boolean send(List<UsageRecord> batch, boolean spill) {
+        try {
+            sender.send(batch);
+            sent.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Unable to send {} usage events to the statistics core", batch.size(), e);
+            if (!spill) {
+                return false;
+            }
+            if (spill(batch)) {
+                synchronized (spillLock) {
+                    nextReplay = System.currentTimeMillis() + retryInterval;
+                }
+            } else {
+                failed.addAndGet(batch.size());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Append records to the spill file, each as its length followed by its serialized form.
+     *
+     * @param records the records to spill
+     * @return whether the records were spilled
+     */
+    private boolean spill(Collection<UsageRecord> records) {
+        if (spillDir == null) {
+            return false;
+        }
+        synchronized (spillLock) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(new File(spillDir, SPILL_FILE), true)))) {
+                for (UsageRecord record : records) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+                        objects.writeObject(record);
+                    }
+                    out.writeInt(bytes.size());
+                    bytes.writeTo(out);
+                }
+                spilled.addAndGet(records.size());
+                return true;
+            } catch (IOException e) {
+                log.error("Unable to spill {} usage events to {}", records.size(), spillDir, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Send the spilled records, if any. The spill file is renamed first, so records spilled in the meantime are
+     * appended to a new one. Records which can't be sent are spilled again, records which can't be read are skipped.
+     * If the file itself is corrupt, the rest of it is not read and the file is kept for inspection.
+     */
+    private void replaySpill() {
+        File replay;
+        synchronized (spillLock) {
+            File spill = spillDir == null ? null : new File(spillDir, SPILL_FILE);
+            if (spill == null || !spill.exists() || System.currentTimeMillis() < nextReplay) {
+                return;
+            }
+            replay = new File(spillDir, SPILL_FILE + "." + System.currentTimeMillis());
+            if (!spill.renameTo(replay)) {
+                log.error("Unable to rename {} to {}", spill, replay);
+                nextReplay = System.currentTimeMillis() + retryInterval;
+                return;
+            }
+        }
+        log.info("Sending usage events spilled to {}", replay);
+        boolean failing = false;
+        boolean corrupt = false;
+        List<UsageRecord> batch = new ArrayList<>(batchSize);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(replay)))) {
+            byte[] bytes;
+            while ((bytes = readBytes(in)) != null) {
+                UsageRecord record = deserialize(bytes);
+                if (record == null) {
+                    failed.incrementAndGet();
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    failing = replay(batch, failing);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Unable to read spilled usage events from {}, the file is kept", replay, e);
+            corrupt = true;
+        }
+        if (!batch.isEmpty()) {
+            replay(batch, failing);
+        }
+        if (!corrupt && !replay.delete()) {
+            log.warn("Unable to delete {}", replay);
+        }
+    }
+
+    /**
+     * @return whether sending is failing, in which case the remaining records are spilled again directly
+     */
+    private boolean replay(List<UsageRecord> batch, boolean failing) {
+        if (!failing && send(batch, false)) {
+            return false;
+        }
+        if (spill(batch)) {
+            synchronized (spillLock) {
+                nextReplay = System.currentTimeMillis() + retryInterval;
+            }
+        } else {
+            failed.addAndGet(batch.size());
+        }
+        return true;
+    }
+
+    /**
+     * @return the serialized form of the next record, or null at the end of the file
+     * @throws IOException if the file can't be read or is corrupt
+     */
+    private byte[] readBytes(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > MAX_RECORD_LENGTH) {
+            throw new IOException("Invalid length of a spilled usage event: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return the record, or null if it can't be deserialized
+     */
+    private UsageRecord deserialize(byte[] bytes) {
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objects.setObjectInputFilter(SPILL_FILTER);
+            return (UsageRecord) objects.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.error("Unable to read a spilled usage event, it is skipped", e);
+            return null;
+        }
+    }
+}
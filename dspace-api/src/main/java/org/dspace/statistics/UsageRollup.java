@@ -0,0 +1,123 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.util.Date;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.ReloadableEntity;
+
+/**
+ * Entity holding the number of views of an object from one country on one day, aggregated from the usage events in
+ * the statistics core, see {@link org.dspace.statistics.service.UsageRollupService}.
+ */
+@Entity
+@Table(name = "usage_rollup")
+public class UsageRollup implements ReloadableEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usage_rollup_id_seq")
+    @SequenceGenerator(name = "usage_rollup_id_seq", sequenceName = "usage_rollup_id_seq", allocationSize = 1)
+    private Long id;
+
+    /**
+     * The UUID of the viewed object
+     */
+    @Column(name = "dso_id", nullable = false)
+    private UUID dsoId;
+
+    /**
+     * The type of the viewed object, see {@link org.dspace.core.Constants}
+     */
+    @Column(name = "dso_type", nullable = false)
+    private int dsoType;
+
+    /**
+     * For a bitstream, the UUID of the item it belongs to
+     */
+    @Column(name = "owning_item")
+    private UUID owningItem;
+
+    /**
+     * The (UTC) day of the views
+     */
+    @Temporal(TemporalType.DATE)
+    @Column(name = "rollup_date", nullable = false)
+    private Date rollupDate;
+
+    /**
+     * The ISO code of the country the views came from, null if unknown
+     */
+    @Column(name = "country_code", length = 2)
+    private String countryCode;
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    @Override
+    public Long getID() {
+        return id;
+    }
+
+    public UUID getDsoId() {
+        return dsoId;
+    }
+
+    public void setDsoId(UUID dsoId) {
+        this.dsoId = dsoId;
+    }
+
+    public int getDsoType() {
+        return dsoType;
+    }
+
+    public void setDsoType(int dsoType) {
+        this.dsoType = dsoType;
+    }
+
+    public UUID getOwningItem() {
+        return owningItem;
+    }
+
+    public void setOwningItem(UUID owningItem) {
+        this.owningItem = owningItem;
+    }
+
+    public Date getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(Date rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
@@ -0,0 +1,393 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.RangeFacet;
+import org.apache.solr.common.SolrDocument;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.statistics.dao.UsageRollupDAO;
+import org.dspace.statistics.service.SolrLoggerService;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.util.UUIDUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Implementation of {@link UsageRollupService}.
+ * <p>
+ * Only views are counted, with the default filter queries of the statistics queries (bots, bundles), like the usage
+ * reports do. Usage events of objects identified by a legacy (pre DSpace 6) id are not aggregated.
+ */
+public class UsageRollupServiceImpl implements UsageRollupService {
+
+    private static final Logger log = LogManager.getLogger(UsageRollupServiceImpl.class);
+
+    /**
+     * Excludes searches and workflow events, see {@link org.dspace.statistics.content.StatisticsDataVisits}
+     */
+    private static final String VIEWS_FILTER = "-(statistics_type:[* TO *] AND -statistics_type:"
+        + SolrLoggerServiceImpl.StatisticsType.VIEW.text() + ")";
+
+    private static final List<String> FIELDS = List.of("id", "type", "owningItem", "countryCode");
+
+    @Autowired
+    protected UsageRollupDAO usageRollupDAO;
+    @Autowired
+    protected SolrLoggerService solrLoggerService;
+    @Autowired
+    protected ConfigurationService configurationService;
+
+    protected UsageRollupServiceImpl() {
+
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationService.getBooleanProperty("usage-statistics.rollup.enabled", false);
+    }
+
+    @Override
+    public int rollup(Context context) throws SQLException, SolrServerException, IOException {
+        LocalDate from = getLastRollupDate(context);
+        if (from == null) {
+            from = getFirstViewDate();
+            if (from == null) {
+                return 0;
+            }
+        }
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            long views = rollup(context, day);
+            context.commit();
+            log.info("Aggregated {} views of {}", views, day);
+            days++;
+        }
+        return days;
+    }
+
+    @Override
+    public long rollup(Context context, LocalDate day) throws SQLException, SolrServerException, IOException {
+        Map<RollupKey, Long> counts = new HashMap<>();
+        String filterQuery = "time:[" + formatTime(day) + " TO " + formatTime(day.plusDays(1)) + "} AND "
+            + VIEWS_FILTER;
+        solrLoggerService.processHits("*:*", filterQuery, FIELDS, docs -> {
+            for (SolrDocument doc : docs) {
+                RollupKey key = getRollupKey(doc);
+                if (key != null) {
+                    counts.merge(key, 1L, Long::sum);
+                }
+            }
+        });
+
+        Date rollupDate = toDate(day);
+        usageRollupDAO.deleteByRollupDate(context, rollupDate);
+        long views = 0;
+        for (Map.Entry<RollupKey, Long> count : counts.entrySet()) {
+            UsageRollup rollup = new UsageRollup();
+            rollup.setDsoId(count.getKey().dsoId);
+            rollup.setDsoType(count.getKey().dsoType);
+            rollup.setOwningItem(count.getKey().owningItem);
+            rollup.setCountryCode(count.getKey().countryCode);
+            rollup.setRollupDate(rollupDate);
+            rollup.setViews(count.getValue());
+            usageRollupDAO.create(context, rollup);
+            views += count.getValue();
+        }
+        return views;
+    }
+
+    @Override
+    public int rollup(Context context, Collection<LocalDate> days)
+        throws SQLException, SolrServerException, IOException {
+        LocalDate last = getLastRollupDate(context);
+        if (last == null) {
+            return 0;
+        }
+        int count = 0;
+        for (LocalDate day : new TreeSet<>(days)) {
+            if (!day.isAfter(last)) {
+                long views = rollup(context, day);
+                context.commit();
+                log.info("Aggregated {} views of {} again", views, day);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Set<LocalDate> getAggregatedDays(Context context, Collection<String> queries)
+        throws SQLException, SolrServerException, IOException {
+        Date first = usageRollupDAO.findFirstRollupDate(context);
+        LocalDate last = getLastRollupDate(context);
+        if (first == null || last == null) {
+            return Collections.emptySet();
+        }
+        LocalDate from = toLocalDate(first);
+        String filterQuery = "time:[" + formatTime(from) + " TO " + formatTime(last.plusDays(1)) + "} AND "
+            + VIEWS_FILTER;
+        // the day facet starts at the first aggregated day, relative to today like all date facets
+        String start = "-" + ChronoUnit.DAYS.between(from, LocalDate.now(ZoneOffset.UTC));
+
+        Set<LocalDate> days = new TreeSet<>();
+        for (String query : queries) {
+            QueryResponse response = solrLoggerService.query(query, filterQuery, null, 0, -1, "DAY", start, "+1",
+                                                             null, null, false, 1);
+            if (response == null) {
+                continue;
+            }
+            for (RangeFacet<?, ?> range : response.getFacetRanges()) {
+                if ("time".equals(range.getName())) {
+                    for (Object rangeCount : range.getCounts()) {
+                        RangeFacet.Count dayCount = (RangeFacet.Count) rangeCount;
+                        LocalDate day = Instant.parse(dayCount.getValue()).atZone(ZoneOffset.UTC).toLocalDate();
+                        if (dayCount.getCount() > 0 && !day.isBefore(from) && !day.isAfter(last)) {
+                            days.add(day);
+                        }
+                    }
+                }
+            }
+        }
+        return days;
+    }
+
+    @Override
+    public LocalDate getLastRollupDate(Context context) throws SQLException {
+        Date last = usageRollupDAO.findLastRollupDate(context);
+        return last == null ? null : toLocalDate(last);
+    }
+
+    @Override
+    public long getViews(Context context, DSpaceObject dso) throws SQLException, SolrServerException, IOException {
+        LocalDate last = getLastRollupDate(context);
+        long views = last == null ? 0 : usageRollupDAO.sumViews(context, dso.getID());
+        return views + solrLoggerService.queryTotal(getQuery(dso), getRecentFilterQuery(last), 0).getCount();
+    }
+
+    @Override
+    public List<ObjectCount> getViewsPerMonth(Context context, DSpaceObject dso, int months)
+        throws SQLException, SolrServerException, IOException {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        Map<YearMonth, Long> views = new LinkedHashMap<>();
+        for (YearMonth month = current.minusMonths(months); !month.isAfter(current); month = month.plusMonths(1)) {
+            views.put(month, 0L);
+        }
+
+        LocalDate last = getLastRollupDate(context);
+        if (last != null) {
+            Date from = toDate(current.minusMonths(months).atDay(1));
+            for (Map.Entry<Date, Long> dayViews
+                : usageRollupDAO.sumViewsByRollupDate(context, dso.getID(), from).entrySet()) {
+                YearMonth month = YearMonth.from(toLocalDate(dayViews.getKey()));
+                views.computeIfPresent(month, (key, count) -> count + dayViews.getValue());
+            }
+        }
+
+        QueryResponse recent = solrLoggerService.query(getQuery(dso), getRecentFilterQuery(last), null, 0, -1,
+                                                       "MONTH", "-" + months, "+1", null, null, false, 0);
+        if (recent != null) {
+            for (RangeFacet<?, ?> range : recent.getFacetRanges()) {
+                if ("time".equals(range.getName())) {
+                    for (Object rangeCount : range.getCounts()) {
+                        RangeFacet.Count monthCount = (RangeFacet.Count) rangeCount;
+                        YearMonth month = YearMonth.from(Instant.parse(monthCount.getValue()).atZone(ZoneOffset.UTC));
+                        views.computeIfPresent(month, (key, count) -> count + monthCount.getCount());
+                    }
+                }
+            }
+        }
+
+        // the same labels as SolrLoggerServiceImpl#getDateView
+        SimpleDateFormat format = new SimpleDateFormat("MMMM yyyy", context.getCurrentLocale());
+        List<ObjectCount> result = new ArrayList<>(views.size());
+        for (Map.Entry<YearMonth, Long> monthViews : views.entrySet()) {
+            result.add(toObjectCount(format.format(toDate(monthViews.getKey().atDay(1))), monthViews.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ObjectCount> getViewsPerCountry(Context context, DSpaceObject dso, int max)
+        throws SQLException, SolrServerException, IOException {
+        LocalDate last = getLastRollupDate(context);
+        Map<String, Long> views = last == null ? new HashMap<>()
+            : usageRollupDAO.sumViewsByCountryCode(context, dso.getID());
+        for (ObjectCount count : solrLoggerService.queryFacetField(getQuery(dso), getRecentFilterQuery(last),
+                                                                  "countryCode", 300, false, null, 1)) {
+            views.merge(count.getValue(), count.getCount(), Long::sum);
+        }
+        return getTop(views, max);
+    }
+
+    @Override
+    public List<ObjectCount> getBitstreamViews(Context context, Item item, int max)
+        throws SQLException, SolrServerException, IOException {
+        LocalDate last = getLastRollupDate(context);
+        Map<String, Long> views = new HashMap<>();
+        if (last != null) {
+            for (Map.Entry<UUID, Long> bitstreamViews
+                : usageRollupDAO.sumBitstreamViews(context, item.getID()).entrySet()) {
+                views.put(bitstreamViews.getKey().toString(), bitstreamViews.getValue());
+            }
+        }
+        String query = "type:" + Constants.BITSTREAM + " AND owningItem:" + item.getID();
+        for (ObjectCount count : solrLoggerService.queryFacetField(query, getRecentFilterQuery(last), "id", 1000,
+                                                                  false, null, 1)) {
+            views.merge(count.getValue(), count.getCount(), Long::sum);
+        }
+        return getTop(views, max);
+    }
+
+    /**
+     * @return the first day with views, or null if there are none
+     */
+    private LocalDate getFirstViewDate() throws SolrServerException, IOException {
+        QueryResponse response = solrLoggerService.query("*:*", VIEWS_FILTER, null, 1, -1, null, null, null, null,
+                                                         "time", true, 0);
+        if (response == null || response.getResults().isEmpty()) {
+            return null;
+        }
+        Date time = (Date) response.getResults().get(0).getFieldValue("time");
+        return time.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    /**
+     * @return the key of the rollup counting a usage event, or null if the event is not of a known object
+     */
+    private RollupKey getRollupKey(SolrDocument doc) {
+        UUID dsoId = UUIDUtils.fromString(Objects.toString(doc.getFirstValue("id"), null));
+        Object type = doc.getFirstValue("type");
+        if (dsoId == null || !(type instanceof Number)) {
+            return null;
+        }
+        int dsoType = ((Number) type).intValue();
+        UUID owningItem = dsoType == Constants.BITSTREAM
+            ? UUIDUtils.fromString(Objects.toString(doc.getFirstValue("owningItem"), null)) : null;
+        String countryCode = Objects.toString(doc.getFirstValue("countryCode"), null);
+        if (StringUtils.length(countryCode) != 2) {
+            countryCode = null;
+        }
+        return new RollupKey(dsoId, dsoType, owningItem, countryCode);
+    }
+
+    private String getQuery(DSpaceObject dso) {
+        return "type:" + dso.getType() + " AND id:" + dso.getID();
+    }
+
+    /**
+     * @param last the last aggregated day, or null
+     * @return the filter query of the views which are not aggregated yet
+     */
+    private String getRecentFilterQuery(LocalDate last) {
+        if (last == null) {
+            return VIEWS_FILTER;
+        }
+        return "time:[" + formatTime(last.plusDays(1)) + " TO *] AND " + VIEWS_FILTER;
+    }
+
+    private List<ObjectCount> getTop(Map<String, Long> views, int max) {
+        List<ObjectCount> result = new ArrayList<>();
+        views.entrySet().stream()
+             .filter(count -> count.getValue() > 0)
+             .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                              .thenComparing(Map.Entry.comparingByKey()))
+             .limit(max)
+             .forEach(count -> result.add(toObjectCount(count.getKey(), count.getValue())));
+        return result;
+    }
+
+    private ObjectCount toObjectCount(String value, long count) {
+        ObjectCount objectCount = new ObjectCount();
+        objectCount.setValue(value);
+        objectCount.setCount(count);
+        return objectCount;
+    }
+
+    private String formatTime(LocalDate day) {
+        return DateTimeFormatter.ISO_INSTANT.format(day.atStartOfDay(ZoneOffset.UTC));
+    }
+
+    /**
+     * The rollup dates are stored as the local date of a Date, see {@link javax.persistence.TemporalType#DATE}
+     */
+    private Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private LocalDate toLocalDate(Date date) {
+        if (date instanceof java.sql.Date) {
+            return ((java.sql.Date) date).toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * The dimensions of a rollup
+     */
+    private static final class RollupKey {
+        private final UUID dsoId;
+        private final int dsoType;
+        private final UUID owningItem;
+        private final String countryCode;
+
+        RollupKey(UUID dsoId, int dsoType, UUID owningItem, String countryCode) {
+            this.dsoId = dsoId;
+            this.dsoType = dsoType;
+            this.owningItem = owningItem;
+            this.countryCode = countryCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return dsoType == other.dsoType && dsoId.equals(other.dsoId)
+                && Objects.equals(owningItem, other.owningItem) && Objects.equals(countryCode, other.countryCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dsoId, dsoType, owningItem, countryCode);
+        }
+    }
+}
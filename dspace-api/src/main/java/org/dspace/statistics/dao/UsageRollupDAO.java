@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.dao;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.statistics.UsageRollup;
+
+/**
+ * Database Access Object interface class for the UsageRollup object. The
+ * implementation of this class is responsible for all database calls for the
+ * UsageRollup object and is autowired by spring. This class should only be
+ * accessed from a single service and should never be exposed outside of the API
+ */
+public interface UsageRollupDAO extends GenericDAO<UsageRollup> {
+
+    /**
+     * @param context the DSpace context
+     * @return the most recent day with rollups, or null if there are none
+     * @throws SQLException if database error
+     */
+    public Date findLastRollupDate(Context context) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @return the oldest day with rollups, or null if there are none
+     * @throws SQLException if database error
+     */
+    public Date findFirstRollupDate(Context context) throws SQLException;
+
+    /**
+     * Delete the rollups of a day.
+     *
+     * @param context    the DSpace context
+     * @param rollupDate the day
+     * @return the number of deleted rollups
+     * @throws SQLException if database error
+     */
+    public int deleteByRollupDate(Context context, Date rollupDate) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoId   the UUID of the object
+     * @return the total number of views of the object
+     * @throws SQLException if database error
+     */
+    public long sumViews(Context context, UUID dsoId) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoId   the UUID of the object
+     * @param from    the first day to count
+     * @return the number of views of the object per day, for the days with views
+     * @throws SQLException if database error
+     */
+    public Map<Date, Long> sumViewsByRollupDate(Context context, UUID dsoId, Date from) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dsoId   the UUID of the object
+     * @return the number of views of the object per country code, without the views from unknown countries
+     * @throws SQLException if database error
+     */
+    public Map<String, Long> sumViewsByCountryCode(Context context, UUID dsoId) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param itemId  the UUID of the item
+     * @return the number of views of each bitstream of the item
+     * @throws SQLException if database error
+     */
+    public Map<UUID, Long> sumBitstreamViews(Context context, UUID itemId) throws SQLException;
+}
@@ -0,0 +1,105 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.dao.impl;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.statistics.UsageRollup;
+import org.dspace.statistics.dao.UsageRollupDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the UsageRollup object.
+ * This class is responsible for all database calls for the UsageRollup object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class UsageRollupDAOImpl extends AbstractHibernateDAO<UsageRollup> implements UsageRollupDAO {
+
+    protected UsageRollupDAOImpl() {
+        super();
+    }
+
+    @Override
+    public Date findLastRollupDate(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT max(rollupDate) FROM UsageRollup");
+        return (Date) query.getSingleResult();
+    }
+
+    @Override
+    public Date findFirstRollupDate(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT min(rollupDate) FROM UsageRollup");
+        return (Date) query.getSingleResult();
+    }
+
+    @Override
+    public int deleteByRollupDate(Context context, Date rollupDate) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM UsageRollup WHERE rollupDate = :rollupDate");
+        query.setParameter("rollupDate", rollupDate, TemporalType.DATE);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public long sumViews(Context context, UUID dsoId) throws SQLException {
+        Query query = createQuery(context, "SELECT sum(views) FROM UsageRollup WHERE dsoId = :dsoId");
+        query.setParameter("dsoId", dsoId);
+        Number views = (Number) query.getSingleResult();
+        return views == null ? 0 : views.longValue();
+    }
+
+    @Override
+    public Map<Date, Long> sumViewsByRollupDate(Context context, UUID dsoId, Date from) throws SQLException {
+        Query query = createQuery(context, "SELECT rollupDate, sum(views) FROM UsageRollup " +
+            "WHERE dsoId = :dsoId AND rollupDate >= :from GROUP BY rollupDate");
+        query.setParameter("dsoId", dsoId);
+        query.setParameter("from", from, TemporalType.DATE);
+        Map<Date, Long> views = new HashMap<>();
+        for (Object[] row : getRows(query)) {
+            views.put((Date) row[0], ((Number) row[1]).longValue());
+        }
+        return views;
+    }
+
+    @Override
+    public Map<String, Long> sumViewsByCountryCode(Context context, UUID dsoId) throws SQLException {
+        Query query = createQuery(context, "SELECT countryCode, sum(views) FROM UsageRollup " +
+            "WHERE dsoId = :dsoId AND countryCode IS NOT NULL GROUP BY countryCode");
+        query.setParameter("dsoId", dsoId);
+        Map<String, Long> views = new HashMap<>();
+        for (Object[] row : getRows(query)) {
+            views.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return views;
+    }
+
+    @Override
+    public Map<UUID, Long> sumBitstreamViews(Context context, UUID itemId) throws SQLException {
+        Query query = createQuery(context, "SELECT dsoId, sum(views) FROM UsageRollup " +
+            "WHERE owningItem = :itemId AND dsoType = :dsoType GROUP BY dsoId");
+        query.setParameter("itemId", itemId);
+        query.setParameter("dsoType", Constants.BITSTREAM);
+        Map<UUID, Long> views = new HashMap<>();
+        for (Object[] row : getRows(query)) {
+            views.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        return views;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> getRows(Query query) {
+        return query.getResultList();
+    }
+}
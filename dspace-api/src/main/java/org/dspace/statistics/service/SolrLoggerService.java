@@ -12,10 +12,12 @@ import java.net.UnknownHostException;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrInputDocument;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
@@ -245,6 +247,21 @@ public interface SolrLoggerService {
                                int facetMinCount, boolean defaultFilterQueries)
             throws SolrServerException, IOException;
 
+    /**
+     * Pass all usage events matching a query, the default filter queries and a filter query to a consumer, a page at
+     * a time. The events are read from every statistics core using a cursor.
+     *
+     * @param query       the query
+     * @param filterQuery an additional filter query, may be null
+     * @param fields      the fields to return
+     * @param consumer    receives the pages of events
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws java.io.IOException passed through.
+     */
+    public void processHits(String query, String filterQuery, List<String> fields,
+                            Consumer<List<SolrDocument>> consumer)
+            throws SolrServerException, IOException;
+
     /**
      * Returns in a filterQuery string all the ip addresses that should be ignored
      *
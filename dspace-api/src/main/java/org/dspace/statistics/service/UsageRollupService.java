@@ -0,0 +1,144 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.statistics.ObjectCount;
+
+/**
+ * Service aggregating the views in the statistics core per object, day and country into the usage_rollup table, and
+ * answering the common usage reports from these rollups. The views since the last aggregated day are still counted
+ * from the statistics core, so the reports include them.
+ * <p>
+ * The rollups of a day only change when it is aggregated again. Changes to the usage events of aggregated days, like
+ * marking or deleting bots, have to be followed by {@link #rollup(Context, Collection)} of the days returned by
+ * {@link #getAggregatedDays(Context, Collection)} before the change, as "stats-util -m/-f/-i" do.
+ */
+public interface UsageRollupService {
+
+    /**
+     * @return true if the usage reports should be answered from the rollups, see "usage-statistics.rollup.enabled"
+     */
+    public boolean isEnabled();
+
+    /**
+     * Aggregate the views of the days since the last aggregated day, up to and including yesterday (UTC). The last
+     * aggregated day is aggregated again, to include the views logged late. Each day is committed separately.
+     *
+     * @param context the DSpace context
+     * @return the number of aggregated days
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public int rollup(Context context) throws SQLException, SolrServerException, IOException;
+
+    /**
+     * Aggregate (again) the views of one day, replacing its rollups.
+     *
+     * @param context the DSpace context
+     * @param day     the (UTC) day
+     * @return the number of views of the day
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public long rollup(Context context, LocalDate day) throws SQLException, SolrServerException, IOException;
+
+    /**
+     * Aggregate again those of the given days which were aggregated before, replacing their rollups. Each day is
+     * committed separately.
+     *
+     * @param context the DSpace context
+     * @param days    the (UTC) days
+     * @return the number of aggregated days
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public int rollup(Context context, Collection<LocalDate> days)
+        throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @param queries Solr queries of usage events
+     * @return the aggregated days with views matching any of the queries which are counted in the rollups of the
+     * day, i.e. the days whose rollups change when these usage events are changed or deleted
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public Set<LocalDate> getAggregatedDays(Context context, Collection<String> queries)
+        throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @return the last aggregated day with views, or null if nothing was aggregated yet. Days without views have no
+     * rollups, so the days after this one are aggregated again by {@link #rollup(Context)}.
+     * @throws SQLException if database error
+     */
+    public LocalDate getLastRollupDate(Context context) throws SQLException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @return the total number of views of the object
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public long getViews(Context context, DSpaceObject dso) throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @param months  the number of months before the current one
+     * @return the number of views of the object per month, oldest first, including the months without views. The
+     * values are the months formatted as "MMMM yyyy" in the locale of the context.
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public List<ObjectCount> getViewsPerMonth(Context context, DSpaceObject dso, int months)
+        throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @param dso     the object
+     * @param max     the maximum number of countries
+     * @return the number of views of the object per country code, most views first
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public List<ObjectCount> getViewsPerCountry(Context context, DSpaceObject dso, int max)
+        throws SQLException, SolrServerException, IOException;
+
+    /**
+     * @param context the DSpace context
+     * @param item    the item
+     * @param max     the maximum number of bitstreams
+     * @return the number of views of the viewed bitstreams of the item, most views first. The values are the UUIDs of
+     * the bitstreams.
+     * @throws SQLException        if database error
+     * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+     * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    public List<ObjectCount> getBitstreamViews(Context context, Item item, int max)
+        throws SQLException, SolrServerException, IOException;
+}
@@ -7,10 +7,14 @@
  */
 package org.dspace.statistics.util;
 
+import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -18,16 +22,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * A Spare v4 IPTable implementation that uses nested HashMaps
- * to optimize IP address matching over ranges of IP addresses.
+ * An IPTable implementation that keeps its IPv4 and IPv6 ranges sorted and
+ * merged in primitive arrays, so an address is matched with a binary search.
+ * <p>
+ * Ranges can be added at any time. The lookup arrays are rebuilt on the first
+ * lookup after ranges were added, so loading a table stays linear. Dotted-quad
+ * IPv4 addresses are matched without any parsing allocations or name lookups.
  *
  * @author mdiggory at atmire.com
  */
 public class IPTable {
     private static final Logger log = LogManager.getLogger(IPTable.class);
 
-    /* A lookup tree for IP addresses and SubnetRanges */
-    private final Set<IPRange> ipRanges = new HashSet<>();
+    /* All ranges added so far, in the order they were added */
+    private final List<IPRange> ipRanges = new ArrayList<>();
+
+    /* The sorted and merged ranges used for lookups, null until the first lookup after an add */
+    private volatile Ranges ranges = null;
 
     /**
      * Internal class representing an IP range
@@ -63,17 +74,90 @@ public class IPTable {
     }
 
     /**
-     * Can be full v4 IP, subnet or range string.
+     * Internal class representing an IPv6 range, each address is stored as
+     * its high and low 64 bits
+     */
+    static class IPv6Range extends IPRange {
+
+        /* High 64 bits of the lowest address in the range */
+        private final long ipLoHigh;
+
+        /* High 64 bits of the highest address in the range */
+        private final long ipHiHigh;
+
+        IPv6Range(long ipLoHigh, long ipLo, long ipHiHigh, long ipHi) {
+            super(ipLo, ipHi);
+            this.ipLoHigh = ipLoHigh;
+            this.ipHiHigh = ipHiHigh;
+        }
+
+        public long getIpLoHigh() {
+            return ipLoHigh;
+        }
+
+        public long getIpHiHigh() {
+            return ipHiHigh;
+        }
+    }
+
+    /**
+     * The sorted, merged and non-overlapping ranges of a table. IPv6 addresses
+     * take two consecutive array elements: the high and the low 64 bits.
+     */
+    private static final class Ranges {
+        private final long[] v4Lo;
+        private final long[] v4Hi;
+        private final long[] v6Lo;
+        private final long[] v6Hi;
+
+        private Ranges(long[] v4Lo, long[] v4Hi, long[] v6Lo, long[] v6Hi) {
+            this.v4Lo = v4Lo;
+            this.v4Hi = v4Hi;
+            this.v6Lo = v6Lo;
+            this.v6Hi = v6Hi;
+        }
+
+        private boolean containsV4(long ip) {
+            int index = Arrays.binarySearch(v4Lo, ip);
+            if (index >= 0) {
+                return true;
+            }
+            // the range starting right below the address
+            index = -index - 2;
+            return index >= 0 && ip <= v4Hi[index];
+        }
+
+        private boolean containsV6(long ipHigh, long ipLow) {
+            // find the last range starting at or below the address
+            int low = 0;
+            int high = v6Lo.length / 2 - 1;
+            int index = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (compare(v6Lo[2 * middle], v6Lo[2 * middle + 1], ipHigh, ipLow) <= 0) {
+                    index = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return index >= 0 && compare(ipHigh, ipLow, v6Hi[2 * index], v6Hi[2 * index + 1]) <= 0;
+        }
+    }
+
+    /**
+     * Can be full IP, subnet or range string.
      * <ul>
-     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4".}
+     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4"}, or an
+     *       IPv6 address:  {@code "2001:db8::1"}.
      *   <li>A subnet is a dotted-triplet:  {@code "1.2.3"}.  It means an entire
-     *       Class C subnet:  "1.2.3.0-1.2.3.255".
-     *   <li>A range is two dotted-quad addresses separated by hyphen:
-     *       {@code "1.2.3.4-1.2.3.14"}.  Only the final octet may be different.
+     *       Class C subnet:  "1.2.3.0-1.2.3.255".  Dotted-doublets and single
+     *       numbers are /16 and /8 subnets.
+     *   <li>A CIDR block: {@code "172.16.0.0/12"} or {@code "2001:db8::/32"}.
+     *   <li>A range is two addresses of the same family separated by hyphen:
+     *       {@code "1.2.3.4-1.2.3.14"}.
      * </ul>
      *
-     * Any attempt at CIDR notation is ignored.
-     *
      * @param ip IP address(es)
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
@@ -91,40 +175,53 @@ public class IPTable {
             end = range[1].trim();
 
             try {
-                long ipLo = ipToLong(InetAddress.getByName(start));
-                long ipHi = ipToLong(InetAddress.getByName(end));
-                ipRanges.add(new IPRange(ipLo, ipHi));
+                InetAddress lo = InetAddress.getByName(start);
+                InetAddress hi = InetAddress.getByName(end);
+                if (lo instanceof Inet6Address != hi instanceof Inet6Address) {
+                    throw new IPFormatException(ip + " - Range must not mix IPv4 and IPv6 addresses");
+                }
+                addRange(lo.getAddress(), hi.getAddress());
                 return;
             } catch (UnknownHostException e) {
                 throw new IPFormatException(ip + " - Range format should be similar to 1.2.3.0-1.2.3.255");
             }
 
         } else {
+            ip = ip.trim();
             // Convert implicit ranges to netmask format
             //  192       -> 192.0.0.0/8
             //  192.168   -> 192.168.0.0/16
             //  192.168.1 -> 192.168.1.0/24
             int periods = StringUtils.countMatches(ip, '.');
-            if (periods < 3) {
+            if (periods < 3 && !ip.contains(":") && !ip.contains("/")) {
                 ip = StringUtils.join(ip, StringUtils.repeat(".0", 4 - periods - 1), "/", (periods + 1) * 8);
             }
 
             if (ip.contains("/")) {
                 String[] parts = ip.split("/");
                 try {
-                    long ipLong = ipToLong(InetAddress.getByName(parts[0]));
-                    long mask = (long) Math.pow(2, 32 - Integer.parseInt(parts[1]));
-                    long ipLo = (ipLong / mask) * mask;
-                    long ipHi = (( (ipLong / mask) + 1) * mask) - 1;
-                    ipRanges.add(new IPRange(ipLo, ipHi));
+                    byte[] address = InetAddress.getByName(parts[0].trim()).getAddress();
+                    int prefix = Integer.parseInt(parts[1].trim());
+                    if (parts.length != 2 || prefix < 0 || prefix > address.length * 8) {
+                        throw new IPFormatException(ip + " - Range format should be similar to 172.16.0.0/12");
+                    }
+                    byte[] lo = address.clone();
+                    byte[] hi = address.clone();
+                    for (int bit = prefix; bit < address.length * 8; bit++) {
+                        lo[bit / 8] &= ~(0x80 >>> (bit % 8));
+                        hi[bit / 8] |= 0x80 >>> (bit % 8);
+                    }
+                    addRange(lo, hi);
                     return;
+                } catch (IPFormatException e) {
+                    throw e;
                 } catch (Exception e) {
                     throw new IPFormatException(ip + " - Range format should be similar to 172.16.0.0/12");
                 }
             } else {
                 try {
-                    long ipLo = ipToLong(InetAddress.getByName(ip));
-                    ipRanges.add(new IPRange(ipLo, ipLo));
+                    byte[] address = InetAddress.getByName(ip).getAddress();
+                    addRange(address, address);
                     return;
                 } catch (UnknownHostException e) {
                     throw new IPFormatException(ip + " - IP address format should be similar to 1.2.3.14");
@@ -133,6 +230,27 @@ public class IPTable {
         }
     }
 
+    /**
+     * Add the range between two addresses of the same family, in any order
+     */
+    private synchronized void addRange(byte[] lo, byte[] hi) {
+        IPRange range;
+        if (lo.length == 16) {
+            if (compare(toLong(lo, 0), toLong(lo, 8), toLong(hi, 0), toLong(hi, 8)) > 0) {
+                byte[] swap = lo;
+                lo = hi;
+                hi = swap;
+            }
+            range = new IPv6Range(toLong(lo, 0), toLong(lo, 8), toLong(hi, 0), toLong(hi, 8));
+        } else {
+            long ipLo = toLong(lo, 0);
+            long ipHi = toLong(hi, 0);
+            range = new IPRange(Math.min(ipLo, ipHi), Math.max(ipLo, ipHi));
+        }
+        ipRanges.add(range);
+        ranges = null;
+    }
+
     /**
      * Convert an IP address to a long integer
      * @param ip    the IP address
@@ -169,38 +287,87 @@ public class IPTable {
      * Check whether a given address is contained in this netblock.
      *
      * @param ip the address to be tested
-     * @return true if {@code ip} is within this table's limits.  Returns false
-     *         if {@code ip} looks like an IPv6 address.
+     * @return true if {@code ip} is within this table's limits.  IPv4 addresses
+     *         never match IPv6 ranges, and vice versa.
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public boolean contains(String ip) throws IPFormatException {
+        Ranges lookup = getRanges();
+
+        long ipv4 = parseIPv4(ip);
+        if (ipv4 >= 0) {
+            return lookup.containsV4(ipv4);
+        }
 
         try {
-            long ipToTest = ipToLong(InetAddress.getByName(ip));
-            return ipRanges.stream()
-                    .anyMatch(ipRange -> (ipToTest >= ipRange.getIpLo() && ipToTest <= ipRange.getIpHi()));
+            byte[] address = InetAddress.getByName(ip).getAddress();
+            if (address.length == 16) {
+                return lookup.containsV6(toLong(address, 0), toLong(address, 8));
+            }
+            return lookup.containsV4(toLong(address, 0));
         } catch (UnknownHostException e) {
             throw new IPFormatException("ip not valid");
         }
     }
 
     /**
-     * Convert to a Set. This set contains all IPs in the range
+     * Parse a dotted-quad IPv4 address without allocating anything.
+     *
+     * @param ip the address
+     * @return the address as a long integer, or -1 if it is not a plain dotted-quad
+     */
+    static long parseIPv4(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+        long result = 0;
+        int octet = -1;
+        int octets = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                result = (result << 8) | octet;
+                octet = -1;
+                octets++;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (result << 8) | octet;
+    }
+
+    /**
+     * Convert to a Set. This set contains all IPv4 addresses in the ranges
+     * of this table and the individual IPv6 addresses in it, IPv6 ranges are
+     * too large to be listed.
      *
      * @return this table's content as a Set
      */
     public Set<String> toSet() {
         HashSet<String> set = new HashSet<>();
+        Ranges lookup = getRanges();
 
-        Iterator<IPRange> ipRangeIterator = ipRanges.iterator();
-        while (ipRangeIterator.hasNext()) {
-            IPRange ipRange = ipRangeIterator.next();
-            long ipLo = ipRange.getIpLo();
-            long ipHi = ipRange.getIpHi();
-            for (long ip = ipLo; ip <= ipHi; ip++) {
+        for (int i = 0; i < lookup.v4Lo.length; i++) {
+            for (long ip = lookup.v4Lo[i]; ip <= lookup.v4Hi[i]; ip++) {
                 set.add(longToIp(ip));
             }
         }
+        for (int i = 0; i < lookup.v6Lo.length; i += 2) {
+            if (lookup.v6Lo[i] == lookup.v6Hi[i] && lookup.v6Lo[i + 1] == lookup.v6Hi[i + 1]) {
+                set.add(v6ToIp(lookup.v6Lo[i], lookup.v6Lo[i + 1]));
+            } else {
+                log.debug("Not listing the IPv6 range {}-{}", v6ToIp(lookup.v6Lo[i], lookup.v6Lo[i + 1]),
+                          v6ToIp(lookup.v6Hi[i], lookup.v6Hi[i + 1]));
+            }
+        }
 
         return set;
     }
@@ -209,7 +376,7 @@ public class IPTable {
      * Return whether IPTable is empty (having no entries)
      * @return true if empty, false otherwise
      */
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return ipRanges.isEmpty();
     }
 
@@ -224,21 +391,132 @@ public class IPTable {
 
     /**
      * Represent this IP table as a string
-     * @return  a string containing all IP ranges in this IP table
+     * @return  a string containing all (merged) IP ranges in this IP table
      */
     @Override
     public String toString() {
-        StringBuilder stringBuilder = new StringBuilder();
-        Iterator<IPRange> ipRangeIterator = ipRanges.iterator();
-        while (ipRangeIterator.hasNext()) {
-            IPRange ipRange = ipRangeIterator.next();
-            stringBuilder.append(longToIp(ipRange.getIpLo()))
-                    .append("-")
-                    .append(longToIp(ipRange.getIpHi()));
-            if (ipRangeIterator.hasNext()) {
-                stringBuilder.append(", ");
+        Ranges lookup = getRanges();
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < lookup.v4Lo.length; i++) {
+            parts.add(longToIp(lookup.v4Lo[i]) + "-" + longToIp(lookup.v4Hi[i]));
+        }
+        for (int i = 0; i < lookup.v6Lo.length; i += 2) {
+            parts.add(v6ToIp(lookup.v6Lo[i], lookup.v6Lo[i + 1]) + "-" + v6ToIp(lookup.v6Hi[i], lookup.v6Hi[i + 1]));
+        }
+        return String.join(", ", parts);
+    }
+
+    /**
+     * Get the lookup arrays, sorting and merging the ranges if any were added since the last lookup
+     */
+    private Ranges getRanges() {
+        Ranges current = ranges;
+        if (current == null) {
+            synchronized (this) {
+                current = ranges;
+                if (current == null) {
+                    current = buildRanges();
+                    ranges = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Ranges buildRanges() {
+        List<IPRange> v4 = new ArrayList<>();
+        List<IPv6Range> v6 = new ArrayList<>();
+        for (IPRange range : ipRanges) {
+            if (range instanceof IPv6Range) {
+                v6.add((IPv6Range) range);
+            } else {
+                v4.add(range);
+            }
+        }
+
+        v4.sort(Comparator.comparingLong(IPRange::getIpLo));
+        long[] v4Lo = new long[v4.size()];
+        long[] v4Hi = new long[v4.size()];
+        int v4Count = 0;
+        for (IPRange range : v4) {
+            if (v4Count > 0 && range.getIpLo() <= v4Hi[v4Count - 1] + 1) {
+                // overlapping or adjacent to the previous range
+                v4Hi[v4Count - 1] = Math.max(v4Hi[v4Count - 1], range.getIpHi());
+            } else {
+                v4Lo[v4Count] = range.getIpLo();
+                v4Hi[v4Count] = range.getIpHi();
+                v4Count++;
+            }
+        }
+
+        v6.sort((a, b) -> compare(a.getIpLoHigh(), a.getIpLo(), b.getIpLoHigh(), b.getIpLo()));
+        long[] v6Lo = new long[2 * v6.size()];
+        long[] v6Hi = new long[2 * v6.size()];
+        int v6Count = 0;
+        for (IPv6Range range : v6) {
+            int last = 2 * (v6Count - 1);
+            if (v6Count > 0 && isWithinOrNextTo(range.getIpLoHigh(), range.getIpLo(), v6Hi[last], v6Hi[last + 1])) {
+                if (compare(range.getIpHiHigh(), range.getIpHi(), v6Hi[last], v6Hi[last + 1]) > 0) {
+                    v6Hi[last] = range.getIpHiHigh();
+                    v6Hi[last + 1] = range.getIpHi();
+                }
+            } else {
+                v6Lo[2 * v6Count] = range.getIpLoHigh();
+                v6Lo[2 * v6Count + 1] = range.getIpLo();
+                v6Hi[2 * v6Count] = range.getIpHiHigh();
+                v6Hi[2 * v6Count + 1] = range.getIpHi();
+                v6Count++;
             }
         }
-        return stringBuilder.toString();
+
+        return new Ranges(Arrays.copyOf(v4Lo, v4Count), Arrays.copyOf(v4Hi, v4Count),
+                          Arrays.copyOf(v6Lo, 2 * v6Count), Arrays.copyOf(v6Hi, 2 * v6Count));
+    }
+
+    /**
+     * Whether the 128 bit address a is lower than, equal to or right after the address b
+     */
+    private static boolean isWithinOrNextTo(long aHigh, long aLow, long bHigh, long bLow) {
+        if (compare(aHigh, aLow, bHigh, bLow) <= 0) {
+            return true;
+        }
+        // b + 1, with the carry of the low 64 bits
+        long nextLow = bLow + 1;
+        long nextHigh = nextLow == 0 ? bHigh + 1 : bHigh;
+        return aHigh == nextHigh && aLow == nextLow;
+    }
+
+    /**
+     * Compare two 128 bit addresses as unsigned numbers
+     */
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int result = Long.compareUnsigned(aHigh, bHigh);
+        return result != 0 ? result : Long.compareUnsigned(aLow, bLow);
+    }
+
+    /**
+     * Read up to 8 bytes of an address, starting at offset, as an unsigned number
+     */
+    private static long toLong(byte[] address, int offset) {
+        long result = 0;
+        for (int i = offset; i < Math.min(address.length, offset + 8); i++) {
+            result <<= 8;
+            result |= address[i] & 0xff;
+        }
+        return result;
+    }
+
+    private static String v6ToIp(long high, long low) {
+        byte[] address = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            address[7 - i] = (byte) (high >>> (8 * i));
+            address[15 - i] = (byte) (low >>> (8 * i));
+        }
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            // cannot happen for an address of 16 bytes
+            throw new IllegalStateException(e);
+        }
     }
 }
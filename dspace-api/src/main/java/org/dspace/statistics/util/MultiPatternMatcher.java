@@ -0,0 +1,254 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable matcher telling whether any of a set of regular expressions can be found in a string, as
+ * {@link java.util.regex.Matcher#find()} would for each expression.
+ * <p>
+ * The expressions which are plain literals (possibly with escaped punctuation, e.g. {@code Java\/}) are matched
+ * together in a single pass with an Aho-Corasick automaton. All other expressions are combined into a single
+ * alternation, so the input is scanned once instead of once per expression. Expressions using back references are
+ * matched on their own, as combining them would change the group numbers.
+ */
+public final class MultiPatternMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiPatternMatcher.class);
+
+    private static final String METACHARACTERS = "^$.|?*+()[]{}";
+
+    private final boolean caseInsensitive;
+
+    private final int size;
+
+    /* Aho-Corasick automaton of the literals: for each state the sorted transition characters and their targets */
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final boolean[] accepting;
+
+    /* The alternation of the other expressions, null if there are none */
+    private final Pattern combined;
+
+    /* Expressions which can't be part of the alternation */
+    private final List<Pattern> separate;
+
+    /**
+     * @param expressions     the regular expressions, invalid ones are logged and ignored
+     * @param caseInsensitive whether the expressions should be matched case insensitively
+     */
+    public MultiPatternMatcher(Collection<String> expressions, boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+        int flags = caseInsensitive ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+
+        List<String> literals = new ArrayList<>();
+        List<String> alternatives = new ArrayList<>();
+        List<Pattern> others = new ArrayList<>();
+        int valid = 0;
+        for (String expression : expressions) {
+            if (StringUtils.isEmpty(expression)) {
+                continue;
+            }
+            String literal = toLiteral(expression);
+            if (literal != null) {
+                literals.add(caseInsensitive ? literal.toLowerCase(Locale.ROOT) : literal);
+                valid++;
+                continue;
+            }
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(expression, flags);
+            } catch (PatternSyntaxException e) {
+                log.warn("Ignoring invalid pattern {}: {}", expression, e.getMessage());
+                continue;
+            }
+            valid++;
+            if (expression.matches(".*\\\\(\\d|k<).*")) {
+                others.add(pattern);
+            } else {
+                alternatives.add(expression);
+            }
+        }
+
+        Pattern alternation = null;
+        if (!alternatives.isEmpty()) {
+            try {
+                alternation = Pattern.compile("(?:" + String.join(")|(?:", alternatives) + ")", flags);
+            } catch (PatternSyntaxException e) {
+                // e.g. the same named group in two expressions, match them one by one
+                for (String alternative : alternatives) {
+                    others.add(Pattern.compile(alternative, flags));
+                }
+            }
+        }
+        this.combined = alternation;
+        this.separate = List.copyOf(others);
+        this.size = valid;
+
+        // build the trie of the literals
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> output = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        output.add(false);
+        for (String literal : literals) {
+            int state = 0;
+            for (char c : literal.toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    output.add(false);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            output.set(state, true);
+        }
+
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionTargets = new int[states][];
+        failure = new int[states];
+        accepting = new boolean[states];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> transitions = trie.get(state);
+            transitionChars[state] = new char[transitions.size()];
+            transitionTargets[state] = new int[transitions.size()];
+            int i = 0;
+            for (var transition : transitions.entrySet()) {
+                transitionChars[state][i] = transition.getKey();
+                transitionTargets[state][i] = transition.getValue();
+                i++;
+            }
+            accepting[state] = output.get(state);
+        }
+
+        // breadth first, so the failure state of the parent is known when a state is visited
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : transitionTargets[0]) {
+            failure[target] = 0;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                char c = transitionChars[state][i];
+                int target = transitionTargets[state][i];
+                int fallback = failure[state];
+                while (fallback > 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int fallbackTarget = next(fallback, c);
+                failure[target] = fallbackTarget < 0 ? 0 : fallbackTarget;
+                accepting[target] |= accepting[failure[target]];
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * Whether any of the expressions can be found in the input.
+     *
+     * @param input the string to test
+     * @return true if at least one expression matches part of the input
+     */
+    public boolean matches(String input) {
+        if (input == null) {
+            return false;
+        }
+        if (transitionChars.length > 1 && containsLiteral(input)) {
+            return true;
+        }
+        if (combined != null && combined.matcher(input).find()) {
+            return true;
+        }
+        for (Pattern pattern : separate) {
+            if (pattern.matcher(input).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of valid expressions
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean containsLiteral(String input) {
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (caseInsensitive) {
+                c = Character.toLowerCase(c);
+            }
+            int target = next(state, c);
+            while (target < 0 && state > 0) {
+                state = failure[state];
+                target = next(state, c);
+            }
+            state = target < 0 ? 0 : target;
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index < 0 ? -1 : transitionTargets[state][index];
+    }
+
+    /**
+     * The literal string matched by an expression, if it contains no regular expression constructs besides escaped
+     * punctuation.
+     *
+     * @param expression the regular expression
+     * @return the literal, or null if the expression is not a plain literal
+     */
+    static String toLiteral(String expression) {
+        StringBuilder literal = new StringBuilder(expression.length());
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == expression.length()) {
+                    return null;
+                }
+                char escaped = expression.charAt(++i);
+                if (Character.isLetterOrDigit(escaped)) {
+                    // a character class, a back reference, \Q...\E etc.
+                    return null;
+                }
+                literal.append(escaped);
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.length() == 0 ? null : literal.toString();
+    }
+}
@@ -27,6 +27,11 @@ public interface SpiderDetectorService {
 
     public void loadSpiderIpAddresses();
 
+    /**
+     * Read the agent and domain patterns from config/spiders again, e.g. after the files were updated.
+     */
+    public void reloadPatterns();
+
     public Set<String> readPatterns(File patternFile)
         throws IOException;
 
@@ -11,21 +11,23 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.configuration2.ex.ConversionException;
-import org.apache.commons.lang3.StringUtils;
 import org.dspace.service.ClientInfoService;
 import org.dspace.services.ConfigurationService;
+import org.dspace.statistics.IpLookupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
 /**
  * SpiderDetectorServiceImpl is used to find IP's that are spiders...
@@ -41,16 +43,26 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
     private static final Logger log = LoggerFactory.getLogger(SpiderDetectorServiceImpl.class);
 
+    static final String AGENT_CACHE = "spiderAgents";
+
     private Boolean useCaseInsensitiveMatching;
 
-    private final List<Pattern> agents
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * The compiled agent and domain patterns, replaced as a whole by {@link #reloadPatterns()} so matching never
+     * needs a lock.
+     */
+    private volatile Patterns patterns;
+
+    /**
+     * The generation of the compiled patterns, part of the key of every cached verdict.
+     */
+    private final AtomicLong generations = new AtomicLong();
 
-    private final List<Pattern> domains
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    private CacheManager cacheManager;
 
     private ConfigurationService configurationService;
     private ClientInfoService clientInfoService;
+    private IpLookupService ipLookupService;
 
     /**
      * Sparse HashTable structure to hold IP address ranges.
@@ -63,6 +75,20 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         this.clientInfoService = clientInfoService;
     }
 
+    @Autowired(required = false)
+    public void setIpLookupService(IpLookupService ipLookupService) {
+        this.ipLookupService = ipLookupService;
+    }
+
+    /**
+     * Set the reference to the cacheManager
+     *
+     * @param cacheManager the cache manager holding the "spiderAgents" cache
+     */
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     public IPTable getTable() {
         return table;
     }
@@ -81,27 +107,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      */
     public boolean isSpider(String clientIP, String proxyIPs, String hostname, String agent) {
         // See if any agent patterns match
-        if (null != agent) {
-            synchronized (agents) {
-                if (agents.isEmpty()) {
-                    loadPatterns("agents", agents);
-                }
-            }
-
-            if (isUseCaseInsensitiveMatching()) {
-                agent = StringUtils.lowerCase(agent);
-                hostname = StringUtils.lowerCase(hostname);
-            }
-
-            for (Pattern candidate : agents) {
-
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(agent).find()) {
-                    return true;
-                }
-
-
-            }
+        if (null != agent && getPatterns().isSpiderAgent(agent)) {
+            return true;
         }
 
         // No.  See if any IP addresses match
@@ -119,24 +126,29 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         }
 
         // No.  See if any DNS names match
-        if (null != hostname) {
-            synchronized (domains) {
-                if (domains.isEmpty()) {
-                    loadPatterns("domains", domains);
-                }
-            }
-            for (Pattern candidate : domains) {
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(hostname).find()) {
-                    return true;
-                }
+        if (isAddress(hostname) && ipLookupService != null
+            && configurationService.getBooleanProperty("usage-statistics.bots.reverse-dns", false)) {
+            try {
+                hostname = ipLookupService.getHostName(clientIP);
+            } catch (UnknownHostException e) {
+                log.debug("Not looking up the host name of {}: {}", clientIP, e.getMessage());
             }
         }
+        if (null != hostname && getPatterns().domains.matches(hostname)) {
+            return true;
+        }
 
         // Not a known spider.
         return false;
     }
 
+    /**
+     * Whether the host name of a client is missing, or is its address as the servlet container didn't look it up.
+     */
+    private boolean isAddress(String hostname) {
+        return hostname == null || hostname.indexOf(':') >= 0 || IPTable.parseIPv4(hostname) >= 0;
+    }
+
     /**
      * Utility method which reads lines from a file & returns them in a Set.
      *
@@ -174,40 +186,63 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     /**
      * Load agent name patterns from all files in a single subdirectory of config/spiders.
      *
-     * @param directory   simple directory name (e.g. "agents").
-     *                    "${dspace.dir}/config/spiders" will be prepended to yield the path to
-     *                    the directory of pattern files.
-     * @param patternList patterns read from the files in {@code directory} will
-     *                    be added to this List.
+     * @param directory simple directory name (e.g. "agents").
+     *                  "${dspace.dir}/config/spiders" will be prepended to yield the path to
+     *                  the directory of pattern files.
+     * @return the patterns read from the files in {@code directory}
      */
-    private void loadPatterns(String directory, List<Pattern> patternList) {
+    private List<String> loadPatterns(String directory) {
+        List<String> patternList = new ArrayList<>();
         String dspaceHome = configurationService.getProperty("dspace.dir");
         File spidersDir = new File(dspaceHome, "config/spiders");
         File patternsDir = new File(spidersDir, directory);
         if (patternsDir.exists() && patternsDir.isDirectory()) {
             for (File file : patternsDir.listFiles()) {
-                Set<String> patterns;
                 try {
-                    patterns = readPatterns(file);
+                    patternList.addAll(readPatterns(file));
                 } catch (IOException ex) {
                     log.error("Patterns not read from {}:  {}",
                               file.getPath(), ex.getMessage());
                     continue;
                 }
-                //If case insensitive matching is enabled, lowercase the patterns so they can be lowercase matched
-                for (String pattern : patterns) {
-                    if (isUseCaseInsensitiveMatching()) {
-                        pattern = StringUtils.lowerCase(pattern);
-                    }
-                    patternList.add(Pattern.compile(pattern));
-                }
-
-
                 log.info("Loaded pattern file:  {}", file.getPath());
             }
         } else {
             log.info("No patterns loaded from {}", patternsDir.getPath());
         }
+        return patternList;
+    }
+
+    /**
+     * Read the agent and domain patterns again and start using them once they are compiled. Requests being checked
+     * in the meantime keep using the previous patterns.
+     */
+    @Override
+    public void reloadPatterns() {
+        boolean caseInsensitive = isUseCaseInsensitiveMatching();
+        MultiPatternMatcher agents = new MultiPatternMatcher(loadPatterns("agents"), caseInsensitive);
+        MultiPatternMatcher domains = new MultiPatternMatcher(loadPatterns("domains"), caseInsensitive);
+        Cache agentCache = cacheManager == null ? null : cacheManager.getCache(AGENT_CACHE);
+        patterns = new Patterns(agents, domains, generations.incrementAndGet(), agentCache);
+        if (agentCache != null) {
+            // the verdicts of the previous patterns can't be reached anymore
+            agentCache.clear();
+        }
+        log.info("Compiled {} agent and {} domain patterns", agents.size(), domains.size());
+    }
+
+    private Patterns getPatterns() {
+        Patterns current = patterns;
+        if (current == null) {
+            synchronized (this) {
+                current = patterns;
+                if (current == null) {
+                    reloadPatterns();
+                    current = patterns;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -263,7 +298,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                         if (file.isFile()) {
                             for (String ip : readPatterns(file)) {
                                 log.debug("Loading {}", ip);
-                                if (!Character.isDigit(ip.charAt(0))) {
+                                if (!Character.isDigit(ip.charAt(0)) && ip.indexOf(':') < 0) {
                                     try {
                                         ip = DnsLookup.forward(ip);
                                         log.debug("Resolved to {}", ip);
@@ -307,4 +342,35 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         return useCaseInsensitiveMatching;
     }
 
+    /**
+     * Immutable set of compiled patterns. The verdicts for the most recently seen user agents are kept in the
+     * "spiderAgents" cache, when it is defined in ehcache.xml. They are keyed by the generation of the patterns which
+     * produced them, so the verdicts of the previous patterns are never used after a reload.
+     */
+    private static final class Patterns {
+        private final MultiPatternMatcher agents;
+        private final MultiPatternMatcher domains;
+        private final String keyPrefix;
+        private final Cache agentCache;
+
+        Patterns(MultiPatternMatcher agents, MultiPatternMatcher domains, long generation, Cache agentCache) {
+            this.agents = agents;
+            this.domains = domains;
+            this.keyPrefix = generation + ":";
+            this.agentCache = agentCache;
+        }
+
+        boolean isSpiderAgent(String agent) {
+            if (agentCache == null) {
+                return agents.matches(agent);
+            }
+            String key = keyPrefix + agent;
+            Boolean verdict = agentCache.get(key, Boolean.class);
+            if (verdict == null) {
+                verdict = agents.matches(agent);
+                agentCache.put(key, verdict);
+            }
+            return verdict;
+        }
+    }
 }
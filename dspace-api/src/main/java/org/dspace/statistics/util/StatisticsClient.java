@@ -9,6 +9,11 @@ package org.dspace.statistics.util;
 
 import java.io.File;
 import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -18,9 +23,11 @@ import org.apache.commons.cli.Options;
 import org.apache.logging.log4j.Logger;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Get;
+import org.dspace.core.Context;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.statistics.factory.StatisticsServiceFactory;
 import org.dspace.statistics.service.SolrLoggerService;
+import org.dspace.statistics.service.UsageRollupService;
 
 /**
  * Class to load intermediate statistics files into Solr.
@@ -75,6 +82,9 @@ public class StatisticsClient {
                           "While indexing the bundle names remove the statistics about deleted bitstreams");
         options.addOption("s", "shard-solr-index", false,
                           "Split the data from the main Solr core into separate Solr cores per year");
+        options.addOption("a", "aggregate-usage", false,
+                          "Aggregate the views per object, day and country for the usage reports, "
+                              + "see usage-statistics.rollup.enabled");
         options.addOption("h", "help", false, "help");
 
         CommandLine line = parser.parse(options, args);
@@ -88,11 +98,11 @@ public class StatisticsClient {
         if (line.hasOption("u")) {
             StatisticsClient.updateSpiderFiles();
         } else if (line.hasOption('m')) {
-            solrLoggerService.markRobotsByIP();
+            updateAggregatedUsage(getSpiderIpQueries(), solrLoggerService::markRobotsByIP);
         } else if (line.hasOption('f')) {
-            solrLoggerService.deleteRobotsByIsBotFlag();
+            updateAggregatedUsage(List.of("isBot:true"), solrLoggerService::deleteRobotsByIsBotFlag);
         } else if (line.hasOption('i')) {
-            solrLoggerService.deleteRobotsByIP();
+            updateAggregatedUsage(getSpiderIpQueries(), solrLoggerService::deleteRobotsByIP);
         } else if (line.hasOption('o')) {
             solrLoggerService.optimizeSOLR();
         } else if (line.hasOption('b')) {
@@ -101,11 +111,65 @@ public class StatisticsClient {
             solrLoggerService.exportHits();
         } else if (line.hasOption('s')) {
             solrLoggerService.shardSolrIndex();
+        } else if (line.hasOption('a')) {
+            aggregateUsage();
         } else {
             printHelp(options, 0);
         }
     }
 
+    /**
+     * Aggregate the views of the days which were not aggregated yet into the usage rollups.
+     *
+     * @throws Exception If something goes wrong
+     */
+    private static void aggregateUsage() throws Exception {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            int days = StatisticsServiceFactory.getInstance().getUsageRollupService().rollup(context);
+            context.complete();
+            System.out.println("Aggregated the views of " + days + " days");
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Change or delete usage events, then aggregate the already aggregated days whose views were affected again, so
+     * the usage rollups don't keep counting them.
+     *
+     * @param queries the Solr queries of the usage events which are changed or deleted
+     * @param update  the change
+     * @throws Exception If something goes wrong
+     */
+    private static void updateAggregatedUsage(Collection<String> queries, Runnable update) throws Exception {
+        UsageRollupService usageRollupService = StatisticsServiceFactory.getInstance().getUsageRollupService();
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            Set<LocalDate> days = usageRollupService.getAggregatedDays(context, queries);
+            update.run();
+            if (!days.isEmpty()) {
+                StatisticsServiceFactory.getInstance().getSolrLoggerService().commit();
+                int count = usageRollupService.rollup(context, days);
+                System.out.println("Aggregated the views of " + count + " days again");
+            }
+            context.complete();
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * @return the Solr queries of the usage events from the spider IP addresses
+     */
+    private static List<String> getSpiderIpQueries() {
+        List<String> queries = new ArrayList<>();
+        for (String ip : SpiderDetector.getSpiderIpAddresses()) {
+            queries.add("ip:" + ip + "*");
+        }
+        return queries;
+    }
+
     /**
      * Method to update Spiders in config directory.
      */
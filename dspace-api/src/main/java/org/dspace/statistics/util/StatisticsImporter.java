@@ -14,7 +14,7 @@ import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
@@ -23,19 +23,18 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 
 import com.maxmind.geoip2.DatabaseReader;
-import com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.maxmind.geoip2.model.CityResponse;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -58,6 +57,7 @@ import org.dspace.eperson.EPerson;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.statistics.IpLookupService;
 import org.dspace.statistics.SolrLoggerServiceImpl;
 import org.dspace.statistics.factory.StatisticsServiceFactory;
 import org.dspace.statistics.service.SolrLoggerService;
@@ -85,6 +85,8 @@ public class StatisticsImporter {
             = StatisticsServiceFactory.getInstance().getSolrLoggerService();
     protected static final ConfigurationService configurationService
             = DSpaceServicesFactory.getInstance().getConfigurationService();
+    protected final IpLookupService ipLookupService
+            = StatisticsServiceFactory.getInstance().getIpLookupService();
 
     /**
      * Solr server connection
@@ -234,8 +236,6 @@ public class StatisticsImporter {
             String city = "";
             String dns;
 
-            DNSCache dnsCache = new DNSCache(2500, 0.75f, 2500);
-            Object fromCache;
             Random rand = new Random();
 
             while ((line = input.readLine()) != null) {
@@ -257,25 +257,19 @@ public class StatisticsImporter {
                 // Resolve the dns (if applicable) to get rid of search engine bots early on in the processing chain
                 dns = "";
                 if (!skipReverseDNS) {
-                    // Is the IP address in the cache?
-                    fromCache = dnsCache.get(ip);
-                    if (fromCache != null) {
-                        dns = (String) fromCache;
-                    } else {
-                        try {
-                            dns = DnsLookup.reverseDns(ip);
-                            dnsCache.put(ip, dns);
-                        } catch (IOException e) {
-                            dns = "";
-                        }
+                    try {
+                        dns = ipLookupService.getHostName(ip);
+                    } catch (UnknownHostException e) {
+                        dns = "";
                     }
                 }
 
                 data += ("ip addr = " + ip);
                 data += (", dns name = " + dns);
-                if ((dns.endsWith(".googlebot.com.")) ||
-                    (dns.endsWith(".crawl.yahoo.net.")) ||
-                    (dns.endsWith(".search.msn.com."))) {
+                dns = StringUtils.removeEnd(dns, ".");
+                if ((dns.endsWith(".googlebot.com")) ||
+                    (dns.endsWith(".crawl.yahoo.net")) ||
+                    (dns.endsWith(".search.msn.com"))) {
                     if (verbose) {
                         System.out.println(data + ", IGNORE (search engine)");
                     }
@@ -285,9 +279,15 @@ public class StatisticsImporter {
                 }
 
                 // Get the geo information for the user
+                CityResponse cityResponse = null;
                 try {
-                    InetAddress ipAddress = InetAddress.getByName(ip);
-                    CityResponse cityResponse = geoipLookup.city(ipAddress);
+                    if (geoipLookup != null) {
+                        cityResponse = ipLookupService.getLocation(geoipLookup, ip);
+                    }
+                } catch (IOException e) {
+                    // No problem - just can't look them up
+                }
+                if (cityResponse != null) {
                     city = cityResponse.getCity().getName();
                     country = cityResponse.getCountry().getName();
                     countryCode = cityResponse.getCountry().getIsoCode();
@@ -306,8 +306,6 @@ public class StatisticsImporter {
                         }
                         continue;
                     }
-                } catch (GeoIp2Exception | IOException e) {
-                    // No problem - just can't look them up
                 }
 
                 // Now find our dso
@@ -516,25 +514,4 @@ public class StatisticsImporter {
             si.load(line.getOptionValue('i'), context, verbose);
         }
     }
-
-
-    /**
-     * Inner class to hold a cache of reverse lookups of IP addresses
-     *
-     * @param <K> key type.
-     * @param <V> value type.
-     */
-    static class DNSCache<K, V> extends LinkedHashMap<K, V> {
-        private final int maxCapacity;
-
-        public DNSCache(int initialCapacity, float loadFactor, int maxCapacity) {
-            super(initialCapacity, loadFactor, true);
-            this.maxCapacity = maxCapacity;
-        }
-
-        @Override
-        protected boolean removeEldestEntry(java.util.Map.Entry<K, V> eldest) {
-            return size() >= this.maxCapacity;
-        }
-    }
 }
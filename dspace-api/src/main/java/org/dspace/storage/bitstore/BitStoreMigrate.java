@@ -62,6 +62,11 @@ public class BitStoreMigrate {
                               "Delete file from losing assetstore. (Default: Keep bitstream in old assetstore)");
             options.addOption("p", "print", false, "Print out current assetstore information");
             options.addOption("s", "size", true, "Batch commit size. (Default: 1, commit after each file transfer)");
+            options.addOption("t", "threads", true,
+                              "Number of files to transfer at the same time. (Default: 1)");
+            options.addOption("l", "limit", true,
+                              "Maximum number of bytes per second to read from the losing assetstore. " +
+                                  "(Default: no limit)");
             options.addOption("h", "help", false, "Help");
 
             try {
@@ -103,8 +108,17 @@ public class BitStoreMigrate {
                     batchCommitSize = Integer.parseInt(line.getOptionValue('s'));
                 }
 
-                bitstreamStorageService
-                    .migrate(context, sourceAssetstore, destinationAssetstore, deleteOld, batchCommitSize);
+                int threads = 1;
+                if (line.hasOption('t')) {
+                    threads = Integer.parseInt(line.getOptionValue('t'));
+                }
+                long maxBytesPerSecond = 0;
+                if (line.hasOption('l')) {
+                    maxBytesPerSecond = Long.parseLong(line.getOptionValue('l'));
+                }
+
+                bitstreamStorageService.migrate(context, sourceAssetstore, destinationAssetstore, deleteOld,
+                                                batchCommitSize, threads, maxBytesPerSecond);
             } else {
                 printHelp(options);
                 System.exit(0);
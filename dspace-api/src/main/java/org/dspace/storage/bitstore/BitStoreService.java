@@ -9,8 +9,11 @@ package org.dspace.storage.bitstore;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.dspace.content.Bitstream;
 
 /**
@@ -44,6 +47,40 @@ public interface BitStoreService {
      */
     public InputStream get(Bitstream bitstream) throws IOException;
 
+    /**
+     * Retrieve a range of the bits for bitstream. By default the bits before the range are read and discarded,
+     * stores which can seek override this.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    The position of the first byte to retrieve
+     * @param length    The (maximum) number of bytes to retrieve
+     * @return The stream of the bits in the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits, or if no
+     *                             asset with ID exists in the store
+     */
+    public default InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream in = get(bitstream);
+        try {
+            IOUtils.skipFully(in, offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BoundedInputStream(in, length);
+    }
+
+    /**
+     * Open the local file holding the bits for bitstream, e.g. to read ranges or to send them with
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @return A channel to be closed by the caller, or null if the store doesn't keep the bits in local files
+     * @throws java.io.IOException If a problem occurs while opening the file
+     */
+    public default FileChannel getChannel(Bitstream bitstream) throws IOException {
+        return null;
+    }
+
     /**
      * Store a stream of bits.
      *
@@ -78,6 +115,35 @@ public interface BitStoreService {
      */
     public void remove(Bitstream bitstream) throws IOException;
 
+    /**
+     * Replace the asset of a bitstream by the asset stored under another internal id, e.g. by a copy which was
+     * written under a temporary id and verified. By default the bits are copied and the other asset is removed,
+     * stores which can rename assets override this.
+     *
+     * @param bitstream      The bitstream whose asset is replaced
+     * @param fromInternalId The internal id of the asset to move
+     * @throws java.io.IOException If a problem occurs while moving the asset
+     */
+    public default void move(Bitstream bitstream, String fromInternalId) throws IOException {
+        String internalId = bitstream.getInternalId();
+        InputStream in;
+        bitstream.setInternalId(fromInternalId);
+        try {
+            in = get(bitstream);
+        } finally {
+            bitstream.setInternalId(internalId);
+        }
+        try (in) {
+            put(bitstream, in);
+        }
+        bitstream.setInternalId(fromInternalId);
+        try {
+            remove(bitstream);
+        } finally {
+            bitstream.setInternalId(internalId);
+        }
+    }
+
     /**
      * Determines if a store has been initialized
      * 
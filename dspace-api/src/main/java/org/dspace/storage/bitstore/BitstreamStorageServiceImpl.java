@@ -7,16 +7,28 @@
  */
 package org.dspace.storage.bitstore;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -65,6 +77,11 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
      */
     private static final Logger log = LogManager.getLogger();
 
+    /**
+     * Appended to the internal id of a bitstream to store its copy while it is migrated and not yet verified.
+     */
+    private static final String MIGRATING_SUFFIX = "-migrating";
+
     @Autowired(required = true)
     protected BitstreamService bitstreamService;
     @Autowired(required = true)
@@ -80,6 +97,11 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
      */
     private int incoming;
 
+    /**
+     * Whether new bitstreams with the same content as an existing bitstream share its file
+     */
+    private boolean deduplicate = false;
+
     /**
      * This prefix string marks registered bitstreams in internal_id
      */
@@ -118,6 +140,21 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         //bitstream.setChecksum(Utils.toHex(dis.getMessageDigest().digest()));
         //bitstream.setChecksumAlgorithm("MD5");
 
+        if (deduplicate) {
+            // Share the file of a bitstream with the same content instead of keeping a copy. The file is only removed
+            // by cleanup() when none of the bitstreams using it remain. The duplicate is locked until this bitstream
+            // is committed, so it can't be deleted and cleaned up in the meantime.
+            Bitstream duplicate = bitstreamService.findDuplicateContent(context, bitstream);
+            if (duplicate != null) {
+                store.remove(bitstream);
+                bitstream.setInternalId(duplicate.getInternalId());
+                if (log.isDebugEnabled()) {
+                    log.debug("Sharing internalID " + duplicate.getInternalId() + " of bitstreamID " +
+                                  duplicate.getID() + " with bitstreamID " + bitstream.getID());
+                }
+            }
+        }
+
         bitstream.setDeleted(false);
         try {
             //Update our bitstream but turn off the authorization system since permissions haven't been set at this
@@ -221,6 +258,20 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return this.getStore(storeNumber).get(bitstream);
     }
 
+    @Override
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException {
+        Integer storeNumber = bitstream.getStoreNumber();
+        return this.getStore(storeNumber).get(bitstream, offset, length);
+    }
+
+    @Override
+    public FileChannel retrieveChannel(Context context, Bitstream bitstream)
+        throws SQLException, IOException {
+        Integer storeNumber = bitstream.getStoreNumber();
+        return this.getStore(storeNumber).getChannel(bitstream);
+    }
+
     @Override
     public void cleanup(boolean deleteDbRecords, boolean verbose) throws SQLException, IOException, AuthorizeException {
         Context context = new Context(Context.Mode.BATCH_EDIT);
@@ -282,9 +333,9 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
                 }
 
 
-                // Since versioning allows for multiple bitstreams, check if the internal identifier isn't used on
-                // another place
-                if (bitstreamService.findDuplicateInternalIdentifier(context, bitstream).isEmpty()) {
+                // Since versioning and deduplication allow for multiple bitstreams, check if the internal identifier
+                // isn't used on another place
+                if (!isShared(context, bitstream, bitstream.getStoreNumber())) {
                     this.getStore(bitstream.getStoreNumber()).remove(bitstream);
 
                     String message = ("Deleted bitstreamID " + bid + ", internalID " + bitstream.getInternalId());
@@ -387,40 +438,116 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
     @Override
     public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
                         Integer batchCommitSize) throws IOException, SQLException, AuthorizeException {
-        //Find all the bitstreams on the old source, copy it to new destination, update store_number, save, remove old
-        Iterator<Bitstream> allBitstreamsInSource = bitstreamService.findByStoreNumber(context, assetstoreSource);
-        int processedCounter = 0;
-
-        while (allBitstreamsInSource.hasNext()) {
-            Bitstream bitstream = allBitstreamsInSource.next();
-            log.info("Copying bitstream:" + bitstream
-                .getID() + " from assetstore[" + assetstoreSource + "] to assetstore[" + assetstoreDestination + "] " +
-                         "Name:" + bitstream
-                .getName() + ", SizeBytes:" + bitstream.getSizeBytes());
-
-            InputStream inputStream = retrieve(context, bitstream);
-            this.getStore(assetstoreDestination).put(bitstream, inputStream);
-            bitstream.setStoreNumber(assetstoreDestination);
-            bitstreamService.update(context, bitstream);
+        migrate(context, assetstoreSource, assetstoreDestination, deleteOld, batchCommitSize, 1, 0);
+    }
 
-            if (deleteOld) {
-                log.info("Removing bitstream:" + bitstream.getID() + " from assetstore[" + assetstoreSource + "]");
-                this.getStore(assetstoreSource).remove(bitstream);
-            }
+    @Override
+    public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
+                        Integer batchCommitSize, int threads, long maxBytesPerSecond)
+        throws IOException, SQLException, AuthorizeException {
+        BitStoreService source = this.getStore(assetstoreSource);
+        BitStoreService destination = this.getStore(assetstoreDestination);
+        RateLimiter rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
+        // every worker gets at least one bitstream of a batch
+        int batchSize = Math.max(batchCommitSize, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.currentTimeMillis();
+        int processedCounter = 0;
+        int failedCounter = 0;
+        long bytes = 0;
+        try {
+            // Copy the bitstreams of the source batch by batch and only point them to the destination once their
+            // copies are verified. The pointers of a batch are committed before its next batch is read, so a
+            // migration which is interrupted can be run again and continues with the bitstreams left in the source.
+            UUID last = null;
+            List<Bitstream> batch;
+            do {
+                batch = bitstreamService.findByStoreNumber(context, assetstoreSource, last, batchSize);
+                // bitstreams which share a file (versions, deduplicated content) share its copy too: it is made once
+                // per batch, and not at all if an earlier batch or run already moved one of them to the destination.
+                // This is checked before any copy starts and the bitstreams are only updated once all copies are
+                // done, as the copies change the bitstreams while they run.
+                Map<String, Future<Boolean>> copies = new HashMap<>();
+                Map<String, Bitstream> toCopy = new LinkedHashMap<>();
+                for (Bitstream bitstream : batch) {
+                    if (copies.containsKey(bitstream.getInternalId())
+                        || toCopy.containsKey(bitstream.getInternalId())) {
+                        continue;
+                    }
+                    if (isShared(context, bitstream, assetstoreDestination)) {
+                        log.info("Bitstream:" + bitstream.getID() + " shares its file with a bitstream in " +
+                                     "assetstore[" + assetstoreDestination + "], skipping its copy");
+                        copies.put(bitstream.getInternalId(), CompletableFuture.completedFuture(true));
+                    } else {
+                        toCopy.put(bitstream.getInternalId(), bitstream);
+                    }
+                }
+                for (Map.Entry<String, Bitstream> entry : toCopy.entrySet()) {
+                    Bitstream bitstream = entry.getValue();
+                    log.info("Copying bitstream:" + bitstream.getID() + " from assetstore[" + assetstoreSource +
+                                 "] to assetstore[" + assetstoreDestination + "] Name:" + bitstream.getName() +
+                                 ", SizeBytes:" + bitstream.getSizeBytes());
+                    copies.put(entry.getKey(),
+                               executor.submit(() -> copy(bitstream, source, destination, rateLimiter)));
+                }
+                Map<String, Boolean> copied = new HashMap<>();
+                for (Map.Entry<String, Future<Boolean>> copy : copies.entrySet()) {
+                    copied.put(copy.getKey(), await(copy.getValue()));
+                }
 
-            processedCounter++;
-            context.uncacheEntity(bitstream);
+                List<Bitstream> migrated = new ArrayList<>(batch.size());
+                for (Bitstream bitstream : batch) {
+                    if (copied.get(bitstream.getInternalId())) {
+                        bitstream.setStoreNumber(assetstoreDestination);
+                        bitstreamService.update(context, bitstream);
+                        migrated.add(bitstream);
+                        bytes += bitstream.getSizeBytes();
+                    } else {
+                        failedCounter++;
+                    }
+                }
+                context.commit();
+                processedCounter += migrated.size();
+
+                // only remove the old files once the new ones are committed, and once no bitstream in the source
+                // shares them anymore
+                if (deleteOld) {
+                    for (Bitstream bitstream : migrated) {
+                        if (isShared(context, bitstream, assetstoreSource)) {
+                            continue;
+                        }
+                        log.info("Removing bitstream:" + bitstream.getID() + " from assetstore[" + assetstoreSource +
+                                     "]");
+                        try {
+                            source.remove(bitstream);
+                        } catch (IOException e) {
+                            log.error("Unable to remove bitstream:" + bitstream.getID() + " from assetstore[" +
+                                          assetstoreSource + "]", e);
+                        }
+                    }
+                }
 
-            //modulo
-            if ((processedCounter % batchCommitSize) == 0) {
-                log.info("Migration Commit Checkpoint: " + processedCounter);
-                context.dispatchEvents();
-            }
+                if (!batch.isEmpty()) {
+                    last = batch.get(batch.size() - 1).getID();
+                    long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+                    log.info("Migration Commit Checkpoint: " + processedCounter + " objects (" + bytes +
+                                 " bytes, " + bytes / seconds + " bytes/s) transferred, " + failedCounter + " failed");
+                }
+                for (Bitstream bitstream : batch) {
+                    context.uncacheEntity(bitstream);
+                }
+            } while (!batch.isEmpty());
+        } finally {
+            executor.shutdownNow();
         }
 
         log.info(
             "Assetstore Migration from assetstore[" + assetstoreSource + "] to assetstore[" + assetstoreDestination +
                 "] completed. " + processedCounter + " objects were transferred.");
+        if (failedCounter > 0) {
+            throw new IOException(failedCounter + " objects could not be transferred from assetstore[" +
+                                      assetstoreSource + "], run the migration again to retry them");
+        }
     }
 
     @Override
@@ -450,6 +577,14 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         this.incoming = incoming;
     }
 
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
     public void setStores(Map<Integer, BitStoreService> stores) {
         this.stores = stores;
     }
@@ -479,6 +614,97 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return (now - lastModified) < (1 * 60 * 1000);
     }
 
+    /**
+     * Copy the file of a bitstream to another store. The copy is written under a temporary id and only moved into
+     * place once the bytes read from the source and the checksum of the copy both match the checksum of the
+     * bitstream, so a failed or corrupt copy never replaces a file another bitstream may already point to.
+     *
+     * @param bitstream   the bitstream to copy
+     * @param source      the store to copy from
+     * @param destination the store to copy to
+     * @param rateLimiter limits the bytes per second read from the source, or null
+     * @return true if the copy succeeded, false if it failed or didn't match the checksum and was removed
+     */
+    protected boolean copy(Bitstream bitstream, BitStoreService source, BitStoreService destination,
+                           RateLimiter rateLimiter) {
+        // the destination overwrites these with the values of its copy
+        String checksum = bitstream.getChecksum();
+        String checksumAlgorithm = bitstream.getChecksumAlgorithm();
+        long sizeBytes = bitstream.getSizeBytes();
+        String internalId = bitstream.getInternalId();
+        String temporaryId = internalId + MIGRATING_SUFFIX;
+        boolean written = false;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            InputStream in = source.get(bitstream);
+            if (rateLimiter != null) {
+                in = new RateLimitedInputStream(in, rateLimiter);
+            }
+            try (DigestInputStream dis = new DigestInputStream(in, digest)) {
+                bitstream.setInternalId(temporaryId);
+                written = true;
+                destination.put(bitstream, dis);
+            } finally {
+                bitstream.setInternalId(internalId);
+            }
+            String read = Utils.toHex(digest.digest());
+            boolean verified = (!"MD5".equals(checksumAlgorithm) || checksum == null || checksum.equals(read))
+                && (!"MD5".equals(bitstream.getChecksumAlgorithm()) || read.equals(bitstream.getChecksum()));
+            if (!verified) {
+                log.error("The copy of bitstream:" + bitstream.getID() + " doesn't match its checksum, removing it");
+            } else {
+                destination.move(bitstream, temporaryId);
+                return true;
+            }
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.error("Unable to copy bitstream:" + bitstream.getID(), e);
+        }
+        bitstream.setChecksum(checksum);
+        bitstream.setChecksumAlgorithm(checksumAlgorithm);
+        bitstream.setSizeBytes(sizeBytes);
+        if (written) {
+            bitstream.setInternalId(temporaryId);
+            try {
+                destination.remove(bitstream);
+            } catch (IOException | RuntimeException e) {
+                log.error("Unable to remove the copy of bitstream:" + bitstream.getID(), e);
+            } finally {
+                bitstream.setInternalId(internalId);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the file of a bitstream in a store is used by another bitstream which is not deleted, i.e. by
+     * another version of it or by a bitstream with the same content when deduplication is enabled.
+     *
+     * @param context     The relevant DSpace Context.
+     * @param bitstream   the bitstream
+     * @param storeNumber the store of the file
+     * @return true if the file is still used by another bitstream
+     * @throws SQLException if database error
+     */
+    protected boolean isShared(Context context, Bitstream bitstream, int storeNumber) throws SQLException {
+        for (Bitstream duplicate : bitstreamService.findDuplicateInternalIdentifier(context, bitstream)) {
+            if (!duplicate.isDeleted() && duplicate.getStoreNumber() == storeNumber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean await(Future<Boolean> copy) throws IOException {
+        try {
+            return copy.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
     protected BitStoreService getStore(int position) throws IOException {
         BitStoreService bitStoreService = this.stores.get(position);
         if (!bitStoreService.isInitialized()) {
@@ -487,4 +713,34 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return bitStoreService;
     }
 
+    /**
+     * Stream which reads no more bytes per second than its rate limiter permits.
+     */
+    private static class RateLimitedInputStream extends FilterInputStream {
+
+        private final RateLimiter rateLimiter;
+
+        RateLimitedInputStream(InputStream in, RateLimiter rateLimiter) {
+            super(in);
+            this.rateLimiter = rateLimiter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                rateLimiter.acquire();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                rateLimiter.acquire(n);
+            }
+            return n;
+        }
+    }
 }
@@ -0,0 +1,425 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Utils;
+
+/**
+ * Read-through cache of the assets of another (usually remote, e.g. S3) store in a local directory.
+ * <p>
+ * A read of an asset which is not cached yet is served from the store, while the asset is copied from the store into
+ * the cache directory in the background, so later reads are served from the local copy. Concurrent reads of an asset
+ * which is not cached yet share a single copy. An asset is copied to a temporary file which is only moved into place
+ * when complete and, if the bitstream has an MD5 checksum, when the copy matches it. When the cache grows beyond
+ * maxSize bytes, the least recently read assets are removed. Assets larger than maxSize and registered bitstreams are
+ * always read from the store.
+ * <p>
+ * New assets are stored in the store only, and removed assets are removed from both. To use it, configure this
+ * store in bitstore.xml with the store to cache, and reference it in the stores of the BitstreamStorageService
+ * instead of the cached store.
+ */
+public class CachingBitStoreService extends BaseBitStoreService {
+
+    private static final Logger log = LogManager.getLogger(CachingBitStoreService.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The cached store
+     */
+    private BitStoreService store;
+
+    /**
+     * The cache directory
+     */
+    private File cacheDir;
+
+    /**
+     * Maximum total size of the cached assets, in bytes
+     */
+    private long maxSize = 10L * 1024 * 1024 * 1024;
+
+    /**
+     * The cached assets by file name in least recently read order, with their sizes
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Maximum number of assets copied into the cache at once
+     */
+    private int fillThreads = 2;
+
+    /**
+     * Copies the assets into the cache, created on first use
+     */
+    private Executor fillExecutor = null;
+
+    /**
+     * The file names of the assets being copied into the cache
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesFromCache = new AtomicLong();
+    private final AtomicLong bytesFromStore = new AtomicLong();
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingBitStoreService() {
+    }
+
+    /**
+     * Initialize the cached store, and the cache from the assets in the cache directory
+     *
+     * @throws IOException if the cache directory can't be created or read
+     */
+    @Override
+    public void init() throws IOException {
+        store.init();
+        if (initialized) {
+            return;
+        }
+        Files.createDirectories(cacheDir.toPath());
+        synchronized (entries) {
+            try (Stream<Path> files = Files.walk(cacheDir.toPath())) {
+                files.filter(Files::isRegularFile)
+                     .map(Path::toFile)
+                     .sorted((a, b) -> Long.compare(a.lastModified(), b.lastModified()))
+                     .forEach(file -> {
+                         if (file.getName().endsWith(TEMP_SUFFIX)) {
+                             // left by an interrupted copy
+                             file.delete();
+                         } else {
+                             entries.put(file.getName(), file.length());
+                             size += file.length();
+                         }
+                     });
+            }
+            evict();
+        }
+        this.initialized = true;
+        log.info("Caching assets of {} in {}, {} of {} bytes used", store.getClass().getSimpleName(), cacheDir,
+                 size, maxSize);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return initialized && store.isInitialized();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return store.isEnabled();
+    }
+
+    @Override
+    public String generateId() {
+        return store.generateId();
+    }
+
+    @Override
+    public InputStream get(Bitstream bitstream) throws IOException {
+        File file = getCachedFile(bitstream);
+        if (file != null) {
+            try {
+                InputStream in = new FileInputStream(file);
+                bytesFromCache.addAndGet(file.length());
+                return in;
+            } catch (FileNotFoundException e) {
+                // evicted in the meantime
+            }
+        }
+        bytesFromStore.addAndGet(bitstream.getSizeBytes());
+        return store.get(bitstream);
+    }
+
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        File file = getCachedFile(bitstream);
+        FileChannel channel = null;
+        if (file != null) {
+            try {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                // evicted in the meantime
+            }
+        }
+        if (channel == null) {
+            bytesFromStore.addAndGet(Math.max(0, Math.min(length, bitstream.getSizeBytes() - offset)));
+            return store.get(bitstream, offset, length);
+        }
+        bytesFromCache.addAndGet(Math.max(0, Math.min(length, file.length() - offset)));
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public FileChannel getChannel(Bitstream bitstream) throws IOException {
+        File file = getCachedFile(bitstream);
+        if (file == null) {
+            return store.getChannel(bitstream);
+        }
+        try {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // evicted in the meantime
+            return store.getChannel(bitstream);
+        }
+    }
+
+    @Override
+    public void put(Bitstream bitstream, InputStream inputStream) throws IOException {
+        // a new asset with a reused id must not be served from a stale copy
+        evict(bitstream);
+        store.put(bitstream, inputStream);
+    }
+
+    @Override
+    public Map about(Bitstream bitstream, Map attrs) throws IOException {
+        return store.about(bitstream, attrs);
+    }
+
+    @Override
+    public void remove(Bitstream bitstream) throws IOException {
+        evict(bitstream);
+        store.remove(bitstream);
+    }
+
+    @Override
+    public void move(Bitstream bitstream, String fromInternalId) throws IOException {
+        evict(bitstream);
+        store.move(bitstream, fromInternalId);
+    }
+
+    /**
+     * @return the counters of the cache, e.g. to be logged or exposed by a health indicator. The hit ratio is in
+     * percent of the reads. The bytes from the store and from the cache are the bytes served to the readers from
+     * either, the bytes copied are the bytes read from the store to fill the cache.
+     */
+    public Map<String, Long> getStatistics() {
+        long hitCount = hits.get();
+        long reads = hitCount + misses.get();
+        synchronized (entries) {
+            return Map.of("hits", hitCount,
+                          "misses", misses.get(),
+                          "hitRatio", reads == 0 ? 0 : hitCount * 100 / reads,
+                          "bytesFromCache", bytesFromCache.get(),
+                          "bytesFromStore", bytesFromStore.get(),
+                          "bytesCopied", bytesCopied.get(),
+                          "evictions", evictions.get(),
+                          "entries", (long) entries.size(),
+                          "size", size);
+        }
+    }
+
+    /**
+     * Find the local copy of an asset. If it isn't cached yet, it is copied from the store in the background.
+     *
+     * @param bitstream the bitstream of the asset
+     * @return the local copy, or null if the asset is not cached (yet) and has to be read from the store
+     */
+    private File getCachedFile(Bitstream bitstream) {
+        String internalId = bitstream.getInternalId();
+        if (internalId == null || internalId.startsWith("-R") || bitstream.getSizeBytes() > maxSize) {
+            return null;
+        }
+        String name = sanitizeIdentifier(internalId);
+        File file = getFile(name);
+        synchronized (entries) {
+            if (entries.get(name) != null && file.exists()) {
+                hits.incrementAndGet();
+                return file;
+            }
+        }
+        misses.incrementAndGet();
+
+        if (pending.add(name)) {
+            String checksumAlgorithm = bitstream.getChecksumAlgorithm();
+            String checksum = bitstream.getChecksum();
+            try {
+                getFillExecutor().execute(() -> {
+                    try {
+                        fill(bitstream, checksumAlgorithm, checksum, name, file);
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Unable to copy asset {} into the cache", internalId, e);
+                    } finally {
+                        pending.remove(name);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // too many copies queued already, a later read copies it
+                pending.remove(name);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copy an asset from the store into the cache, unless the copy doesn't match the checksum of the bitstream
+     */
+    private void fill(Bitstream bitstream, String checksumAlgorithm, String checksum, String name, File file)
+        throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        File temp = new File(file.getParentFile(), name + "." + Thread.currentThread().getId() + TEMP_SUFFIX);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(CSA);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        long length;
+        try (InputStream in = new DigestInputStream(store.get(bitstream), digest);
+             OutputStream out = Files.newOutputStream(temp.toPath())) {
+            length = in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        bytesCopied.addAndGet(length);
+
+        if (CSA.equals(checksumAlgorithm) && checksum != null && !checksum.equals(Utils.toHex(digest.digest()))) {
+            log.warn("The copy of asset {} doesn't match its checksum, not caching it", bitstream.getInternalId());
+            temp.delete();
+            return;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        synchronized (entries) {
+            Long previous = entries.put(name, length);
+            size += length - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    private synchronized Executor getFillExecutor() {
+        if (fillExecutor == null) {
+            // a burst of misses of distinct assets doesn't queue copies without bounds
+            fillExecutor = new ThreadPoolExecutor(fillThreads, fillThreads, 0, TimeUnit.MILLISECONDS,
+                                                  new LinkedBlockingQueue<>(fillThreads * 100), this::newFillThread);
+        }
+        return fillExecutor;
+    }
+
+    private Thread newFillThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "asset-cache-fill");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Remove the least recently read assets until the cache fits maxSize. Must hold the lock on entries.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            iterator.remove();
+            size -= entry.getValue();
+            evictions.incrementAndGet();
+            // readers which still have the file open keep reading it
+            getFile(entry.getKey()).delete();
+        }
+    }
+
+    private void evict(Bitstream bitstream) {
+        if (bitstream.getInternalId() == null) {
+            return;
+        }
+        String name = sanitizeIdentifier(bitstream.getInternalId());
+        synchronized (entries) {
+            Long length = entries.remove(name);
+            if (length != null) {
+                size -= length;
+            }
+            getFile(name).delete();
+        }
+    }
+
+    private File getFile(String name) {
+        return new File(cacheDir, getIntermediatePath(name) + name);
+    }
+
+    public BitStoreService getStore() {
+        return store;
+    }
+
+    public void setStore(BitStoreService store) {
+        this.store = store;
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public void setCacheDir(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getFillThreads() {
+        return fillThreads;
+    }
+
+    public void setFillThreads(int fillThreads) {
+        this.fillThreads = Math.max(fillThreads, 1);
+    }
+
+    /**
+     * @param fillExecutor runs the copies of the assets into the cache, instead of fillThreads threads
+     */
+    void setFillExecutor(Executor fillExecutor) {
+        this.fillExecutor = fillExecutor;
+    }
+}
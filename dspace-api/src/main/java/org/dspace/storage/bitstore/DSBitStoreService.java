@@ -12,11 +12,17 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Utils;
@@ -79,6 +85,44 @@ public class DSBitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Retrieve a range of the bits for the asset with ID, reading the file from the start of the range.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    The position of the first byte to retrieve
+     * @param length    The (maximum) number of bytes to retrieve
+     * @return The stream of the bits in the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        FileChannel channel = getChannel(bitstream);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    /**
+     * Open the file of the asset with ID.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @return A channel on the file
+     * @throws java.io.IOException If a problem occurs while opening the file
+     */
+    @Override
+    public FileChannel getChannel(Bitstream bitstream) throws IOException {
+        try {
+            return FileChannel.open(getFile(bitstream).toPath(), StandardOpenOption.READ);
+        } catch (Exception e) {
+            log.error("getChannel(" + bitstream.getInternalId() + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Store a stream of bits.
      *
@@ -168,6 +212,29 @@ public class DSBitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Replace the asset of a bitstream by the asset stored under another internal id, by renaming its file.
+     *
+     * @param bitstream      The bitstream whose asset is replaced
+     * @param fromInternalId The internal id of the asset to move
+     * @throws java.io.IOException If a problem occurs while moving the asset
+     */
+    @Override
+    public void move(Bitstream bitstream, String fromInternalId) throws IOException {
+        String internalId = bitstream.getInternalId();
+        File from;
+        bitstream.setInternalId(fromInternalId);
+        try {
+            from = getFile(bitstream);
+        } finally {
+            bitstream.setInternalId(internalId);
+        }
+        File file = getFile(bitstream);
+        file.getParentFile().mkdirs();
+        Files.move(from.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+    }
+
     ////////////////////////////////////////
     // Internal methods
     ////////////////////////////////////////
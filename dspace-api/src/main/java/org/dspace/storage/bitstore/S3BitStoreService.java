@@ -7,10 +7,22 @@
  */
 package org.dspace.storage.bitstore;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 import javax.validation.constraints.NotNull;
 
@@ -23,10 +35,15 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
@@ -37,6 +54,7 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
@@ -74,6 +92,11 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     private static final String CSA = "MD5";
 
+    /**
+     * Minimum size of the parts of a multipart upload (except the last one) accepted by S3
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
     // These settings control the way an identifier is hashed into
     // directory and file names
     //
@@ -94,6 +117,33 @@ public class S3BitStoreService extends BaseBitStoreService {
     private String awsRegionName;
     private boolean useRelativePath;
 
+    /**
+     * Whether put() uploads the stream directly in parts, instead of copying it to a temporary file first
+     */
+    private boolean streamingUpload = false;
+
+    /**
+     * Size (in bytes) of the parts of a streaming upload, at least 5 MB as required by S3
+     */
+    private int partSize = 16 * 1024 * 1024;
+
+    /**
+     * Maximum number of parts of the streaming uploads sent concurrently. Each one, and the next part read, is
+     * buffered in memory.
+     */
+    private int uploadThreads = 4;
+
+    /**
+     * Threads sending the parts of the streaming uploads, created on first use
+     */
+    private ExecutorService uploadExecutor = null;
+
+    /**
+     * Permits to buffer a part in memory, shared by all streaming uploads so their memory use is bounded by
+     * (uploadThreads + 1) * partSize together, created on first use
+     */
+    private Semaphore uploadBuffers = null;
+
     /**
      * container for all the assets
      */
@@ -247,13 +297,42 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     @Override
     public InputStream get(Bitstream bitstream) throws IOException {
+        return get(bitstream, null);
+    }
+
+    /**
+     * Retrieve a range of the bits for the asset with ID, with a ranged GET instead of reading and discarding
+     * the bits before the range.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    The position of the first byte to retrieve
+     * @param length    The (maximum) number of bytes to retrieve
+     * @return The stream of the bits in the range, or null
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        return get(bitstream, new long[] {offset, offset + length - 1});
+    }
+
+    /**
+     * @param range the first and last (inclusive) byte to retrieve, or null to retrieve all of them
+     */
+    private InputStream get(Bitstream bitstream, long[] range) throws IOException {
         String key = getFullKey(bitstream.getInternalId());
         // Strip -R from bitstream key if it's registered
         if (isRegisteredBitstream(key)) {
             key = key.substring(REGISTERED_FLAG.length());
         }
         try {
-            S3Object object = s3Service.getObject(new GetObjectRequest(bucketName, key));
+            GetObjectRequest request = new GetObjectRequest(bucketName, key);
+            if (range != null) {
+                request.setRange(range[0], range[1]);
+            }
+            S3Object object = s3Service.getObject(request);
             return (object != null) ? object.getObjectContent() : null;
         } catch (AmazonClientException e) {
             log.error("get(" + key + ")", e);
@@ -274,6 +353,10 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     @Override
     public void put(Bitstream bitstream, InputStream in) throws IOException {
+        if (streamingUpload) {
+            putStreaming(bitstream, in);
+            return;
+        }
         String key = getFullKey(bitstream.getInternalId());
         //Copy istream to temp file, and send the file, with some metadata
         File scratchFile = File.createTempFile(bitstream.getInternalId(), "s3bs");
@@ -302,6 +385,160 @@ public class S3BitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Store a stream of bits without a temporary file. The stream is read in parts of partSize bytes, which are
+     * sent with the S3 multipart upload API by up to uploadThreads threads while the next parts are read, and the
+     * checksum is computed while reading. A part is only read once one of the buffers shared by all uploads is free.
+     * A stream which fits in a single part is sent with a plain PUT. If anything fails, the multipart upload is
+     * aborted so S3 discards the parts already sent.
+     *
+     * @param bitstream The bitstream object
+     * @param in        The stream of bits to store
+     * @throws java.io.IOException If a problem occurs while storing the bits
+     */
+    protected void putStreaming(Bitstream bitstream, InputStream in) throws IOException {
+        String key = getFullKey(bitstream.getInternalId());
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(CSA);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        DigestInputStream dis = new DigestInputStream(in, digest);
+        String uploadId = null;
+        List<Future<PartETag>> parts = new ArrayList<>();
+        Semaphore buffers = getUploadBuffers();
+        // whether this thread holds a buffer, which is handed over to the part sending it
+        boolean buffered = false;
+        try {
+            buffers.acquire();
+            buffered = true;
+            byte[] buffer = new byte[partSize];
+            int length = IOUtils.read(dis, buffer);
+            long size = 0;
+            if (length < partSize) {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(length);
+                s3Service.putObject(bucketName, key, new ByteArrayInputStream(buffer, 0, length), metadata);
+                size = length;
+            } else {
+                uploadId = s3Service.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key))
+                                    .getUploadId();
+                while (length > 0) {
+                    checkParts(parts);
+                    buffered = false;
+                    parts.add(uploadPart(key, uploadId, parts.size() + 1, buffer, length, buffers));
+                    size += length;
+                    // wait for a part of any upload to be sent before reading the next one, bounding the memory used
+                    buffers.acquire();
+                    buffered = true;
+                    buffer = new byte[partSize];
+                    length = IOUtils.read(dis, buffer);
+                }
+                List<PartETag> partETags = new ArrayList<>(parts.size());
+                for (Future<PartETag> part : parts) {
+                    partETags.add(part.get());
+                }
+                s3Service.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+            }
+            bitstream.setSizeBytes(size);
+            bitstream.setChecksum(Utils.toHex(dis.getMessageDigest().digest()));
+            bitstream.setChecksumAlgorithm(CSA);
+        } catch (AmazonClientException | IOException | InterruptedException | ExecutionException e) {
+            log.error("put(" + bitstream.getInternalId() + ", is)", e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (uploadId != null) {
+                abortUpload(key, uploadId, parts);
+            }
+            throw new IOException(e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            if (buffered) {
+                buffers.release();
+            }
+        }
+    }
+
+    /**
+     * Send a part of a multipart upload in the background
+     *
+     * @param buffers released when the part is sent, or failed
+     */
+    private Future<PartETag> uploadPart(String key, String uploadId, int partNumber, byte[] buffer, int length,
+                                        Semaphore buffers) {
+        UploadPartRequest request = new UploadPartRequest()
+            .withBucketName(bucketName)
+            .withKey(key)
+            .withUploadId(uploadId)
+            .withPartNumber(partNumber)
+            .withInputStream(new ByteArrayInputStream(buffer, 0, length))
+            .withPartSize(length);
+        try {
+            return getUploadExecutor().submit(() -> {
+                try {
+                    return s3Service.uploadPart(request).getPartETag();
+                } finally {
+                    buffers.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            buffers.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fail fast if a part already failed, instead of reading the rest of the stream
+     */
+    private void checkParts(List<Future<PartETag>> parts) throws InterruptedException, ExecutionException {
+        for (Future<PartETag> part : parts) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    private void abortUpload(String key, String uploadId, List<Future<PartETag>> parts) {
+        for (Future<PartETag> part : parts) {
+            part.cancel(true);
+        }
+        try {
+            s3Service.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (AmazonClientException e) {
+            log.error("Unable to abort the upload " + uploadId + " of " + key, e);
+        }
+    }
+
+    private synchronized ExecutorService getUploadExecutor() {
+        if (uploadExecutor == null) {
+            uploadExecutor = Executors.newFixedThreadPool(uploadThreads, runnable -> {
+                Thread thread = new Thread(runnable, "s3-upload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return uploadExecutor;
+    }
+
+    private synchronized Semaphore getUploadBuffers() {
+        if (uploadBuffers == null) {
+            uploadBuffers = new Semaphore(uploadThreads + 1);
+        }
+        return uploadBuffers;
+    }
+
+    /**
+     * Stop the threads sending the parts of the streaming uploads, called by "destroy-method" in Spring config.
+     */
+    public synchronized void destroy() {
+        if (uploadExecutor != null) {
+            uploadExecutor.shutdownNow();
+            uploadExecutor = null;
+        }
+    }
+
     /**
      * Obtain technical metadata about an asset in the asset store.
      *
@@ -383,6 +620,27 @@ public class S3BitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Replace the asset of a bitstream by the asset stored under another internal id, with a copy within the bucket
+     * and a delete of the other asset.
+     *
+     * @param bitstream      The bitstream whose asset is replaced
+     * @param fromInternalId The internal id of the asset to move
+     * @throws java.io.IOException If a problem occurs while moving the asset
+     */
+    @Override
+    public void move(Bitstream bitstream, String fromInternalId) throws IOException {
+        String fromKey = getFullKey(fromInternalId);
+        String key = getFullKey(bitstream.getInternalId());
+        try {
+            tm.copy(bucketName, fromKey, bucketName, key).waitForCopyResult();
+            s3Service.deleteObject(bucketName, fromKey);
+        } catch (AmazonClientException | InterruptedException e) {
+            log.error("move(" + fromKey + ", " + key + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Utility Method: Prefix the key with a subfolder, if this instance assets are stored within subfolder
      *
@@ -490,6 +748,30 @@ public class S3BitStoreService extends BaseBitStoreService {
         this.useRelativePath = useRelativePath;
     }
 
+    public boolean isStreamingUpload() {
+        return streamingUpload;
+    }
+
+    public void setStreamingUpload(boolean streamingUpload) {
+        this.streamingUpload = streamingUpload;
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(int partSize) {
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+    }
+
+    public int getUploadThreads() {
+        return uploadThreads;
+    }
+
+    public void setUploadThreads(int uploadThreads) {
+        this.uploadThreads = Math.max(uploadThreads, 1);
+    }
+
     /**
      * Contains a command-line testing tool. Expects arguments:
      * -a accessKey -s secretKey -f assetFileName
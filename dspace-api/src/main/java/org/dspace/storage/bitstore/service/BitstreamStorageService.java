@@ -9,6 +9,7 @@ package org.dspace.storage.bitstore.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.UUID;
@@ -126,6 +127,34 @@ public interface BitstreamStorageService {
     public InputStream retrieve(Context context, Bitstream bitstream)
         throws SQLException, IOException;
 
+    /**
+     * Retrieve a range of the bits for the bitstream with ID, without reading the bits before the range if the
+     * store supports it.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream to retrieve
+     * @param offset    The position of the first byte to retrieve
+     * @param length    The (maximum) number of bytes to retrieve
+     * @return The stream of the bits in the range, or null
+     * @throws IOException  If a problem occurs while retrieving the bits
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException;
+
+    /**
+     * Open the local file holding the bits for the bitstream with ID, see
+     * {@link org.dspace.storage.bitstore.BitStoreService#getChannel}.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream to retrieve
+     * @return A channel to be closed by the caller, or null if the store doesn't keep the bits in local files
+     * @throws IOException  If a problem occurs while opening the file
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    public FileChannel retrieveChannel(Context context, Bitstream bitstream)
+        throws SQLException, IOException;
+
     /**
      * Clean up the bitstream storage area. This method deletes any bitstreams
      * which are more than 1 hour old and marked deleted. The deletions cannot
@@ -180,6 +209,30 @@ public interface BitstreamStorageService {
     public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
                         Integer batchCommitSize) throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * Migrate all the assets from assetstoreSource to assetstoreDestination, copying them with a pool of workers.
+     * The copies are verified against the checksums of the bitstreams while they are made, and the bitstreams are
+     * only moved to assetstoreDestination (and removed from assetstoreSource) when their copies match. The moved
+     * bitstreams are committed per batch, so an interrupted migration can be run again to migrate the remaining
+     * bitstreams.
+     *
+     * @param context               The relevant DSpace Context.
+     * @param assetstoreSource      source assetstore
+     * @param assetstoreDestination destination assetstore
+     * @param deleteOld             whether to delete files from the source assetstore after migration
+     * @param batchCommitSize       number of bitstreams to commit at once, at least one per worker
+     * @param threads               number of workers copying assets at the same time
+     * @param maxBytesPerSecond     maximum number of bytes per second read from the source by all workers, or 0 for
+     *                              no limit
+     * @throws IOException        if an asset could not be migrated, after migrating the others
+     * @throws SQLException       An exception that provides information on a database access error or other errors.
+     * @throws AuthorizeException Exception indicating the current user of the context does not have permission
+     *                            to perform a particular action.
+     */
+    public void migrate(Context context, Integer assetstoreSource, Integer assetstoreDestination, boolean deleteOld,
+                        Integer batchCommitSize, int threads, long maxBytesPerSecond)
+        throws IOException, SQLException, AuthorizeException;
+
 
     /**
      * Gets the last modified timestamp of the the given bitstream's content, if known.
@@ -0,0 +1,146 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Decides how and when changes sent to a Solr core become visible to searches.
+ * <p>
+ * The policy of a core is read from "[prefix].commit.policy":
+ * <ul>
+ *     <li>{@code hard} (default): every requested commit is an explicit hard commit</li>
+ *     <li>{@code soft}: requested commits are soft commits, durability is left to the autoCommit of the core</li>
+ *     <li>{@code commitWithin}: updates are sent with a commitWithin of "[prefix].commit.within" ms (default 1000)
+ *     and requested commits are skipped</li>
+ * </ul>
+ * All updates and commits of a core should go through its policy, so bulk operations don't force a synchronous
+ * commit on every batch unless the core is configured that way.
+ */
+public class SolrCommitPolicy {
+
+    private static final Logger log = LogManager.getLogger(SolrCommitPolicy.class);
+
+    public enum Mode {
+        HARD,
+        SOFT,
+        COMMIT_WITHIN
+    }
+
+    /**
+     * Used by SolrJ when no commitWithin has to be sent along with an update
+     */
+    private static final int NO_COMMIT_WITHIN = -1;
+
+    private final String prefix;
+
+    /**
+     * @param prefix the prefix of the configuration properties of the core, e.g. "discovery.solr"
+     */
+    public SolrCommitPolicy(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * The configured mode, read on every call so changes to the configuration are picked up immediately.
+     *
+     * @return the commit mode of the core
+     */
+    public Mode getMode() {
+        String policy = getConfigurationService().getProperty(prefix + ".commit.policy", "hard");
+        if (StringUtils.equalsIgnoreCase(policy, "soft")) {
+            return Mode.SOFT;
+        } else if (StringUtils.equalsIgnoreCase(policy, "commitWithin")) {
+            return Mode.COMMIT_WITHIN;
+        } else if (!StringUtils.equalsIgnoreCase(policy, "hard")) {
+            log.warn("Unknown value '{}' for {}.commit.policy, using 'hard'", policy, prefix);
+        }
+        return Mode.HARD;
+    }
+
+    /**
+     * @return the number of ms within which updates have to become visible in commitWithin mode
+     */
+    public int getCommitWithin() {
+        return getConfigurationService().getIntProperty(prefix + ".commit.within", 1000);
+    }
+
+    public void add(SolrClient solr, SolrInputDocument document) throws IOException, SolrServerException {
+        solr.add(document, commitWithin());
+    }
+
+    public void add(SolrClient solr, Collection<SolrInputDocument> documents)
+        throws IOException, SolrServerException {
+        solr.add(documents, commitWithin());
+    }
+
+    public void deleteById(SolrClient solr, String id) throws IOException, SolrServerException {
+        solr.deleteById(id, commitWithin());
+    }
+
+    public void deleteById(SolrClient solr, List<String> ids) throws IOException, SolrServerException {
+        solr.deleteById(ids, commitWithin());
+    }
+
+    public void deleteByQuery(SolrClient solr, String query) throws IOException, SolrServerException {
+        solr.deleteByQuery(query, commitWithin());
+    }
+
+    /**
+     * Make the pending updates visible according to the policy, waiting for the new searcher.
+     *
+     * @param solr the client of the core
+     * @throws IOException         if IO error
+     * @throws SolrServerException if the commit failed
+     */
+    public void commit(SolrClient solr) throws IOException, SolrServerException {
+        commit(solr, true, true);
+    }
+
+    /**
+     * Make the pending updates visible according to the policy.
+     *
+     * @param solr         the client of the core
+     * @param waitFlush    block until index changes are flushed to disk
+     * @param waitSearcher block until a new searcher is opened and registered as the main query searcher
+     * @throws IOException         if IO error
+     * @throws SolrServerException if the commit failed
+     */
+    public void commit(SolrClient solr, boolean waitFlush, boolean waitSearcher)
+        throws IOException, SolrServerException {
+        switch (getMode()) {
+            case SOFT:
+                solr.commit(waitFlush, waitSearcher, true);
+                break;
+            case COMMIT_WITHIN:
+                // the updates themselves carry the commitWithin
+                break;
+            default:
+                solr.commit(waitFlush, waitSearcher);
+        }
+    }
+
+    private int commitWithin() {
+        return getMode() == Mode.COMMIT_WITHIN ? getCommitWithin() : NO_COMMIT_WITHIN;
+    }
+
+    private ConfigurationService getConfigurationService() {
+        return DSpaceServicesFactory.getInstance().getConfigurationService();
+    }
+}
@@ -0,0 +1,25 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table for the asynchronous discovery indexing queue
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE indexing_queue_id_seq;
+
+CREATE TABLE indexing_queue
+(
+    id INTEGER NOT NULL,
+    unique_index_id VARCHAR(255) NOT NULL,
+    index_action INTEGER NOT NULL,
+    queued TIMESTAMP NOT NULL,
+    CONSTRAINT indexing_queue_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX indexing_queue_queued_idx ON indexing_queue (queued);
+CREATE INDEX indexing_queue_unique_index_id_idx ON indexing_queue (unique_index_id);
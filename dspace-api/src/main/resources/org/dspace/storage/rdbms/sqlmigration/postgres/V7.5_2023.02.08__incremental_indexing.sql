@@ -0,0 +1,33 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Track the last modification of collections and communities, and the objects
+-- removed from the database, for the incremental discovery reindex
+-----------------------------------------------------------------------------------
+
+ALTER TABLE collection ADD COLUMN last_modified TIMESTAMP WITH TIME ZONE;
+ALTER TABLE community ADD COLUMN last_modified TIMESTAMP WITH TIME ZONE;
+UPDATE collection SET last_modified = CURRENT_TIMESTAMP;
+UPDATE community SET last_modified = CURRENT_TIMESTAMP;
+
+CREATE INDEX item_last_modified_idx ON item (last_modified);
+CREATE INDEX collection_last_modified_idx ON collection (last_modified);
+CREATE INDEX community_last_modified_idx ON community (last_modified);
+
+CREATE SEQUENCE indexing_tombstone_id_seq;
+
+CREATE TABLE indexing_tombstone
+(
+    id INTEGER NOT NULL,
+    unique_index_id VARCHAR(255) NOT NULL,
+    deleted TIMESTAMP NOT NULL,
+    CONSTRAINT indexing_tombstone_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX indexing_tombstone_deleted_idx ON indexing_tombstone (deleted);
@@ -0,0 +1,30 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Daily view counts per object and country, aggregated from the statistics core
+-- for the usage reports
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE usage_rollup_id_seq;
+
+CREATE TABLE usage_rollup
+(
+    id BIGINT NOT NULL,
+    dso_id UUID NOT NULL,
+    dso_type INTEGER NOT NULL,
+    owning_item UUID,
+    rollup_date DATE NOT NULL,
+    country_code VARCHAR(2),
+    views BIGINT NOT NULL,
+    CONSTRAINT usage_rollup_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX usage_rollup_dso_idx ON usage_rollup (dso_id, rollup_date);
+CREATE INDEX usage_rollup_owning_item_idx ON usage_rollup (owning_item);
+CREATE INDEX usage_rollup_date_idx ON usage_rollup (rollup_date);
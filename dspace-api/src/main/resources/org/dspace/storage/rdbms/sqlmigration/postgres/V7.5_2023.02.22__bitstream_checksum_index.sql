@@ -0,0 +1,10 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-- Used to find bitstreams with the same content when deduplicating new bitstreams
+CREATE INDEX bitstream_checksum_idx ON bitstream(checksum);
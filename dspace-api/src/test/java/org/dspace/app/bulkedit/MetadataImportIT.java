@@ -8,6 +8,7 @@
 package org.dspace.app.bulkedit;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
 
 import java.io.BufferedWriter;
@@ -15,12 +16,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrDocumentList;
 import org.dspace.AbstractIntegrationTestWithDatabase;
 import org.dspace.app.launcher.ScriptLauncher;
 import org.dspace.app.scripts.handler.impl.TestDSpaceRunnableHandler;
@@ -37,12 +42,15 @@ import org.dspace.content.Relationship;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.discovery.SolrSearchCore;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -54,6 +62,10 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
             = EPersonServiceFactory.getInstance().getEPersonService();
     private final RelationshipService relationshipService
             = ContentServiceFactory.getInstance().getRelationshipService();
+    private final ConfigurationService configurationService
+            = DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final SolrSearchCore solrSearchCore = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServicesByType(SolrSearchCore.class).get(0);
 
     private Collection collection;
     private Collection publicationCollection;
@@ -235,6 +247,54 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
         assertEquals(0, itemService.getMetadata(item, "dc", "contributor", "author", Item.ANY).size());
     }
 
+    @Test
+    public void metadataImportInBatchesTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(ItemBuilder.createItem(context, collection).withTitle("Batch item " + i).build());
+        }
+        context.restoreAuthSystemState();
+
+        // the last item is expunged, the others get an abstract
+        String[] csv = new String[items.size() + 1];
+        csv[0] = "id,collection,dc.description.abstract,action";
+        for (int i = 0; i < items.size(); i++) {
+            csv[i + 1] = items.get(i).getID() + "," + collection.getHandle() + ",\"Abstract " + i + "\","
+                + (i == items.size() - 1 ? "expunge" : "");
+        }
+        configurationService.setProperty("bulkedit.change.commit.count", 2);
+        configurationService.setProperty("bulkedit.allowexpunge", true);
+        try {
+            performImportScript(csv);
+        } finally {
+            configurationService.setProperty("bulkedit.change.commit.count", null);
+            configurationService.setProperty("bulkedit.allowexpunge", null);
+        }
+
+        for (Item item : items) {
+            // the script changed the items in its own context
+            context.uncacheEntity(item);
+        }
+        for (int i = 0; i < items.size() - 1; i++) {
+            Item item = itemService.find(context, items.get(i).getID());
+            assertEquals("Abstract " + i, itemService.getMetadataFirstValue(item, "dc", "description", "abstract",
+                                                                            Item.ANY));
+            // the changed items are indexed at the end of the import
+            SolrDocumentList documents = findDocuments(item.getID());
+            assertEquals(1, documents.getNumFound());
+            assertEquals(List.of("Abstract " + i), documents.get(0).getFieldValues("dc.description.abstract"));
+        }
+        UUID expunged = items.get(items.size() - 1).getID();
+        assertNull(itemService.find(context, expunged));
+        assertEquals(0, findDocuments(expunged).getNumFound());
+    }
+
+    private SolrDocumentList findDocuments(UUID id) throws Exception {
+        SolrQuery query = new SolrQuery("search.resourcetype:Item AND search.resourceid:" + id);
+        return solrSearchCore.getSolr().query(query).getResults();
+    }
+
     private Item findItemByName(String name) throws SQLException {
         Item importedItem = null;
         List<Item> allItems = IteratorUtils.toList(itemService.findAll(context));
@@ -13,9 +13,14 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.codec.CharEncoding;
 import org.apache.commons.io.IOUtils;
@@ -227,6 +232,87 @@ public class ItemExportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkZip(zipFileName);
     }
 
+    @Test
+    public void exportZipStreamsBitstreams() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection)
+                .withTitle(title)
+                .build();
+        String content = StringUtils.repeat("TEST ", 1000);
+        try (InputStream is = IOUtils.toInputStream(content, CharEncoding.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, item, is)
+                    .withName("text.txt")
+                    .withMimeType("text/plain")
+                    .build();
+        }
+        try (InputStream is = IOUtils.toInputStream(content, CharEncoding.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, item, is)
+                    .withName("document.pdf")
+                    .withMimeType("application/pdf")
+                    .build();
+        }
+        // clashes with the file of the item's handle
+        try (InputStream is = IOUtils.toInputStream(content, CharEncoding.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, item, is)
+                    .withName("handle")
+                    .withMimeType("text/plain")
+                    .build();
+        }
+        context.restoreAuthSystemState();
+
+        String[] args = new String[] { "export", "-t", "ITEM",
+                "-i", item.getHandle(), "-d", tempDir.toString(), "-z", zipFileName, "-n", "1" };
+        perfomExportScript(args);
+
+        try (ZipFile zip = new ZipFile(tempDir.resolve(zipFileName).toFile())) {
+            assertEquals(item.getHandle() + "\n", read(zip, "1/handle"));
+            assertEquals(collection.getHandle() + "\n", read(zip, "1/collections"));
+            assertTrue(read(zip, "1/dublin_core.xml").contains("<dcvalue element=\"title\""));
+            assertEquals("text.txt\tbundle:ORIGINAL\ndocument.pdf\tbundle:ORIGINAL\n1_handle\tbundle:ORIGINAL\n",
+                         read(zip, "1/contents"));
+            assertEquals(content, read(zip, "1/text.txt"));
+            assertEquals(content, read(zip, "1/1_handle"));
+            assertEquals(content, read(zip, "1/document.pdf"));
+
+            // formats which are compressed already are only stored
+            assertTrue(zip.getEntry("1/text.txt").getCompressedSize() < content.length() / 10);
+            assertTrue(zip.getEntry("1/document.pdf").getCompressedSize() >= content.length());
+        }
+    }
+
+    @Test
+    public void exportZipCollectionInParallel() throws Exception {
+        context.turnOffAuthorisationSystem();
+        for (int i = 0; i < 10; i++) {
+            Item item = ItemBuilder.createItem(context, collection)
+                    .withTitle(title + " " + i)
+                    .build();
+            try (InputStream is = IOUtils.toInputStream("TEST " + i, CharEncoding.UTF_8)) {
+                BitstreamBuilder.createBitstream(context, item, is)
+                        .withName("Bitstream")
+                        .withMimeType("text/plain")
+                        .build();
+            }
+        }
+        context.restoreAuthSystemState();
+
+        String[] args = new String[] { "export", "-t", "COLLECTION",
+                "-i", collection.getHandle(), "-d", tempDir.toString(), "-z", zipFileName, "-n", "1" };
+        perfomExportScript(args);
+        Map<String, String> sequential = readAll(tempDir.resolve(zipFileName).toFile());
+
+        configurationService.setProperty("org.dspace.app.itemexport.threads", 3);
+        try {
+            perfomExportScript(args);
+        } finally {
+            configurationService.setProperty("org.dspace.app.itemexport.threads", null);
+        }
+        Map<String, String> parallel = readAll(tempDir.resolve(zipFileName).toFile());
+
+        assertEquals(10, sequential.keySet().stream().filter(name -> name.endsWith("/Bitstream")).count());
+        assertEquals(sequential, parallel);
+    }
+
     @Test
     public void migrateCollection() throws Exception {
         // create items
@@ -339,6 +425,24 @@ public class ItemExportCLIIT extends AbstractIntegrationTestWithDatabase {
                 .count());
     }
 
+    private String read(ZipFile zip, String name) throws Exception {
+        ZipEntry entry = zip.getEntry(name);
+        assertNotNull("Missing " + name, entry);
+        try (InputStream is = zip.getInputStream(entry)) {
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Map<String, String> readAll(File file) throws Exception {
+        Map<String, String> entries = new TreeMap<>();
+        try (ZipFile zip = new ZipFile(file)) {
+            for (ZipEntry entry : zip.stream().collect(Collectors.toList())) {
+                entries.put(entry.getName(), read(zip, entry.getName()));
+            }
+        }
+        return entries;
+    }
+
     /**
      * Check migration of collection
      * @throws Exception
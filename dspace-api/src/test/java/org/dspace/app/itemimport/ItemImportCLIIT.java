@@ -8,15 +8,19 @@
 package org.dspace.app.itemimport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.file.PathUtils;
+import org.apache.solr.client.solrj.SolrQuery;
 import org.dspace.AbstractIntegrationTestWithDatabase;
 import org.dspace.builder.CollectionBuilder;
 import org.dspace.builder.CommunityBuilder;
@@ -31,6 +35,9 @@ import org.dspace.content.Relationship;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.discovery.SolrSearchCore;
+import org.dspace.handle.factory.HandleServiceFactory;
+import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
@@ -51,7 +58,10 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
 
     private ItemService itemService = ContentServiceFactory.getInstance().getItemService();
     private RelationshipService relationshipService = ContentServiceFactory.getInstance().getRelationshipService();
+    private HandleService handleService = HandleServiceFactory.getInstance().getHandleService();
     private ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+    private SolrSearchCore solrSearchCore = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServicesByType(SolrSearchCore.class).get(0);
     private Collection collection;
     private Path tempDir;
     private Path workDir;
@@ -254,6 +264,105 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkRelationship();
     }
 
+    @Test
+    public void importItemsBySafInParallel() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Collection collectionPerson = CollectionBuilder.createCollection(context, parentCommunity)
+                .withName("Collection Person")
+                .withEntityType("Person")
+                .build();
+        context.restoreAuthSystemState();
+        // create SAF with 5 publications and a person, the first publication has a bitstream and an author
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (int i = 0; i < 5; i++) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_00" + i));
+            Files.writeString(Path.of(itemDir.toString() + "/collections"),
+                    collection.getID().toString());
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+        }
+        Path publicationDir = Path.of(safDir.toString() + "/item_000");
+        Files.writeString(Path.of(publicationDir.toString() + "/contents"), "file1.txt");
+        Files.writeString(Path.of(publicationDir.toString() + "/file1.txt"), "TEST TEST TEST");
+        Files.writeString(Path.of(publicationDir.toString() + "/relationships"),
+                "relation.isAuthorOfPublication folderName:item_005");
+        Path personDir = Files.createDirectory(Path.of(safDir.toString() + "/item_005"));
+        Files.writeString(Path.of(personDir.toString() + "/collections"),
+                collectionPerson.getID().toString());
+        Files.copy(getClass().getResourceAsStream("dublin_core-person.xml"),
+                Path.of(personDir.toString() + "/dublin_core.xml"));
+
+        // the import threads only see committed collections
+        context.commit();
+        configurationService.setProperty("org.dspace.app.batchitemimport.threads", 3);
+        configurationService.setProperty("org.dspace.app.batchitemimport.batch.size", 2);
+        try {
+            String[] args = new String[] { "import", "-a", "-p", "-e", admin.getEmail(),
+                    "-s", safDir.toString(), "-m", tempDir.toString() + "/mapfile.out" };
+            perfomImportScript(args);
+        } finally {
+            configurationService.setProperty("org.dspace.app.batchitemimport.threads", null);
+            configurationService.setProperty("org.dspace.app.batchitemimport.batch.size", null);
+        }
+
+        Map<String, Item> imported = readMapFile(Path.of(tempDir.toString() + "/mapfile.out"));
+        assertEquals(6, imported.size());
+        for (Item item : imported.values()) {
+            assertTrue(item.isArchived());
+            assertEquals(1, countSearchResults(item));
+        }
+        Item publication = imported.get("item_000");
+        assertEquals(publicationTitle, publication.getName());
+        assertEquals(collection.getID(), publication.getOwningCollection().getID());
+        assertEquals("file1.txt", publication.getBundles("ORIGINAL").get(0).getBitstreams().get(0).getName());
+        List<Relationship> relationships = relationshipService.findByItem(context, publication);
+        assertEquals(1, relationships.size());
+        assertEquals(imported.get("item_005").getID(), relationships.get(0).getRightItem().getID());
+        assertEquals(collectionPerson.getID(), imported.get("item_005").getOwningCollection().getID());
+    }
+
+    @Test
+    public void resumeImportItemsBySafInParallel() throws Exception {
+        // create item
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection)
+                .withTitle(publicationTitle)
+                .build();
+        context.restoreAuthSystemState();
+        // create SAF with 3 items, the first of them already imported
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (int i = 0; i < 3; i++) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_00" + i));
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+        }
+        Path mapFile = Files.createFile(Path.of(tempDir.toString() + "/mapfile.out"));
+        Files.writeString(mapFile, "item_000 " + item.getHandle() + "\n");
+
+        // the import threads only see committed collections and items
+        context.commit();
+        configurationService.setProperty("org.dspace.app.batchitemimport.threads", 2);
+        try {
+            String[] args = new String[] { "import", "-a", "-R", "-e", admin.getEmail(),
+                    "-c", collection.getID().toString(), "-s", safDir.toString(),
+                    "-m", mapFile.toString() };
+            perfomImportScript(args);
+        } finally {
+            configurationService.setProperty("org.dspace.app.batchitemimport.threads", null);
+        }
+
+        Map<String, Item> imported = readMapFile(mapFile);
+        assertEquals(3, imported.size());
+        assertEquals(item.getID(), imported.get("item_000").getID());
+        Iterator<Item> items = itemService.findByMetadataField(context, "dc", "title", null, publicationTitle);
+        int count = 0;
+        while (items.hasNext()) {
+            items.next();
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
     @Test
     public void resumeImportItemBySafWithMetadataOnly() throws Exception {
         // create simple SAF
@@ -572,6 +681,32 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         assertEquals(item.getID(), relationships.get(0).getLeftItem().getID());
     }
 
+    /**
+     * Read the imported items from a mapfile
+     * @param mapFile the mapfile
+     * @return the items by item directory name
+     * @throws Exception
+     */
+    private Map<String, Item> readMapFile(Path mapFile) throws Exception {
+        Map<String, Item> items = new HashMap<>();
+        for (String line : Files.readAllLines(mapFile)) {
+            String[] parts = line.split(" ");
+            items.put(parts[0], (Item) handleService.resolveToObject(context, parts[1]));
+        }
+        return items;
+    }
+
+    /**
+     * Count the Discovery documents of an item
+     * @param item the item
+     * @return the number of documents found
+     * @throws Exception
+     */
+    private long countSearchResults(Item item) throws Exception {
+        SolrQuery query = new SolrQuery("search.resourcetype:Item AND search.resourceid:" + item.getID());
+        return solrSearchCore.getSolr().query(query).getResults().getNumFound();
+    }
+
     private void perfomImportScript(String[] args)
             throws Exception {
         runDSpaceScript(args);
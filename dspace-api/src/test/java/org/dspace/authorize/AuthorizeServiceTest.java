@@ -9,6 +9,9 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
@@ -18,11 +21,13 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.CollectionService;
 import org.dspace.content.service.CommunityService;
 import org.dspace.core.Constants;
+import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -127,6 +132,133 @@ public class AuthorizeServiceTest extends AbstractUnitTest {
             throw new AssertionError(ex);
         }
     }
+
+    @Test
+    public void testSharedAuthorizationCacheIsInvalidatedByGroupMembershipChanges() throws Exception {
+        AuthorizationCache authorizationCache = AuthorizeServiceFactory.getInstance().getAuthorizationCache();
+        DSpaceServicesFactory.getInstance().getConfigurationService()
+                             .setProperty("core.authorization.cache.enabled", true);
+        try {
+            context.turnOffAuthorisationSystem();
+            EPerson eperson = ePersonService.create(context);
+            Group group = groupService.create(context);
+            groupService.setName(group, "My test group 3");
+            Community dso = communityService.create(null, context);
+            authorizeService.addPolicy(context, dso, Constants.WRITE, group);
+            context.commit();
+            context.restoreAuthSystemState();
+
+            long misses = authorizationCache.getMisses();
+            long hits = authorizationCache.getHits();
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertTrue(authorizationCache.getMisses() > misses);
+            Assert.assertEquals(hits + 1, authorizationCache.getHits());
+
+            context.turnOffAuthorisationSystem();
+            group = context.reloadEntity(group);
+            eperson = context.reloadEntity(eperson);
+            groupService.addMember(context, group, eperson);
+            groupService.update(context, group);
+            context.restoreAuthSystemState();
+            // until the change is committed this context doesn't use the shared cache anymore
+            Assert.assertTrue(context.isAuthorizationChanged());
+            context.commit();
+            Assert.assertFalse(context.isAuthorizationChanged());
+
+            long invalidations = authorizationCache.getInvalidations();
+            Assert.assertTrue(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertTrue(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertEquals(invalidations, authorizationCache.getInvalidations());
+            Assert.assertEquals(hits + 2, authorizationCache.getHits());
+        } finally {
+            DSpaceServicesFactory.getInstance().getConfigurationService()
+                                 .setProperty("core.authorization.cache.enabled", false);
+        }
+    }
+
+    @Test
+    public void testSharedAuthorizationCacheIsInvalidatedPerObjectByPolicyChanges() throws Exception {
+        AuthorizationCache authorizationCache = AuthorizeServiceFactory.getInstance().getAuthorizationCache();
+        DSpaceServicesFactory.getInstance().getConfigurationService()
+                             .setProperty("core.authorization.cache.enabled", true);
+        try {
+            context.turnOffAuthorisationSystem();
+            EPerson eperson = ePersonService.create(context);
+            Community changed = communityService.create(null, context);
+            Community unchanged = communityService.create(null, context);
+            context.commit();
+            context.restoreAuthSystemState();
+
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, changed, Constants.WRITE,
+                                                                       true));
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, unchanged, Constants.WRITE,
+                                                                       true));
+
+            context.turnOffAuthorisationSystem();
+            changed = context.reloadEntity(changed);
+            eperson = context.reloadEntity(eperson);
+            authorizeService.addPolicy(context, changed, Constants.WRITE, eperson);
+            context.restoreAuthSystemState();
+            context.commit();
+
+            // only the decisions on the object of the new policy are invalidated
+            long hits = authorizationCache.getHits();
+            eperson = context.reloadEntity(eperson);
+            changed = context.reloadEntity(changed);
+            unchanged = context.reloadEntity(unchanged);
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, unchanged, Constants.WRITE,
+                                                                       true));
+            Assert.assertEquals(hits + 1, authorizationCache.getHits());
+            Assert.assertTrue(authorizeService.authorizeActionBoolean(context, eperson, changed, Constants.WRITE,
+                                                                      true));
+            Assert.assertEquals(hits + 1, authorizationCache.getHits());
+        } finally {
+            DSpaceServicesFactory.getInstance().getConfigurationService()
+                             .setProperty("core.authorization.cache.enabled", false);
+        }
+    }
+
+    @Test
+    public void testSharedAuthorizationCacheExpiresAtPolicyStartDate() throws Exception {
+        AuthorizationCache authorizationCache = AuthorizeServiceFactory.getInstance().getAuthorizationCache();
+        DSpaceServicesFactory.getInstance().getConfigurationService()
+                             .setProperty("core.authorization.cache.enabled", true);
+        try {
+            context.turnOffAuthorisationSystem();
+            EPerson eperson = ePersonService.create(context);
+            Community dso = communityService.create(null, context);
+            Date tomorrow = Date.from(LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            authorizeService.createResourcePolicy(context, dso, null, eperson, Constants.WRITE,
+                                                  ResourcePolicy.TYPE_CUSTOM, null, null, tomorrow, null);
+            context.commit();
+            context.restoreAuthSystemState();
+
+            // the denial is shared until the policy starts
+            long hits = authorizationCache.getHits();
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertFalse(authorizeService.authorizeActionBoolean(context, eperson, dso, Constants.WRITE, true));
+            Assert.assertEquals(hits + 1, authorizationCache.getHits());
+            Assert.assertNotNull(context.getAuthorizationExpiry());
+            Assert.assertFalse(context.getAuthorizationExpiry().after(tomorrow));
+
+            // and no longer once that date has passed
+            Context other = new Context();
+            try {
+                other.authorizationExpiresAt(new Date(System.currentTimeMillis() + 200));
+                String key = authorizationCache.getKey(other, dso, Constants.READ, "direct", eperson);
+                authorizationCache.put(other, key, true);
+                Assert.assertEquals(Boolean.TRUE, authorizationCache.get(other, key));
+                Thread.sleep(300);
+                Assert.assertNull(authorizationCache.get(other, key));
+            } finally {
+                other.abort();
+            }
+        } finally {
+            DSpaceServicesFactory.getInstance().getConfigurationService()
+                             .setProperty("core.authorization.cache.enabled", false);
+        }
+    }
 //
 //    @Test
 //    public void testIsCollectionAdmin() throws SQLException, AuthorizeException, IOException {
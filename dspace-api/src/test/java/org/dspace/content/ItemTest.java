@@ -186,6 +186,19 @@ public class ItemTest extends AbstractDSpaceObjectTest {
         assertThat("testItemFind 2", found.getName(), nullValue());
     }
 
+    /**
+     * Test of findByIdsForIndexing method, of class Item.
+     */
+    @Test
+    public void testFindByIdsForIndexing() throws Exception {
+        List<Item> found = itemService.findByIdsForIndexing(context, Arrays.asList(it.getID(), UUID.randomUUID()));
+        assertThat("testFindByIdsForIndexing 0", found.size(), equalTo(1));
+        assertThat("testFindByIdsForIndexing 1", found.get(0), equalTo(it));
+
+        assertTrue("testFindByIdsForIndexing 2",
+                   itemService.findByIdsForIndexing(context, new ArrayList<>()).isEmpty());
+    }
+
     /**
      * Test of create method, of class Item.
      */
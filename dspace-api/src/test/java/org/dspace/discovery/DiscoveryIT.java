@@ -8,11 +8,15 @@
 package org.dspace.discovery;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
@@ -39,6 +43,8 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.CollectionService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.WorkspaceItemService;
+import org.dspace.discovery.dao.IndexingQueueDAO;
+import org.dspace.discovery.dao.IndexingTombstoneDAO;
 import org.dspace.discovery.indexobject.IndexableClaimedTask;
 import org.dspace.discovery.indexobject.IndexableCollection;
 import org.dspace.discovery.indexobject.IndexableItem;
@@ -83,6 +89,13 @@ public class DiscoveryIT extends AbstractIntegrationTestWithDatabase {
 
     ItemService itemService = ContentServiceFactory.getInstance().getItemService();
 
+    IndexingQueueService indexingQueueService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                   .getServiceByName(IndexingQueueService.class.getName(),
+                                                                     IndexingQueueService.class);
+
+    IncrementalIndexingService incrementalIndexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName(IncrementalIndexingService.class.getName(), IncrementalIndexingService.class);
+
     IndexingService indexer = DSpaceServicesFactory.getInstance().getServiceManager()
                                                    .getServiceByName(IndexingService.class.getName(),
                                                                      IndexingService.class);
@@ -731,6 +744,185 @@ public class DiscoveryIT extends AbstractIntegrationTestWithDatabase {
         }
     }
 
+    @Test
+    public void parallelRebuildIndexTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        for (int i = 0; i < 25; i++) {
+            ItemBuilder.createItem(context, collection)
+                .withTitle("item number " + i)
+                .build();
+        }
+        // the worker threads use their own database connections, so they only see committed objects
+        context.commit();
+        context.restoreAuthSystemState();
+
+        indexer.deleteIndex();
+        indexer.commit();
+        assertSearchQuery(IndexableItem.TYPE, 0);
+
+        configurationService.setProperty("discovery.index.parallel.batchSize", 4);
+        String[] args = new String[] {"index-discovery", "-b", "-t", "3"};
+        TestDSpaceRunnableHandler testDSpaceRunnableHandler = new TestDSpaceRunnableHandler();
+        ScriptLauncher
+                .handleScript(args, ScriptLauncher.getConfig(kernelImpl), testDSpaceRunnableHandler, kernelImpl);
+
+        assertSearchQuery(IndexableItem.TYPE, 25, 25, 0, 30);
+        assertSearchQuery(IndexableCollection.TYPE, 1);
+    }
+
+    @Test
+    public void parallelRebuildIndexInvalidThreadsTest() throws Exception {
+        String[][] invalidArgs = new String[][] {
+            {"index-discovery", "-b", "-t", "many"},
+            {"index-discovery", "-b", "-t", "0"},
+            {"index-discovery", "-t", "2"}
+        };
+        for (String[] args : invalidArgs) {
+            TestDSpaceRunnableHandler testDSpaceRunnableHandler = new TestDSpaceRunnableHandler();
+            assertEquals(1, ScriptLauncher.handleScript(args, ScriptLauncher.getConfig(kernelImpl),
+                                                        testDSpaceRunnableHandler, kernelImpl));
+        }
+    }
+
+    @Test
+    public void asyncIndexingQueueTest() throws Exception {
+        configurationService.setProperty("discovery.index.async", true);
+        configurationService.setProperty("discovery.index.async.coalesce-window", 0);
+
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        Item item = ItemBuilder.createItem(context, collection)
+            .withTitle("queued item")
+            .build();
+        itemService.addMetadata(context, item, "dc", "subject", null, null, "updated");
+        itemService.update(context, item);
+        context.commit();
+        context.restoreAuthSystemState();
+
+        // nothing has been indexed yet, the updates of the item are waiting in the queue
+        assertSearchQuery(IndexableItem.TYPE, 0);
+        assertTrue(indexingQueueService.getQueueSize(context) > 0);
+
+        assertTrue(indexingQueueService.processQueue(context) > 0);
+        assertEquals(0, indexingQueueService.getQueueSize(context));
+        assertSearchQuery(IndexableItem.TYPE, 1);
+        assertSearchQuery(IndexableCollection.TYPE, 1);
+
+        ItemBuilder.deleteItem(item.getID());
+
+        assertTrue(indexingQueueService.getQueueSize(context) > 0);
+        assertTrue(indexingQueueService.processQueue(context) > 0);
+        assertSearchQuery(IndexableItem.TYPE, 0);
+    }
+
+    @Test
+    public void asyncIndexingQueueRetryTest() throws Exception {
+        configurationService.setProperty("discovery.index.async", true);
+        configurationService.setProperty("discovery.index.async.coalesce-window", 0);
+
+        // there is no index factory for this type, so the object can't be unindexed
+        indexingQueueService.enqueueDelete(context, "Unknown-1");
+        context.commit();
+        try {
+            assertEquals(0, indexingQueueService.processQueue(context));
+            // the failed object stays queued to be retried on the next run
+            assertEquals(1, indexingQueueService.getQueueSize(context));
+            assertEquals(0, indexingQueueService.processQueue(context));
+            assertEquals(1, indexingQueueService.getQueueSize(context));
+        } finally {
+            IndexingQueueDAO indexingQueueDAO = DSpaceServicesFactory.getInstance().getServiceManager()
+                .getServicesByType(IndexingQueueDAO.class).get(0);
+            indexingQueueDAO.deleteByUniqueIndexIds(context, List.of("Unknown-1"),
+                                                    new Date(System.currentTimeMillis() + 60000));
+            context.commit();
+        }
+    }
+
+    @Test
+    public void incrementalIndexTest() throws Exception {
+        File watermark = File.createTempFile("incremental-index", ".watermark");
+        watermark.delete();
+        configurationService.setProperty("discovery.index.incremental", true);
+        configurationService.setProperty("discovery.index.incremental.watermark", watermark.getAbsolutePath());
+        configurationService.setProperty("discovery.index.incremental.overlap", 0);
+        try {
+            context.turnOffAuthorisationSystem();
+            Community community = CommunityBuilder.createCommunity(context).build();
+            Collection collection = CollectionBuilder.createCollection(context, community).build();
+            Item item = ItemBuilder.createItem(context, collection)
+                .withTitle("unchanged item")
+                .build();
+            Item deletedItem = ItemBuilder.createItem(context, collection)
+                .withTitle("deleted item")
+                .build();
+            context.commit();
+            context.restoreAuthSystemState();
+
+            // without a watermark, the first run indexes everything
+            indexer.deleteIndex();
+            indexer.commit();
+            assertSearchQuery(IndexableItem.TYPE, 0);
+            assertTrue(incrementalIndexingService.updateIndex(context) >= 4);
+            assertNotNull(incrementalIndexingService.getWatermark());
+            assertSearchQuery(IndexableItem.TYPE, 2);
+            assertSearchQuery(IndexableCollection.TYPE, 1);
+
+            // nothing changed since the previous run
+            assertEquals(0, incrementalIndexingService.updateIndex(context));
+
+            // changes which don't reach the index (e.g. during a Solr outage)
+            configurationService.setProperty("discovery.index.async", true);
+            context.turnOffAuthorisationSystem();
+            item = context.reloadEntity(item);
+            itemService.replaceMetadata(context, item, "dc", "title", null, null, "changed item", null, -1, 0);
+            itemService.update(context, item);
+            context.commit();
+            deleteItem(deletedItem);
+            DiscoverQuery discoverQuery = new DiscoverQuery();
+            discoverQuery.setQuery("dc.title:\"changed item\"");
+            assertEquals(0, searchService.search(context, discoverQuery).getTotalSearchResults());
+
+            // only the changed and the deleted item are processed
+            assertEquals(2, incrementalIndexingService.updateIndex(context));
+            assertSearchQuery(IndexableItem.TYPE, 1);
+            assertEquals(1, searchService.search(context, discoverQuery).getTotalSearchResults());
+            assertEquals(0, incrementalIndexingService.updateIndex(context));
+
+            indexingQueueService.processQueue(context);
+        } finally {
+            watermark.delete();
+        }
+    }
+
+    @Test
+    public void incrementalIndexKeepsFailedTombstonesTest() throws Exception {
+        File watermark = File.createTempFile("incremental-index", ".watermark");
+        watermark.delete();
+        configurationService.setProperty("discovery.index.incremental", true);
+        configurationService.setProperty("discovery.index.incremental.watermark", watermark.getAbsolutePath());
+        IndexingTombstoneDAO indexingTombstoneDAO = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServicesByType(IndexingTombstoneDAO.class).get(0);
+        try {
+            // there is no index factory for this type, so the object can't be removed from the index
+            incrementalIndexingService.addTombstone(context, "Unknown-1");
+            context.commit();
+
+            incrementalIndexingService.updateIndex(context);
+            // the tombstone is kept to be retried on the next run, and so is the watermark
+            assertEquals(List.of("Unknown-1"),
+                         indexingTombstoneDAO.findUniqueIndexIdsDeletedBefore(context, new Date()));
+            assertNull(incrementalIndexingService.getWatermark());
+        } finally {
+            indexingTombstoneDAO.deleteByUniqueIndexIds(context, List.of("Unknown-1"),
+                                                        new Date(System.currentTimeMillis() + 60000));
+            context.commit();
+            watermark.delete();
+        }
+    }
+
     private void assertSearchQuery(String resourceType, int size) throws SearchServiceException {
         assertSearchQuery(resourceType, size, size, 0, -1);
     }
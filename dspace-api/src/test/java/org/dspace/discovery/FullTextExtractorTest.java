@@ -0,0 +1,145 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Item;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FullTextExtractorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @InjectMocks
+    private FullTextExtractor fullTextExtractor;
+
+    @Mock
+    private ConfigurationService configurationService;
+
+    @Mock
+    private BitstreamService bitstreamService;
+
+    @Mock
+    private Item item;
+
+    @Mock
+    private Bundle textBundle;
+
+    @Mock
+    private Bitstream textBitstream1;
+
+    @Mock
+    private Bitstream textBitstream2;
+
+    @Before
+    public void setUp() throws Exception {
+        when(item.getBundles()).thenReturn(Arrays.asList(textBundle));
+        when(textBundle.getName()).thenReturn("TEXT");
+        when(textBundle.getBitstreams()).thenReturn(Arrays.asList(textBitstream1, textBitstream2));
+        when(bitstreamService.retrieve(null, textBitstream1))
+            .thenAnswer(invocation -> new ByteArrayInputStream("This is text 1".getBytes(StandardCharsets.UTF_8)));
+        when(bitstreamService.retrieve(null, textBitstream2))
+            .thenAnswer(invocation -> new ByteArrayInputStream("This is text 2".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private FullTextContentStreams getStreams() throws Exception {
+        FullTextContentStreams streams = new FullTextContentStreams(null, item);
+        streams.bitstreamService = bitstreamService;
+        return streams;
+    }
+
+    @Test
+    public void testAllText() throws Exception {
+        when(configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000)).thenReturn(100000);
+        SolrInputDocument doc = new SolrInputDocument();
+
+        fullTextExtractor.addFullText(doc, getStreams());
+
+        String fullText = (String) doc.getFieldValue("fulltext");
+        assertTrue(fullText.contains("This is text 1"));
+        assertTrue(fullText.contains("This is text 2"));
+        assertEquals(0, fullTextExtractor.getTruncations());
+        assertEquals(28, fullTextExtractor.getBytesRead());
+    }
+
+    @Test
+    public void testCharLimit() throws Exception {
+        when(configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000)).thenReturn(20);
+        SolrInputDocument doc = new SolrInputDocument();
+
+        fullTextExtractor.addFullText(doc, getStreams());
+
+        String fullText = (String) doc.getFieldValue("fulltext");
+        assertEquals(20, fullText.length());
+        assertTrue(fullText.contains("This is text 1"));
+        assertEquals(1, fullTextExtractor.getTruncations());
+        assertEquals(20, fullTextExtractor.getCharsExtracted());
+    }
+
+    @Test
+    public void testCharLimitFilledExactly() throws Exception {
+        when(configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000)).thenReturn(100000);
+        SolrInputDocument doc = new SolrInputDocument();
+        fullTextExtractor.addFullText(doc, getStreams());
+        String allText = (String) doc.getFieldValue("fulltext");
+
+        when(configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000))
+            .thenReturn(allText.length());
+        SolrInputDocument limitedDoc = new SolrInputDocument();
+        fullTextExtractor.addFullText(limitedDoc, getStreams());
+
+        assertEquals(allText, limitedDoc.getFieldValue("fulltext"));
+        assertEquals(0, fullTextExtractor.getTruncations());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        when(configurationService.getIntProperty("discovery.solr.fulltext.charLimit", 100000)).thenReturn(100000);
+        when(configurationService.getProperty("discovery.solr.fulltext.cache.dir"))
+            .thenReturn(temporaryFolder.getRoot().getAbsolutePath());
+        when(textBitstream1.getChecksum()).thenReturn("0123456789abcdef");
+        when(textBitstream1.getChecksumAlgorithm()).thenReturn("MD5");
+        when(textBitstream2.getChecksum()).thenReturn("fedcba9876543210");
+        when(textBitstream2.getChecksumAlgorithm()).thenReturn("MD5");
+
+        SolrInputDocument doc = new SolrInputDocument();
+        fullTextExtractor.addFullText(doc, getStreams());
+        SolrInputDocument cachedDoc = new SolrInputDocument();
+        fullTextExtractor.addFullText(cachedDoc, getStreams());
+
+        assertEquals(doc.getFieldValue("fulltext"), cachedDoc.getFieldValue("fulltext"));
+        assertEquals(2, fullTextExtractor.getCacheMisses());
+        assertEquals(2, fullTextExtractor.getCacheHits());
+        // the bitstreams were only read the first time
+        verify(bitstreamService, times(1)).retrieve(null, textBitstream1);
+        verify(bitstreamService, times(1)).retrieve(null, textBitstream2);
+    }
+}
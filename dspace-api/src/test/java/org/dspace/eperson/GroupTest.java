@@ -345,6 +345,49 @@ public class GroupTest extends AbstractUnitTest {
         assertFalse("isMemberGroup 6", groupService.isParentOf(context, level2Group, topGroup));
     }
 
+    @Test
+    public void isSubgroupOfAfterHierarchyChanges() throws SQLException, AuthorizeException, IOException {
+        Group level3Group = createGroup("level3Group");
+        try {
+            groupService.addMember(context, level2Group, level3Group);
+            groupService.update(context, level2Group);
+            assertTrue(groupService.isParentOf(context, topGroup, level3Group));
+            assertTrue(groupService.isParentOf(context, level1Group, level3Group));
+
+            // removing an edge removes the relations of all ancestors with all descendants
+            groupService.removeMember(context, topGroup, level1Group);
+            groupService.update(context, topGroup);
+            assertFalse(groupService.isParentOf(context, topGroup, level1Group));
+            assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+            assertFalse(groupService.isParentOf(context, topGroup, level3Group));
+            assertTrue(groupService.isParentOf(context, level1Group, level3Group));
+
+            // a descendant which can still be reached through another subgroup keeps its relation
+            groupService.addMember(context, topGroup, level1Group);
+            groupService.addMember(context, topGroup, level3Group);
+            groupService.update(context, topGroup);
+            groupService.removeMember(context, topGroup, level1Group);
+            groupService.update(context, topGroup);
+            assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+            assertTrue(groupService.isParentOf(context, topGroup, level3Group));
+
+            groupService.addMember(context, topGroup, level1Group);
+            groupService.update(context, topGroup);
+            assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+
+            // deleting an intermediate group removes the relations which went through it
+            groupService.removeMember(context, topGroup, level3Group);
+            groupService.update(context, topGroup);
+            groupService.delete(context, level2Group);
+            level2Group = null;
+            assertTrue(groupService.isParentOf(context, topGroup, level1Group));
+            assertFalse(groupService.isParentOf(context, topGroup, level3Group));
+            assertFalse(groupService.isParentOf(context, level1Group, level3Group));
+        } finally {
+            groupService.delete(context, level3Group);
+        }
+    }
+
     @Test
     public void isMemberEPerson() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         EPerson ePerson = null;
@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import com.maxmind.geoip2.DatabaseReader;
+import com.maxmind.geoip2.exception.AddressNotFoundException;
+import com.maxmind.geoip2.model.CityResponse;
+import org.dspace.services.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Unit tests for {@link IpLookupService}.
+ */
+public class IpLookupServiceTest {
+
+    private IpLookupService ipLookupService;
+
+    @Before
+    public void setUp() {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getIntProperty(anyString(), anyInt()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        ipLookupService = new IpLookupService();
+        ipLookupService.configurationService = configurationService;
+        ipLookupService.setCacheManager(new ConcurrentMapCacheManager(IpLookupService.DNS_CACHE,
+                                                                      IpLookupService.DNS_NEGATIVE_CACHE,
+                                                                      IpLookupService.GEOIP_CACHE));
+    }
+
+    @After
+    public void tearDown() {
+        ipLookupService.destroy();
+    }
+
+    @Test
+    public void testHostNameIsCached() throws Exception {
+        String first = ipLookupService.getHostName("127.0.0.1");
+        assertNotNull(first);
+        // the lookup may still be running in the background if it took longer than the timeout
+        for (int i = 0; i < 50 && ipLookupService.getStatistics().get("dnsLookups") == 0; i++) {
+            Thread.sleep(100);
+        }
+        String second = ipLookupService.getHostName("127.0.0.1");
+        assertNotNull(second);
+        assertEquals(1L, (long) ipLookupService.getStatistics().get("dnsMisses"));
+        assertEquals(1L, (long) ipLookupService.getStatistics().get("dnsHits"));
+    }
+
+    @Test(expected = UnknownHostException.class)
+    public void testHostNamesAreNotResolved() throws Exception {
+        ipLookupService.getHostName("www.dspace.org");
+    }
+
+    @Test
+    public void testLocationIsCached() throws Exception {
+        DatabaseReader reader = mock(DatabaseReader.class);
+        CityResponse location = mock(CityResponse.class);
+        when(reader.city(InetAddress.getByName("192.168.1.1"))).thenReturn(location);
+        when(reader.city(InetAddress.getByName("192.168.1.2"))).thenThrow(new AddressNotFoundException("unknown"));
+
+        assertSame(location, ipLookupService.getLocation(reader, "192.168.1.1"));
+        assertSame(location, ipLookupService.getLocation(reader, "192.168.1.1"));
+        assertNull(ipLookupService.getLocation(reader, "192.168.1.2"));
+        assertNull(ipLookupService.getLocation(reader, "192.168.1.2"));
+
+        verify(reader, times(2)).city(any(InetAddress.class));
+        assertEquals(2L, (long) ipLookupService.getStatistics().get("geoIpHits"));
+        assertEquals(2L, (long) ipLookupService.getStatistics().get("geoIpMisses"));
+    }
+}
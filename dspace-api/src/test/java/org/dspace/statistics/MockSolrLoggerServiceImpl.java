@@ -91,6 +91,7 @@ public class MockSolrLoggerServiceImpl
 
     @Override
     public void destroy() throws Exception {
+        super.destroy();
         mockSolrServer.destroy();
     }
 }
@@ -0,0 +1,105 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.SolrLoggerService;
+import org.dspace.utils.DSpace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the maintenance of existing usage events by {@link SolrLoggerServiceImpl}.
+ */
+public class SolrLoggerServiceImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private final SolrLoggerService solrLoggerService = StatisticsServiceFactory.getInstance().getSolrLoggerService();
+
+    private final ConfigurationService configurationService
+        = DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private SolrClient solr;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        solr = new DSpace().getSingletonService(SolrStatisticsCore.class).getSolr();
+        // several pages for a handful of documents
+        configurationService.setProperty("solr-statistics.maintenance.batch-size", 2);
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("solr-statistics.maintenance.batch-size", null);
+        super.destroy();
+    }
+
+    @Test
+    public void testMarkRobotByUserAgent() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            addSolrDocument("view_" + i, "TestBot");
+        }
+        addSolrDocument("view_browser", "Firefox");
+        solr.commit();
+
+        solrLoggerService.markRobotByUserAgent("TestBot");
+
+        assertEquals(5, count("isBot:true"));
+        assertEquals(1, count("-isBot:true"));
+        assertEquals(6, count("*:*"));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            addSolrDocument("view_" + i, "TestBot");
+        }
+        addSolrDocument("view_browser", "Firefox");
+        solr.commit();
+
+        solrLoggerService.update("userAgent:TestBot", "replace", List.of("dns"), List.of(List.of("bot.example.org")));
+
+        assertEquals(5, count("dns:bot.example.org"));
+        // the updated documents replace the originals
+        assertEquals(6, count("*:*"));
+        SolrDocument browser = solr.query(new SolrQuery("id:view_browser")).getResults().get(0);
+        assertEquals("browser.example.org", browser.getFirstValue("dns"));
+    }
+
+    private void addSolrDocument(String id, String userAgent) throws IOException, SolrServerException {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", id);
+        document.addField("type", 2);
+        document.addField("ip", "127.0.0.1");
+        document.addField("dns", "browser.example.org");
+        document.addField("userAgent", userAgent);
+        document.addField("time", new Date());
+        solr.add(document);
+    }
+
+    private long count(String query) throws IOException, SolrServerException {
+        return solr.query(new SolrQuery(query)).getResults().getNumFound();
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link UsageRecordQueue}.
+ */
+public class UsageRecordQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testRecordsAreSentInBatches() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        UsageRecordQueue queue = new UsageRecordQueue(records -> {
+            batchSizes.add(records.size());
+            collect(records);
+        }, 100, 10, UsageRecordQueue.WhenFull.DROP, 0, null, 0);
+
+        for (int i = 0; i < 25; i++) {
+            queue.offer(record(i));
+        }
+        queue.shutdown(10000);
+
+        assertEquals(25, sent.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(25L, (long) queue.getStatistics().get("sent"));
+        assertEquals(0L, (long) queue.getStatistics().get("dropped"));
+    }
+
+    @Test
+    public void testRecordsAreDroppedWhenFull() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UsageRecordQueue queue = new UsageRecordQueue(records -> {
+            sending.countDown();
+            release.await();
+            collect(records);
+        }, 2, 1, UsageRecordQueue.WhenFull.DROP, 0, null, 0);
+
+        // the first record is taken by the worker, which then blocks
+        queue.offer(record(0));
+        assertTrue(sending.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i <= 4; i++) {
+            queue.offer(record(i));
+        }
+        release.countDown();
+        queue.shutdown(10000);
+
+        assertEquals(List.of("0", "1", "2"), sent);
+        assertEquals(3L, (long) queue.getStatistics().get("queued"));
+        assertEquals(2L, (long) queue.getStatistics().get("dropped"));
+    }
+
+    @Test
+    public void testFailedRecordsAreSpilledAndSentAgain() throws Exception {
+        File spillDir = folder.newFolder("spill");
+        UsageRecordQueue failing = new UsageRecordQueue(records -> {
+            throw new IOException("Solr is down");
+        }, 100, 10, UsageRecordQueue.WhenFull.SPILL, 0, spillDir, 0);
+        for (int i = 0; i < 5; i++) {
+            failing.offer(record(i));
+        }
+        failing.shutdown(10000);
+        assertEquals(5L, (long) failing.getStatistics().get("spilled"));
+        assertEquals(0L, (long) failing.getStatistics().get("failed"));
+
+        // a new queue, e.g. after a restart, sends the spilled records when it has nothing else to do
+        UsageRecordQueue queue = new UsageRecordQueue(this::collect, 100, 10, UsageRecordQueue.WhenFull.SPILL, 0,
+                                                      spillDir, 0);
+        for (int i = 0; i < 100 && sent.size() < 5; i++) {
+            Thread.sleep(100);
+        }
+        queue.shutdown(10000);
+
+        assertEquals(List.of("0", "1", "2", "3", "4"), sent);
+        assertEquals(0, spillDir.list().length);
+    }
+
+    @Test
+    public void testUnreadableSpilledRecordsAreSkipped() throws Exception {
+        File spillDir = folder.newFolder("spill");
+        try (DataOutputStream out = new DataOutputStream(
+            new FileOutputStream(new File(spillDir, "usage-records.spill")))) {
+            writeObject(out, record(0));
+            // only the classes of a usage record are deserialized
+            writeObject(out, new File("unexpected"));
+            writeObject(out, record(1));
+        }
+
+        UsageRecordQueue queue = new UsageRecordQueue(this::collect, 100, 10, UsageRecordQueue.WhenFull.SPILL, 0,
+                                                      spillDir, 0);
+        for (int i = 0; i < 100 && sent.size() < 2; i++) {
+            Thread.sleep(100);
+        }
+        queue.shutdown(10000);
+
+        assertEquals(List.of("0", "1"), sent);
+        assertEquals(1L, (long) queue.getStatistics().get("failed"));
+        assertEquals(0, spillDir.list().length);
+    }
+
+    private void writeObject(DataOutputStream out, Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(object);
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private void collect(List<UsageRecord> records) {
+        for (UsageRecord record : records) {
+            sent.add((String) record.getDocument().getFieldValue("id"));
+        }
+    }
+
+    private UsageRecord record(int id) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", String.valueOf(id));
+        document.addField("time", new Date());
+        document.addField("owningComm", "1");
+        document.addField("owningComm", "2");
+        UsageRecord record = new UsageRecord(document);
+        record.setClient("127.0.0.1", "127.0.0.1", null, null, "Firefox");
+        return record;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.statistics.dao.UsageRollupDAO;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.utils.DSpace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the aggregation of usage events by {@link UsageRollupServiceImpl}.
+ */
+public class UsageRollupServiceIT extends AbstractIntegrationTestWithDatabase {
+
+    private final UsageRollupService usageRollupService
+        = StatisticsServiceFactory.getInstance().getUsageRollupService();
+
+    private final UsageRollupDAO usageRollupDAO
+        = new DSpace().getServiceManager().getServicesByType(UsageRollupDAO.class).get(0);
+
+    private SolrClient solr;
+
+    private Item item;
+    private Bitstream bitstream;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        solr = new DSpace().getSingletonService(SolrStatisticsCore.class).getSolr();
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        item = ItemBuilder.createItem(context, collection).withTitle("Rollup item").build();
+        bitstream = BitstreamBuilder.createBitstream(context, item,
+                                                     new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)))
+                                    .withName("rollup.txt").build();
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int days = 0; days <= 3; days++) {
+            usageRollupDAO.deleteByRollupDate(context, toDate(today.minusDays(days)));
+        }
+        context.commit();
+        super.destroy();
+    }
+
+    @Test
+    public void testRollup() throws Exception {
+        addView(item.getID(), Constants.ITEM, null, "US", 3);
+        addView(item.getID(), Constants.ITEM, null, "US", 3);
+        addView(item.getID(), Constants.ITEM, null, "BE", 2);
+        addView(item.getID(), Constants.ITEM, null, "BE", 1);
+        addView(bitstream.getID(), Constants.BITSTREAM, item.getID(), "BE", 3);
+        addSearch(3);
+        // not aggregated yet
+        addView(item.getID(), Constants.ITEM, null, "US", 0);
+        solr.commit();
+
+        assertEquals(3, usageRollupService.rollup(context));
+        assertEquals(LocalDate.now(ZoneOffset.UTC).minusDays(1), usageRollupService.getLastRollupDate(context));
+
+        assertEquals(5, usageRollupService.getViews(context, item));
+        assertEquals(1, usageRollupService.getViews(context, bitstream));
+
+        List<ObjectCount> countries = usageRollupService.getViewsPerCountry(context, item, 10);
+        assertEquals(2, countries.size());
+        assertEquals("US", countries.get(0).getValue());
+        assertEquals(3, countries.get(0).getCount());
+        assertEquals("BE", countries.get(1).getValue());
+        assertEquals(2, countries.get(1).getCount());
+
+        List<ObjectCount> bitstreams = usageRollupService.getBitstreamViews(context, item, 10);
+        assertEquals(1, bitstreams.size());
+        assertEquals(bitstream.getID().toString(), bitstreams.get(0).getValue());
+        assertEquals(1, bitstreams.get(0).getCount());
+
+        List<ObjectCount> months = usageRollupService.getViewsPerMonth(context, item, 6);
+        assertEquals(7, months.size());
+        assertEquals(5, months.stream().mapToLong(ObjectCount::getCount).sum());
+
+        // aggregating again replaces the rollups of the last day instead of counting its views twice
+        assertEquals(1, usageRollupService.rollup(context));
+        assertEquals(5, usageRollupService.getViews(context, item));
+    }
+
+    @Test
+    public void testRollupAfterMarkingBots() throws Exception {
+        addView(item.getID(), Constants.ITEM, null, "US", 2);
+        SolrInputDocument bot = createView(item.getID(), Constants.ITEM, null, "US", 2);
+        bot.addField("userAgent", "RollupBot");
+        solr.add(bot);
+        solr.commit();
+
+        assertEquals(2, usageRollupService.rollup(context));
+        assertEquals(2, usageRollupService.getViews(context, item));
+
+        Set<LocalDate> days = usageRollupService.getAggregatedDays(context, List.of("userAgent:RollupBot"));
+        assertEquals(Set.of(LocalDate.now(ZoneOffset.UTC).minusDays(2)), days);
+        StatisticsServiceFactory.getInstance().getSolrLoggerService().markRobotByUserAgent("RollupBot");
+        // the rollups keep counting the bot until its day is aggregated again
+        assertEquals(2, usageRollupService.getViews(context, item));
+
+        assertEquals(1, usageRollupService.rollup(context, days));
+        assertEquals(1, usageRollupService.getViews(context, item));
+        assertEquals(Set.of(), usageRollupService.getAggregatedDays(context, List.of("userAgent:RollupBot")));
+    }
+
+    private void addView(UUID id, int type, UUID owningItem, String countryCode, int daysAgo)
+        throws IOException, SolrServerException {
+        solr.add(createView(id, type, owningItem, countryCode, daysAgo));
+    }
+
+    private SolrInputDocument createView(UUID id, int type, UUID owningItem, String countryCode, int daysAgo) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", id.toString());
+        document.addField("type", type);
+        if (owningItem != null) {
+            document.addField("owningItem", owningItem.toString());
+            document.addField("bundleName", "ORIGINAL");
+        }
+        document.addField("countryCode", countryCode);
+        document.addField("statistics_type", SolrLoggerServiceImpl.StatisticsType.VIEW.text());
+        document.addField("uid", UUID.randomUUID().toString());
+        document.addField("time", Date.from(new Date().toInstant().minus(daysAgo, ChronoUnit.DAYS)));
+        return document;
+    }
+
+    private void addSearch(int daysAgo) throws IOException, SolrServerException {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("query", "rollup");
+        document.addField("statistics_type", SolrLoggerServiceImpl.StatisticsType.SEARCH.text());
+        document.addField("uid", UUID.randomUUID().toString());
+        document.addField("time", Date.from(new Date().toInstant().minus(daysAgo, ChronoUnit.DAYS)));
+        solr.add(document);
+    }
+
+    private Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -10,6 +10,7 @@ package org.dspace.statistics.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Set;
 
@@ -163,6 +164,74 @@ public class IPTableTest {
         assertFalse("Range should not contain value above upper limit", instance.contains("192.168.2.0"));
     }
 
+    @Test
+    public void testOverlappingRangesContains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.0.0.0/24");
+        instance.add("10.0.0.128-10.0.1.10");
+        instance.add("10.0.1.11");
+        instance.add("10.0.3");
+
+        assertTrue(instance.contains("10.0.0.0"));
+        assertTrue(instance.contains("10.0.1.5"));
+        assertTrue(instance.contains("10.0.1.11"));
+        assertFalse(instance.contains("10.0.1.12"));
+        assertFalse(instance.contains("10.0.2.255"));
+        assertTrue(instance.contains("10.0.3.255"));
+        assertFalse(instance.contains("9.255.255.255"));
+        // adjacent and overlapping ranges are merged
+        assertEquals("10.0.0.0-10.0.1.11, 10.0.3.0-10.0.3.255", instance.toString());
+    }
+
+    @Test
+    public void testIPv6Contains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("2001:db8::/32");
+        instance.add("fe80::1");
+        instance.add("2001:db9::10 - 2001:db9::20");
+
+        assertTrue(instance.contains("2001:db8::1"));
+        assertTrue(instance.contains("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertFalse(instance.contains("2001:db7:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue(instance.contains("fe80:0:0:0:0:0:0:1"));
+        assertFalse(instance.contains("fe80::2"));
+        assertTrue(instance.contains("2001:db9::15"));
+        assertFalse(instance.contains("2001:db9::21"));
+        // IPv4 addresses don't match IPv6 ranges
+        assertFalse(instance.contains("32.1.13.184"));
+        assertTrue(instance.toSet().contains("fe80:0:0:0:0:0:0:1"));
+    }
+
+    @Test
+    public void testAddBadFormat() {
+        IPTable instance = new IPTable();
+        try {
+            instance.add("10.0.0.0/33");
+            fail("A prefix longer than the address should raise an exception.");
+        } catch (IPFormatException e) {
+            // expected
+        }
+        try {
+            instance.add("10.0.0.1-fe80::1");
+            fail("A range mixing IPv4 and IPv6 should raise an exception.");
+        } catch (IPFormatException e) {
+            // expected
+        }
+        assertTrue(instance.isEmpty());
+    }
+
+    @Test
+    public void testParseIPv4() {
+        assertEquals(0x7f000001L, IPTable.parseIPv4(LOCALHOST));
+        assertEquals(0xffffffffL, IPTable.parseIPv4("255.255.255.255"));
+        assertEquals(-1, IPTable.parseIPv4("256.1.1.1"));
+        assertEquals(-1, IPTable.parseIPv4("1.2.3"));
+        assertEquals(-1, IPTable.parseIPv4("1.2.3.4.5"));
+        assertEquals(-1, IPTable.parseIPv4("1..2.3"));
+        assertEquals(-1, IPTable.parseIPv4("fe80::1"));
+        assertEquals(-1, IPTable.parseIPv4(""));
+    }
+
     /**
      * Test of isEmpty method, of class IPTable.
      * @throws java.lang.Exception passed through.
@@ -0,0 +1,77 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MultiPatternMatcher}.
+ */
+public class MultiPatternMatcherTest {
+
+    @Test
+    public void testLiterals() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("bot", "crawler", "Java\\/", "he", "she"), false);
+        assertEquals(5, matcher.size());
+        assertTrue(matcher.matches("msnbot is watching you"));
+        assertTrue(matcher.matches("Java/1.8.0"));
+        // overlapping literals, requires following the failure links
+        assertTrue(matcher.matches("ushe"));
+        assertTrue(matcher.matches("webcrawler"));
+        assertFalse(matcher.matches("Java1.8.0"));
+        assertFalse(matcher.matches("Firefox"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testRegularExpressions() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+            List.of("^Mozilla/4\\.0$", "[Ss]pider\\d", "(a)\\1b", "foo|bar"), false);
+        assertEquals(4, matcher.size());
+        assertTrue(matcher.matches("Mozilla/4.0"));
+        assertFalse(matcher.matches("Mozilla/4.0 (compatible)"));
+        assertTrue(matcher.matches("Spider7"));
+        assertTrue(matcher.matches("xaab"));
+        assertFalse(matcher.matches("xab"));
+        assertTrue(matcher.matches("a bar"));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("MSNBot", "\\D+crawl"), true);
+        assertTrue(matcher.matches("msnbot is watching you"));
+        assertTrue(matcher.matches("WebCRAWLer"));
+        assertFalse(new MultiPatternMatcher(List.of("MSNBot"), false).matches("msnbot"));
+    }
+
+    @Test
+    public void testInvalidPatternsAreIgnored() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("bot", "[unclosed", "", "(?<n>x)y"), false);
+        assertEquals(2, matcher.size());
+        assertTrue(matcher.matches("robot"));
+        assertTrue(matcher.matches("xy"));
+        assertFalse(matcher.matches("[unclosed"));
+    }
+
+    @Test
+    public void testToLiteral() {
+        assertEquals("Java/", MultiPatternMatcher.toLiteral("Java\\/"));
+        assertEquals("a.b", MultiPatternMatcher.toLiteral("a\\.b"));
+        assertNull(MultiPatternMatcher.toLiteral("a.b"));
+        assertNull(MultiPatternMatcher.toLiteral("\\d"));
+        assertNull(MultiPatternMatcher.toLiteral("trailing\\"));
+    }
+}
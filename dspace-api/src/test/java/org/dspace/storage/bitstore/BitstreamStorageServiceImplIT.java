@@ -0,0 +1,298 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Context;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Integration tests of the migration and deduplication of assets by {@link BitstreamStorageServiceImpl}.
+ */
+public class BitstreamStorageServiceImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int SOURCE = 90;
+    private static final int DESTINATION = 91;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final BitstreamStorageServiceImpl bitstreamStorageService
+        = (BitstreamStorageServiceImpl) StorageServiceFactory.getInstance().getBitstreamStorageService();
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+
+    private DSBitStoreService source;
+    private DSBitStoreService destination;
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+
+    private Item item;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        source = new DSBitStoreService();
+        source.setBaseDir(folder.newFolder("source"));
+        destination = new DSBitStoreService();
+        destination.setBaseDir(folder.newFolder("destination"));
+        bitstreamStorageService.getStores().put(SOURCE, source);
+        bitstreamStorageService.getStores().put(DESTINATION, destination);
+
+        int incoming = bitstreamStorageService.getIncoming();
+        bitstreamStorageService.setIncoming(SOURCE);
+        try {
+            context.turnOffAuthorisationSystem();
+            parentCommunity = CommunityBuilder.createCommunity(context).build();
+            Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+            item = ItemBuilder.createItem(context, collection).withTitle("Migrated item").build();
+            for (int i = 0; i < 5; i++) {
+                bitstreams.add(BitstreamBuilder.createBitstream(context, item, toInputStream("content " + i))
+                                               .withName("file" + i + ".txt").build());
+            }
+            context.restoreAuthSystemState();
+        } finally {
+            bitstreamStorageService.setIncoming(incoming);
+        }
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        super.destroy();
+        bitstreamStorageService.getStores().remove(SOURCE);
+        bitstreamStorageService.getStores().remove(DESTINATION);
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+        context.turnOffAuthorisationSystem();
+        bitstreamStorageService.migrate(context, SOURCE, DESTINATION, true, 2, 3, 0);
+        context.restoreAuthSystemState();
+
+        assertEquals(0L, (long) bitstreamService.countByStoreNumber(context, SOURCE));
+        assertEquals(5L, (long) bitstreamService.countByStoreNumber(context, DESTINATION));
+        for (int i = 0; i < bitstreams.size(); i++) {
+            Bitstream bitstream = context.reloadEntity(bitstreams.get(i));
+            assertEquals(DESTINATION, (int) bitstream.getStoreNumber());
+            assertEquals("content " + i, read(bitstreamStorageService.retrieve(context, bitstream)));
+            assertFalse(source.getFile(bitstream).exists());
+        }
+    }
+
+    @Test
+    public void testMigrateSkipsChecksumMismatch() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Bitstream corrupt = context.reloadEntity(bitstreams.get(1));
+        corrupt.setChecksum("0123456789abcdef0123456789abcdef");
+        bitstreamService.update(context, corrupt);
+        context.commit();
+
+        try {
+            bitstreamStorageService.migrate(context, SOURCE, DESTINATION, true, 1, 2, 0);
+            fail("The bitstream which doesn't match its checksum should not be migrated");
+        } catch (IOException e) {
+            // expected
+        }
+        context.restoreAuthSystemState();
+
+        corrupt = context.reloadEntity(corrupt);
+        assertEquals(SOURCE, (int) corrupt.getStoreNumber());
+        assertEquals("0123456789abcdef0123456789abcdef", corrupt.getChecksum());
+        assertTrue(source.getFile(corrupt).exists());
+        assertFalse(destination.getFile(corrupt).exists());
+        assertEquals(4L, (long) bitstreamService.countByStoreNumber(context, DESTINATION));
+
+        // running the migration again only retries the bitstream left in the source
+        context.turnOffAuthorisationSystem();
+        try {
+            bitstreamStorageService.migrate(context, SOURCE, DESTINATION, true, 1, 2, 0);
+            fail("The bitstream which doesn't match its checksum should not be migrated");
+        } catch (IOException e) {
+            assertEquals("1 objects could not be transferred from assetstore[" + SOURCE +
+                             "], run the migration again to retry them", e.getMessage());
+        }
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void testMigrateWithRateLimit() throws Exception {
+        context.turnOffAuthorisationSystem();
+        // 5 files of 9 bytes at 15 bytes per second
+        long start = System.currentTimeMillis();
+        bitstreamStorageService.migrate(context, SOURCE, DESTINATION, false, 5, 2, 15);
+        context.restoreAuthSystemState();
+
+        assertTrue(System.currentTimeMillis() - start >= 2000);
+        assertEquals(5L, (long) bitstreamService.countByStoreNumber(context, DESTINATION));
+        for (Bitstream bitstream : bitstreams) {
+            assertTrue(source.getFile(context.reloadEntity(bitstream)).exists());
+        }
+    }
+
+    @Test
+    public void testMigrateSharedContent() throws Exception {
+        int incoming = bitstreamStorageService.getIncoming();
+        bitstreamStorageService.setIncoming(SOURCE);
+        bitstreamStorageService.setDeduplicate(true);
+        List<Bitstream> shared = new ArrayList<>();
+        try {
+            context.turnOffAuthorisationSystem();
+            for (int i = 0; i < 5; i++) {
+                shared.add(BitstreamBuilder.createBitstream(context, item, toInputStream("shared content")).build());
+            }
+            context.restoreAuthSystemState();
+        } finally {
+            bitstreamStorageService.setIncoming(incoming);
+            bitstreamStorageService.setDeduplicate(false);
+        }
+
+        // the batches of 3 bitstreams hold several bitstreams sharing the file, and so do successive batches
+        context.turnOffAuthorisationSystem();
+        bitstreamStorageService.migrate(context, SOURCE, DESTINATION, true, 3, 3, 0);
+        context.restoreAuthSystemState();
+
+        assertEquals(0L, (long) bitstreamService.countByStoreNumber(context, SOURCE));
+        for (Bitstream bitstream : shared) {
+            bitstream = context.reloadEntity(bitstream);
+            assertEquals(DESTINATION, (int) bitstream.getStoreNumber());
+            assertEquals("shared content", read(bitstreamStorageService.retrieve(context, bitstream)));
+            assertFalse(source.getFile(bitstream).exists());
+        }
+        File directory = destination.getFile(shared.get(0)).getParentFile();
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    public void testDeduplicate() throws Exception {
+        int incoming = bitstreamStorageService.getIncoming();
+        bitstreamStorageService.setIncoming(SOURCE);
+        bitstreamStorageService.setDeduplicate(true);
+        Bitstream first;
+        Bitstream second;
+        try {
+            context.turnOffAuthorisationSystem();
+            first = BitstreamBuilder.createBitstream(context, item, toInputStream("shared content")).build();
+            second = BitstreamBuilder.createBitstream(context, item, toInputStream("shared content")).build();
+            context.restoreAuthSystemState();
+        } finally {
+            bitstreamStorageService.setIncoming(incoming);
+            bitstreamStorageService.setDeduplicate(false);
+        }
+
+        assertEquals(first.getInternalId(), second.getInternalId());
+        assertEquals(first.getChecksum(), second.getChecksum());
+        assertEquals("shared content", read(bitstreamStorageService.retrieve(context, second)));
+        File file = source.getFile(first);
+        // cleanup leaves recently modified files alone
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+
+        context.turnOffAuthorisationSystem();
+        bitstreamService.delete(context, first);
+        context.commit();
+        bitstreamStorageService.cleanup(false, false);
+        assertTrue(file.exists());
+
+        second = context.reloadEntity(second);
+        bitstreamService.delete(context, second);
+        context.commit();
+        bitstreamStorageService.cleanup(false, false);
+        context.restoreAuthSystemState();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testDeduplicatedContentIsNotCleanedUpBeforeCommit() throws Exception {
+        int incoming = bitstreamStorageService.getIncoming();
+        bitstreamStorageService.setIncoming(SOURCE);
+        bitstreamStorageService.setDeduplicate(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            context.turnOffAuthorisationSystem();
+            Bitstream first = BitstreamBuilder.createBitstream(context, item, toInputStream("shared content")).build();
+            context.commit();
+            File file = source.getFile(first);
+            assertTrue(file.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+
+            // share the file of the first bitstream without committing yet
+            Bitstream second = bitstreamService.create(context, toInputStream("shared content"));
+            assertEquals(first.getInternalId(), second.getInternalId());
+
+            // deleting the first bitstream concurrently has to wait until the second one is committed
+            Future<?> deletion = executor.submit(() -> {
+                Context other = new Context();
+                other.turnOffAuthorisationSystem();
+                bitstreamService.delete(other, other.reloadEntity(first));
+                other.complete();
+                return null;
+            });
+            try {
+                deletion.get(1, TimeUnit.SECONDS);
+                fail("The shared bitstream was deleted before the bitstream sharing its file was committed");
+            } catch (TimeoutException e) {
+                // expected
+            }
+            context.commit();
+            deletion.get(10, TimeUnit.SECONDS);
+
+            bitstreamStorageService.cleanup(false, false);
+            assertTrue(file.exists());
+
+            bitstreamService.delete(context, context.reloadEntity(second));
+            context.commit();
+            context.restoreAuthSystemState();
+        } finally {
+            executor.shutdownNow();
+            bitstreamStorageService.setIncoming(incoming);
+            bitstreamStorageService.setDeduplicate(false);
+        }
+    }
+
+    private InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dspace.content.Bitstream;
+import org.dspace.core.Utils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests of the local disk cache {@link CachingBitStoreService}.
+ */
+public class CachingBitStoreServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BitStoreService store;
+
+    private CachingBitStoreService cachingStore;
+
+    @Before
+    public void setUp() throws Exception {
+        store = mock(BitStoreService.class);
+        cachingStore = new CachingBitStoreService();
+        cachingStore.setStore(store);
+        cachingStore.setCacheDir(folder.newFolder("cache"));
+        cachingStore.setMaxSize(10);
+        // copy into the cache before the read is served, so the tests don't have to wait for it
+        cachingStore.setFillExecutor(Runnable::run);
+        cachingStore.init();
+    }
+
+    @Test
+    public void testReadThrough() throws Exception {
+        Bitstream bitstream = mockBitstream("1234", "abcdef", true);
+
+        assertArrayEquals(bytes("abcdef"), read(cachingStore.get(bitstream)));
+        assertArrayEquals(bytes("abcdef"), read(cachingStore.get(bitstream)));
+        assertArrayEquals(bytes("cde"), read(cachingStore.get(bitstream, 2, 3)));
+
+        // only the first read goes to the store, next to the copy into the cache
+        verify(store, times(2)).get(bitstream);
+        assertEquals(2L, (long) cachingStore.getStatistics().get("hits"));
+        assertEquals(1L, (long) cachingStore.getStatistics().get("misses"));
+        assertEquals(6L, (long) cachingStore.getStatistics().get("bytesFromStore"));
+        assertEquals(6L, (long) cachingStore.getStatistics().get("bytesCopied"));
+        assertEquals(9L, (long) cachingStore.getStatistics().get("bytesFromCache"));
+    }
+
+    @Test
+    public void testRangedMissIsReadFromStore() throws Exception {
+        Bitstream bitstream = mockBitstream("1234", "abcdef", true);
+        when(store.get(bitstream, 2, 3)).thenAnswer(invocation -> new ByteArrayInputStream(bytes("cde")));
+
+        assertArrayEquals(bytes("cde"), read(cachingStore.get(bitstream, 2, 3)));
+        assertArrayEquals(bytes("bcd"), read(cachingStore.get(bitstream, 1, 3)));
+
+        verify(store, times(1)).get(bitstream, 2, 3);
+        verify(store, times(1)).get(bitstream);
+        assertEquals(3L, (long) cachingStore.getStatistics().get("bytesFromStore"));
+        assertEquals(3L, (long) cachingStore.getStatistics().get("bytesFromCache"));
+    }
+
+    @Test
+    public void testChecksumMismatchIsNotCached() throws Exception {
+        Bitstream bitstream = mockBitstream("1234", "abcdef", false);
+
+        assertArrayEquals(bytes("abcdef"), read(cachingStore.get(bitstream)));
+        assertArrayEquals(bytes("abcdef"), read(cachingStore.get(bitstream)));
+
+        verify(store, times(4)).get(bitstream);
+        assertEquals(0L, (long) cachingStore.getStatistics().get("entries"));
+        assertEquals(12L, (long) cachingStore.getStatistics().get("bytesFromStore"));
+        assertEquals(12L, (long) cachingStore.getStatistics().get("bytesCopied"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyRead() throws Exception {
+        Bitstream first = mockBitstream("1111", "aaaa", true);
+        Bitstream second = mockBitstream("2222", "bbbb", true);
+        Bitstream third = mockBitstream("3333", "cccc", true);
+
+        read(cachingStore.get(first));
+        read(cachingStore.get(second));
+        // first is now the most recently read
+        read(cachingStore.get(first));
+        read(cachingStore.get(third));
+
+        assertEquals(1L, (long) cachingStore.getStatistics().get("evictions"));
+        assertEquals(8L, (long) cachingStore.getStatistics().get("size"));
+        read(cachingStore.get(first));
+        read(cachingStore.get(second));
+        verify(store, times(2)).get(first);
+        verify(store, times(4)).get(second);
+    }
+
+    @Test
+    public void testLargeAssetIsNotCached() throws Exception {
+        Bitstream bitstream = mockBitstream("1234", "abcdefghijkl", true);
+
+        read(cachingStore.get(bitstream));
+        read(cachingStore.get(bitstream));
+
+        verify(store, times(2)).get(bitstream);
+    }
+
+    @Test
+    public void testRemoveEvicts() throws Exception {
+        Bitstream bitstream = mockBitstream("1234", "abcdef", true);
+
+        read(cachingStore.get(bitstream));
+        cachingStore.remove(bitstream);
+
+        verify(store).remove(bitstream);
+        assertEquals(0L, (long) cachingStore.getStatistics().get("size"));
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneCopy() throws Exception {
+        cachingStore.setFillExecutor(null);
+        Bitstream bitstream = mock(Bitstream.class);
+        when(bitstream.getInternalId()).thenReturn("1234");
+        when(bitstream.getSizeBytes()).thenReturn(6L);
+        CountDownLatch reading = new CountDownLatch(1);
+        when(store.get(bitstream)).thenAnswer(invocation -> {
+            reading.await();
+            return new ByteArrayInputStream(bytes("abcdef"));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Callable<byte[]> read = () -> read(cachingStore.get(bitstream));
+                reads.add(executor.submit(read));
+            }
+            Thread.sleep(100);
+            reading.countDown();
+            for (Future<byte[]> read : reads) {
+                assertArrayEquals(bytes("abcdef"), read.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 100 && cachingStore.getStatistics().get("entries") == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1L, (long) cachingStore.getStatistics().get("entries"));
+        // the four reads, and one copy into the cache
+        verify(store, times(5)).get(bitstream);
+    }
+
+    private Bitstream mockBitstream(String internalId, String content, boolean validChecksum) throws Exception {
+        Bitstream bitstream = mock(Bitstream.class);
+        when(bitstream.getInternalId()).thenReturn(internalId);
+        when(bitstream.getSizeBytes()).thenReturn((long) content.length());
+        when(bitstream.getChecksumAlgorithm()).thenReturn("MD5");
+        String checksum = Utils.toHex(MessageDigest.getInstance("MD5").digest(bytes(content)));
+        when(bitstream.getChecksum()).thenReturn(validChecksum ? checksum : "0" + checksum.substring(1));
+        when(store.get(bitstream)).thenAnswer(invocation -> new ByteArrayInputStream(bytes(content)));
+        return bitstream;
+    }
+
+    private byte[] read(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    private byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -17,19 +17,27 @@ import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
 import java.util.function.Supplier;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.amazonaws.services.s3.transfer.model.UploadResult;
@@ -186,6 +194,34 @@ public class S3BitStoreServiceTest extends AbstractUnitTest {
 
     }
 
+    @Test
+    public void givenRangeWhenRetrievingFromS3ThenRequestsOnlyTheRange() throws IOException {
+        String bucketName = "BucketTest";
+        String bitStreamId = "BitStreamId";
+        this.s3BitStoreService.setBucketName(bucketName);
+        this.s3BitStoreService.setUseRelativePath(false);
+        when(bitstream.getInternalId()).thenReturn(bitStreamId);
+
+        S3Object object = Mockito.mock(S3Object.class);
+        S3ObjectInputStream inputStream = Mockito.mock(S3ObjectInputStream.class);
+        when(object.getObjectContent()).thenReturn(inputStream);
+        when(this.s3Service.getObject(ArgumentMatchers.any(GetObjectRequest.class))).thenReturn(object);
+
+        this.s3BitStoreService.init();
+        assertThat(this.s3BitStoreService.get(bitstream, 100, 50), Matchers.equalTo(inputStream));
+
+        verify(this.s3Service).getObject(
+                ArgumentMatchers.argThat(
+                    request ->
+                    bitStreamId.contentEquals(request.getKey()) &&
+                    request.getRange() != null &&
+                    request.getRange()[0] == 100 &&
+                    request.getRange()[1] == 149
+                )
+        );
+
+    }
+
     @Test
     public void givenBucketBitStreamIdWhenNothingFoundOnS3ThenReturnsNull() throws IOException {
         String bucketName = "BucketTest";
@@ -469,6 +505,97 @@ public class S3BitStoreServiceTest extends AbstractUnitTest {
 
     }
 
+    @Test
+    public void givenStreamingUploadWhenPutThenUploadsPartsAndStoresChecksum() throws Exception {
+        String bucketName = "BucketTest";
+        String bitStreamId = "BitStreamId";
+        this.s3BitStoreService.setBucketName(bucketName);
+        this.s3BitStoreService.setUseRelativePath(false);
+        this.s3BitStoreService.setStreamingUpload(true);
+        this.s3BitStoreService.setPartSize(5 * 1024 * 1024);
+        when(bitstream.getInternalId()).thenReturn(bitStreamId);
+
+        // two full parts and a last, smaller one
+        byte[] content = new byte[11 * 1024 * 1024];
+        new Random(42).nextBytes(content);
+
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("UploadId");
+        when(this.s3Service.initiateMultipartUpload(ArgumentMatchers.any())).thenReturn(initiateResult);
+        when(this.s3Service.uploadPart(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("ETag" + request.getPartNumber());
+            return result;
+        });
+
+        this.s3BitStoreService.init();
+        this.s3BitStoreService.put(bitstream, new ByteArrayInputStream(content));
+
+        verify(this.s3Service, Mockito.times(3)).uploadPart(ArgumentMatchers.any());
+        verify(this.s3Service).completeMultipartUpload(
+                ArgumentMatchers.argThat(
+                    request ->
+                    "UploadId".equals(request.getUploadId()) &&
+                    request.getPartETags().size() == 3 &&
+                    "ETag3".equals(request.getPartETags().get(2).getETag())
+                )
+        );
+        verify(this.s3Service, Mockito.never()).abortMultipartUpload(ArgumentMatchers.any());
+        verify(this.bitstream).setSizeBytes(ArgumentMatchers.eq((long) content.length));
+        verify(this.bitstream).setChecksum(ArgumentMatchers.eq(
+            org.dspace.core.Utils.toHex(MessageDigest.getInstance("MD5").digest(content))));
+    }
+
+    @Test
+    public void givenStreamingUploadWhenPutSmallStreamThenUsesSinglePut() throws Exception {
+        String bucketName = "BucketTest";
+        String bitStreamId = "BitStreamId";
+        this.s3BitStoreService.setBucketName(bucketName);
+        this.s3BitStoreService.setUseRelativePath(false);
+        this.s3BitStoreService.setStreamingUpload(true);
+        when(bitstream.getInternalId()).thenReturn(bitStreamId);
+
+        byte[] content = "small content".getBytes(StandardCharsets.UTF_8);
+
+        this.s3BitStoreService.init();
+        this.s3BitStoreService.put(bitstream, new ByteArrayInputStream(content));
+
+        verify(this.s3Service).putObject(ArgumentMatchers.eq(bucketName), ArgumentMatchers.eq(bitStreamId),
+                ArgumentMatchers.any(InputStream.class),
+                ArgumentMatchers.argThat(metadata -> metadata.getContentLength() == content.length));
+        verify(this.s3Service, Mockito.never()).initiateMultipartUpload(ArgumentMatchers.any());
+        verify(this.bitstream).setSizeBytes(ArgumentMatchers.eq((long) content.length));
+        verify(this.bitstream).setChecksum(ArgumentMatchers.eq(
+            org.dspace.core.Utils.toHex(MessageDigest.getInstance("MD5").digest(content))));
+    }
+
+    @Test
+    public void givenStreamingUploadWhenPartFailsThenUploadIsAborted() throws Exception {
+        String bucketName = "BucketTest";
+        String bitStreamId = "BitStreamId";
+        this.s3BitStoreService.setBucketName(bucketName);
+        this.s3BitStoreService.setUseRelativePath(false);
+        this.s3BitStoreService.setStreamingUpload(true);
+        this.s3BitStoreService.setPartSize(5 * 1024 * 1024);
+        when(bitstream.getInternalId()).thenReturn(bitStreamId);
+
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("UploadId");
+        when(this.s3Service.initiateMultipartUpload(ArgumentMatchers.any())).thenReturn(initiateResult);
+        when(this.s3Service.uploadPart(ArgumentMatchers.any())).thenThrow(new AmazonClientException("failed"));
+
+        this.s3BitStoreService.init();
+        assertThrows(IOException.class,
+            () -> this.s3BitStoreService.put(bitstream, new ByteArrayInputStream(new byte[11 * 1024 * 1024])));
+
+        verify(this.s3Service).abortMultipartUpload(
+                ArgumentMatchers.argThat(request -> "UploadId".equals(request.getUploadId())));
+        verify(this.s3Service, Mockito.never()).completeMultipartUpload(ArgumentMatchers.any());
+        verify(this.bitstream, Mockito.never()).setChecksum(ArgumentMatchers.any(String.class));
+    }
+
     private int computeSlashes(String internalId) {
         int minimum = internalId.length();
         int slashesPerLevel = minimum / S3BitStoreService.digitsPerLevel;
@@ -0,0 +1,95 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractDSpaceTest;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SolrCommitPolicy}.
+ */
+public class SolrCommitPolicyTest extends AbstractDSpaceTest {
+
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+
+    private final SolrCommitPolicy commitPolicy = new SolrCommitPolicy("test.solr");
+
+    private SolrClient solr;
+
+    @Before
+    public void setUp() {
+        solr = mock(SolrClient.class);
+    }
+
+    @After
+    public void tearDown() {
+        configurationService.setProperty("test.solr.commit.policy", null);
+        configurationService.setProperty("test.solr.commit.within", null);
+    }
+
+    @Test
+    public void testHardIsDefault() throws Exception {
+        SolrInputDocument document = new SolrInputDocument();
+        assertEquals(SolrCommitPolicy.Mode.HARD, commitPolicy.getMode());
+
+        commitPolicy.add(solr, document);
+        commitPolicy.deleteById(solr, "Item-1");
+        commitPolicy.commit(solr);
+
+        verify(solr).add(document, -1);
+        verify(solr).deleteById("Item-1", -1);
+        verify(solr).commit(true, true);
+        verifyNoMoreInteractions(solr);
+    }
+
+    @Test
+    public void testSoft() throws Exception {
+        configurationService.setProperty("test.solr.commit.policy", "soft");
+        SolrInputDocument document = new SolrInputDocument();
+
+        commitPolicy.add(solr, document);
+        commitPolicy.commit(solr, false, false);
+
+        verify(solr).add(document, -1);
+        verify(solr).commit(false, false, true);
+        verifyNoMoreInteractions(solr);
+    }
+
+    @Test
+    public void testCommitWithin() throws Exception {
+        configurationService.setProperty("test.solr.commit.policy", "commitWithin");
+        configurationService.setProperty("test.solr.commit.within", 5000);
+        SolrInputDocument document = new SolrInputDocument();
+
+        commitPolicy.add(solr, document);
+        commitPolicy.deleteByQuery(solr, "*:*");
+        commitPolicy.commit(solr);
+
+        verify(solr).add(document, 5000);
+        verify(solr).deleteByQuery("*:*", 5000);
+        verifyNoMoreInteractions(solr);
+    }
+
+    @Test
+    public void testUnknownPolicyFallsBackToHard() {
+        configurationService.setProperty("test.solr.commit.policy", "sometimes");
+        assertEquals(SolrCommitPolicy.Mode.HARD, commitPolicy.getMode());
+    }
+}
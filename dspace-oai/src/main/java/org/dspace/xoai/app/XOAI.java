@@ -62,6 +62,7 @@ import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.SolrCommitPolicy;
 import org.dspace.util.SolrUtils;
 import org.dspace.utils.DSpace;
 import org.dspace.xoai.exceptions.CompilingException;
@@ -104,6 +105,11 @@ public class XOAI {
     private final static ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
             .getConfigurationService();
 
+    /**
+     * Policy deciding when updates of the OAI core become visible, configured by "oai.solr.commit.*".
+     */
+    private final SolrCommitPolicy commitPolicy = new SolrCommitPolicy("oai.solr");
+
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
     private List<String> getFileFormats(Item item) {
@@ -171,7 +177,7 @@ public class XOAI {
                 }
 
             }
-            solrServerResolver.getServer().commit();
+            commitPolicy.commit(solrServerResolver.getServer());
 
             if (optimize) {
                 println("Optimizing Index");
@@ -339,17 +345,17 @@ public class XOAI {
                 }
                 if (i % batchSize == 0) {
                     System.out.println(i + " items imported so far...");
-                    server.add(list);
-                    server.commit();
+                    commitPolicy.add(server, list);
+                    commitPolicy.commit(server);
                     list.clear();
                 }
             }
             System.out.println("Total: " + i + " items");
             if (i > 0) {
                 if (!list.isEmpty()) {
-                    server.add(list);
+                    commitPolicy.add(server, list);
                 }
-                server.commit(true, true);
+                commitPolicy.commit(server);
                 list.clear();
             }
             return i;
@@ -552,8 +558,8 @@ public class XOAI {
     private void clearIndex() throws DSpaceSolrIndexerException {
         try {
             System.out.println("Clearing index");
-            solrServerResolver.getServer().deleteByQuery("*:*");
-            solrServerResolver.getServer().commit();
+            commitPolicy.deleteByQuery(solrServerResolver.getServer(), "*:*");
+            commitPolicy.commit(solrServerResolver.getServer());
             System.out.println("Index cleared");
         } catch (SolrServerException | IOException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
@@ -22,6 +22,7 @@ import org.dspace.app.rest.utils.DSpaceKernelInitializer;
 import org.dspace.app.sitemap.GenerateSitemaps;
 import org.dspace.app.solrdatabaseresync.SolrDatabaseResyncCli;
 import org.dspace.app.util.DSpaceContextListener;
+import org.dspace.discovery.IndexingQueueService;
 import org.dspace.google.GoogleAsyncEventListener;
 import org.dspace.utils.servlet.DSpaceWebappServletFilter;
 import org.slf4j.Logger;
@@ -71,6 +72,9 @@ public class Application extends SpringBootServletInitializer {
     @Autowired
     private GoogleAsyncEventListener googleAsyncEventListener;
 
+    @Autowired
+    private IndexingQueueService indexingQueueService;
+
     @Scheduled(cron = "${sitemap.cron:-}")
     public void generateSitemap() throws IOException, SQLException {
         GenerateSitemaps.generateSitemapsScheduled();
@@ -86,6 +90,11 @@ public class Application extends SpringBootServletInitializer {
         googleAsyncEventListener.sendCollectedEvents();
     }
 
+    @Scheduled(cron = "${discovery.index.async.cron:-}")
+    public void processIndexingQueue() {
+        indexingQueueService.processQueue();
+    }
+
     /**
      * Override the default SpringBootServletInitializer.configure() method,
      * passing it this Application class.
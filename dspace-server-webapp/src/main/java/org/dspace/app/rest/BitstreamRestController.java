@@ -41,8 +41,10 @@ import org.dspace.services.ConfigurationService;
 import org.dspace.services.EventService;
 import org.dspace.usage.UsageEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -136,6 +138,7 @@ public class BitstreamRestController {
 
             HttpHeadersInitializer httpHeadersInitializer = new HttpHeadersInitializer()
                 .withBufferSize(BUFFER_SIZE)
+                .withLength(filesize)
                 .withFileName(name)
                 .withChecksum(bit.getChecksum())
                 .withMimetype(mimetype)
@@ -164,6 +167,22 @@ public class BitstreamRestController {
             //Send the data
             if (httpHeadersInitializer.isValid()) {
                 HttpHeaders httpHeaders = httpHeadersInitializer.initialiseHeaders();
+                //Serve a single range ourselves, so that the store can start reading at the range instead of
+                //reading and discarding the bytes before it
+                long[] range = httpHeaders != null && !citationEnabledForBitstream
+                    ? httpHeadersInitializer.getRange() : null;
+                if (range != null) {
+                    httpHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + filesize);
+                    return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(httpHeaders)
+                                         .body(bitstreamResource.withRange(range[0], range[1] - range[0] + 1));
+                }
+                if (httpHeaders != null && !httpHeadersInitializer.isRangeApplicable()) {
+                    //The bitstream changed since the client got the other ranges: send all of it. Spring only
+                    //applies the Range header to a Resource which is not an InputStreamResource.
+                    httpHeaders.setContentLength(bitstreamResource.contentLength());
+                    return ResponseEntity.ok().headers(httpHeaders)
+                                         .body(new InputStreamResource(bitstreamResource.getInputStream()));
+                }
                 return ResponseEntity.ok().headers(httpHeaders).body(bitstreamResource);
             }
 
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.dspace.app.rest.DiscoverableEndpointsService;
 import org.dspace.app.rest.health.GeoIpHealthIndicator;
+import org.dspace.app.rest.health.IndexingQueueHealthIndicator;
 import org.dspace.authority.AuthoritySolrServiceImpl;
 import org.dspace.discovery.SolrSearchCore;
 import org.dspace.statistics.SolrStatisticsCore;
@@ -88,6 +89,13 @@ public class ActuatorConfiguration {
         return new GeoIpHealthIndicator();
     }
 
+    @Bean
+    @ConditionalOnEnabledHealthIndicator("indexingQueue")
+    @ConditionalOnProperty("discovery.index.async")
+    public IndexingQueueHealthIndicator indexingQueueHealthIndicator() {
+        return new IndexingQueueHealthIndicator();
+    }
+
     public String getActuatorBasePath() {
         return actuatorBasePath;
     }
@@ -0,0 +1,52 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.health;
+
+import static org.dspace.app.rest.configuration.ActuatorConfiguration.UP_WITH_ISSUES_STATUS;
+
+import org.dspace.core.Context;
+import org.dspace.discovery.IndexingQueueService;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health.Builder;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Implementation of {@link HealthIndicator} that reports the depth and the lag of the asynchronous discovery
+ * indexing queue. The status is "UP_WITH_ISSUES" when the oldest entry has been waiting for longer than
+ * "discovery.index.async.max-lag" ms (default 10 minutes).
+ */
+public class IndexingQueueHealthIndicator extends AbstractHealthIndicator {
+
+    @Autowired
+    private IndexingQueueService indexingQueueService;
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    @Override
+    protected void doHealthCheck(Builder builder) throws Exception {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            long lag = indexingQueueService.getQueueLag(context);
+            long maxLag = configurationService.getLongProperty("discovery.index.async.max-lag", 600000);
+            if (lag > maxLag) {
+                builder.status(UP_WITH_ISSUES_STATUS)
+                       .withDetail("reason", "The indexing queue has not been processed for " + lag + " ms");
+            } else {
+                builder.up();
+            }
+            builder.withDetail("queueSize", indexingQueueService.getQueueSize(context))
+                   .withDetail("lagMillis", lag);
+        } finally {
+            context.abort();
+        }
+    }
+
+}
@@ -32,6 +32,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.core.Context;
@@ -42,6 +43,8 @@ import org.dspace.services.ConfigurationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.keygen.BytesKeyGenerator;
 import org.springframework.security.crypto.keygen.KeyGenerators;
@@ -76,6 +79,9 @@ public abstract class JWTTokenHandler {
     @Autowired
     private ClientInfoService clientInfoService;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
     private String generatedJwtKey;
     private String generatedEncryptionKey;
 
@@ -109,6 +115,12 @@ public abstract class JWTTokenHandler {
      */
     protected abstract String getCompressionEnabledConfigurationKey();
 
+    /**
+     * Get the name of the cache of the verified tokens, see ehcache.xml.
+     * @return the cache name
+     */
+    protected abstract String getTokenCacheName();
+
     /**
      * Retrieve EPerson from a JSON Web Token (JWT)
      *
@@ -125,6 +137,25 @@ public abstract class JWTTokenHandler {
         if (StringUtils.isBlank(token)) {
             return null;
         }
+
+        // A token verified before doesn't need to be decrypted and verified again, as long as it isn't expired and
+        // the EPerson still has the session salt (and the server the key) it was signed with
+        String tokenHash = DigestUtils.sha256Hex(token);
+        Cache verified = getVerifiedTokens();
+        VerifiedToken verifiedToken = verified != null ? verified.get(tokenHash, VerifiedToken.class) : null;
+        if (verifiedToken != null) {
+            EPerson ePerson = getEPerson(context, verifiedToken.jwtClaimsSet);
+            if (ePerson != null && StringUtils.isNotBlank(ePerson.getSessionSalt())
+                && verifiedToken.signingKey.equals(buildSigningKey(ePerson))
+                && isUnexpired(verifiedToken.jwtClaimsSet.getExpirationTime())) {
+                for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
+                    jwtClaimProvider.parseClaim(context, request, verifiedToken.jwtClaimsSet);
+                }
+                return ePerson;
+            }
+            verified.evict(tokenHash);
+        }
+
         // parse/decrypt the token
         SignedJWT signedJWT = getSignedJWT(token);
         // get the claims set from the parsed token
@@ -136,6 +167,9 @@ public abstract class JWTTokenHandler {
         if (isValidToken(request, signedJWT, jwtClaimsSet, ePerson)) {
 
             log.debug("Received valid token for username: " + ePerson.getEmail());
+            if (verified != null) {
+                verified.put(tokenHash, new VerifiedToken(jwtClaimsSet, buildSigningKey(ePerson)));
+            }
 
             for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
                 jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
@@ -198,6 +232,10 @@ public abstract class JWTTokenHandler {
             if (ePerson != null) {
                 ePerson.setSessionSalt("");
             }
+            Cache verified = getVerifiedTokens();
+            if (verified != null) {
+                verified.evict(DigestUtils.sha256Hex(token));
+            }
 
         }
     }
@@ -279,14 +317,28 @@ public abstract class JWTTokenHandler {
             JWSVerifier verifier = new MACVerifier(buildSigningKey(ePerson));
 
             //If token is valid and not expired return eperson in token
-            Date expirationTime = jwtClaimsSet.getExpirationTime();
-            return signedJWT.verify(verifier)
-                && expirationTime != null
-                //Ensure expiration timestamp is after the current time, with a minute of acceptable clock skew.
-                && DateUtils.isAfter(expirationTime, new Date(), MAX_CLOCK_SKEW_SECONDS);
+            return signedJWT.verify(verifier) && isUnexpired(jwtClaimsSet.getExpirationTime());
         }
     }
 
+    /**
+     * Determine if a token with the given expiration time is not expired yet.
+     * @param expirationTime expiration time of the token
+     * @return true if the expiration time is after the current time, with a minute of acceptable clock skew
+     */
+    protected boolean isUnexpired(Date expirationTime) {
+        return expirationTime != null && DateUtils.isAfter(expirationTime, new Date(), MAX_CLOCK_SKEW_SECONDS);
+    }
+
+    /**
+     * Get the cache of the tokens verified before, with the claims of each token by the hash of the token, so the
+     * tokens can't be taken from the cache.
+     * @return the cache, or null if it is not configured
+     */
+    private Cache getVerifiedTokens() {
+        return cacheManager == null ? null : cacheManager.getCache(getTokenCacheName());
+    }
+
     /**
      * Return the signed JWT.
      * If JWT encryption is enabled, decrypt the token and return.
@@ -433,4 +485,17 @@ public abstract class JWTTokenHandler {
         byte[] secretKey = bytesKeyGenerator.generateKey();
         return Base64.encodeBase64String(secretKey);
     }
+
+    /**
+     * Claims of a verified token, with the key it was signed with.
+     */
+    private static final class VerifiedToken {
+        private final JWTClaimsSet jwtClaimsSet;
+        private final String signingKey;
+
+        VerifiedToken(JWTClaimsSet jwtClaimsSet, String signingKey) {
+            this.jwtClaimsSet = jwtClaimsSet;
+            this.signingKey = signingKey;
+        }
+    }
 }
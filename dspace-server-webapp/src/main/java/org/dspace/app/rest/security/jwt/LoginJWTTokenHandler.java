@@ -39,4 +39,9 @@ public class LoginJWTTokenHandler extends JWTTokenHandler {
     protected String getCompressionEnabledConfigurationKey() {
         return "jwt.login.compression.enabled";
     }
+
+    @Override
+    protected String getTokenCacheName() {
+        return "jwtLoginTokens";
+    }
 }
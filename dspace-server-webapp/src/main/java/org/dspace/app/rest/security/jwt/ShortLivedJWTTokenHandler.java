@@ -8,15 +8,8 @@
 package org.dspace.app.rest.security.jwt;
 
 import java.util.Date;
-import javax.servlet.http.HttpServletRequest;
 
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.MACVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.dspace.core.Context;
 import org.dspace.eperson.EPerson;
 import org.springframework.stereotype.Component;
@@ -29,31 +22,13 @@ import org.springframework.stereotype.Component;
 public class ShortLivedJWTTokenHandler extends JWTTokenHandler {
 
     /**
-     * Determine if current JWT is valid for the given EPerson object.
-     * To be valid, current JWT *must* have been signed by the EPerson and not be expired.
-     * If EPerson is null or does not have a known active session, false is returned immediately.
-     * @param request current request
-     * @param signedJWT current signed JWT
-     * @param jwtClaimsSet claims set of current JWT
-     * @param ePerson EPerson parsed from current signed JWT
-     * @return true if valid, false otherwise
-     * @throws JOSEException
+     * Determine if a token with the given expiration time is not expired yet.
+     * @param expirationTime expiration time of the token
+     * @return true if the expiration time is after the current time
      */
     @Override
-    protected boolean isValidToken(HttpServletRequest request, SignedJWT signedJWT, JWTClaimsSet jwtClaimsSet,
-                                 EPerson ePerson) throws JOSEException {
-        if (ePerson == null || StringUtils.isBlank(ePerson.getSessionSalt())) {
-            return false;
-        } else {
-            JWSVerifier verifier = new MACVerifier(buildSigningKey(ePerson));
-
-            //If token is valid and not expired return eperson in token
-            Date expirationTime = jwtClaimsSet.getExpirationTime();
-            return signedJWT.verify(verifier)
-                && expirationTime != null
-                //Ensure expiration timestamp is after the current time
-                && DateUtils.isAfter(expirationTime, new Date(), 0);
-        }
+    protected boolean isUnexpired(Date expirationTime) {
+        return expirationTime != null && DateUtils.isAfter(expirationTime, new Date(), 0);
     }
 
     /**
@@ -91,4 +66,9 @@ public class ShortLivedJWTTokenHandler extends JWTTokenHandler {
     protected String getCompressionEnabledConfigurationKey() {
         return "jwt.shortLived.compression.enabled";
     }
+
+    @Override
+    protected String getTokenCacheName() {
+        return "jwtShortLivedTokens";
+    }
 }
@@ -42,6 +42,8 @@ public class BitstreamResource extends AbstractResource {
     private boolean shouldGenerateCoverPage;
     private byte[] file;
     private Set<UUID> currentSpecialGroups;
+    private long offset = 0;
+    private long length = -1;
 
     private BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
     private EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
@@ -58,6 +60,20 @@ public class BitstreamResource extends AbstractResource {
         this.shouldGenerateCoverPage = shouldGenerateCoverPage;
     }
 
+    /**
+     * Restrict this resource to a range of the bitstream, which is then retrieved without reading the bytes before
+     * it. Not used together with a cover page.
+     *
+     * @param offset the position of the first byte of the range
+     * @param length the number of bytes of the range
+     * @return this resource
+     */
+    public BitstreamResource withRange(long offset, long length) {
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
     /**
      * Get Potential cover page by array, this method should only be called when a coverpage should be generated
      * In case of failure the original file will be returned
@@ -94,6 +110,8 @@ public class BitstreamResource extends AbstractResource {
 
             if (shouldGenerateCoverPage) {
                 out = new ByteArrayInputStream(getCoverpageByteArray(context, bitstream));
+            } else if (length >= 0) {
+                out = bitstreamService.retrieve(context, bitstream, offset, length);
             } else {
                 out = bitstreamService.retrieve(context, bitstream);
             }
@@ -112,6 +130,9 @@ public class BitstreamResource extends AbstractResource {
 
     @Override
     public long contentLength() throws IOException {
+        if (length >= 0 && !shouldGenerateCoverPage) {
+            return length;
+        }
         try (Context context = initializeContext()) {
             Bitstream bitstream = bitstreamService.find(context, uuid);
             if (shouldGenerateCoverPage) {
@@ -14,6 +14,7 @@ import static javax.mail.internet.MimeUtility.encodeText;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -22,6 +23,7 @@ import org.apache.tomcat.util.http.FastHttpDateFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 
 /**
  * This class takes data from the Bitstream/File that has to be send. It'll then digest this input and save it in
@@ -44,6 +46,8 @@ public class HttpHeadersInitializer {
     private static final String ETAG = "ETag";
     private static final String IF_MATCH = "If-Match";
     private static final String IF_UNMODIFIED_SINCE = "If-Unmodified-Since";
+    private static final String IF_RANGE = "If-Range";
+    private static final String RANGE = "Range";
     private static final String CONTENT_TYPE = "Content-Type";
     private static final String ACCEPT_RANGES = "Accept-Ranges";
     private static final String BYTES = "bytes";
@@ -238,6 +242,57 @@ public class HttpHeadersInitializer {
     }
 
 
+    /**
+     * This method will return the byte range requested by the Range header, if it should be sent as a partial
+     * response with the Content-Range header. Requests for multiple ranges or invalid ones are left to Spring's
+     * {@link org.springframework.http.converter.ResourceRegionHttpMessageConverter}.
+     * @return  The first and last (inclusive) byte of the range, or null if there is no such range
+     */
+    public long[] getRange() {
+        String range = request.getHeader(RANGE);
+        if (StringUtils.isBlank(range) || !isRangeApplicable()) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid Range header {}", range, e);
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        long start = ranges.get(0).getRangeStart(length);
+        long end = ranges.get(0).getRangeEnd(length);
+        if (start >= length || start > end) {
+            return null;
+        }
+        return new long[] {start, end};
+    }
+
+    /**
+     * This method will check the If-Range header: a Range request should only be answered with a part of the file
+     * if the If-Range header is missing or matches the ETag or the Last-Modified date of the file.
+     * @return  true if the Range header applies
+     */
+    public boolean isRangeApplicable() {
+        String ifRange = request.getHeader(IF_RANGE);
+        if (isNull(ifRange)) {
+            return true;
+        }
+        if (nonNull(checksum) && StringUtils.strip(ifRange.trim(), "\"").equals(checksum)) {
+            return true;
+        }
+        try {
+            long ifRangeDate = request.getDateHeader(IF_RANGE);
+            return ifRangeDate != -1 && ifRangeDate / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            // neither the ETag nor a date
+            return false;
+        }
+    }
+
     private static boolean isNullOrEmpty(String disposition) {
         return StringUtils.isBlank(disposition);
     }
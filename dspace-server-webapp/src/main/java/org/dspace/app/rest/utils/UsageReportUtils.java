@@ -12,6 +12,7 @@ import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrServerException;
@@ -24,16 +25,20 @@ import org.dspace.content.Bitstream;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.content.Site;
+import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.handle.service.HandleService;
 import org.dspace.statistics.Dataset;
+import org.dspace.statistics.ObjectCount;
 import org.dspace.statistics.content.DatasetDSpaceObjectGenerator;
 import org.dspace.statistics.content.DatasetTimeGenerator;
 import org.dspace.statistics.content.DatasetTypeGenerator;
 import org.dspace.statistics.content.StatisticsDataVisits;
 import org.dspace.statistics.content.StatisticsListing;
 import org.dspace.statistics.content.StatisticsTable;
+import org.dspace.statistics.service.UsageRollupService;
+import org.dspace.statistics.util.LocationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Component;
@@ -48,6 +53,10 @@ public class UsageReportUtils {
 
     @Autowired
     private HandleService handleService;
+    @Autowired
+    private BitstreamService bitstreamService;
+    @Autowired
+    private UsageRollupService usageRollupService;
 
     public static final String TOTAL_VISITS_REPORT_ID = "TotalVisits";
     public static final String TOTAL_VISITS_PER_MONTH_REPORT_ID = "TotalVisitsPerMonth";
@@ -176,12 +185,18 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTotalVisits(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
-        Dataset dataset = this.getDSOStatsDataset(context, dso, 1, dso.getType());
-
         UsageReportRest usageReportRest = new UsageReportRest();
         UsageReportPointDsoTotalVisitsRest totalVisitPoint = new UsageReportPointDsoTotalVisitsRest();
         totalVisitPoint.setType(StringUtils.substringAfterLast(dso.getClass().getName().toLowerCase(), "."));
         totalVisitPoint.setId(dso.getID().toString());
+        if (usageRollupService.isEnabled()) {
+            totalVisitPoint.setLabel(dso.getName());
+            totalVisitPoint.addValue("views", Math.toIntExact(usageRollupService.getViews(context, dso)));
+            usageReportRest.addPoint(totalVisitPoint);
+            return usageReportRest;
+        }
+
+        Dataset dataset = this.getDSOStatsDataset(context, dso, 1, dso.getType());
         if (dataset.getColLabels().size() > 0) {
             totalVisitPoint.setLabel(dso.getName());
             totalVisitPoint.addValue("views", Integer.valueOf(dataset.getMatrix()[0][0]));
@@ -205,6 +220,17 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTotalVisitsPerMonth(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
+        if (usageRollupService.isEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            for (ObjectCount monthCount : usageRollupService.getViewsPerMonth(context, dso, 6)) {
+                UsageReportPointDateRest monthPoint = new UsageReportPointDateRest();
+                monthPoint.setId(monthCount.getValue());
+                monthPoint.addValue("views", Math.toIntExact(monthCount.getCount()));
+                usageReportRest.addPoint(monthPoint);
+            }
+            return usageReportRest;
+        }
+
         StatisticsTable statisticsTable = new StatisticsTable(new StatisticsDataVisits(dso));
         DatasetTimeGenerator timeAxis = new DatasetTimeGenerator();
         // TODO month start and end as request para?
@@ -244,6 +270,22 @@ public class UsageReportUtils {
             return this.resolveTotalVisits(context, dso);
         }
 
+        if (dso instanceof org.dspace.content.Item && usageRollupService.isEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            for (ObjectCount bitstreamCount : usageRollupService.getBitstreamViews(context, (Item) dso, 10)) {
+                UsageReportPointDsoTotalVisitsRest totalDownloadsPoint = new UsageReportPointDsoTotalVisitsRest();
+                totalDownloadsPoint.setType("bitstream");
+
+                Bitstream bitstream = bitstreamService.find(context, UUID.fromString(bitstreamCount.getValue()));
+                totalDownloadsPoint.setId(bitstreamCount.getValue());
+                totalDownloadsPoint.setLabel(bitstream != null ? bitstream.getName() : bitstreamCount.getValue());
+
+                totalDownloadsPoint.addValue("views", Math.toIntExact(bitstreamCount.getCount()));
+                usageReportRest.addPoint(totalDownloadsPoint);
+            }
+            return usageReportRest;
+        }
+
         if (dso instanceof org.dspace.content.Item) {
             Dataset dataset = this.getDSOStatsDataset(context, dso, 1, Constants.BITSTREAM);
 
@@ -275,6 +317,18 @@ public class UsageReportUtils {
      */
     private UsageReportRest resolveTopCountries(Context context, DSpaceObject dso)
         throws SQLException, IOException, ParseException, SolrServerException {
+        if (usageRollupService.isEnabled()) {
+            UsageReportRest usageReportRest = new UsageReportRest();
+            for (ObjectCount countryCount : usageRollupService.getViewsPerCountry(context, dso, 100)) {
+                UsageReportPointCountryRest countryPoint = new UsageReportPointCountryRest();
+                countryPoint.setLabel(LocationUtils.getCountryName(countryCount.getValue(),
+                                                                   context.getCurrentLocale()));
+                countryPoint.addValue("views", Math.toIntExact(countryCount.getCount()));
+                usageReportRest.addPoint(countryPoint);
+            }
+            return usageReportRest;
+        }
+
         Dataset dataset = this.getTypeStatsDataset(context, dso, "countryCode", 1);
 
         UsageReportRest usageReportRest = new UsageReportRest();
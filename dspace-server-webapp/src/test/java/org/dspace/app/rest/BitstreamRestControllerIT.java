@@ -298,6 +298,30 @@ public class BitstreamRestControllerIT extends AbstractControllerIntegrationTest
                        //We all remaining bytes, starting at byte 4
                        .andExpect(content().bytes("456789".getBytes()));
 
+            //** WHEN **
+            //We download a range of the bitstream we got the ETag of
+            getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                    .header("Range", "bytes=2-4")
+                                    .header("If-Range", "\"" + bitstream.getChecksum() + "\""))
+
+                       //** THEN **
+                       .andExpect(status().is(206))
+                       .andExpect(header().string("Content-Range", "bytes 2-4/10"))
+                       .andExpect(content().bytes("234".getBytes()));
+
+            //** WHEN **
+            //We download a range of a different version of the bitstream
+            getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                    .header("Range", "bytes=2-4")
+                                    .header("If-Range", "\"another checksum\""))
+
+                       //** THEN **
+                       //We get the whole bitstream
+                       .andExpect(status().isOk())
+                       .andExpect(header().longValue("Content-Length", 10))
+                       .andExpect(header().doesNotExist("Content-Range"))
+                       .andExpect(content().bytes("0123456789".getBytes()));
+
             //Check that NO statistics record was logged for the Range requests
             checkNumberOfStatsRecords(bitstream, 0);
     }
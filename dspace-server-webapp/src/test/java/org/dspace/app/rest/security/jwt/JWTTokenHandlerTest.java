@@ -8,7 +8,10 @@
 package org.dspace.app.rest.security.jwt;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.text.ParseException;
@@ -34,6 +37,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.keygen.KeyGenerators;
 import org.springframework.security.crypto.keygen.StringKeyGenerator;
@@ -70,6 +75,9 @@ public class JWTTokenHandlerTest {
     @Mock
     protected ClientInfoService clientInfoService;
 
+    @Mock
+    protected CacheManager cacheManager;
+
     @Spy
     protected List<JWTClaimProvider> jwtClaimProviders = new ArrayList<>();
 
@@ -152,4 +160,34 @@ public class JWTTokenHandlerTest {
         assertEquals(null, parsed);
     }
 
+    @Test
+    public void testVerifiedTokenIsCached() throws Exception {
+        when(cacheManager.getCache("jwtLoginTokens")).thenReturn(new ConcurrentMapCache("jwtLoginTokens"));
+        when(ePersonClaimProvider.getEPerson(any(), any())).thenReturn(ePerson);
+        String token = loginJWTTokenHandler
+            .createTokenForEPerson(context, new MockHttpServletRequest(), null);
+
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        // only verified once
+        verify(loginJWTTokenHandler, times(1)).isValidToken(any(), any(), any(), any());
+        verify(ePersonClaimProvider, times(2)).parseClaim(any(), any(), any());
+
+        // a new session salt (e.g. after logging out) invalidates the cached token
+        when(ePerson.getSessionSalt()).thenReturn("98765432109876543210987654321098");
+        assertNull(loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        when(cacheManager.getCache("jwtLoginTokens")).thenReturn(null);
+        when(ePersonClaimProvider.getEPerson(any(), any())).thenReturn(ePerson);
+        String token = loginJWTTokenHandler
+            .createTokenForEPerson(context, new MockHttpServletRequest(), null);
+
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        verify(loginJWTTokenHandler, times(2)).isValidToken(any(), any(), any(), any());
+    }
+
 }
@@ -20,7 +20,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationConverter;
@@ -28,7 +33,9 @@ import org.apache.commons.configuration2.builder.ConfigurationBuilderEvent;
 import org.apache.commons.configuration2.builder.combined.ReloadingCombinedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.Event;
+import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.dspace.services.ConfigurationService;
 import org.slf4j.Logger;
@@ -77,6 +84,27 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     // Current Configuration Definition File
     private String configDefinition = null;
 
+    // How often (in ms) reads check whether the builder reloaded the configuration
+    private static final long RELOAD_CHECK_INTERVAL = 1_000;
+
+    // Types of which the converted values are cached by the snapshots
+    private static final Set<Class<?>> CACHED_TYPES = Set.of(
+        BigDecimal.class, BigInteger.class, Boolean.class, boolean.class, Byte.class, byte.class, Double.class,
+        double.class, Float.class, float.class, Integer.class, int.class, List.class, Long.class, long.class,
+        Short.class, short.class);
+
+    // Snapshot of the current Configuration, which serves reads without locking
+    private volatile ConfigurationSnapshot snapshot = null;
+
+    // Counts changes to the Configuration. A snapshot of an older version is replaced on its next read
+    private final AtomicLong modifications = new AtomicLong();
+
+    // Next time a read checks for a reloaded configuration
+    private final AtomicLong nextReloadCheck = new AtomicLong();
+
+    // Configuration which notifies us of its changes
+    private Configuration listenedConfiguration = null;
+
     /**
      * Initializes a ConfigurationService based on default values. The DSpace
      * Home directory is determined based on system properties / searching.
@@ -177,7 +205,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name) {
+    public String getProperty(String name) {
         return getProperty(name, null);
     }
 
@@ -188,7 +216,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      * @see org.dspace.services.ConfigurationService#getProperty(java.lang.String, java.lang.String)
      */
     @Override
-    public synchronized String getProperty(String name, String defaultValue) {
+    public String getProperty(String name, String defaultValue) {
         return getPropertyAsType(name, defaultValue);
     }
 
@@ -339,11 +367,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @Override
     public boolean hasProperty(String name) {
-        if (getConfiguration().containsKey(name)) {
-            return true;
-        } else {
-            return false;
-        }
+        return getSnapshot().containsKey(name);
     }
 
     @Override
@@ -556,6 +580,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
 
             // Finally, (re)set any dynamic, default properties
             setDynamicProperties();
+            modifications.incrementAndGet();
         } catch (ConfigurationException ce) {
             log.error("Unable to reload configurations based on definition at " + this.configDefinition, ce);
         }
@@ -696,9 +721,55 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     }
 
     /**
-     * Convert the value of a given property to a specific object type.
-     * <P>
-     * Note: in most cases we can just use Configuration get*() methods.
+     * Returns the snapshot of the current Configuration, replacing it first if the Configuration changed or was
+     * reloaded since it was taken.
+     *
+     * @return current snapshot
+     */
+    private ConfigurationSnapshot getSnapshot() {
+        ConfigurationSnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        long check = nextReloadCheck.get();
+        if (current != null && now >= check && nextReloadCheck.compareAndSet(check, now + RELOAD_CHECK_INTERVAL)) {
+            // getConfiguration() runs the reloading checks of the builder, which creates a new Configuration when
+            // one of the reloadable files changed
+            if (getConfiguration() != current.configuration) {
+                modifications.incrementAndGet();
+            }
+        }
+        if (current == null || current.version != modifications.get()) {
+            current = createSnapshot();
+        }
+        return current;
+    }
+
+    /**
+     * Takes a new snapshot of the current Configuration, unless another thread already did.
+     *
+     * @return current snapshot
+     */
+    private synchronized ConfigurationSnapshot createSnapshot() {
+        // read the version first, so changes made while the snapshot is used invalidate it
+        long version = modifications.get();
+        ConfigurationSnapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        Configuration configuration = getConfiguration();
+        if (configuration != listenedConfiguration && configuration instanceof EventSource) {
+            // any change to the Configuration (set, add, clear, invalidate...) invalidates its snapshots
+            EventSource eventSource = (EventSource) configuration;
+            eventSource.addEventListener(ConfigurationEvent.ANY, (e) -> modifications.incrementAndGet());
+            listenedConfiguration = configuration;
+        }
+        current = new ConfigurationSnapshot(configuration, version);
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * Convert the value of a given property to a specific object type, reusing the value converted by an earlier
+     * read of the current snapshot if possible.
      *
      * @param name Key of the property to convert
      * @param <T>  object type
@@ -706,9 +777,10 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @SuppressWarnings("unchecked")
     private <T> T convert(String name, Class<T> type) {
+        ConfigurationSnapshot current = getSnapshot();
 
         // If this key doesn't exist, just return null
-        if (!getConfiguration().containsKey(name)) {
+        if (!current.containsKey(name)) {
             // Special case. For booleans, return false if key doesn't exist
             if (Boolean.class.equals(type) || boolean.class.equals(type)) {
                 return (T) Boolean.FALSE;
@@ -717,36 +789,92 @@ public final class DSpaceConfigurationService implements ConfigurationService {
             }
         }
 
+        if (type.isArray()) {
+            // arrays and lists are copied, as callers may modify them
+            return (T) current.getValue(name, type, () -> convert(current.configuration, name, type))
+                              .map(array -> ((String[]) array).clone()).orElse(null);
+        } else if (List.class.equals(type)) {
+            return (T) current.getValue(name, type, () -> convert(current.configuration, name, type))
+                              .map(list -> new ArrayList<>((List<?>) list)).orElse(null);
+        } else if (type.isAssignableFrom(String.class) || CACHED_TYPES.contains(type)) {
+            return (T) current.getValue(name, type, () -> convert(current.configuration, name, type)).orElse(null);
+        } else {
+            return convert(current.configuration, name, type);
+        }
+    }
+
+    /**
+     * Convert the value of a given property to a specific object type.
+     * <P>
+     * Note: in most cases we can just use Configuration get*() methods.
+     *
+     * @param configuration Configuration to read the property from
+     * @param name Key of the property to convert
+     * @param <T>  object type
+     * @return converted value
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T convert(Configuration configuration, String name, Class<T> type) {
         // Based on the type of class, call the appropriate
         // method of the Configuration object
         if (type.isArray()) {
-            return (T) getConfiguration().getStringArray(name);
+            return (T) configuration.getStringArray(name);
         } else if (String.class.equals(type) || type.isAssignableFrom(String.class)) {
-            return (T) getConfiguration().getString(name);
+            return (T) configuration.getString(name);
         } else if (BigDecimal.class.equals(type)) {
-            return (T) getConfiguration().getBigDecimal(name);
+            return (T) configuration.getBigDecimal(name);
         } else if (BigInteger.class.equals(type)) {
-            return (T) getConfiguration().getBigInteger(name);
+            return (T) configuration.getBigInteger(name);
         } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
-            return (T) Boolean.valueOf(getConfiguration().getBoolean(name));
+            return (T) Boolean.valueOf(configuration.getBoolean(name));
         } else if (Byte.class.equals(type) || byte.class.equals(type)) {
-            return (T) Byte.valueOf(getConfiguration().getByte(name));
+            return (T) Byte.valueOf(configuration.getByte(name));
         } else if (Double.class.equals(type) || double.class.equals(type)) {
-            return (T) Double.valueOf(getConfiguration().getDouble(name));
+            return (T) Double.valueOf(configuration.getDouble(name));
         } else if (Float.class.equals(type) || float.class.equals(type)) {
-            return (T) Float.valueOf(getConfiguration().getFloat(name));
+            return (T) Float.valueOf(configuration.getFloat(name));
         } else if (Integer.class.equals(type) || int.class.equals(type)) {
-            return (T) Integer.valueOf(getConfiguration().getInt(name));
+            return (T) Integer.valueOf(configuration.getInt(name));
         } else if (List.class.equals(type)) {
-            return (T) getConfiguration().getList(name);
+            return (T) configuration.getList(name);
         } else if (Long.class.equals(type) || long.class.equals(type)) {
-            return (T) Long.valueOf(getConfiguration().getLong(name));
+            return (T) Long.valueOf(configuration.getLong(name));
         } else if (Short.class.equals(type) || short.class.equals(type)) {
-            return (T) Short.valueOf(getConfiguration().getShort(name));
+            return (T) Short.valueOf(configuration.getShort(name));
         } else {
             // If none of the above works, try to convert the value to the required type
             SimpleTypeConverter converter = new SimpleTypeConverter();
-            return (T) converter.convertIfNecessary(getConfiguration().getProperty(name), type);
+            return (T) converter.convertIfNecessary(configuration.getProperty(name), type);
+        }
+    }
+
+    /**
+     * Immutable view of one version of the Configuration. Which keys exist, and their values converted to the
+     * requested types, are looked up in the Configuration once and then kept for the later reads of this version.
+     * Values which can't be converted (e.g. circular references) are not kept, so every read fails like before.
+     */
+    private static final class ConfigurationSnapshot {
+
+        private final Configuration configuration;
+
+        private final long version;
+
+        private final Map<String, Boolean> keys = new ConcurrentHashMap<>();
+
+        private final Map<Class<?>, Map<String, Optional<Object>>> values = new ConcurrentHashMap<>();
+
+        ConfigurationSnapshot(Configuration configuration, long version) {
+            this.configuration = configuration;
+            this.version = version;
+        }
+
+        boolean containsKey(String name) {
+            return keys.computeIfAbsent(name, configuration::containsKey);
+        }
+
+        Optional<Object> getValue(String name, Class<?> type, Supplier<Object> converter) {
+            return values.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                         .computeIfAbsent(name, n -> Optional.ofNullable(converter.get()));
         }
     }
 }
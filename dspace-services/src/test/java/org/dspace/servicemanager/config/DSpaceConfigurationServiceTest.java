@@ -18,6 +18,7 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -464,6 +465,45 @@ public class DSpaceConfigurationServiceTest {
         assertEquals(numPropsLoaded, configurationService.getProperties().size());
     }
 
+    /**
+     * Tests that values read before a change are not returned after it, whichever way the change is made.
+     */
+    @Test
+    public void testChangesAfterReads() {
+        assertEquals(123, configurationService.getIntProperty("sample.number"));
+        assertEquals("123", configurationService.getProperty("sample.number"));
+
+        configurationService.setProperty("sample.number", "456");
+        assertEquals(456, configurationService.getIntProperty("sample.number"));
+        assertEquals("456", configurationService.getProperty("sample.number"));
+
+        // changes made directly to the Configuration are seen as well
+        configurationService.getConfiguration().setProperty("sample.number", "789");
+        assertEquals(789, configurationService.getIntProperty("sample.number"));
+
+        // as are changes to the properties the value refers to
+        assertEquals("Aaron Zeckoski", configurationService.getProperty("current.user"));
+        configurationService.setProperty("aaronz", "Aaron");
+        assertEquals("Aaron", configurationService.getProperty("current.user"));
+
+        configurationService.clearConfig("sample.number");
+        assertFalse(configurationService.hasProperty("sample.number"));
+        assertEquals(1, configurationService.getIntProperty("sample.number", 1));
+    }
+
+    /**
+     * Tests that arrays returned by the configuration service can be modified without changing the configuration.
+     */
+    @Test
+    public void testArraysAreCopied() {
+        String[] array = configurationService.getArrayProperty("sample.array");
+        array[0] = "itemX";
+        assertEquals("itemA", configurationService.getArrayProperty("sample.array")[0]);
+
+        configurationService.getPropertyAsType("sample.array", List.class).clear();
+        assertEquals(3, configurationService.getPropertyAsType("sample.array", List.class).size());
+    }
+
     /**
      * Test method for {@link org.dspace.servicemanager.config.DSpaceConfigurationService#clear()}.
      */